@@ -0,0 +1,93 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.cfg.CFG;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.plugins.java.api.JavaVersion;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+
+/**
+ * Construction of the control flow graphs of all the methods of a large compilation unit. The graphs are built with
+ * {@link CFG#build(MethodTree)}, bypassing the graphs cached by the method trees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CFGBuildBenchmark {
+
+  /**
+   * Relative to the directory of this module.
+   */
+  @Param({
+    "../java-frontend/src/main/java/org/sonar/java/model/JParser.java",
+    "../java-frontend/src/main/java/org/sonar/java/cfg/CFG.java"
+  })
+  public String sourceFile;
+
+  private final List<MethodTree> methods = new ArrayList<>();
+
+  @Setup
+  public void setup() throws IOException {
+    String source = Files.readString(Path.of(sourceFile));
+    JavaVersion version = JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION;
+    CompilationUnitTree compilationUnit = JParser.parse(JParserConfig.Mode.FILE_BY_FILE.create(version, List.of()).astParser(),
+      version.toString(), "Benchmarked", source);
+    methods.clear();
+    compilationUnit.accept(new BaseTreeVisitor() {
+      @Override
+      public void visitMethod(MethodTree tree) {
+        if (tree.block() != null) {
+          methods.add(tree);
+        }
+        super.visitMethod(tree);
+      }
+    });
+  }
+
+  @Benchmark
+  public void build(Blackhole blackhole) {
+    for (MethodTree method : methods) {
+      blackhole.consume(CFG.build(method));
+    }
+  }
+
+}
@@ -0,0 +1,425 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.sonar.api.SonarEdition;
+import org.sonar.api.SonarQubeSide;
+import org.sonar.api.SonarRuntime;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultFileSystem;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.rule.ActiveRules;
+import org.sonar.api.batch.rule.CheckFactory;
+import org.sonar.api.batch.rule.internal.ActiveRulesBuilder;
+import org.sonar.api.batch.rule.internal.NewActiveRule;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.api.internal.SonarRuntimeImpl;
+import org.sonar.api.issue.NoSonarFilter;
+import org.sonar.api.measures.FileLinesContext;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.utils.AnnotationUtils;
+import org.sonar.api.utils.Version;
+import org.sonar.check.Rule;
+import org.sonar.java.DefaultJavaResourceLocator;
+import org.sonar.java.GeneratedCheckList;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.checks.verifier.internal.InternalReadCache;
+import org.sonar.java.checks.verifier.internal.InternalWriteCache;
+import org.sonar.java.classpath.ClasspathForMain;
+import org.sonar.java.classpath.ClasspathForTest;
+import org.sonar.java.filters.PostAnalysisIssueFilter;
+import org.sonar.java.se.plugin.JavaSECheckList;
+import org.sonar.java.se.plugin.JavaSECheckRegistrar;
+import org.sonar.plugins.java.JavaSensor;
+import org.sonar.plugins.java.api.CheckRegistrar;
+import org.sonarsource.analyzer.commons.BuiltInQualityProfileJsonLoader;
+import org.sonarsource.performance.measure.DurationMeasure;
+import org.sonarsource.performance.measure.DurationMeasureFiles;
+
+/**
+ * Runs {@link JavaSensor} end-to-end on a directory, without SonarQube server nor scanner, and reports how long the analysis took,
+ * how much it allocated and its peak heap, as JSON. The report of a previous run can be given as baseline: the analysis then fails
+ * when one of its measures regressed by more than a tolerance.
+ * <p>
+ * Usage, from the directory of this module once packaged with the {@code benchmarks} profile:
+ * <pre>
+ * java -cp target/benchmarks.jar org.sonar.java.benchmarks.LocalAnalysis &lt;project directory&gt; [options] [sonar.property=value...]
+ *   --profile=sonar-way|all|&lt;file&gt;  rules to run: Sonar way (default), all the rules, or the "ruleKeys" of a JSON profile file
+ *   --runs=N                         number of measured analyses (default 1), the median being compared to the baseline
+ *   --warmups=N                      number of analyses run before the measured ones (default 0)
+ *   --cache                          each analysis reads the cache written by the previous one
+ *   --output=&lt;file&gt;                 report to write (default local-analysis.json)
+ *   --baseline=&lt;file&gt;               report to compare to
+ *   --tolerance=T                    accepted relative increase of the measures (default 0.1)
+ * </pre>
+ * The classpath of the project is given with the usual properties, like {@code sonar.java.libraries} and
+ * {@code sonar.java.binaries}. Files in a {@code src/test} directory are analyzed as test files, the others as main files.
+ */
+public final class LocalAnalysis {
+
+  private static final String SONAR_WAY_PATH = "/org/sonar/l10n/java/rules/java/Sonar_way_profile.json";
+  private static final String SE_SONAR_WAY_PATH = "/org/sonar/l10n/java/rules/javase/Sonar_way_profile.json";
+  private static final SonarRuntime RUNTIME = SonarRuntimeImpl.forSonarQube(Version.create(10, 8), SonarQubeSide.SCANNER, SonarEdition.COMMUNITY);
+  private static final FileLinesContext NO_FILE_LINES_CONTEXT = new FileLinesContext() {
+    @Override
+    public void setIntValue(String metricKey, int line, int value) {
+      // measures by line are not kept
+    }
+
+    @Override
+    public void setStringValue(String metricKey, int line, String value) {
+      // measures by line are not kept
+    }
+
+    @Override
+    public void save() {
+      // measures by line are not kept
+    }
+  };
+
+  private static final NoSonarFilter NO_SONAR_FILTER = new NoSonarFilter() {
+    @Override
+    public NoSonarFilter noSonarInFile(InputFile inputFile, Set<Integer> noSonarLines) {
+      // issues are not filtered
+      return this;
+    }
+  };
+
+  /**
+   * Measures compared to the baseline.
+   */
+  static final List<String> COMPARED_MEASURES = List.of("wallTimeMs", "cpuTimeMs", "allocatedBytes", "peakHeapBytes");
+
+  private final Path projectDirectory;
+  private final Map<String, String> properties;
+  private final Set<String> ruleKeys;
+  private final List<InputFile> inputFiles;
+
+  private LocalAnalysis(Path projectDirectory, Map<String, String> properties, Set<String> ruleKeys) throws IOException {
+    this.projectDirectory = projectDirectory.toAbsolutePath().normalize();
+    this.properties = properties;
+    this.ruleKeys = ruleKeys;
+    this.inputFiles = inputFiles(this.projectDirectory);
+  }
+
+  public static void main(String[] args) throws IOException {
+    Options options = Options.parse(args);
+    LocalAnalysis analysis = new LocalAnalysis(options.projectDirectory, options.properties, ruleKeys(options.profile));
+    PrintStream out = System.out;
+    out.printf("Analyzing %d files of %s with %d rules%n", analysis.inputFiles.size(), analysis.projectDirectory, analysis.ruleKeys.size());
+
+    InternalWriteCache cache = null;
+    for (int i = 0; i < options.warmups; i++) {
+      cache = analysis.run(options.cache, cache).cache;
+      out.printf("Warmup %d done%n", i + 1);
+    }
+    List<Run> runs = new ArrayList<>();
+    for (int i = 0; i < options.runs; i++) {
+      Run run = analysis.run(options.cache, cache);
+      cache = run.cache;
+      runs.add(run);
+      out.printf("Run %d: %s%n", i + 1, run.measures);
+    }
+
+    JsonObject report = report(options, analysis, runs);
+    Files.writeString(options.output, gson().toJson(report), StandardCharsets.UTF_8);
+    out.printf("Report written to %s%n", options.output);
+
+    if (options.baseline != null) {
+      JsonObject baseline;
+      try (Reader reader = Files.newBufferedReader(options.baseline, StandardCharsets.UTF_8)) {
+        baseline = gson().fromJson(reader, JsonObject.class);
+      }
+      List<String> regressions = regressions(baseline.getAsJsonObject("median"), report.getAsJsonObject("median"), options.tolerance, out);
+      if (!regressions.isEmpty()) {
+        out.printf("Regressions compared to %s: %s%n", options.baseline, String.join(", ", regressions));
+        System.exit(1);
+      }
+    }
+  }
+
+  /**
+   * Result of one analysis.
+   */
+  private record Run(Map<String, Long> measures, DurationMeasure phases, InternalWriteCache cache) {
+  }
+
+  private Run run(boolean useCache, InternalWriteCache previousCache) throws IOException {
+    SensorContextTester context = SensorContextTester.create(projectDirectory).setRuntime(RUNTIME);
+    Path performanceMeasureFile = Files.createTempFile("local-analysis", ".json");
+    Files.delete(performanceMeasureFile);
+    MapSettings settings = new MapSettings();
+    settings.setProperty(SonarComponents.PERFORMANCE_MEASURE_ACTIVATION_KEY, "true");
+    settings.setProperty(SonarComponents.PERFORMANCE_MEASURE_FILE_PATH_PROPERTY, performanceMeasureFile.toString());
+    properties.forEach(settings::setProperty);
+    context.setSettings(settings);
+    DefaultFileSystem fs = context.fileSystem();
+    fs.setWorkDir(Files.createTempDirectory("local-analysis"));
+    inputFiles.forEach(fs::add);
+
+    InternalWriteCache nextCache = new InternalWriteCache();
+    if (useCache) {
+      InternalReadCache readCache = new InternalReadCache();
+      if (previousCache != null) {
+        readCache.putAll(previousCache);
+      }
+      nextCache.bind(readCache);
+      context.setPreviousCache(readCache);
+      context.setNextCache(nextCache);
+      context.setCacheEnabled(true);
+      context.setCanSkipUnchangedFiles(previousCache != null);
+    }
+
+    ClasspathForMain classpathForMain = new ClasspathForMain(context.config(), fs);
+    ClasspathForTest classpathForTest = new ClasspathForTest(context.config(), fs);
+    ActiveRules activeRules = activeRules(ruleKeys);
+    SonarComponents sonarComponents = new SonarComponents(inputFile -> NO_FILE_LINES_CONTEXT, fs, classpathForMain, classpathForTest,
+      new CheckFactory(activeRules), activeRules, new CheckRegistrar[] {new JavaSECheckRegistrar(RUNTIME, context.config())});
+    JavaSensor sensor = new JavaSensor(sonarComponents, fs, new DefaultJavaResourceLocator(classpathForMain, classpathForTest),
+      context.config(), NO_SONAR_FILTER, new PostAnalysisIssueFilter());
+
+    Measurement measurement = Measurement.start();
+    sensor.execute(context);
+    Map<String, Long> measures = measurement.stop();
+    measures.put("issues", (long) context.allIssues().size());
+
+    DurationMeasure phases = DurationMeasureFiles.fromJson(performanceMeasureFile);
+    Files.delete(performanceMeasureFile);
+    return new Run(measures, phases, nextCache);
+  }
+
+  private static List<InputFile> inputFiles(Path projectDirectory) throws IOException {
+    List<Path> paths;
+    try (Stream<Path> walk = Files.walk(projectDirectory)) {
+      paths = walk.filter(path -> path.toString().endsWith(".java") && Files.isRegularFile(path)).sorted().toList();
+    }
+    List<InputFile> inputFiles = new ArrayList<>(paths.size());
+    for (Path path : paths) {
+      String relativePath = projectDirectory.relativize(path).toString().replace('\\', '/');
+      InputFile.Type type = relativePath.startsWith("src/test/") || relativePath.contains("/src/test/") ? InputFile.Type.TEST : InputFile.Type.MAIN;
+      inputFiles.add(new TestInputFileBuilder("project", relativePath)
+        .setModuleBaseDir(projectDirectory)
+        .setLanguage("java")
+        .setType(type)
+        .setCharset(StandardCharsets.UTF_8)
+        .initMetadata(Files.readString(path, StandardCharsets.UTF_8))
+        .build());
+    }
+    return inputFiles;
+  }
+
+  private static Set<String> ruleKeys(String profile) throws IOException {
+    Set<String> ruleKeys = new HashSet<>();
+    switch (profile) {
+      case "sonar-way" -> {
+        ruleKeys.addAll(BuiltInQualityProfileJsonLoader.loadActiveKeysFromJsonProfile(SONAR_WAY_PATH));
+        ruleKeys.addAll(BuiltInQualityProfileJsonLoader.loadActiveKeysFromJsonProfile(SE_SONAR_WAY_PATH));
+      }
+      case "all" -> {
+        GeneratedCheckList.getChecks().forEach(check -> ruleKeys.add(AnnotationUtils.getAnnotation(check, Rule.class).key()));
+        JavaSECheckList.getChecks().forEach(check -> ruleKeys.add(AnnotationUtils.getAnnotation(check, Rule.class).key()));
+      }
+      default -> {
+        try (Reader reader = Files.newBufferedReader(Path.of(profile), StandardCharsets.UTF_8)) {
+          gson().fromJson(reader, JsonObject.class).getAsJsonArray("ruleKeys").forEach(key -> ruleKeys.add(key.getAsString()));
+        }
+      }
+    }
+    return ruleKeys;
+  }
+
+  private static ActiveRules activeRules(Set<String> ruleKeys) {
+    ActiveRulesBuilder builder = new ActiveRulesBuilder();
+    ruleKeys.forEach(key -> builder.addRule(new NewActiveRule.Builder().setRuleKey(RuleKey.of(GeneratedCheckList.REPOSITORY_KEY, key)).build()));
+    return builder.build();
+  }
+
+  private static JsonObject report(Options options, LocalAnalysis analysis, List<Run> runs) {
+    JsonObject report = new JsonObject();
+    report.addProperty("project", analysis.projectDirectory.toString());
+    report.addProperty("profile", options.profile);
+    report.addProperty("rules", analysis.ruleKeys.size());
+    report.addProperty("files", analysis.inputFiles.size());
+    report.addProperty("javaVersion", Runtime.version().toString());
+    report.addProperty("maxHeapBytes", Runtime.getRuntime().maxMemory());
+    report.add("runs", gson().toJsonTree(runs.stream().map(Run::measures).toList()));
+    JsonObject median = new JsonObject();
+    runs.get(0).measures.keySet().forEach(key -> median.addProperty(key, median(runs, key)));
+    report.add("median", median);
+    report.add("phases", DurationMeasureFiles.toJsonObject(runs.get(runs.size() - 1).phases));
+    return report;
+  }
+
+  private static long median(List<Run> runs, String key) {
+    long[] values = runs.stream().mapToLong(run -> run.measures.get(key)).sorted().toArray();
+    return values[values.length / 2];
+  }
+
+  /**
+   * @return the names of the measures which increased by more than the tolerance compared to the baseline
+   */
+  static List<String> regressions(JsonObject baseline, JsonObject current, double tolerance, PrintStream out) {
+    List<String> regressions = new ArrayList<>();
+    for (String key : COMPARED_MEASURES) {
+      if (!baseline.has(key) || !current.has(key)) {
+        continue;
+      }
+      long before = baseline.get(key).getAsLong();
+      long after = current.get(key).getAsLong();
+      double change = before == 0 ? 0 : ((double) (after - before) / before);
+      out.printf("%-15s %,16d -> %,16d (%+.1f%%)%n", key, before, after, change * 100);
+      if (change > tolerance) {
+        regressions.add(key);
+      }
+    }
+    if (baseline.has("issues") && current.has("issues") && baseline.get("issues").getAsLong() != current.get("issues").getAsLong()) {
+      out.printf("The number of issues changed: %d -> %d%n", baseline.get("issues").getAsLong(), current.get("issues").getAsLong());
+    }
+    return regressions;
+  }
+
+  private static Gson gson() {
+    return new GsonBuilder().setPrettyPrinting().create();
+  }
+
+  /**
+   * Resource usage of the JVM during an analysis. The CPU time is the one of the process, the allocations those of the threads alive
+   * at the end of the analysis, which the sensor runs on, and the peak heap is the sum of the peaks of the heap memory pools.
+   */
+  private static final class Measurement {
+
+    private final long startNanos;
+    private final long startCpuNanos;
+    private final long startAllocatedBytes;
+    private final long startGcCount;
+    private final long startGcMillis;
+
+    private Measurement() {
+      ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP)
+        .forEach(MemoryPoolMXBean::resetPeakUsage);
+      startGcCount = gcCount();
+      startGcMillis = gcMillis();
+      startAllocatedBytes = allocatedBytes();
+      startCpuNanos = cpuNanos();
+      startNanos = System.nanoTime();
+    }
+
+    static Measurement start() {
+      return new Measurement();
+    }
+
+    Map<String, Long> stop() {
+      long wallNanos = System.nanoTime() - startNanos;
+      Map<String, Long> measures = new LinkedHashMap<>();
+      measures.put("wallTimeMs", wallNanos / 1_000_000);
+      measures.put("cpuTimeMs", (cpuNanos() - startCpuNanos) / 1_000_000);
+      measures.put("allocatedBytes", allocatedBytes() - startAllocatedBytes);
+      measures.put("peakHeapBytes", ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP)
+        .mapToLong(pool -> pool.getPeakUsage().getUsed())
+        .sum());
+      measures.put("gcCount", gcCount() - startGcCount);
+      measures.put("gcTimeMs", gcMillis() - startGcMillis);
+      return measures;
+    }
+
+    private static long cpuNanos() {
+      return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+
+    private static long allocatedBytes() {
+      com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      return LongStream.of(threadMXBean.getThreadAllocatedBytes(threadMXBean.getAllThreadIds())).filter(bytes -> bytes > 0).sum();
+    }
+
+    private static long gcCount() {
+      return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+      return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+  }
+
+  private static final class Options {
+    private Path projectDirectory;
+    private final Map<String, String> properties = new LinkedHashMap<>();
+    private String profile = "sonar-way";
+    private int runs = 1;
+    private int warmups = 0;
+    private boolean cache = false;
+    private Path output = Path.of("local-analysis.json");
+    private Path baseline;
+    private double tolerance = 0.1;
+
+    static Options parse(String[] args) {
+      Options options = new Options();
+      for (String arg : args) {
+        String value = arg.substring(arg.indexOf('=') + 1);
+        if (arg.startsWith("--profile=")) {
+          options.profile = value;
+        } else if (arg.startsWith("--runs=")) {
+          options.runs = Math.max(1, Integer.parseInt(value));
+        } else if (arg.startsWith("--warmups=")) {
+          options.warmups = Integer.parseInt(value);
+        } else if (arg.equals("--cache")) {
+          options.cache = true;
+        } else if (arg.startsWith("--output=")) {
+          options.output = Path.of(value);
+        } else if (arg.startsWith("--baseline=")) {
+          options.baseline = Path.of(value);
+        } else if (arg.startsWith("--tolerance=")) {
+          options.tolerance = Double.parseDouble(value);
+        } else if (arg.startsWith("--")) {
+          throw new IllegalArgumentException("Unknown option: " + arg);
+        } else if (arg.contains("=")) {
+          options.properties.put(arg.substring(0, arg.indexOf('=')), value);
+        } else {
+          options.projectDirectory = Path.of(arg);
+        }
+      }
+      if (options.projectDirectory == null) {
+        throw new IllegalArgumentException("Missing project directory, see the documentation of " + LocalAnalysis.class.getName());
+      }
+      return options;
+    }
+  }
+
+}
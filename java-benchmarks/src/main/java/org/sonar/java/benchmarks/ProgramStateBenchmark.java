@@ -0,0 +1,158 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.model.DefaultJavaFileScannerContext;
+import org.sonar.java.model.GeneratedFile;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.reporting.AnalyzerMessage;
+import org.sonar.java.se.CheckerContext;
+import org.sonar.java.se.ProgramState;
+import org.sonar.java.se.SymbolicExecutionVisitor;
+import org.sonar.java.se.checks.SECheck;
+import org.sonar.java.se.constraint.BooleanConstraint;
+import org.sonar.java.se.constraint.Constraint;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.constraint.ObjectConstraint;
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
+import org.sonar.plugins.java.api.JavaVersion;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Hashing and comparison of the program states and constraints reached by the symbolic execution of the SE test sources.
+ * The states are recorded once, after each statement, by a check: only their deduplication is measured, as done by
+ * {@link org.sonar.java.se.ExplodedGraph#node} for the nodes of the graph, and the building of their constraints.
+ * Run on the revisions to compare, with the GC profiler ({@code -prof gc}) to see the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProgramStateBenchmark {
+
+  private static final Constraint[] RECORDED_CONSTRAINTS = {ObjectConstraint.NULL, ObjectConstraint.NOT_NULL, BooleanConstraint.TRUE,
+    BooleanConstraint.FALSE};
+
+  /**
+   * Relative to the directory of this module.
+   */
+  @Param({
+    "../java-symbolic-execution/java-symbolic-execution-plugin/src/test/files/se",
+    "../java-symbolic-execution/java-symbolic-execution-checks-test-sources/src/main/java"
+  })
+  public String sourceDirectory;
+
+  private final List<ProgramState> states = new ArrayList<>();
+  private final List<ConstraintsByDomain> constraints = new ArrayList<>();
+
+  @Setup
+  public void setup() throws IOException {
+    JavaVersion version = JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION;
+    states.clear();
+    constraints.clear();
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(Path.of(sourceDirectory))) {
+      files = paths.filter(path -> path.toString().endsWith(".java")).sorted().toList();
+    }
+    SymbolicExecutionVisitor visitor = new SymbolicExecutionVisitor(List.of(new StateRecorder()));
+    for (Path file : files) {
+      JavaTree.CompilationUnitTreeImpl tree;
+      try {
+        tree = JParser.parse(JParserConfig.Mode.FILE_BY_FILE.create(version, List.of()).astParser(),
+          version.toString(), file.getFileName().toString(), Files.readString(file));
+      } catch (RuntimeException e) {
+        // some test sources do not compile on purpose
+        continue;
+      }
+      visitor.scanFile(new DefaultJavaFileScannerContext(tree, new GeneratedFile(file), tree.sema, null, version, true, false) {
+        @Override
+        public void reportIssue(AnalyzerMessage message) {
+          // issues are not saved
+        }
+      });
+    }
+  }
+
+  @Benchmark
+  public Map<ProgramState, ProgramState> deduplicateStates() {
+    Map<ProgramState, ProgramState> uniqueStates = new HashMap<>();
+    for (ProgramState state : states) {
+      uniqueStates.putIfAbsent(state, state);
+    }
+    return uniqueStates;
+  }
+
+  @Benchmark
+  public Map<ConstraintsByDomain, ConstraintsByDomain> deduplicateConstraints() {
+    Map<ConstraintsByDomain, ConstraintsByDomain> uniqueConstraints = new HashMap<>();
+    for (ConstraintsByDomain constraintsOfValue : constraints) {
+      uniqueConstraints.putIfAbsent(constraintsOfValue, constraintsOfValue);
+    }
+    return uniqueConstraints;
+  }
+
+  @Benchmark
+  public void buildConstraints(Blackhole blackhole) {
+    for (ConstraintsByDomain constraintsOfValue : constraints) {
+      ConstraintsByDomain[] built = {ConstraintsByDomain.empty()};
+      constraintsOfValue.forEach((domain, constraint) -> built[0] = built[0].put(constraint));
+      blackhole.consume(built[0]);
+    }
+  }
+
+  private class StateRecorder extends SECheck {
+
+    @Override
+    public ProgramState checkPostStatement(CheckerContext context, Tree syntaxNode) {
+      ProgramState state = context.getState();
+      states.add(state);
+      for (Constraint constraint : RECORDED_CONSTRAINTS) {
+        for (SymbolicValue value : state.getValuesWithConstraints(constraint)) {
+          constraints.add(state.getConstraints(value));
+        }
+      }
+      return state;
+    }
+
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.model.ExpressionUtils;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.regex.RegexCache;
+import org.sonar.plugins.java.api.JavaVersion;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.ExpressionTree;
+import org.sonar.plugins.java.api.tree.LiteralTree;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
+
+/**
+ * Parsing of the regular expressions of the regex test sources through {@link RegexCache}, as done by the regex rules.
+ * The regular expressions are the string literals passed to the methods of {@code Pattern} and {@code String} taking one,
+ * found syntactically. {@link #parse} measures the parsing with an empty cache, as for the first rule asking for a regular
+ * expression, {@link #lookup} the cache hits of the other rules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegexCacheBenchmark {
+
+  private static final Set<String> REGEX_METHODS = Set.of("compile", "matches", "replaceAll", "replaceFirst", "split");
+
+  /**
+   * Relative to the directory of this module.
+   */
+  @Param({"../java-checks-test-sources/default/src/main/java/checks/regex"})
+  public String sourceDirectory;
+
+  private final List<LiteralTree> regexLiterals = new ArrayList<>();
+  private RegexCache warmCache;
+
+  @Setup
+  public void setup() throws IOException {
+    JavaVersion version = JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION;
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(Path.of(sourceDirectory))) {
+      files = paths.filter(path -> path.toString().endsWith(".java")).sorted().toList();
+    }
+    regexLiterals.clear();
+    for (Path file : files) {
+      CompilationUnitTree tree = JParser.parse(JParserConfig.Mode.FILE_BY_FILE.create(version, List.of()).astParser(),
+        version.toString(), file.getFileName().toString(), Files.readString(file));
+      tree.accept(new BaseTreeVisitor() {
+        @Override
+        public void visitMethodInvocation(MethodInvocationTree tree) {
+          if (REGEX_METHODS.contains(ExpressionUtils.methodName(tree).name()) && !tree.arguments().isEmpty()) {
+            ExpressionTree regex = ExpressionUtils.skipParentheses(tree.arguments().get(0));
+            if (regex.is(Tree.Kind.STRING_LITERAL, Tree.Kind.TEXT_BLOCK)) {
+              regexLiterals.add((LiteralTree) regex);
+            }
+          }
+          super.visitMethodInvocation(tree);
+        }
+      });
+    }
+    warmCache = new RegexCache();
+    parse(warmCache);
+  }
+
+  @Benchmark
+  public RegexCache parse() {
+    RegexCache cache = new RegexCache();
+    parse(cache);
+    return cache;
+  }
+
+  @Benchmark
+  public void lookup(Blackhole blackhole) {
+    for (LiteralTree literal : regexLiterals) {
+      blackhole.consume(warmCache.getRegexForLiterals(new FlagSet(), literal));
+    }
+  }
+
+  private void parse(RegexCache cache) {
+    for (LiteralTree literal : regexLiterals) {
+      cache.getRegexForLiterals(new FlagSet(), literal);
+    }
+  }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.utils.AnnotationUtils;
+import org.sonar.check.Rule;
+import org.sonar.java.GeneratedCheckList;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.model.DefaultJavaFileScannerContext;
+import org.sonar.java.model.GeneratedFile;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.java.reporting.AnalyzerMessage;
+import org.sonar.java.se.SymbolicExecutionVisitor;
+import org.sonar.java.se.checks.SECheck;
+import org.sonar.java.se.plugin.JavaSECheckList;
+import org.sonar.plugins.java.api.JavaCheck;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.JavaVersion;
+import org.sonar.plugins.java.api.semantic.Sema;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonarsource.analyzer.commons.BuiltInQualityProfileJsonLoader;
+
+/**
+ * Analysis of test sources with all the rules of the Sonar way profile, symbolic execution included, as dispatched by
+ * {@link VisitorsBridge#visitFile}. The files are parsed once, without classpath, and the issues are dropped.
+ * Rule templates, which need to be configured, are not part of the profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SonarWayBenchmark {
+
+  private static final String SONAR_WAY_PATH = "/org/sonar/l10n/java/rules/java/Sonar_way_profile.json";
+  private static final String SE_SONAR_WAY_PATH = "/org/sonar/l10n/java/rules/javase/Sonar_way_profile.json";
+
+  /**
+   * Relative to the directory of this module.
+   */
+  @Param({
+    "../java-checks-test-sources/default/src/main/java/checks/security",
+    "../java-checks-test-sources/default/src/main/java/checks/spring"
+  })
+  public String sourceDirectory;
+
+  private final List<AnalyzedFile> files = new ArrayList<>();
+  private VisitorsBridge visitorsBridge;
+
+  private record AnalyzedFile(JavaTree.CompilationUnitTreeImpl tree, InputFile inputFile) {
+  }
+
+  @Setup
+  public void setup() throws IOException, ReflectiveOperationException {
+    JavaVersion version = JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION;
+    files.clear();
+    List<Path> paths;
+    try (Stream<Path> walk = Files.walk(Path.of(sourceDirectory))) {
+      paths = walk.filter(path -> path.toString().endsWith(".java")).sorted().toList();
+    }
+    for (Path path : paths) {
+      try {
+        JavaTree.CompilationUnitTreeImpl tree = JParser.parse(JParserConfig.Mode.FILE_BY_FILE.create(version, List.of()).astParser(),
+          version.toString(), path.getFileName().toString(), Files.readString(path));
+        files.add(new AnalyzedFile(tree, new GeneratedFile(path)));
+      } catch (RuntimeException e) {
+        // some test sources do not compile on purpose
+      }
+    }
+
+    List<JavaCheck> checks = new ArrayList<>(instantiate(GeneratedCheckList.getJavaChecks(), SONAR_WAY_PATH));
+    List<SECheck> seChecks = instantiate(JavaSECheckList.getChecks(), SE_SONAR_WAY_PATH);
+    checks.add(new SymbolicExecutionVisitor(seChecks));
+    checks.addAll(seChecks);
+    visitorsBridge = new VisitorsBridge(checks, List.of(), null, version) {
+      @Override
+      protected JavaFileScannerContext createScannerContext(CompilationUnitTree tree, @Nullable Sema semanticModel,
+        SonarComponents sonarComponents, boolean fileParsed) {
+        return new DefaultJavaFileScannerContext(tree, currentFile, semanticModel, null, javaVersion, fileParsed, false) {
+          @Override
+          public void reportIssue(AnalyzerMessage message) {
+            // issues are not saved
+          }
+
+          @Override
+          public void addIssue(int line, JavaCheck javaCheck, String message, @Nullable Integer cost) {
+            // issues are not saved
+          }
+        };
+      }
+    };
+  }
+
+  private static <T extends JavaCheck> List<T> instantiate(List<Class<? extends T>> checkClasses, String profilePath)
+    throws ReflectiveOperationException {
+    Set<String> ruleKeys = BuiltInQualityProfileJsonLoader.loadActiveKeysFromJsonProfile(profilePath);
+    List<T> checks = new ArrayList<>();
+    for (Class<? extends T> checkClass : checkClasses) {
+      if (ruleKeys.contains(AnnotationUtils.getAnnotation(checkClass, Rule.class).key())) {
+        checks.add(checkClass.getConstructor().newInstance());
+      }
+    }
+    return checks;
+  }
+
+  @Benchmark
+  public void visitFiles() {
+    for (AnalyzedFile file : files) {
+      visitorsBridge.setCurrentFile(file.inputFile());
+      visitorsBridge.visitFile(file.tree(), false);
+    }
+  }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
+import org.sonar.plugins.java.api.JavaVersion;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Dispatch of the trees of a large compilation unit to subscription visitors, the visitors themselves doing almost nothing.
+ * Run with the GC profiler ({@code -prof gc}) to see the allocations of the dispatch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubscriptionVisitorsBenchmark {
+
+  /**
+   * Kinds most commonly subscribed to by the rules of the default profile.
+   */
+  private static final Tree.Kind[] SUBSCRIBED_KINDS = {
+    Tree.Kind.METHOD_INVOCATION,
+    Tree.Kind.CLASS,
+    Tree.Kind.METHOD,
+    Tree.Kind.IDENTIFIER,
+    Tree.Kind.VARIABLE,
+    Tree.Kind.MEMBER_SELECT,
+    Tree.Kind.NEW_CLASS,
+    Tree.Kind.IF_STATEMENT,
+    Tree.Kind.STRING_LITERAL,
+    Tree.Kind.BLOCK,
+    Tree.Kind.RETURN_STATEMENT,
+    Tree.Kind.ASSIGNMENT,
+    Tree.Kind.LAMBDA_EXPRESSION,
+    Tree.Kind.CONSTRUCTOR,
+    Tree.Kind.TRY_STATEMENT,
+    Tree.Kind.EQUAL_TO
+  };
+
+  /**
+   * Relative to the directory of this module.
+   */
+  @Param({"../java-frontend/src/main/java/org/sonar/java/model/JParser.java"})
+  public String sourceFile;
+
+  @Param({"50"})
+  public int visitorCount;
+
+  /**
+   * Whether one of the visitors subscribes to tokens, which prevents the walk from skipping them.
+   */
+  @Param({"false", "true"})
+  public boolean withTokenVisitor;
+
+  private CompilationUnitTree tree;
+  private VisitorsBridge visitorsBridge;
+  private final List<CountingVisitor> visitors = new ArrayList<>();
+
+  @Setup
+  public void setup() throws IOException {
+    String source = Files.readString(Path.of(sourceFile));
+    JavaVersion version = JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION;
+    tree = JParser.parse(JParserConfig.Mode.FILE_BY_FILE.create(version, List.of()).astParser(), version.toString(), "Benchmarked", source);
+
+    visitors.clear();
+    for (int i = 0; i < visitorCount; i++) {
+      visitors.add(new CountingVisitor(List.of(
+        SUBSCRIBED_KINDS[i % SUBSCRIBED_KINDS.length],
+        SUBSCRIBED_KINDS[(i * 7 + 3) % SUBSCRIBED_KINDS.length])));
+    }
+    if (withTokenVisitor) {
+      visitors.add(new CountingVisitor(List.of(Tree.Kind.TOKEN)));
+    }
+    visitorsBridge = new VisitorsBridge(visitors, new ArrayList<>(), null);
+  }
+
+  @Benchmark
+  public void visitFile(Blackhole blackhole) {
+    visitorsBridge.visitFile(tree, false);
+    for (CountingVisitor visitor : visitors) {
+      blackhole.consume(visitor.count);
+    }
+  }
+
+  private static class CountingVisitor extends IssuableSubscriptionVisitor {
+    private final List<Tree.Kind> nodesToVisit;
+    private long count;
+
+    CountingVisitor(List<Tree.Kind> nodesToVisit) {
+      this.nodesToVisit = nodesToVisit;
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return nodesToVisit;
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      count++;
+    }
+
+    @Override
+    public void visitToken(SyntaxToken syntaxToken) {
+      count++;
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.java.model.DefaultJavaFileScannerContext;
+import org.sonar.java.model.GeneratedFile;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.reporting.AnalyzerMessage;
+import org.sonar.java.se.SymbolicExecutionVisitor;
+import org.sonar.plugins.java.api.JavaVersion;
+
+/**
+ * Symbolic execution of the methods of the SE test sources, with the checks always run by the engine: each method is explored by
+ * {@link org.sonar.java.se.ExplodedGraphWalker#visitMethod}, through the visitor providing the behaviors of the methods it invokes.
+ * The files are parsed once: only the exploration of the methods is measured, most of it being spent creating,
+ * hashing and comparing program states. Run with the GC profiler ({@code -prof gc}) to see the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SymbolicExecutionBenchmark {
+
+  /**
+   * Relative to the directory of this module.
+   */
+  @Param({
+    "../java-symbolic-execution/java-symbolic-execution-plugin/src/test/files/se",
+    "../java-symbolic-execution/java-symbolic-execution-checks-test-sources/src/main/java"
+  })
+  public String sourceDirectory;
+
+  private final List<DefaultJavaFileScannerContext> contexts = new ArrayList<>();
+
+  @Setup
+  public void setup() throws IOException {
+    JavaVersion version = JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION;
+    contexts.clear();
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(Path.of(sourceDirectory))) {
+      files = paths.filter(path -> path.toString().endsWith(".java")).sorted().toList();
+    }
+    for (Path file : files) {
+      JavaTree.CompilationUnitTreeImpl tree;
+      try {
+        tree = JParser.parse(JParserConfig.Mode.FILE_BY_FILE.create(version, List.of()).astParser(),
+          version.toString(), file.getFileName().toString(), Files.readString(file));
+      } catch (RuntimeException e) {
+        // some test sources do not compile on purpose
+        continue;
+      }
+      contexts.add(new DefaultJavaFileScannerContext(tree, new GeneratedFile(file), tree.sema, null, version, true, false) {
+        @Override
+        public void reportIssue(AnalyzerMessage message) {
+          // issues are not saved
+        }
+      });
+    }
+  }
+
+  @Benchmark
+  public SymbolicExecutionVisitor exploreMethods() {
+    SymbolicExecutionVisitor visitor = new SymbolicExecutionVisitor(List.of());
+    for (DefaultJavaFileScannerContext context : contexts) {
+      visitor.scanFile(context);
+    }
+    return visitor;
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.LineUtils;
+import org.sonar.plugins.java.api.JavaVersion;
+import org.sonar.plugins.java.api.location.Position;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Start and end positions of all the statements and expressions of a large compilation unit, as computed by issue reporting and issue
+ * filters through the first and last tokens of the trees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreePositionsBenchmark {
+
+  /**
+   * Relative to the directory of this module.
+   */
+  @Param({
+    "../java-frontend/src/main/java/org/sonar/java/model/JParser.java",
+    "../java-checks-test-sources/default/src/main/java/other/generated/GeneratedFile.java"
+  })
+  public String sourceFile;
+
+  private final List<Tree> trees = new ArrayList<>();
+
+  @Setup
+  public void setup() throws IOException {
+    String source = Files.readString(Path.of(sourceFile));
+    JavaVersion version = JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION;
+    CompilationUnitTree compilationUnit = JParser.parse(JParserConfig.Mode.FILE_BY_FILE.create(version, List.of()).astParser(),
+      version.toString(), "Benchmarked", source);
+    trees.clear();
+    compilationUnit.accept(new BaseTreeVisitor() {
+      @Override
+      protected void scan(@Nullable Tree tree) {
+        // trees without tokens, like empty modifiers, have no position
+        if (tree != null && tree.firstToken() != null) {
+          trees.add(tree);
+        }
+        super.scan(tree);
+      }
+    });
+  }
+
+  @Benchmark
+  public void positions(Blackhole blackhole) {
+    for (Tree tree : trees) {
+      blackhole.consume(LineUtils.startLine(tree));
+      blackhole.consume(Position.endOf(tree));
+    }
+  }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.plugins.java.api.JavaVersion;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+
+/**
+ * Conversion of the ECJ tree of a large file into the syntax tree of the analyzer: lexing, line starts, tree building and parents.
+ * ECJ parses the file once, during the setup. Run with the GC profiler ({@code -prof gc}) to see the allocations of the conversion.
+ * <p>
+ * Declared in the package of {@link JParser} to time its conversion, which is not part of its public API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JParserConvertBenchmark {
+
+  /**
+   * Relative to the directory of this module.
+   */
+  @Param({
+    "../java-frontend/src/main/java/org/sonar/java/model/JParser.java",
+    "../java-frontend/src/test/java/org/sonar/java/model/JavaTreeModelTest.java",
+    "../java-checks-test-sources/default/src/main/java/other/generated/GeneratedFile.java"
+  })
+  public String sourceFile;
+
+  private String version;
+  private String unitName;
+  private String source;
+  private CompilationUnit astNode;
+
+  @Setup
+  public void setup() throws IOException {
+    Path path = Path.of(sourceFile);
+    source = Files.readString(path);
+    unitName = path.getFileName().toString();
+    JavaVersion javaVersion = JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION;
+    version = javaVersion.effectiveJavaVersionAsString();
+    ASTParser astParser = JParserConfig.Mode.FILE_BY_FILE.create(javaVersion, List.of()).astParser();
+    astParser.setUnitName(unitName);
+    astParser.setSource(source.toCharArray());
+    astNode = (CompilationUnit) astParser.createAST(null);
+  }
+
+  @Benchmark
+  public CompilationUnitTree convert() {
+    return JParser.convert(version, unitName, source, astNode);
+  }
+
+}
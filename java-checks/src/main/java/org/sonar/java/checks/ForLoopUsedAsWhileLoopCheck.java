@@ -18,6 +18,7 @@ package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
+import org.sonar.plugins.java.api.internal.ThreadSafeVisitor;
 import org.sonar.plugins.java.api.tree.ForStatementTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
@@ -25,7 +26,7 @@ import java.util.Collections;
 import java.util.List;
 
 @Rule(key = "S1264")
-public class ForLoopUsedAsWhileLoopCheck extends IssuableSubscriptionVisitor {
+public class ForLoopUsedAsWhileLoopCheck extends IssuableSubscriptionVisitor implements ThreadSafeVisitor {
 
   @Override
   public List<Tree.Kind> nodesToVisit() {
@@ -18,6 +18,7 @@ package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
+import org.sonar.plugins.java.api.internal.ThreadSafeVisitor;
 import org.sonar.plugins.java.api.tree.LabeledStatementTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
@@ -27,7 +28,7 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "LabelsShouldNotBeUsedCheck", repositoryKey = "squid")
 @Rule(key = "S1119")
-public class LabelsShouldNotBeUsedCheck extends IssuableSubscriptionVisitor {
+public class LabelsShouldNotBeUsedCheck extends IssuableSubscriptionVisitor implements ThreadSafeVisitor {
 
   @Override
   public List<Tree.Kind> nodesToVisit() {
@@ -18,6 +18,7 @@ package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
+import org.sonar.plugins.java.api.internal.ThreadSafeVisitor;
 import org.sonar.plugins.java.api.tree.ConditionalExpressionTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
@@ -25,7 +26,7 @@ import java.util.Collections;
 import java.util.List;
 
 @Rule(key = "S1774")
-public class TernaryOperatorCheck extends IssuableSubscriptionVisitor {
+public class TernaryOperatorCheck extends IssuableSubscriptionVisitor implements ThreadSafeVisitor {
 
   @Override
   public List<Tree.Kind> nodesToVisit() {
@@ -19,6 +19,7 @@ package org.sonar.java.checks;
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.internal.ThreadSafeVisitor;
 import org.sonar.plugins.java.api.tree.ParenthesizedTree;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
@@ -29,7 +30,7 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "UselessParenthesesCheck", repositoryKey = "squid")
 @Rule(key = "S1110")
-public class UselessParenthesesCheck extends IssuableSubscriptionVisitor {
+public class UselessParenthesesCheck extends IssuableSubscriptionVisitor implements ThreadSafeVisitor {
 
   @Override
   public void visitNode(Tree tree) {
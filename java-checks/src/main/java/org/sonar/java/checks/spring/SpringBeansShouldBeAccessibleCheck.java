@@ -16,22 +16,17 @@
  */
 package org.sonar.java.checks.spring;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.sonar.api.batch.fs.InputFile;
 import org.sonar.check.Rule;
+import org.sonar.java.caching.RuleFactsCache;
 import org.sonar.java.model.DefaultJavaFileScannerContext;
 import org.sonar.java.model.DefaultModuleScannerContext;
 import org.sonar.java.reporting.AnalyzerMessage;
@@ -50,8 +45,6 @@ import org.sonarsource.analyzer.commons.collections.SetUtils;
 @Rule(key = "S4605")
 public class SpringBeansShouldBeAccessibleCheck extends IssuableSubscriptionVisitor implements EndOfAnalysis {
 
-  private static final Logger LOG = LoggerFactory.getLogger(SpringBeansShouldBeAccessibleCheck.class);
-
   private static final String MESSAGE_FORMAT = "'%s' is not reachable by @ComponentScan or @SpringBootApplication. "
     + "Either move it to a package configured in @ComponentScan or update your @ComponentScan configuration.";
 
@@ -67,7 +60,11 @@ public class SpringBeansShouldBeAccessibleCheck extends IssuableSubscriptionVisi
   private static final Set<String> COMPONENT_SCAN_ARGUMENTS = SetUtils.immutableSetOf("basePackages", "value");
 
   private static final String SPRING_BOOT_APP_ANNOTATION = "org.springframework.boot.autoconfigure.SpringBootApplication";
-  private static final String CACHE_KEY_PREFIX = "java:S4605:targeted:";
+  /**
+   * Packages targeted by the Spring Boot applications of each file. The prefix is versioned so that the entries of the previous format,
+   * under "java:S4605:targeted:", are not read: a file without any targeted package was read back as targeting every package.
+   */
+  private static final RuleFactsCache TARGETED_PACKAGES_CACHE = new RuleFactsCache("java:S4605:targeted:v2:");
 
   /**
    * The key is the package name.
@@ -91,7 +88,7 @@ public class SpringBeansShouldBeAccessibleCheck extends IssuableSubscriptionVisi
 
   @Override
   public boolean scanWithoutParsing(InputFileScannerContext inputFileScannerContext) {
-    return readFromCache(inputFileScannerContext).map(targetedPackages -> {
+    return TARGETED_PACKAGES_CACHE.read(inputFileScannerContext).map(targetedPackages -> {
       packagesScannedBySpringAtProjectLevel.addAll(targetedPackages);
       return true;
     }).orElse(false);
@@ -140,36 +137,11 @@ public class SpringBeansShouldBeAccessibleCheck extends IssuableSubscriptionVisi
   public void leaveFile(JavaFileScannerContext context) {
     super.leaveFile(context);
     if (context.getCacheContext().isCacheEnabled()) {
-      writeToCache(context, packagesScannedBySpringAtFileLevel);
+      TARGETED_PACKAGES_CACHE.write(context, packagesScannedBySpringAtFileLevel);
     }
     packagesScannedBySpringAtFileLevel.clear();
   }
 
-  private static String cacheKey(InputFile inputFile) {
-    return CACHE_KEY_PREFIX + inputFile.key();
-  }
-
-  private static void writeToCache(InputFileScannerContext context, Collection<String> targetedPackages) {
-    var cacheKey = cacheKey(context.getInputFile());
-    var data = String.join(";", targetedPackages).getBytes(StandardCharsets.UTF_8);
-    try {
-      context.getCacheContext().getWriteCache().write(cacheKey, data);
-    } catch (IllegalArgumentException e) {
-      LOG.trace("Tried to write multiple times to cache key '{}'. Ignoring writes after the first.", cacheKey);
-    }
-  }
-
-  private static Optional<List<String>> readFromCache(InputFileScannerContext context) {
-    var cacheKey = cacheKey(context.getInputFile());
-    var bytes = context.getCacheContext().getReadCache().readBytes(cacheKey);
-    if (bytes != null) {
-      context.getCacheContext().getWriteCache().copyFromPrevious(cacheKey);
-      return Optional.of(Arrays.asList(new String(bytes, StandardCharsets.UTF_8).split(";")));
-    } else {
-      return Optional.empty();
-    }
-  }
-
   private static List<String> targetedPackages(String classPackageName, SymbolMetadata classSymbolMetadata) {
     // annotation is necessarily there already
     return Objects.requireNonNull(classSymbolMetadata.valuesForAnnotation(SPRING_BOOT_APP_ANNOTATION))
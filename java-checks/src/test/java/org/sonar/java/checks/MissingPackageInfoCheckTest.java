@@ -20,6 +20,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,7 +30,6 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.cache.ReadCache;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.java.AnalysisException;
-import org.sonar.java.caching.FileHashingUtils;
 import org.sonar.java.checks.helpers.HashCacheTestHelper;
 import org.sonar.java.checks.verifier.CheckVerifier;
 import org.sonar.java.checks.verifier.internal.InternalReadCache;
@@ -123,10 +123,45 @@ class MissingPackageInfoCheckTest {
   }
 
   @Test
-  void cache_deserialization_throws_IOException() throws IOException, NoSuchAlgorithmException {
+  void caching_with_content_hashes_of_a_previous_version() throws NoSuchAlgorithmException, IOException {
+    List<String> files = List.of(
+      mainCodeSourcesPath("DefaultPackage.java"),
+      mainCodeSourcesPath("checks/packageInfo/HelloWorld.java"),
+      mainCodeSourcesPath("checks/packageInfo/package-info.java"),
+      mainCodeSourcesPath("checks/packageInfo/nopackageinfo/HelloWorld.java"),
+      mainCodeSourcesPath("checks/packageInfo/nopackageinfo/nopackageinfo.java"));
+    verifier
+      .onFiles(files)
+      .withCheck(new MissingPackageInfoCheck())
+      .withCache(readCache, writeCache)
+      .verifyIssueOnProject(EXPECTED_MESSAGE);
+
+    var check = spy(new MissingPackageInfoCheck());
+
+    // content hashes written with the former algorithm, next to the data of the check
+    var legacyReadCache = HashCacheTestHelper.internalReadCacheFromFilesWithLegacyHashes(files);
+    writeCache.getData().entrySet().stream()
+      .filter(entry -> !entry.getKey().startsWith("java:contentHash:"))
+      .forEach(entry -> legacyReadCache.put(entry.getKey(), entry.getValue()));
+    var writeCache2 = new InternalWriteCache().bind(legacyReadCache);
+    CheckVerifier.newInternalVerifier()
+      .withCache(legacyReadCache, writeCache2)
+      .addFiles(InputFile.Status.SAME, files)
+      .withCheck(check)
+      .verifyIssueOnProject(EXPECTED_MESSAGE);
+
+    verify(check, times(0)).scanFile(any());
+    verify(check, times(5)).scanWithoutParsing(any());
+    assertThat(writeCache2.getData())
+      .containsKeys(files.stream().map(HashCacheTestHelper::contentHashKey).toArray(String[]::new))
+      .doesNotContainKeys(files.stream().map(file -> HashCacheTestHelper.legacyContentHashKey(HashCacheTestHelper.inputFileFromPath(file))).toArray(String[]::new));
+  }
+
+  @Test
+  void cache_deserialization_throws_IOException() throws IOException {
     String filePath = mainCodeSourcesPath("checks/packageInfo/HelloWorld.java");
     InputFile cachedFile = HashCacheTestHelper.inputFileFromPath(filePath);
-    byte[] cachedHash = FileHashingUtils.inputFileContentHash(cachedFile);
+    byte[] cachedHash = HashCacheTestHelper.contentHash(filePath);
     var inputStream = mock(InputStream.class);
     doThrow(new IOException()).when(inputStream).readAllBytes();
     var localReadCache = mock(ReadCache.class);
@@ -134,7 +169,7 @@ class MissingPackageInfoCheckTest {
     doReturn(inputStream).when(localReadCache).read("java:S1228;S4032:package:" + cachedFile.key());
     doReturn(true).when(localReadCache).contains(any());
     doReturn(new ByteArrayInputStream(cachedHash))
-      .when(localReadCache).read("java:contentHash:MD5:" + cachedFile.key());
+      .when(localReadCache).read(HashCacheTestHelper.contentHashKey(cachedFile));
 
     var localVerifier = CheckVerifier.newVerifier()
       .withCache(localReadCache, localWriteCache)
@@ -162,7 +197,7 @@ class MissingPackageInfoCheckTest {
   }
 
   @Test
-  void emptyCache() throws NoSuchAlgorithmException, IOException {
+  void emptyCache() throws IOException {
     logTester.setLevel(Level.TRACE);
     String filePath = mainCodeSourcesPath("checks/packageInfo/HelloWorld.java");
     ReadCache populatedReadCache = HashCacheTestHelper.internalReadCacheFromFile(filePath);
@@ -19,7 +19,6 @@ package org.sonar.java.checks;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.NoSuchAlgorithmException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -28,7 +27,6 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.cache.ReadCache;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.java.AnalysisException;
-import org.sonar.java.caching.FileHashingUtils;
 import org.sonar.java.checks.helpers.HashCacheTestHelper;
 import org.sonar.java.checks.verifier.CheckVerifier;
 import org.sonar.java.checks.verifier.internal.InternalReadCache;
@@ -146,19 +144,19 @@ class UselessPackageInfoCheckTest {
   }
 
   @Test
-  void cache_deserialization_throws_IOException() throws IOException, NoSuchAlgorithmException {
+  void cache_deserialization_throws_IOException() throws IOException {
     var inputStream = mock(InputStream.class);
     doThrow(new IOException()).when(inputStream).readAllBytes();
     var localReadCache = mock(ReadCache.class);
 
     String filePath = mainCodeSourcesPath("checks/UselessPackageInfoCheck/packageWithNoOtherFilesButNotPackageInfo/HelloWorld1.java");
     InputFile cachedFile = HashCacheTestHelper.inputFileFromPath(filePath);
-    byte[] cachedHash = FileHashingUtils.inputFileContentHash(cachedFile);
+    byte[] cachedHash = HashCacheTestHelper.contentHash(filePath);
 
     doReturn(inputStream).when(localReadCache).read("java:S1228;S4032:package:"+cachedFile.key());
     doReturn(true).when(localReadCache).contains(any());
     doReturn(new ByteArrayInputStream(cachedHash))
-    .when(localReadCache).read("java:contentHash:MD5:"+cachedFile.key());
+    .when(localReadCache).read(HashCacheTestHelper.contentHashKey(cachedFile));
 
     var specificVerifier = CheckVerifier.newVerifier()
       .withCache(localReadCache, new InternalWriteCache().bind(localReadCache))
@@ -186,7 +184,7 @@ class UselessPackageInfoCheckTest {
   }
 
   @Test
-  void emptyCache() throws NoSuchAlgorithmException, IOException {
+  void emptyCache() throws IOException {
     logTester.setLevel(Level.TRACE);
     String filePath = mainCodeSourcesPath("checks/UselessPackageInfoCheck/packageWithNoOtherFilesButNotPackageInfo/HelloWorld1.java");
     ReadCache populatedReadCache = HashCacheTestHelper.internalReadCacheFromFile(filePath);
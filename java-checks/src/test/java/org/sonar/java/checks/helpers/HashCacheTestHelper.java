@@ -39,28 +39,52 @@ public class HashCacheTestHelper {
   }
 
   public static String contentHashKey(InputFile inputFile) {
-    return "java:contentHash:MD5:" + inputFile.key();
+    return "java:contentHash:" + FileHashingUtils.STREAMING_HASH_ALGORITHM + ":" + inputFile.key();
   }
 
-  public static ReadCache internalReadCacheFromFile(String path) throws NoSuchAlgorithmException, IOException {
+  /**
+   * Key of the content hashes cached by the versions hashing files with {@link FileHashingUtils#HASH_ALGORITHM}.
+   */
+  public static String legacyContentHashKey(InputFile inputFile) {
+    return "java:contentHash:" + FileHashingUtils.HASH_ALGORITHM + ":" + inputFile.key();
+  }
+
+  public static byte[] contentHash(String path) throws IOException {
+    return FileHashingUtils.streamingContentHash(inputFileFromPath(path));
+  }
+
+  public static ReadCache internalReadCacheFromFile(String path) throws IOException {
     InputFile cachedFile = inputFileFromPath(path);
-    byte[] cachedHash = FileHashingUtils.inputFileContentHash(cachedFile);
+    byte[] cachedHash = FileHashingUtils.streamingContentHash(cachedFile);
     return new InternalReadCache().put(contentHashKey(cachedFile), cachedHash);
   }
 
-  public static ReadCache internalReadCacheFromFiles(Collection<String> paths) throws NoSuchAlgorithmException, IOException {
+  public static ReadCache internalReadCacheFromFiles(Collection<String> paths) throws IOException {
     InternalReadCache localReadCache = new InternalReadCache();
     for (String path : paths) {
       InputFile cachedFile = inputFileFromPath(path);
-      byte[] cachedHash = FileHashingUtils.inputFileContentHash(cachedFile);
+      byte[] cachedHash = FileHashingUtils.streamingContentHash(cachedFile);
       localReadCache.put(contentHashKey(cachedFile), cachedHash);
     }
     return localReadCache;
   }
-  
-  public static byte[] getSlightlyDifferentContentHash(String path) throws NoSuchAlgorithmException, IOException {
+
+  /**
+   * Cache written by a version hashing files with {@link FileHashingUtils#HASH_ALGORITHM}.
+   */
+  public static InternalReadCache internalReadCacheFromFilesWithLegacyHashes(Collection<String> paths) throws NoSuchAlgorithmException, IOException {
+    InternalReadCache localReadCache = new InternalReadCache();
+    for (String path : paths) {
+      InputFile cachedFile = inputFileFromPath(path);
+      byte[] cachedHash = FileHashingUtils.inputFileContentHash(cachedFile);
+      localReadCache.put(legacyContentHashKey(cachedFile), cachedHash);
+    }
+    return localReadCache;
+  }
+
+  public static byte[] getSlightlyDifferentContentHash(String path) throws IOException {
     InputFile cachedFile = inputFileFromPath(path);
-    byte[] cachedHash = FileHashingUtils.inputFileContentHash(cachedFile);
+    byte[] cachedHash = FileHashingUtils.streamingContentHash(cachedFile);
     byte[] copy = Arrays.copyOf(cachedHash, cachedHash.length+1);
     copy[cachedHash.length] = 10;
     return copy;
@@ -18,7 +18,6 @@ package org.sonar.java.checks.security;
 
 import java.io.File;
 import java.io.IOException;
-import java.security.NoSuchAlgorithmException;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,7 +29,6 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.testfixtures.log.LogAndArguments;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.java.AnalysisException;
-import org.sonar.java.caching.FileHashingUtils;
 import org.sonar.java.checks.helpers.HashCacheTestHelper;
 import org.sonar.java.checks.security.ExcessiveContentRequestCheck.CachedResult;
 import org.sonar.java.checks.verifier.CheckVerifier;
@@ -88,7 +86,7 @@ class ExcessiveContentRequestCheckTest {
     }
 
     @Test
-    void no_issue_raised_on_unchanged_files_with_empty_cache() throws IOException, NoSuchAlgorithmException {
+    void no_issue_raised_on_unchanged_files_with_empty_cache() throws IOException {
       logTester.setLevel(Level.TRACE);
       var check = spy(new ExcessiveContentRequestCheck());
 
@@ -97,9 +95,9 @@ class ExcessiveContentRequestCheckTest {
         .withCheck(check);
 
       // Add expected file hashes to the cache to match their status
-      readCache.put(HashCacheTestHelper.contentHashKey(safeSourceFile), FileHashingUtils.inputFileContentHash(safeSourceFile));
-      readCache.put(HashCacheTestHelper.contentHashKey(unsafeSourceFile), FileHashingUtils.inputFileContentHash(unsafeSourceFile));
-      readCache.put(HashCacheTestHelper.contentHashKey(sanitizerSourceFile), FileHashingUtils.inputFileContentHash(sanitizerSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(safeSourceFile), HashCacheTestHelper.contentHash(safeSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(unsafeSourceFile), HashCacheTestHelper.contentHash(unsafeSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(sanitizerSourceFile), HashCacheTestHelper.contentHash(sanitizerSourceFile));
 
       verifier.verifyNoIssues();
 
@@ -117,7 +115,7 @@ class ExcessiveContentRequestCheckTest {
     }
 
     @Test
-    void no_issue_raised_when_changed_unsafe_file_is_covered_by_unchanged_cached_safe_files() throws IOException, NoSuchAlgorithmException {
+    void no_issue_raised_when_changed_unsafe_file_is_covered_by_unchanged_cached_safe_files() throws IOException {
       readCache.put(computeCacheKey(safeSourceFile), toBytes(new CachedResult(true, true)));
       readCache.put(computeCacheKey(sanitizerSourceFile), toBytes(new CachedResult(false, true)));
 
@@ -129,9 +127,9 @@ class ExcessiveContentRequestCheckTest {
         .withCheck(check);
 
       // Add expected file hashes to the cache to match their status
-      readCache.put(HashCacheTestHelper.contentHashKey(safeSourceFile), FileHashingUtils.inputFileContentHash(safeSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(safeSourceFile), HashCacheTestHelper.contentHash(safeSourceFile));
       readCache.put(HashCacheTestHelper.contentHashKey(unsafeSourceFile), new byte[]{});
-      readCache.put(HashCacheTestHelper.contentHashKey(sanitizerSourceFile), FileHashingUtils.inputFileContentHash(sanitizerSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(sanitizerSourceFile), HashCacheTestHelper.contentHash(sanitizerSourceFile));
 
       verifier.verifyNoIssues();
 
@@ -142,7 +140,7 @@ class ExcessiveContentRequestCheckTest {
     }
 
     @Test
-    void no_issue_raised_when_cached_unsafe_file_is_covered_by_changed_safe_files() throws IOException, NoSuchAlgorithmException {
+    void no_issue_raised_when_cached_unsafe_file_is_covered_by_changed_safe_files() throws IOException {
       //readCache.put(computeCacheKey(unsafeSourceFile), new byte[]{1, 0});
       readCache.put(computeCacheKey(unsafeSourceFile), toBytes(new CachedResult(true, false)));
 
@@ -154,7 +152,7 @@ class ExcessiveContentRequestCheckTest {
 
       // Add expected file hashes to the cache to match their status
       readCache.put(HashCacheTestHelper.contentHashKey(safeSourceFile), new byte[]{});
-      readCache.put(HashCacheTestHelper.contentHashKey(unsafeSourceFile), FileHashingUtils.inputFileContentHash(unsafeSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(unsafeSourceFile), HashCacheTestHelper.contentHash(unsafeSourceFile));
       readCache.put(HashCacheTestHelper.contentHashKey(safeSourceFile), new byte[]{});
 
       verifier.verifyNoIssues();
@@ -166,7 +164,7 @@ class ExcessiveContentRequestCheckTest {
     }
 
     @Test
-    void no_issue_raised_when_all_results_are_cached() throws IOException, NoSuchAlgorithmException {
+    void no_issue_raised_when_all_results_are_cached() throws IOException {
       readCache.putAll(expectedFinalCacheState);
 
       var check = spy(new ExcessiveContentRequestCheck());
@@ -175,9 +173,9 @@ class ExcessiveContentRequestCheckTest {
         .withCheck(check);
 
       // Add expected file hashes to the cache to match their status
-      readCache.put(HashCacheTestHelper.contentHashKey(safeSourceFile), FileHashingUtils.inputFileContentHash(safeSourceFile));
-      readCache.put(HashCacheTestHelper.contentHashKey(unsafeSourceFile), FileHashingUtils.inputFileContentHash(unsafeSourceFile));
-      readCache.put(HashCacheTestHelper.contentHashKey(sanitizerSourceFile), FileHashingUtils.inputFileContentHash(sanitizerSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(safeSourceFile), HashCacheTestHelper.contentHash(safeSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(unsafeSourceFile), HashCacheTestHelper.contentHash(unsafeSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(sanitizerSourceFile), HashCacheTestHelper.contentHash(sanitizerSourceFile));
 
       verifier.verifyNoIssues();
 
@@ -214,7 +212,7 @@ class ExcessiveContentRequestCheckTest {
     }
 
     @Test
-    void log_when_copying_from_previous_cache() throws IOException, NoSuchAlgorithmException {
+    void log_when_copying_from_previous_cache() throws IOException {
 
       readCache.putAll(expectedFinalCacheState);
       var spyOnWriteCache = spy(writeCache);
@@ -230,7 +228,7 @@ class ExcessiveContentRequestCheckTest {
         .withCache(readCache, spyOnWriteCache);
 
       // Add expected file hashes to the cache to match their status
-      readCache.put(HashCacheTestHelper.contentHashKey(safeSourceFile), FileHashingUtils.inputFileContentHash(safeSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(safeSourceFile), HashCacheTestHelper.contentHash(safeSourceFile));
       readCache.put(HashCacheTestHelper.contentHashKey(unsafeSourceFile), new byte[]{});
       readCache.put(HashCacheTestHelper.contentHashKey(sanitizerSourceFile), new byte[]{});
 
@@ -246,7 +244,7 @@ class ExcessiveContentRequestCheckTest {
     }
 
     @Test
-    void scanWithoutParsing_returns_false_when_cached_data_is_corrupted() throws IOException, NoSuchAlgorithmException {
+    void scanWithoutParsing_returns_false_when_cached_data_is_corrupted() throws IOException {
       var check = spy(new ExcessiveContentRequestCheck());
       readCache.put(computeCacheKey(unsafeSourceFile), null);
       readCache.put(computeCacheKey(safeSourceFile), new byte[0]);
@@ -258,9 +256,9 @@ class ExcessiveContentRequestCheckTest {
         .addFiles(InputFile.Status.SAME, unsafeSourceFile, safeSourceFile, sanitizerSourceFile)
         .withCheck(check);
 
-      readCache.put(HashCacheTestHelper.contentHashKey(safeSourceFile), FileHashingUtils.inputFileContentHash(safeSourceFile));
-      readCache.put(HashCacheTestHelper.contentHashKey(unsafeSourceFile), FileHashingUtils.inputFileContentHash(unsafeSourceFile));
-      readCache.put(HashCacheTestHelper.contentHashKey(sanitizerSourceFile), FileHashingUtils.inputFileContentHash(sanitizerSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(safeSourceFile), HashCacheTestHelper.contentHash(safeSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(unsafeSourceFile), HashCacheTestHelper.contentHash(unsafeSourceFile));
+      readCache.put(HashCacheTestHelper.contentHashKey(sanitizerSourceFile), HashCacheTestHelper.contentHash(sanitizerSourceFile));
 
       verifier.verifyNoIssues();
 
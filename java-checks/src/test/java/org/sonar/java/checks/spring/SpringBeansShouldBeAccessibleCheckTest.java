@@ -19,7 +19,6 @@ package org.sonar.java.checks.spring;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Stream;
@@ -31,7 +30,6 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.cache.ReadCache;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.java.AnalysisException;
-import org.sonar.java.caching.FileHashingUtils;
 import org.sonar.java.checks.helpers.HashCacheTestHelper;
 import org.sonar.java.checks.verifier.CheckVerifier;
 import org.sonar.java.checks.verifier.internal.InternalReadCache;
@@ -142,7 +140,7 @@ class SpringBeansShouldBeAccessibleCheckTest {
   }
 
   @Test
-  void caching() throws NoSuchAlgorithmException, IOException {
+  void caching() throws IOException {
     var unchangedFiles = Stream.of(
       "app/SpringBootApp1.java",
       "fourthApp/SpringBootApp4.java"
@@ -194,19 +192,73 @@ class SpringBeansShouldBeAccessibleCheckTest {
   }
 
   @Test
-  void cache_deserialization_throws_IOException() throws IOException, NoSuchAlgorithmException {
+  void unchanged_file_without_spring_boot_application_does_not_target_any_package() throws IOException {
+    String unchangedFile = mainCodeSourcesPath(BASE_PATH + "springBootApplication/thirdApp/domain/SomeClass.java");
+    String changedFile = mainCodeSourcesPath(BASE_PATH + "springBootApplication/Ko/Ko.java");
+
+    ReadCache existingReadCache = HashCacheTestHelper.internalReadCacheFromFile(unchangedFile);
+    writeCache.bind(existingReadCache);
+    verifier
+      .addFiles(InputFile.Status.SAME, unchangedFile)
+      .addFiles(InputFile.Status.CHANGED, changedFile)
+      .withCheck(new SpringBeansShouldBeAccessibleCheck())
+      .withCache(existingReadCache, writeCache)
+      .verifyIssues();
+
+    var check = spy(new SpringBeansShouldBeAccessibleCheck());
+    var populatedReadCache = new InternalReadCache().putAll(writeCache)
+      .put(HashCacheTestHelper.contentHashKey(changedFile), HashCacheTestHelper.getSlightlyDifferentContentHash(changedFile));
+    CheckVerifier.newVerifier()
+      .withCache(populatedReadCache, new InternalWriteCache().bind(populatedReadCache))
+      .addFiles(InputFile.Status.SAME, unchangedFile)
+      .addFiles(InputFile.Status.CHANGED, changedFile)
+      .withCheck(check)
+      .verifyIssues();
+
+    // the unchanged file is not parsed, and the classes of Ko.java are still reported
+    verify(check, times(1)).scanWithoutParsing(any());
+    verify(check, times(4)).visitNode(any());
+  }
+
+  @Test
+  void entries_of_the_unversioned_format_are_not_read() throws IOException {
+    logTester.setLevel(Level.TRACE);
+    String unchangedFile = mainCodeSourcesPath(BASE_PATH + "springBootApplication/thirdApp/domain/SomeClass.java");
+    String changedFile = mainCodeSourcesPath(BASE_PATH + "springBootApplication/Ko/Ko.java");
+    InputFile cachedFile = HashCacheTestHelper.inputFileFromPath(unchangedFile);
+
+    var populatedReadCache = new InternalReadCache()
+      .put(HashCacheTestHelper.contentHashKey(cachedFile), HashCacheTestHelper.contentHash(unchangedFile))
+      // no targeted package, as written by the previous format, and read back as the empty package
+      .put("java:S4605:targeted:" + cachedFile.key(), new byte[0]);
+    var check = spy(new SpringBeansShouldBeAccessibleCheck());
+    CheckVerifier.newVerifier()
+      .withCache(populatedReadCache, new InternalWriteCache().bind(populatedReadCache))
+      .addFiles(InputFile.Status.SAME, unchangedFile)
+      .addFiles(InputFile.Status.CHANGED, changedFile)
+      .withCheck(check)
+      .verifyIssues();
+
+    // the unchanged file is parsed again, as if it had never been analyzed
+    verify(check, times(1)).scanWithoutParsing(any());
+    verify(check, times(5)).visitNode(any());
+    assertThat(logTester.logs(Level.TRACE)).noneMatch(log -> log.startsWith("Cached entry is unreadable"));
+  }
+
+  @Test
+  void cache_deserialization_throws_IOException() throws IOException {
     var inputStream = mock(InputStream.class);
     doThrow(new IOException()).when(inputStream).readAllBytes();
     var localReadCache = mock(ReadCache.class);
 
     String filePath = mainCodeSourcesPath(BASE_PATH + "springBootApplication/app/SpringBootApp1.java");
     InputFile cachedFile = HashCacheTestHelper.inputFileFromPath(filePath);
-    byte[] cachedHash = FileHashingUtils.inputFileContentHash(cachedFile);
+    byte[] cachedHash = HashCacheTestHelper.contentHash(filePath);
 
-    doReturn(inputStream).when(localReadCache).read("java:S4605:targeted:" + cachedFile.key());
+    doReturn(inputStream).when(localReadCache).read("java:S4605:targeted:v2:" + cachedFile.key());
     doReturn(true).when(localReadCache).contains(any());
     doReturn(new ByteArrayInputStream(cachedHash))
-      .when(localReadCache).read("java:contentHash:MD5:" + cachedFile.key());
+      .when(localReadCache).read(HashCacheTestHelper.contentHashKey(cachedFile));
 
     var specificVerifier = CheckVerifier.newVerifier()
       .withCache(localReadCache, new InternalWriteCache().bind(localReadCache))
@@ -236,7 +288,7 @@ class SpringBeansShouldBeAccessibleCheckTest {
   }
 
   @Test
-  void emptyCache() throws NoSuchAlgorithmException, IOException {
+  void emptyCache() throws IOException {
     logTester.setLevel(Level.TRACE);
     String filePath = mainCodeSourcesPath(BASE_PATH + "springBootApplication/app/SpringBootApp1.java");
     ReadCache populatedReadCache = HashCacheTestHelper.internalReadCacheFromFile(filePath);
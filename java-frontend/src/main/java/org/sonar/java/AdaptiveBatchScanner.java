@@ -0,0 +1,196 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.annotations.VisibleForTesting;
+
+/**
+ * Scans batches of files one after another, adapting the size of the next batch to the heap used by the previous one, to keep the
+ * heap usage below a target fraction of the maximum heap.
+ * <p>
+ * The memory retained by a batch mostly depends on the bindings its files resolve, which the size of the files does not tell.
+ * The heap usage of a batch is therefore observed: it is the highest heap usage right after a garbage collection during the batch,
+ * as notified by the garbage collectors, or after the last collection when none happened during the batch. Unlike the peak heap
+ * usage, it does not count the garbage not collected yet.
+ * <p>
+ * The size of the next batch is halved when the heap usage is above the target, and grown by a quarter when it is well below.
+ */
+class AdaptiveBatchScanner {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AdaptiveBatchScanner.class);
+
+  @VisibleForTesting
+  static final long MIN_BATCH_SIZE_IN_BYTES = 10_000L;
+  @VisibleForTesting
+  static final long MAX_BATCH_SIZE_IN_BYTES = 5_000_000L;
+  /**
+   * Fraction of the target below which the heap usage lets the size of the batches grow.
+   */
+  private static final double GROWTH_THRESHOLD = 0.75;
+
+  @VisibleForTesting
+  static Supplier<HeapObserver> heapObserverFactory = GarbageCollectionHeapObserver::new;
+
+  private final double targetHeapUsage;
+
+  AdaptiveBatchScanner(double targetHeapUsage) {
+    this.targetHeapUsage = targetHeapUsage;
+  }
+
+  /**
+   * Observes the heap used by every batch.
+   */
+  interface HeapObserver extends AutoCloseable {
+    void startBatch();
+
+    /**
+     * @return the heap used by the batch since {@link #startBatch()}, as a fraction of the maximum heap
+     */
+    double endBatch();
+
+    @Override
+    void close();
+  }
+
+  void scan(JavaFrontend.BatchGenerator generator, Consumer<List<InputFile>> batchScan) {
+    try (HeapObserver heapObserver = heapObserverFactory.get()) {
+      while (generator.hasNext()) {
+        List<InputFile> batch = generator.next();
+        heapObserver.startBatch();
+        batchScan.accept(batch);
+        double heapUsage = heapObserver.endBatch();
+        if (generator.hasNext()) {
+          generator.setBatchSizeInBytes(nextBatchSize(generator.batchSizeInBytes(), heapUsage));
+        }
+      }
+    }
+  }
+
+  @VisibleForTesting
+  long nextBatchSize(long batchSizeInBytes, double heapUsage) {
+    if (heapUsage > targetHeapUsage) {
+      long next = Math.max(MIN_BATCH_SIZE_IN_BYTES, batchSizeInBytes / 2);
+      if (next < batchSizeInBytes) {
+        LOG.info("Heap usage of {}% after the last batch is above the target of {}%, reducing the batch size from {} KB to {} KB.",
+          percent(heapUsage), percent(targetHeapUsage), batchSizeInBytes / 1_000L, next / 1_000L);
+        return next;
+      }
+    } else if (heapUsage < targetHeapUsage * GROWTH_THRESHOLD) {
+      long next = Math.max(batchSizeInBytes, Math.min(MAX_BATCH_SIZE_IN_BYTES, Math.max(MIN_BATCH_SIZE_IN_BYTES, batchSizeInBytes + batchSizeInBytes / 4)));
+      if (next > batchSizeInBytes) {
+        LOG.info("Heap usage of {}% after the last batch is below the target of {}%, increasing the batch size from {} KB to {} KB.",
+          percent(heapUsage), percent(targetHeapUsage), batchSizeInBytes / 1_000L, next / 1_000L);
+        return next;
+      }
+    }
+    LOG.debug("Heap usage of {}% after the last batch, keeping the batch size of {} KB.", percent(heapUsage), batchSizeInBytes / 1_000L);
+    return batchSizeInBytes;
+  }
+
+  private static long percent(double fraction) {
+    return Math.round(fraction * 100);
+  }
+
+  /**
+   * Listens to the notifications of the garbage collectors for the heap usage after each collection.
+   */
+  private static class GarbageCollectionHeapObserver implements HeapObserver, NotificationListener {
+
+    private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+      .filter(pool -> pool.getType() == MemoryType.HEAP)
+      .map(MemoryPoolMXBean::getName)
+      .collect(Collectors.toSet());
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final AtomicLong highestHeapUsedAfterCollection = new AtomicLong(-1L);
+
+    GarbageCollectionHeapObserver() {
+      for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+        if (collector instanceof NotificationEmitter emitter) {
+          emitter.addNotificationListener(this, null, null);
+          emitters.add(emitter);
+        }
+      }
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+      if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+        long heapUsed = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()).getGcInfo()
+          .getMemoryUsageAfterGc().entrySet().stream()
+          .filter(pool -> heapPools.contains(pool.getKey()))
+          .mapToLong(pool -> pool.getValue().getUsed())
+          .sum();
+        highestHeapUsedAfterCollection.accumulateAndGet(heapUsed, Math::max);
+      }
+    }
+
+    @Override
+    public void startBatch() {
+      highestHeapUsedAfterCollection.set(-1L);
+    }
+
+    @Override
+    public double endBatch() {
+      MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+      long max = heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+      long used = highestHeapUsedAfterCollection.get();
+      if (used < 0) {
+        used = ManagementFactory.getMemoryPoolMXBeans().stream()
+          .filter(pool -> heapPools.contains(pool.getName()))
+          .map(MemoryPoolMXBean::getCollectionUsage)
+          .filter(Objects::nonNull)
+          .mapToLong(MemoryUsage::getUsed)
+          .sum();
+      }
+      return used / (double) max;
+    }
+
+    @Override
+    public void close() {
+      for (NotificationEmitter emitter : emitters) {
+        try {
+          emitter.removeNotificationListener(this);
+        } catch (ListenerNotFoundException e) {
+          // already removed
+        }
+      }
+    }
+  }
+
+}
@@ -27,24 +27,31 @@ public class AnalysisProgress {
     analysedFileCount = 0;
   }
 
-  public void startBatch(int currentBatchSize) {
-    this.currentBatchSize = currentBatchSize;
+  /**
+   * Batches can be started concurrently when batches are parsed in parallel, the sizes of all batches in progress are then cumulated.
+   */
+  public synchronized void startBatch(int batchSize) {
+    this.currentBatchSize += batchSize;
   }
 
-  public void endBatch() {
-    this.analysedFileCount += currentBatchSize;
-    this.currentBatchSize = 0;
+  public synchronized void endBatch() {
+    endBatch(currentBatchSize);
   }
 
-  public boolean isFirstBatch() {
+  public synchronized void endBatch(int batchSize) {
+    this.analysedFileCount += batchSize;
+    this.currentBatchSize -= batchSize;
+  }
+
+  public synchronized boolean isFirstBatch() {
     return analysedFileCount == 0;
   }
 
-  public boolean isLastBatch() {
+  public synchronized boolean isLastBatch() {
     return analysedFileCount + currentBatchSize == totalFileCount;
   }
 
-  public double toGlobalPercentage(double currentBatchPercentage) {
+  public synchronized double toGlobalPercentage(double currentBatchPercentage) {
     if (totalFileCount == 0) {
       return 0;
     }
@@ -16,11 +16,23 @@
  */
 package org.sonar.java;
 
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
@@ -32,73 +44,243 @@ public class ExecutionTimeReport {
   private static final int MAX_REPORTED_FILES = 10;
   private static final long MIN_REPORTED_ANALYSIS_TIME_MS = 1000;
   private static final long MIN_TOTAL_ANALYSIS_TIME_TO_REPORT_MS = 20_000;
+  private static final LongSupplier THREAD_ALLOCATED_BYTES = threadAllocatedBytes();
 
-  private static class ExecutionTime {
+  /**
+   * Profile of the analysis of a file: the durations of its phases in nanoseconds, the bytes they allocated, and the number of tokens
+   * of its tree. The phases are recorded by the parser and by the visitors, possibly on different threads but one after the other.
+   * The symbolic execution is not part of the scanners.
+   */
+  public static final class FileProfile {
     private final String file;
-    private final long analysisTime;
-    private final long lengthInBytes;
+    private long analysisTime;
+    private long lengthInBytes = -1;
+    private int tokens = -1;
+    private long parseNanos;
+    private long convertNanos;
+    private long symbolTableNanos;
+    private long scannersNanos;
+    private long symbolicExecutionNanos;
+    private long waitNanos;
+    private long allocatedBytes;
 
-    public ExecutionTime(String file, long analysisTime, long lengthInBytes) {
+    @VisibleForTesting
+    FileProfile(String file) {
       this.file = file;
-      this.analysisTime = analysisTime;
-      this.lengthInBytes = lengthInBytes;
+    }
+
+    public void addParse(long durationNanos, long allocatedBytes) {
+      parseNanos += durationNanos;
+      this.allocatedBytes += allocatedBytes;
+    }
+
+    public void addConvert(long durationNanos, long allocatedBytes) {
+      convertNanos += durationNanos;
+      this.allocatedBytes += allocatedBytes;
+    }
+
+    public void addSymbolTable(long durationNanos, long allocatedBytes) {
+      symbolTableNanos += durationNanos;
+      this.allocatedBytes += allocatedBytes;
+    }
+
+    public void addScanners(long durationNanos, long allocatedBytes) {
+      scannersNanos += durationNanos;
+      this.allocatedBytes += allocatedBytes;
+    }
+
+    public void addSymbolicExecution(long durationNanos, long allocatedBytes) {
+      symbolicExecutionNanos += durationNanos;
+      this.allocatedBytes += allocatedBytes;
+    }
+
+    /**
+     * Adds time spent waiting for another thread to analyze the file, which is not part of its analysis time.
+     */
+    public void addWait(long durationNanos) {
+      waitNanos += durationNanos;
+    }
+
+    public void setTokens(int tokens) {
+      this.tokens = tokens;
+    }
+
+    public long parseNanos() {
+      return parseNanos;
+    }
+
+    public long convertNanos() {
+      return convertNanos;
+    }
+
+    public long symbolTableNanos() {
+      return symbolTableNanos;
+    }
+
+    public long scannersNanos() {
+      return scannersNanos;
+    }
+
+    public long symbolicExecutionNanos() {
+      return symbolicExecutionNanos;
+    }
+
+    public long waitNanos() {
+      return waitNanos;
+    }
+
+    public long allocatedBytes() {
+      return allocatedBytes;
+    }
+
+    /**
+     * @return the number of tokens of the tree of the file, or -1 when it has not been converted
+     */
+    public int tokens() {
+      return tokens;
+    }
+
+    private JsonObject toJson() {
+      JsonObject json = new JsonObject();
+      json.addProperty("file", file);
+      json.addProperty("analysisTimeMs", analysisTime);
+      json.addProperty("lengthInBytes", lengthInBytes);
+      json.addProperty("tokens", tokens);
+      json.addProperty("allocatedBytes", allocatedBytes);
+      JsonObject phases = new JsonObject();
+      phases.addProperty("parse", parseNanos);
+      phases.addProperty("convert", convertNanos);
+      phases.addProperty("symbolTable", symbolTableNanos);
+      phases.addProperty("scanners", scannersNanos);
+      phases.addProperty("symbolicExecution", symbolicExecutionNanos);
+      json.add("phasesNanos", phases);
+      return json;
     }
   }
 
-  private static final Comparator<ExecutionTime> ORDER_BY_ANALYSIS_TIME_DESCENDING_AND_FILE_ASCENDING = (a, b) -> {
+  private static final Comparator<FileProfile> ORDER_BY_ANALYSIS_TIME_DESCENDING_AND_FILE_ASCENDING = (a, b) -> {
     int compare = Long.compare(b.analysisTime, a.analysisTime);
     return compare != 0 ? compare : a.file.compareTo(b.file);
   };
 
-  private final LinkedList<ExecutionTime> recordedOrderedExecutionTime = new LinkedList<>();
-  private long minRecordedOrderedExecutionTime = MIN_REPORTED_ANALYSIS_TIME_MS;
+  /**
+   * The slowest files, the fastest of them first.
+   */
+  private final PriorityQueue<FileProfile> slowestFiles = new PriorityQueue<>(ORDER_BY_ANALYSIS_TIME_DESCENDING_AND_FILE_ASCENDING.reversed());
 
   private final Clock clock;
+  @Nullable
+  private final Path destination;
   private final long analysisStartTimeMS;
   private InputFile currentFile;
+  private FileProfile currentProfile;
   private long currentFileStartTimeMS;
 
   public ExecutionTimeReport() {
-    this(Clock.systemUTC());
+    this(Clock.systemUTC(), null);
+  }
+
+  /**
+   * @param destination of the profiles of the slowest files, saved as JSON when reported
+   */
+  public ExecutionTimeReport(@Nullable Path destination) {
+    this(Clock.systemUTC(), destination);
   }
 
   @VisibleForTesting
   ExecutionTimeReport(Clock clock) {
+    this(clock, null);
+  }
+
+  @VisibleForTesting
+  ExecutionTimeReport(Clock clock, @Nullable Path destination) {
     this.clock = clock;
+    this.destination = destination;
     analysisStartTimeMS = clock.millis();
   }
 
+  private static LongSupplier threadAllocatedBytes() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+      && threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+      return threadMXBean::getCurrentThreadAllocatedBytes;
+    }
+    return () -> 0L;
+  }
+
+  /**
+   * @return the bytes allocated by the current thread, or 0 when the JVM does not measure them
+   */
+  public static long currentThreadAllocatedBytes() {
+    return THREAD_ALLOCATED_BYTES.getAsLong();
+  }
+
   public void start(InputFile inputFile) {
     this.currentFile = inputFile;
+    this.currentProfile = new FileProfile(inputFile.toString());
     currentFileStartTimeMS = clock.millis();
   }
 
+  /**
+   * Starts the analysis of a file which has already been parsed, as in batch mode. The parsing is part of the analysis time.
+   */
+  public void start(InputFile inputFile, long parseNanos, long parseAllocatedBytes) {
+    start(inputFile);
+    currentProfile.addParse(parseNanos, parseAllocatedBytes);
+    currentFileStartTimeMS -= parseNanos / 1_000_000L;
+  }
+
+  /**
+   * @return the profile of the file being analyzed, if any
+   */
+  @CheckForNull
+  public FileProfile currentProfile() {
+    return currentProfile;
+  }
+
   public void end() {
-    long currentAnalysisTime = clock.millis() - currentFileStartTimeMS;
+    long currentAnalysisTime = clock.millis() - currentFileStartTimeMS - currentProfile.waitNanos / 1_000_000L;
     if (LOG.isTraceEnabled()) {
       LOG.trace("Analysis time of {} ({}ms)", currentFile, currentAnalysisTime);
     } else if (currentAnalysisTime >= MIN_REPORTED_ANALYSIS_TIME_MS && LOG.isDebugEnabled()) {
       LOG.debug("Analysis time of {} ({}ms)", currentFile, currentAnalysisTime);
     }
-    if (currentAnalysisTime >= minRecordedOrderedExecutionTime) {
-      long currentFileLengthInBytes;
+    currentProfile.analysisTime = currentAnalysisTime;
+    if (currentAnalysisTime >= MIN_REPORTED_ANALYSIS_TIME_MS && isAmongSlowestFiles(currentProfile)) {
       try {
-        currentFileLengthInBytes = currentFile.contents().length();
+        currentProfile.lengthInBytes = currentFile.contents().length();
       } catch (IOException ignored) {
         // Ignore and use the default size
-        currentFileLengthInBytes = -1;
-      }
-      recordedOrderedExecutionTime.add(new ExecutionTime(currentFile.toString(), currentAnalysisTime, currentFileLengthInBytes));
-      recordedOrderedExecutionTime.sort(ORDER_BY_ANALYSIS_TIME_DESCENDING_AND_FILE_ASCENDING);
-      if (recordedOrderedExecutionTime.size() > MAX_REPORTED_FILES) {
-        recordedOrderedExecutionTime.removeLast();
-        minRecordedOrderedExecutionTime = recordedOrderedExecutionTime.stream()
-          .mapToLong(e -> e.analysisTime)
-          .min()
-          .orElse(MIN_REPORTED_ANALYSIS_TIME_MS);
       }
+      keep(currentProfile);
     }
     this.currentFile = null;
+    this.currentProfile = null;
+  }
+
+  private boolean isAmongSlowestFiles(FileProfile profile) {
+    return slowestFiles.size() < MAX_REPORTED_FILES
+      || ORDER_BY_ANALYSIS_TIME_DESCENDING_AND_FILE_ASCENDING.compare(profile, slowestFiles.peek()) < 0;
+  }
+
+  private void keep(FileProfile profile) {
+    slowestFiles.add(profile);
+    if (slowestFiles.size() > MAX_REPORTED_FILES) {
+      slowestFiles.poll();
+    }
+  }
+
+  /**
+   * Adds the slowest files of the given report, whose analysis is over, to the ones of this report.
+   */
+  public synchronized void merge(ExecutionTimeReport other) {
+    if (other.currentFile != null) {
+      other.end();
+    }
+    for (FileProfile profile : other.slowestFiles) {
+      if (isAmongSlowestFiles(profile)) {
+        keep(profile);
+      }
+    }
   }
 
   public void reportAsBatch() {
@@ -109,19 +291,41 @@ public class ExecutionTimeReport {
     report("Slowest analyzed files:");
   }
 
-  private void report(String message) {
+  private synchronized void report(String message) {
     if (currentFile != null) {
       end();
     }
     long analysisEndTimeMS = clock.millis() - analysisStartTimeMS;
-    if (LOG.isInfoEnabled() && analysisEndTimeMS >= MIN_TOTAL_ANALYSIS_TIME_TO_REPORT_MS && !recordedOrderedExecutionTime.isEmpty()) {
+    if (LOG.isInfoEnabled() && analysisEndTimeMS >= MIN_TOTAL_ANALYSIS_TIME_TO_REPORT_MS && !slowestFiles.isEmpty()) {
       LOG.info("{}{}{}", message, System.lineSeparator(), this);
     }
+    if (destination != null) {
+      save(destination);
+    }
+  }
+
+  private void save(Path destination) {
+    JsonArray files = new JsonArray();
+    slowestFilesFirst().forEach(profile -> files.add(profile.toJson()));
+    JsonObject json = new JsonObject();
+    json.add("slowestFiles", files);
+    try {
+      Files.writeString(destination, new GsonBuilder().setPrettyPrinting().create().toJson(json), StandardCharsets.UTF_8);
+      LOG.info("Profiles of the slowest files saved into: {}", destination);
+    } catch (IOException e) {
+      LOG.error("Can't save the profiles of the slowest files into: {}", destination, e);
+    }
+  }
+
+  private List<FileProfile> slowestFilesFirst() {
+    List<FileProfile> profiles = new ArrayList<>(slowestFiles);
+    profiles.sort(ORDER_BY_ANALYSIS_TIME_DESCENDING_AND_FILE_ASCENDING);
+    return profiles;
   }
 
   @Override
   public String toString() {
-    return recordedOrderedExecutionTime.stream()
+    return slowestFilesFirst().stream()
       .map(e -> "    " + e.file + " (" + e.analysisTime + "ms, " + e.lengthInBytes + "B)")
       .collect(Collectors.joining(System.lineSeparator()));
   }
@@ -26,9 +26,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -156,9 +159,9 @@ public class JavaFrontend {
     boolean isSonarLint = sonarComponents != null && sonarComponents.isSonarLintContext();
     boolean fileByFileMode = isSonarLint || isFileByFileEnabled();
     if (fileByFileMode) {
-      scanAndMeasureTask(sourceFiles, astScanner::scan, "Main");
-      scanAndMeasureTask(testFiles, astScannerForTests::scan, "Test");
-      scanAndMeasureTask(generatedFiles, astScannerForGeneratedFiles::scan, "Generated");
+      scanAndMeasureTask(sourceFiles, files -> astScanner.scan(files, executionTimeReport()), "Main");
+      scanAndMeasureTask(testFiles, files -> astScannerForTests.scan(files, executionTimeReport()), "Test");
+      scanAndMeasureTask(generatedFiles, files -> astScannerForGeneratedFiles.scan(files, executionTimeReport()), "Generated");
     } else if (isAutoScan()) {
       scanAsBatch(new AutoScanBatchContext(), sourceFiles, testFiles);
     } else {
@@ -166,6 +169,24 @@ public class JavaFrontend {
       scanAsBatch(new DefaultBatchModeContext(astScannerForTests, "Test"), testFiles);
       scanAsBatch(new DefaultBatchModeContext(astScannerForGeneratedFiles, "Generated"), generatedFiles);
     }
+
+    ExecutionTimeReport executionTimeReport = executionTimeReport();
+    if (executionTimeReport != null) {
+      if (fileByFileMode) {
+        executionTimeReport.report();
+      } else {
+        executionTimeReport.reportAsBatch();
+      }
+    }
+    RuleCostReport ruleCostReport = sonarComponents != null ? sonarComponents.ruleCostReport() : null;
+    if (ruleCostReport != null) {
+      ruleCostReport.report();
+    }
+  }
+
+  @CheckForNull
+  private ExecutionTimeReport executionTimeReport() {
+    return sonarComponents != null ? sonarComponents.executionTimeReport() : null;
   }
 
   /**
@@ -218,23 +239,70 @@ public class JavaFrontend {
       long batchSize = batchModeSizeInKB * 1_000L;
       LOG.info("{} with batch size {} KB.", logUsingBatch, batchModeSizeInKB);
       BatchGenerator generator = new BatchGenerator(allInputFiles.iterator(), batchSize);
-      while (generator.hasNext()) {
-        List<InputFile> batch = generator.next();
-        scanBatch(context, batch, analysisProgress);
+      int parallelism = getParsingParallelism();
+      double adaptiveBatchSizeTargetHeapUsage = getAdaptiveBatchSizeTargetHeapUsage();
+      if (parallelism > 1) {
+        LOG.info("Parsing up to {} batches in parallel.", parallelism);
+        int maxLiveTrees = getParsingParallelismMaxLiveTrees();
+        if (maxLiveTrees < parallelism) {
+          LOG.info("Keeping at most {} parsed files in memory until they are analyzed.", maxLiveTrees);
+        }
+        if (adaptiveBatchSizeTargetHeapUsage > 0.0) {
+          LOG.info("The batch size is not adapted to the heap usage when batches are parsed in parallel.");
+        }
+        new ParallelBatchScanner(parallelism, maxLiveTrees, getParsingParallelismMaxHeapUsage(), this::analysisCancelled)
+          .scan(generator, (batch, isCanceled, liveTrees, analyzer) -> scanBatch(context, batch, analysisProgress, isCanceled, liveTrees, analyzer));
+      } else if (adaptiveBatchSizeTargetHeapUsage > 0.0) {
+        LOG.info("Adapting the batch size to keep the heap usage below {}%.", Math.round(adaptiveBatchSizeTargetHeapUsage * 100));
+        new AdaptiveBatchScanner(adaptiveBatchSizeTargetHeapUsage).scan(generator, batch -> scanBatch(context, batch, analysisProgress));
+      } else {
+        while (generator.hasNext()) {
+          List<InputFile> batch = generator.next();
+          scanBatch(context, batch, analysisProgress);
+        }
       }
     }
   }
 
   private <T extends InputFile> void scanBatch(BatchModeContext context, List<T> batchFiles, AnalysisProgress analysisProgress) {
+    scanBatch(context, batchFiles, analysisProgress, this::analysisCancelled, null, Runnable::run);
+  }
+
+  /**
+   * @param liveTrees bounding the number of trees alive at the same time when batches are parsed in parallel
+   * @param analyzer executes the analysis of each parsed file, on the scanning thread when batches are parsed in parallel
+   */
+  private <T extends InputFile> void scanBatch(BatchModeContext context, List<T> batchFiles, AnalysisProgress analysisProgress,
+    BooleanSupplier isCanceled, @Nullable Semaphore liveTrees, Consumer<Runnable> analyzer) {
     analysisProgress.startBatch(batchFiles.size());
     Set<Runnable> environmentsCleaners = new HashSet<>();
     boolean shouldIgnoreUnnamedModuleForSplitPackage = sonarComponents!= null && sonarComponents.shouldIgnoreUnnamedModuleForSplitPackage();
     JParserConfig.Mode.BATCH
       .create(javaVersion, context.getClasspath(), shouldIgnoreUnnamedModuleForSplitPackage)
-      .parse(batchFiles, this::analysisCancelled, analysisProgress, (input, result) -> scanAsBatchCallback(input, result, context, environmentsCleaners));
+      .withExecutionTimeReport(executionTimeReport())
+      .withLiveTrees(liveTrees)
+      .parse(batchFiles, isCanceled, analysisProgress,
+        (input, result) -> handOver(analyzer, result.profile(), () -> scanAsBatchCallback(input, result, context, environmentsCleaners)));
     // Due to a bug in ECJ, JAR files remain locked after the analysis on Windows, we unlock them manually, at the end of each batches. See SONARJAVA-3609.
     environmentsCleaners.forEach(Runnable::run);
-    analysisProgress.endBatch();
+    analysisProgress.endBatch(batchFiles.size());
+  }
+
+  /**
+   * Hands the analysis of a parsed file over to the analyzer. The time spent waiting for the scanning thread, when batches are parsed
+   * in parallel, is not part of the analysis time of the file.
+   */
+  private static void handOver(Consumer<Runnable> analyzer, @Nullable ExecutionTimeReport.FileProfile profile, Runnable analysis) {
+    long handOverNanos = System.nanoTime();
+    long[] analysisNanos = {0L};
+    analyzer.accept(() -> {
+      long analysisStartNanos = System.nanoTime();
+      analysis.run();
+      analysisNanos[0] = System.nanoTime() - analysisStartNanos;
+    });
+    if (profile != null) {
+      profile.addWait(System.nanoTime() - handOverNanos - analysisNanos[0]);
+    }
   }
 
   private static void scanAsBatchCallback(InputFile inputFile, JParserConfig.Result result, BatchModeContext context, Set<Runnable> environmentsCleaners) {
@@ -327,7 +395,7 @@ public class JavaFrontend {
   }
 
   static class BatchGenerator {
-    public final long batchSizeInBytes;
+    private long batchSizeInBytes;
     private final Iterator<InputFile> source;
     private InputFile buffer = null;
 
@@ -337,6 +405,17 @@ public class JavaFrontend {
       this.batchSizeInBytes = batchSizeInBytes;
     }
 
+    public long batchSizeInBytes() {
+      return batchSizeInBytes;
+    }
+
+    /**
+     * Changes the size of the next batches.
+     */
+    public void setBatchSizeInBytes(long batchSizeInBytes) {
+      this.batchSizeInBytes = batchSizeInBytes;
+    }
+
     public boolean hasNext() {
       return buffer != null || source.hasNext();
     }
@@ -383,6 +462,23 @@ public class JavaFrontend {
     return sonarComponents != null && sonarComponents.isAutoScan();
   }
 
+  @VisibleForTesting
+  int getParsingParallelism() {
+    return sonarComponents == null ? 1 : sonarComponents.getParsingParallelism();
+  }
+
+  private int getParsingParallelismMaxLiveTrees() {
+    return sonarComponents == null ? 1 : sonarComponents.getParsingParallelismMaxLiveTrees();
+  }
+
+  private double getParsingParallelismMaxHeapUsage() {
+    return sonarComponents == null ? 1.0 : sonarComponents.getParsingParallelismMaxHeapUsage();
+  }
+
+  private double getAdaptiveBatchSizeTargetHeapUsage() {
+    return sonarComponents == null ? 0.0 : sonarComponents.getAdaptiveBatchSizeTargetHeapUsage();
+  }
+
   @VisibleForTesting
   long getBatchModeSizeInKB() {
     return sonarComponents == null ? -1L : sonarComponents.getBatchModeSizeInKB();
@@ -0,0 +1,275 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.annotations.VisibleForTesting;
+
+/**
+ * Scans batches of files as a pipeline: batches are parsed on a fixed number of threads, each batch by its own ECJ environment,
+ * and the converted trees are handed over to the scanning thread, which runs the checks one file at a time.
+ * Only the parsing is parallel: the analysis of the files is as sequential as when batches are parsed one after another.
+ * <p>
+ * Check instances are shared by all the batches and are not thread-safe, which is why there is a single consumer.
+ * An ECJ environment is not thread-safe either, while checks keep resolving bindings through it: a parsing thread therefore
+ * waits for the analysis of the tree it handed over before resolving the next file of its batch.
+ * As a consequence, the number of live trees never exceeds the parallelism. It can be bounded further: a parsing thread takes one of the
+ * permits of the live trees before converting a file, and releases it once the file is analyzed.
+ * <p>
+ * A new batch is only started when the heap usage is below the configured threshold, unless no other batch is in progress.
+ * A batch waiting for the heap to be available checks the heap usage again each time the analysis of a file or a batch ends.
+ */
+class ParallelBatchScanner {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelBatchScanner.class);
+  private static final long TERMINATION_TIMEOUT_IN_SECONDS = 60L;
+  private static final long POLL_INTERVAL_IN_MS = 50L;
+
+  @VisibleForTesting
+  static DoubleSupplier heapUsageProvider = ParallelBatchScanner::heapUsage;
+
+  private final int parallelism;
+  private final double maxHeapUsage;
+  private final Semaphore liveTrees;
+  private final BooleanSupplier isCanceled;
+  private final BlockingQueue<FileAnalysis> pendingAnalyses;
+  private final AtomicInteger batchesInProgress = new AtomicInteger();
+  /**
+   * Batches submitted and not done yet, whether they are started or not.
+   */
+  private final AtomicInteger remainingBatches = new AtomicInteger();
+  private final AtomicBoolean failed = new AtomicBoolean(false);
+  private final Lock progressLock = new ReentrantLock();
+  /**
+   * Signalled when the analysis of a file or a batch ends, including when a batch fails.
+   */
+  private final Condition progress = progressLock.newCondition();
+
+  ParallelBatchScanner(int parallelism, int maxLiveTrees, double maxHeapUsage, BooleanSupplier isCanceled) {
+    this.parallelism = parallelism;
+    this.maxHeapUsage = maxHeapUsage;
+    this.isCanceled = isCanceled;
+    this.liveTrees = new Semaphore(maxLiveTrees);
+    this.pendingAnalyses = new ArrayBlockingQueue<>(maxLiveTrees);
+  }
+
+  @FunctionalInterface
+  interface BatchScan {
+    /**
+     * @param liveTrees of which a permit has to be held from the conversion of a file until the end of its analysis
+     * @param analyzer to which the analysis of every parsed file has to be submitted, returns once the analysis is done
+     */
+    void scan(List<InputFile> batch, BooleanSupplier isCanceled, Semaphore liveTrees, Consumer<Runnable> analyzer);
+  }
+
+  void scan(JavaFrontend.BatchGenerator generator, BatchScan batchScan) {
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism, new BatchThreadFactory());
+    List<Future<?>> batches = new ArrayList<>();
+    try {
+      while (generator.hasNext()) {
+        List<InputFile> batch = generator.next();
+        remainingBatches.incrementAndGet();
+        batches.add(executor.submit(() -> scanBatch(batch, batchScan)));
+      }
+      analyzeUntilDone();
+      for (Future<?> batch : batches) {
+        await(batch);
+      }
+    } finally {
+      // stop the batches not yet started, and let the running ones notice that they have to stop through "shouldStop"
+      executor.shutdownNow();
+      awaitTermination(executor);
+    }
+  }
+
+  private void scanBatch(List<InputFile> batch, BatchScan batchScan) {
+    try {
+      awaitHeapAvailability();
+      batchesInProgress.incrementAndGet();
+      try {
+        batchScan.scan(batch, this::shouldStop, liveTrees, this::submitAndWait);
+      } finally {
+        batchesInProgress.decrementAndGet();
+      }
+    } catch (RuntimeException | Error e) {
+      failed.set(true);
+      throw e;
+    } finally {
+      remainingBatches.decrementAndGet();
+      signalProgress();
+    }
+  }
+
+  private void awaitHeapAvailability() {
+    boolean logged = false;
+    progressLock.lock();
+    try {
+      while (!shouldStop() && batchesInProgress.get() > 0 && heapUsageProvider.getAsDouble() > maxHeapUsage) {
+        if (!logged) {
+          LOG.debug("Heap usage above {}%, waiting for other batches to complete.", (int) (maxHeapUsage * 100));
+          logged = true;
+        }
+        progress.await();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AnalysisException("Analysis cancelled", e);
+    } finally {
+      progressLock.unlock();
+    }
+  }
+
+  private void signalProgress() {
+    progressLock.lock();
+    try {
+      progress.signalAll();
+    } finally {
+      progressLock.unlock();
+    }
+  }
+
+  /**
+   * Runs on the scanning thread: executes the analyses submitted by the parsing threads until all the batches are done.
+   */
+  private void analyzeUntilDone() {
+    while (remainingBatches.get() > 0) {
+      FileAnalysis analysis;
+      try {
+        analysis = pendingAnalyses.poll(POLL_INTERVAL_IN_MS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        failed.set(true);
+        Thread.currentThread().interrupt();
+        throw new AnalysisException("Analysis cancelled", e);
+      }
+      if (analysis != null) {
+        analysis.run();
+        signalProgress();
+      }
+    }
+  }
+
+  private void submitAndWait(Runnable action) {
+    FileAnalysis analysis = new FileAnalysis(action);
+    try {
+      pendingAnalyses.put(analysis);
+      analysis.done.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AnalysisException("Analysis cancelled", e);
+    } catch (ExecutionException e) {
+      throw rethrow(e.getCause());
+    }
+  }
+
+  private boolean shouldStop() {
+    return failed.get() || isCanceled.getAsBoolean();
+  }
+
+  private void await(Future<?> batch) {
+    try {
+      batch.get();
+    } catch (InterruptedException e) {
+      failed.set(true);
+      Thread.currentThread().interrupt();
+      throw new AnalysisException("Analysis cancelled", e);
+    } catch (ExecutionException e) {
+      failed.set(true);
+      throw rethrow(e.getCause());
+    }
+  }
+
+  private static RuntimeException rethrow(Throwable cause) {
+    if (cause instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    }
+    if (cause instanceof Error error) {
+      throw error;
+    }
+    throw new AnalysisException("Unable to scan batch", cause);
+  }
+
+  private static double heapUsage() {
+    MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    long max = heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+    return heap.getUsed() / (double) max;
+  }
+
+  private static void awaitTermination(ExecutorService executor) {
+    try {
+      if (!executor.awaitTermination(TERMINATION_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+        LOG.warn("Some batches were still running {} seconds after the end of the analysis.", TERMINATION_TIMEOUT_IN_SECONDS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class FileAnalysis {
+    private final Runnable action;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private FileAnalysis(Runnable action) {
+      this.action = action;
+    }
+
+    private void run() {
+      try {
+        action.run();
+        done.complete(null);
+      } catch (RuntimeException | Error e) {
+        // the failure is reported to the parsing thread, which handles it as in sequential mode
+        done.completeExceptionally(e);
+      }
+    }
+  }
+
+  private static class BatchThreadFactory implements ThreadFactory {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "sonar-java-batch-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+}
@@ -0,0 +1,265 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.java.annotations.VisibleForTesting;
+
+/**
+ * CPU time and allocations of the rules, measured with the counters of the analyzing thread, aggregated by rule and by file.
+ * Unlike the performance measure, a measure does not allocate nor look up anything: each rule is given a {@link RuleCost} once,
+ * to which the analyzing thread adds the difference of its counters around every call to the rule.
+ * <p>
+ * At the end of the analysis, the most expensive rules and the most expensive rules on a single file are logged, and all the costs
+ * are written as JSON.
+ */
+public class RuleCostReport {
+  private static final Logger LOG = LoggerFactory.getLogger(RuleCostReport.class);
+
+  private static final int MAX_REPORTED_COSTS = 10;
+
+  private static final Comparator<FileCost> ORDER_BY_CPU_TIME = Comparator.comparingLong(FileCost::cpuNanos)
+    .thenComparing(FileCost::rule, Comparator.reverseOrder())
+    .thenComparing(FileCost::file, Comparator.reverseOrder());
+
+  private final LongSupplier cpuTimeNanos;
+  private final LongSupplier allocatedBytes;
+  @Nullable
+  private final Path destination;
+  private final Map<String, RuleCost> costsByRule = new HashMap<>();
+  /**
+   * The most expensive rules on a single file, the cheapest first.
+   */
+  private final PriorityQueue<FileCost> mostExpensiveFileCosts = new PriorityQueue<>(ORDER_BY_CPU_TIME);
+
+  public RuleCostReport(@Nullable Path destination) {
+    this(threadCpuTime(), threadAllocatedBytes(), destination);
+  }
+
+  @VisibleForTesting
+  RuleCostReport(LongSupplier cpuTimeNanos, LongSupplier allocatedBytes, @Nullable Path destination) {
+    this.cpuTimeNanos = cpuTimeNanos;
+    this.allocatedBytes = allocatedBytes;
+    this.destination = destination;
+  }
+
+  private static LongSupplier threadCpuTime() {
+    var threadMXBean = ManagementFactory.getThreadMXBean();
+    if (!threadMXBean.isCurrentThreadCpuTimeSupported() || !threadMXBean.isThreadCpuTimeEnabled()) {
+      LOG.warn("The CPU time of threads cannot be measured, the cost of the rules will only include their allocations.");
+      return () -> 0L;
+    }
+    return threadMXBean::getCurrentThreadCpuTime;
+  }
+
+  private static LongSupplier threadAllocatedBytes() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+      && threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+      return threadMXBean::getCurrentThreadAllocatedBytes;
+    }
+    LOG.warn("The memory allocated by threads cannot be measured, the cost of the rules will only include their CPU time.");
+    return () -> 0L;
+  }
+
+  /**
+   * @return the CPU time of the current thread, in nanoseconds
+   */
+  public long cpuTime() {
+    return cpuTimeNanos.getAsLong();
+  }
+
+  /**
+   * @return the bytes allocated by the current thread
+   */
+  public long allocatedBytes() {
+    return allocatedBytes.getAsLong();
+  }
+
+  /**
+   * @return the cost of the given rule, shared by all its instances
+   */
+  public RuleCost costOf(String rule) {
+    return costsByRule.computeIfAbsent(rule, RuleCost::new);
+  }
+
+  /**
+   * Aggregates the costs of the rules on the given file, once it has been analyzed by all of them.
+   */
+  public void endOfFile(String file) {
+    for (RuleCost cost : costsByRule.values()) {
+      if (cost.fileCalls > 0) {
+        FileCost fileCost = new FileCost(cost.rule, file, cost.fileCpuNanos, cost.fileAllocatedBytes);
+        if (mostExpensiveFileCosts.size() < MAX_REPORTED_COSTS) {
+          mostExpensiveFileCosts.add(fileCost);
+        } else if (ORDER_BY_CPU_TIME.compare(fileCost, mostExpensiveFileCosts.peek()) > 0) {
+          mostExpensiveFileCosts.poll();
+          mostExpensiveFileCosts.add(fileCost);
+        }
+        cost.endOfFile();
+      }
+    }
+  }
+
+  public void report() {
+    List<RuleCost> costs = costsByRule.values().stream()
+      .filter(cost -> cost.calls > 0)
+      .sorted(Comparator.comparingLong(RuleCost::cpuNanos).reversed().thenComparing(RuleCost::rule))
+      .toList();
+    if (costs.isEmpty()) {
+      return;
+    }
+    if (LOG.isInfoEnabled()) {
+      LOG.info("Most expensive rules:{}{}", System.lineSeparator(), costs.stream()
+        .limit(MAX_REPORTED_COSTS)
+        .map(RuleCost::toString)
+        .collect(Collectors.joining(System.lineSeparator())));
+      LOG.info("Most expensive rules on a single file:{}{}", System.lineSeparator(), mostExpensiveFileCosts().stream()
+        .map(FileCost::toString)
+        .collect(Collectors.joining(System.lineSeparator())));
+    }
+    if (destination != null) {
+      try {
+        Files.writeString(destination, toJson(costs), StandardCharsets.UTF_8);
+        LOG.info("Rule costs saved into: {}", destination);
+      } catch (IOException e) {
+        LOG.error("Can't save rule costs into: {}", destination, e);
+      }
+    }
+  }
+
+  /**
+   * @return the most expensive rules on a single file, the most expensive first
+   */
+  @VisibleForTesting
+  List<FileCost> mostExpensiveFileCosts() {
+    List<FileCost> fileCosts = new ArrayList<>(mostExpensiveFileCosts);
+    fileCosts.sort(ORDER_BY_CPU_TIME.reversed());
+    return fileCosts;
+  }
+
+  private String toJson(List<RuleCost> costs) {
+    JsonObject json = new JsonObject();
+    JsonArray rules = new JsonArray();
+    for (RuleCost cost : costs) {
+      JsonObject rule = new JsonObject();
+      rule.addProperty("rule", cost.rule);
+      rule.addProperty("cpuNanos", cost.cpuNanos);
+      rule.addProperty("allocatedBytes", cost.allocatedBytes);
+      rule.addProperty("calls", cost.calls);
+      rule.addProperty("files", cost.files);
+      rules.add(rule);
+    }
+    json.add("rules", rules);
+    JsonArray files = new JsonArray();
+    for (FileCost cost : mostExpensiveFileCosts()) {
+      JsonObject file = new JsonObject();
+      file.addProperty("rule", cost.rule);
+      file.addProperty("file", cost.file);
+      file.addProperty("cpuNanos", cost.cpuNanos);
+      file.addProperty("allocatedBytes", cost.allocatedBytes);
+      files.add(file);
+    }
+    json.add("mostExpensiveFiles", files);
+    return new GsonBuilder().setPrettyPrinting().create().toJson(json);
+  }
+
+  /**
+   * Cost of a rule, over all the files and on the file being analyzed. It is updated by a single thread at a time.
+   */
+  public static final class RuleCost {
+    private final String rule;
+    private long cpuNanos;
+    private long allocatedBytes;
+    private long calls;
+    private int files;
+    private long fileCpuNanos;
+    private long fileAllocatedBytes;
+    private long fileCalls;
+
+    private RuleCost(String rule) {
+      this.rule = rule;
+    }
+
+    public void add(long cpuNanos, long allocatedBytes) {
+      fileCpuNanos += cpuNanos;
+      fileAllocatedBytes += allocatedBytes;
+      fileCalls++;
+    }
+
+    private void endOfFile() {
+      cpuNanos += fileCpuNanos;
+      allocatedBytes += fileAllocatedBytes;
+      calls += fileCalls;
+      files++;
+      fileCpuNanos = 0L;
+      fileAllocatedBytes = 0L;
+      fileCalls = 0L;
+    }
+
+    public String rule() {
+      return rule;
+    }
+
+    public long cpuNanos() {
+      return cpuNanos;
+    }
+
+    public long allocatedBytes() {
+      return allocatedBytes;
+    }
+
+    public long calls() {
+      return calls;
+    }
+
+    public int files() {
+      return files;
+    }
+
+    @Override
+    public String toString() {
+      return "    " + rule + " (" + (cpuNanos / 1_000_000L) + "ms, " + allocatedBytes + "B, " + calls + " calls, " + files + " files)";
+    }
+  }
+
+  @VisibleForTesting
+  record FileCost(String rule, String file, long cpuNanos, long allocatedBytes) {
+    @Override
+    public String toString() {
+      return "    " + rule + " on " + file + " (" + (cpuNanos / 1_000_000L) + "ms, " + allocatedBytes + "B)";
+    }
+  }
+
+}
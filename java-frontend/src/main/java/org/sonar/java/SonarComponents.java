@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -32,6 +33,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
 import java.util.function.LongSupplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
@@ -58,7 +61,9 @@ import org.sonar.api.measures.FileLinesContextFactory;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.utils.Version;
 import org.sonar.java.annotations.VisibleForTesting;
+import org.sonar.java.caching.CacheContextImpl;
 import org.sonar.java.caching.ContentHashCache;
+import org.sonar.java.caching.FileHashingUtils;
 import org.sonar.java.classpath.ClasspathForMain;
 import org.sonar.java.classpath.ClasspathForTest;
 import org.sonar.java.exceptions.ApiMismatchException;
@@ -87,6 +92,52 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
   public static final String SONAR_AUTOSCAN_CHECK_FILTERING = "sonar.internal.analysis.autoscan.filtering";
   public static final String SONAR_BATCH_SIZE_KEY = "sonar.java.experimental.batchModeSizeInKB";
   public static final String SONAR_FILE_BY_FILE = "sonar.java.fileByFile";
+  /**
+   * Number of ECJ batches that can be parsed concurrently. Only the parsing is parallel: the parsed files are still analyzed by the
+   * checks one file at a time, on a single thread. By default, batches are parsed one after another.
+   */
+  public static final String SONAR_PARSING_PARALLELISM_KEY = "sonar.java.experimental.parsingParallelism";
+  /**
+   * Percentage of the maximum heap above which no new batch is started when batches are parsed in parallel.
+   */
+  public static final String SONAR_PARSING_PARALLELISM_MAX_HEAP_USAGE_KEY = "sonar.java.experimental.parsingParallelism.maxHeapUsagePercent";
+  private static final int DEFAULT_PARSING_PARALLELISM_MAX_HEAP_USAGE_PERCENT = 70;
+  /**
+   * Maximum number of trees converted and not yet analyzed when batches are parsed in parallel. By default, each parsing thread holds
+   * at most one tree, so the parsing parallelism is the limit.
+   */
+  public static final String SONAR_PARSING_PARALLELISM_MAX_LIVE_TREES_KEY = "sonar.java.experimental.parsingParallelism.maxLiveTrees";
+  /**
+   * Percentage of the maximum heap that the heap used by a batch should not exceed when batches are parsed one after another.
+   * When set, the size of each batch is adapted to the heap used by the previous one, starting from the batch mode size.
+   * By default, all the batches have the batch mode size.
+   */
+  public static final String SONAR_ADAPTIVE_BATCH_SIZE_TARGET_HEAP_USAGE_KEY = "sonar.java.experimental.adaptiveBatchSize.targetHeapUsagePercent";
+  /**
+   * Number of groups of subscription visitors walking the tree of a file concurrently. Only the visitors implementing
+   * {@link org.sonar.plugins.java.api.internal.ThreadSafeVisitor} are distributed among these groups, the others are run on the scanning thread.
+   * By default, all the visitors are run on the scanning thread.
+   */
+  public static final String SONAR_CONCURRENT_VISITOR_GROUPS_KEY = "sonar.java.experimental.concurrentVisitorGroups";
+  /**
+   * Number of threads computing the content hashes of the files before deciding which ones can be scanned without parsing.
+   * By default, the hash of each file is computed when the file is considered.
+   */
+  public static final String SONAR_FILE_HASHING_PARALLELISM_KEY = "sonar.java.experimental.fileHashingParallelism";
+  /**
+   * Activates the report of the time spent in the different steps of the analysis, down to every check.
+   */
+  public static final String PERFORMANCE_MEASURE_ACTIVATION_KEY = "sonar.java.performance.measure";
+  /**
+   * Path of the file the performance measures are saved into, instead of a file of the work directory.
+   */
+  public static final String PERFORMANCE_MEASURE_FILE_PATH_PROPERTY = "sonar.java.performance.measure.path";
+  private static final String FILE_PROFILES_DESTINATION_FILE = "sonar.java.performance.files.json";
+  /**
+   * Activates the report of the CPU time and allocations of every rule, saved into the work directory.
+   */
+  public static final String RULE_COST_MEASURE_ACTIVATION_KEY = "sonar.java.performance.rules";
+  private static final String RULE_COST_DESTINATION_FILE = "sonar.java.performance.rules.json";
   /**
    * Describes if an optimized analysis of unchanged by skipping some rules is enabled.
    * By default, the property is not set (null), leaving SQ/SC to decide whether to enable this behavior.
@@ -104,6 +155,8 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
   private static final Version SONARQUBE_9_2 = Version.parse("9.2");
   @VisibleForTesting
   static LongSupplier maxMemoryInBytesProvider = () -> Runtime.getRuntime().maxMemory();
+  @VisibleForTesting
+  static IntSupplier availableProcessorsProvider = () -> Runtime.getRuntime().availableProcessors();
 
   private final FileLinesContextFactory fileLinesContextFactory;
 
@@ -127,6 +180,13 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
   private final Set<RuleKey> additionalAutoScanCompatibleRuleKeys;
 
   private boolean alreadyLoggedSkipStatus = false;
+  @Nullable
+  private RuleCostReport ruleCostReport;
+  private ExecutionTimeReport executionTimeReport;
+  private final Map<InputFile, byte[]> prefetchedContentHashes = new HashMap<>();
+  @Nullable
+  private Map<String, InputFile> javaFilesByKey;
+  private final Map<String, Boolean> unchangedFiles = new ConcurrentHashMap<>();
 
   public SonarComponents(FileLinesContextFactory fileLinesContextFactory, FileSystem fs,
     ClasspathForMain javaClasspath, ClasspathForTest javaTestClasspath,
@@ -476,6 +536,151 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
     return config.getLong(SONAR_BATCH_SIZE_KEY).orElse(computeIdealBatchSize());
   }
 
+  /**
+   * Returns the number of batches that can be parsed concurrently, as read from configuration.
+   * The value is bounded by the number of available processors, and is 1 when not configured.
+   */
+  public int getParsingParallelism() {
+    int parallelism = context.config().getInt(SONAR_PARSING_PARALLELISM_KEY).orElse(1);
+    return Math.max(1, Math.min(parallelism, availableProcessorsProvider.getAsInt()));
+  }
+
+  /**
+   * Returns the fraction of the maximum heap above which no new batch is started when batches are parsed in parallel.
+   */
+  public double getParsingParallelismMaxHeapUsage() {
+    int percent = context.config().getInt(SONAR_PARSING_PARALLELISM_MAX_HEAP_USAGE_KEY).orElse(DEFAULT_PARSING_PARALLELISM_MAX_HEAP_USAGE_PERCENT);
+    return Math.max(1, Math.min(percent, 100)) / 100.0;
+  }
+
+  /**
+   * Returns the number of trees that can be converted and not yet analyzed at the same time when batches are parsed in parallel.
+   * The value is bounded by the parsing parallelism, which is also the default.
+   */
+  public int getParsingParallelismMaxLiveTrees() {
+    int parallelism = getParsingParallelism();
+    int maxLiveTrees = context.config().getInt(SONAR_PARSING_PARALLELISM_MAX_LIVE_TREES_KEY).orElse(parallelism);
+    return Math.max(1, Math.min(maxLiveTrees, parallelism));
+  }
+
+  /**
+   * Returns the fraction of the maximum heap that the heap used by a batch should not exceed, as read from configuration,
+   * or 0 when the batch size is not adapted to the heap usage.
+   */
+  public double getAdaptiveBatchSizeTargetHeapUsage() {
+    return context.config().getInt(SONAR_ADAPTIVE_BATCH_SIZE_TARGET_HEAP_USAGE_KEY)
+      .map(percent -> Math.max(1, Math.min(percent, 100)) / 100.0)
+      .orElse(0.0);
+  }
+
+  /**
+   * Returns the number of groups of thread-safe subscription visitors walking the tree of a file concurrently, as read from configuration.
+   * The value is bounded by the number of available processors, and is 0 when not configured.
+   */
+  public int getConcurrentVisitorGroups() {
+    if (context == null || context.config() == null) {
+      // visitors can be run without sensor context, in which case they all run on the scanning thread
+      return 0;
+    }
+    int groups = context.config().getInt(SONAR_CONCURRENT_VISITOR_GROUPS_KEY).orElse(0);
+    return Math.max(0, Math.min(groups, availableProcessorsProvider.getAsInt()));
+  }
+
+  /**
+   * Returns the number of threads computing the content hashes of the files, as read from configuration.
+   * Computing a hash is mostly I/O bound, so the value is bounded by 4 times the number of available processors. It is 1 when not configured.
+   */
+  public int getFileHashingParallelism() {
+    if (context == null || context.config() == null) {
+      return 1;
+    }
+    int parallelism = context.config().getInt(SONAR_FILE_HASHING_PARALLELISM_KEY).orElse(1);
+    return Math.max(1, Math.min(parallelism, 4 * availableProcessorsProvider.getAsInt()));
+  }
+
+  /**
+   * Computes the content hashes of the given files concurrently when configured to do so, so that {@link #fileCanBeSkipped(InputFile)}
+   * only has to compare them with the cached ones. The files are still considered one after another, in the same order.
+   */
+  public void prefetchContentHashes(List<? extends InputFile> inputFiles) {
+    int parallelism = getFileHashingParallelism();
+    if (parallelism <= 1 || !CacheContextImpl.of(this).isCacheEnabled()) {
+      return;
+    }
+    List<? extends InputFile> filesToHash = inputFiles.stream()
+      // Generated files are never skipped, their hash is not needed
+      .filter(inputFile -> !(inputFile instanceof GeneratedFile))
+      .toList();
+    LOG.debug("Computing the content hashes of {} files on {} threads.", filesToHash.size(), parallelism);
+    prefetchedContentHashes.putAll(FileHashingUtils.streamingContentHashes(filesToHash, parallelism));
+  }
+
+  /**
+   * Returns the content hash of the file computed by {@link #prefetchContentHashes(List)}, if any. The hash is only returned once.
+   */
+  @CheckForNull
+  public byte[] takePrefetchedContentHash(InputFile inputFile) {
+    return prefetchedContentHashes.remove(inputFile);
+  }
+
+  /**
+   * Tells whether the Java file of the analysis with the given key did not change since the previous analysis, according to the
+   * content hash kept in the analysis cache. This can be asked for any file, analyzed or not yet, from any thread.
+   * Unknown files are considered as changed.
+   */
+  public boolean isUnchangedFile(String inputFileKey) {
+    return unchangedFiles.computeIfAbsent(inputFileKey, key -> {
+      InputFile inputFile = javaFilesByKey().get(key);
+      return inputFile != null && new ContentHashCache(this).isUnchanged(inputFile);
+    });
+  }
+
+  private synchronized Map<String, InputFile> javaFilesByKey() {
+    if (javaFilesByKey == null) {
+      javaFilesByKey = new HashMap<>();
+      fs.inputFiles(fs.predicates().hasLanguage("java")).forEach(inputFile -> javaFilesByKey.put(inputFile.key(), inputFile));
+    }
+    return javaFilesByKey;
+  }
+
+  public boolean isPerformanceMeasureEnabled() {
+    if (context == null || context.config() == null) {
+      return false;
+    }
+    return context.config().get(PERFORMANCE_MEASURE_ACTIVATION_KEY).filter("true"::equals).isPresent();
+  }
+
+  /**
+   * @return the report of the costs of the rules, shared by all the analyzed files, or null when it is not activated
+   */
+  @CheckForNull
+  public RuleCostReport ruleCostReport() {
+    if (ruleCostReport == null && context != null && context.config() != null
+      && context.config().get(RULE_COST_MEASURE_ACTIVATION_KEY).filter("true"::equals).isPresent()) {
+      File workDir = fs.workDir();
+      ruleCostReport = new RuleCostReport(workDir != null && workDir.exists() ? workDir.toPath().resolve(RULE_COST_DESTINATION_FILE) : null);
+    }
+    return ruleCostReport;
+  }
+
+  /**
+   * @return the report of the slowest files, shared by all the analyzed files, or null when the performance measure is not activated.
+   * The profiles of the slowest files are saved next to the performance measure.
+   */
+  @CheckForNull
+  public ExecutionTimeReport executionTimeReport() {
+    if (executionTimeReport == null && isPerformanceMeasureEnabled()) {
+      executionTimeReport = new ExecutionTimeReport(context.config().get(PERFORMANCE_MEASURE_FILE_PATH_PROPERTY)
+        .filter(path -> !path.isEmpty())
+        .map(path -> Path.of(path).resolveSibling(FILE_PROFILES_DESTINATION_FILE))
+        .orElseGet(() -> {
+          File workDir = fs.workDir();
+          return workDir != null && workDir.exists() ? workDir.toPath().resolve(FILE_PROFILES_DESTINATION_FILE) : null;
+        }));
+    }
+    return executionTimeReport;
+  }
+
   public boolean shouldIgnoreUnnamedModuleForSplitPackage() {
     return context.config().getBoolean(SONAR_IGNORE_UNNAMED_MODULE_FOR_SPLIT_PACKAGE).orElse(false);
   }
@@ -35,6 +35,7 @@ import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.java.AnalysisException;
 import org.sonar.java.AnalysisProgress;
+import org.sonar.java.ExecutionTimeReport;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.java.model.JParserConfig;
@@ -72,12 +73,24 @@ public class JavaAstScanner {
    * under the {@code false} key, files that need to be parsed for further analysis.
    */
   public Map<Boolean, List<InputFile>> scanWithoutParsing(Iterable<? extends InputFile> inputFiles) {
-    return StreamSupport.stream(inputFiles.spliterator(), false)
+    List<? extends InputFile> files = StreamSupport.stream(inputFiles.spliterator(), false).toList();
+    if (sonarComponents != null) {
+      // Scanners are not thread-safe and are run one file after another, only the I/O bound hashing of the files can be done beforehand
+      sonarComponents.prefetchContentHashes(files);
+    }
+    return files.stream()
       // Split files between successfully scanned without parsing and failed to scan without parsing
       .collect(Collectors.partitioningBy(visitor::scanWithoutParsing));
   }
 
   public void scan(Iterable<? extends InputFile> inputFiles) {
+    scan(inputFiles, null);
+  }
+
+  /**
+   * @param executionTimeReport into which the slowest files are merged, instead of being reported at the end of the scan
+   */
+  public void scan(Iterable<? extends InputFile> inputFiles, @Nullable ExecutionTimeReport executionTimeReport) {
     List<? extends InputFile> filesNames = filterModuleInfo(inputFiles).toList();
     AnalysisProgress analysisProgress = new AnalysisProgress(filesNames.size());
     try {
@@ -85,6 +98,7 @@ public class JavaAstScanner {
         sonarComponents.shouldIgnoreUnnamedModuleForSplitPackage();
       JParserConfig.Mode.FILE_BY_FILE
         .create(visitor.getJavaVersion(), visitor.getClasspath(), shouldIgnoreUnnamedModuleForSplitPacakge)
+        .withExecutionTimeReport(executionTimeReport)
         .parse(filesNames,
           this::analysisCancelled,
           analysisProgress,
@@ -128,7 +142,7 @@ public class JavaAstScanner {
     visitor.setCurrentFile(inputFile);
     try {
       JavaTree.CompilationUnitTreeImpl ast = result.get();
-      visitor.visitFile(ast, sonarComponents != null && sonarComponents.fileCanBeSkipped(inputFile));
+      visitor.visitFile(ast, sonarComponents != null && sonarComponents.fileCanBeSkipped(inputFile), result.profile());
       String path = inputFile.toString();
       collectUndefinedTypes(path, ast.sema.undefinedTypes());
       cleanUp.accept(ast);
@@ -22,13 +22,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.plugins.java.api.tree.ListTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TreeVisitor;
 
-public abstract class ListTreeImpl<T extends Tree> extends JavaTree implements ListTree<T> {
+public abstract class ListTreeImpl<T extends Tree> extends AbstractCompositeTree implements ListTree<T> {
 
   private final List<T> list;
   private final List<SyntaxToken> separators;
@@ -17,6 +17,7 @@
 package org.sonar.java.caching;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import org.slf4j.Logger;
@@ -29,14 +30,21 @@ import org.sonar.java.SonarComponents;
 public class ContentHashCache {
 
   private static final Logger LOG = LoggerFactory.getLogger(ContentHashCache.class);
-  private static final String CONTENT_HASH_KEY = String.format("java:contentHash:%s:", FileHashingUtils.HASH_ALGORITHM);
+  /**
+   * The hashing algorithm is part of the key: when it changes, the entries written by previous versions are ignored, except for
+   * the legacy ones, which are compared one last time with the former algorithm before being replaced.
+   */
+  private static final String CONTENT_HASH_KEY = String.format("java:contentHash:%s:", FileHashingUtils.STREAMING_HASH_ALGORITHM);
+  private static final String LEGACY_CONTENT_HASH_KEY = String.format("java:contentHash:%s:", FileHashingUtils.HASH_ALGORITHM);
   private static final String HASH_COMPUTE_FAIL_MSG = "Failed to compute content hash for file %s";
 
+  private final SonarComponents sonarComponents;
   private ReadCache readCache;
   private WriteCache writeCache;
   private final boolean enabled;
 
   public ContentHashCache(SonarComponents sonarComponents) {
+    this.sonarComponents = sonarComponents;
     CacheContextImpl cacheContext = CacheContextImpl.of(sonarComponents);
     enabled = cacheContext.isCacheEnabled();
 
@@ -57,21 +65,62 @@ public class ContentHashCache {
       return false;
     }
     String cacheKey = getCacheKey(inputFile);
+    LOG.trace("Reading cache for the file {}", inputFile.key());
+    if (!readCache.contains(cacheKey)) {
+      LOG.trace(String.format("Could not find key %s in the cache", cacheKey));
+      return hasSameLegacyHashCached(inputFile);
+    }
     try {
-      LOG.trace("Reading cache for the file {}", inputFile.key());
       byte[] cachedHash = readCache.read(cacheKey).readAllBytes();
-      byte[] fileHash = FileHashingUtils.inputFileContentHash(inputFile);
+      byte[] fileHash = contentHash(inputFile);
       boolean isHashEqual = MessageDigest.isEqual(fileHash, cachedHash);
       if (isHashEqual) {
         copyFromPrevious(inputFile);
       } else {
-        writeToCache(inputFile);
+        write(inputFile, fileHash);
       }
       return isHashEqual;
-    } catch (IllegalArgumentException e) {
-      LOG.trace(String.format("Could not find key %s in the cache", cacheKey));
-      writeToCache(inputFile);
-    } catch (IOException | NoSuchAlgorithmException e) {
+    } catch (IOException e) {
+      LOG.warn(String.format(HASH_COMPUTE_FAIL_MSG, inputFile.key()));
+    }
+    return false;
+  }
+
+  /**
+   * Compares the file with the hash cached by a version using the former algorithm, and migrates the entry to the current one.
+   */
+  private boolean hasSameLegacyHashCached(InputFile inputFile) {
+    String legacyCacheKey = LEGACY_CONTENT_HASH_KEY + inputFile.key();
+    boolean isHashEqual = false;
+    if (readCache.contains(legacyCacheKey)) {
+      LOG.trace("Migrating the cached hash of the file {}", inputFile.key());
+      try {
+        byte[] cachedHash = readCache.read(legacyCacheKey).readAllBytes();
+        isHashEqual = MessageDigest.isEqual(FileHashingUtils.inputFileContentHash(inputFile), cachedHash);
+      } catch (IOException | NoSuchAlgorithmException e) {
+        LOG.warn(String.format(HASH_COMPUTE_FAIL_MSG, inputFile.key()));
+        return false;
+      }
+    }
+    writeToCache(inputFile);
+    return isHashEqual;
+  }
+
+  /**
+   * Compares the file with the hash cached by the previous analysis, like {@link #hasSameHashCached(InputFile)}, but without
+   * writing anything to the cache of the next analysis.
+   */
+  public boolean isUnchanged(InputFile inputFile) {
+    if (!enabled) {
+      return inputFile.status() == InputFile.Status.SAME;
+    }
+    String cacheKey = getCacheKey(inputFile);
+    if (!readCache.contains(cacheKey)) {
+      return false;
+    }
+    try (InputStream cachedHash = readCache.read(cacheKey)) {
+      return MessageDigest.isEqual(FileHashingUtils.streamingContentHash(inputFile), cachedHash.readAllBytes());
+    } catch (IOException e) {
       LOG.warn(String.format(HASH_COMPUTE_FAIL_MSG, inputFile.key()));
     }
     return false;
@@ -82,7 +131,7 @@ public class ContentHashCache {
       LOG.trace("Cannot lookup cached hashes when the cache is disabled ({}).", inputFile.key());
       return false;
     }
-    return readCache.contains(getCacheKey(inputFile));
+    return readCache.contains(getCacheKey(inputFile)) || readCache.contains(LEGACY_CONTENT_HASH_KEY + inputFile.key());
   }
 
   public boolean writeToCache(InputFile inputFile) {
@@ -90,22 +139,42 @@ public class ContentHashCache {
       LOG.trace("Cannot write hashes to the cache when the cache is disabled ({}).", inputFile.key());
       return false;
     }
+    byte[] fileHash;
+    try {
+      fileHash = contentHash(inputFile);
+    } catch (IOException e) {
+      LOG.warn(String.format(HASH_COMPUTE_FAIL_MSG, inputFile.key()));
+      return false;
+    }
+    return write(inputFile, fileHash);
+  }
+
+  private boolean write(InputFile inputFile, byte[] fileHash) {
     LOG.trace("Writing to the cache for file {}", inputFile.key());
     String cacheKey = getCacheKey(inputFile);
     try {
-      writeCache.write(cacheKey, FileHashingUtils.inputFileContentHash(inputFile));
+      writeCache.write(cacheKey, fileHash);
       return true;
     } catch (IllegalArgumentException e) {
       LOG.trace(String.format("Tried to write multiple times to cache key %s. Ignoring writes after the first.", cacheKey));
-    } catch (IOException | NoSuchAlgorithmException e) {
-      LOG.warn(String.format(HASH_COMPUTE_FAIL_MSG, inputFile.key()));
     }
     return false;
   }
 
+  private byte[] contentHash(InputFile inputFile) throws IOException {
+    byte[] prefetchedHash = sonarComponents.takePrefetchedContentHash(inputFile);
+    return prefetchedHash != null ? prefetchedHash : FileHashingUtils.streamingContentHash(inputFile);
+  }
+
   private void copyFromPrevious(InputFile inputFile) {
     LOG.trace("Copying cache from previous for file {}", inputFile.key());
-    writeCache.copyFromPrevious(getCacheKey(inputFile));
+    String cacheKey = getCacheKey(inputFile);
+    try {
+      writeCache.copyFromPrevious(cacheKey);
+    } catch (IllegalArgumentException e) {
+      // the same file is checked again when it cannot be scanned without parsing
+      LOG.trace(String.format("Tried to write multiple times to cache key %s. Ignoring writes after the first.", cacheKey));
+    }
   }
 
   private static String getCacheKey(InputFile inputFile) {
@@ -20,8 +20,20 @@ import org.sonar.api.batch.fs.InputFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -32,8 +44,81 @@ public class FileHashingUtils {
   private FileHashingUtils() {
   }
 
+  /**
+   * Algorithm of {@link #inputFileContentHash(InputFile)}, only kept to read the hashes cached by previous versions.
+   */
   public static final String HASH_ALGORITHM = "MD5";
 
+  /**
+   * Algorithm of {@link #streamingContentHash(InputFile)}.
+   */
+  public static final String STREAMING_HASH_ALGORITHM = "MURMUR3_128";
+
+  private static final int CHUNK_SIZE = 64 * 1024;
+  private static final ThreadLocal<ByteBuffer> CHUNKS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(CHUNK_SIZE));
+
+  /**
+   * Hashes the bytes of the file on disk, read in fixed-size chunks into a buffer reused by the calling thread, so that
+   * the content is never materialized. Files which are not on disk, like generated ones, are hashed from their contents.
+   */
+  public static byte[] streamingContentHash(InputFile inputFile) throws IOException {
+    Path path = inputFile.path();
+    if (path == null || !Files.isRegularFile(path)) {
+      Murmur3Hash128 hash = new Murmur3Hash128();
+      hash.update(inputFile.contents().getBytes(StandardCharsets.UTF_8));
+      return hash.digest();
+    }
+    return streamingContentHash(path);
+  }
+
+  /**
+   * Hashes the bytes of the file on disk like {@link #streamingContentHash(InputFile)}, for files known by their path only.
+   */
+  public static byte[] streamingContentHash(Path path) throws IOException {
+    Murmur3Hash128 hash = new Murmur3Hash128();
+    ByteBuffer chunk = CHUNKS.get();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      chunk.clear();
+      while (channel.read(chunk) >= 0) {
+        chunk.flip();
+        hash.update(chunk);
+        chunk.clear();
+      }
+    }
+    return hash.digest();
+  }
+
+  /**
+   * Computes the streaming hashes of the given files on a pool of {@code threads} threads, reading files being mostly I/O bound.
+   * The files whose hash cannot be computed are absent from the result, it is up to the caller to compute their hash again
+   * and to report the failure.
+   */
+  public static Map<InputFile, byte[]> streamingContentHashes(List<? extends InputFile> inputFiles, int threads) {
+    Map<InputFile, byte[]> hashes = new ConcurrentHashMap<>();
+    List<Callable<Void>> tasks = new ArrayList<>(inputFiles.size());
+    for (InputFile inputFile : inputFiles) {
+      tasks.add(() -> {
+        hashes.put(inputFile, streamingContentHash(inputFile));
+        return null;
+      });
+    }
+    AtomicInteger count = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "sonar-java-hashing-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      // failures are ignored on purpose, see above
+      executor.invokeAll(tasks);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+    }
+    return hashes;
+  }
+
   public static byte[] inputFileContentHash(InputFile inputFile) throws IOException, NoSuchAlgorithmException {
     byte[] contentBytes = inputFile.contents().getBytes(StandardCharsets.UTF_8);
     MessageDigest messageDigest = MessageDigest.getInstance(HASH_ALGORITHM);
@@ -0,0 +1,122 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Incremental implementation of the 128-bit x64 variant of MurmurHash3, with a seed of 0.
+ * The digest is the same as the one of Guava's {@code Hashing.murmur3_128()}, whatever the way the content is split into chunks.
+ */
+final class Murmur3Hash128 {
+
+  private static final int BLOCK_SIZE = 16;
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  private final ByteBuffer pending = ByteBuffer.allocate(BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+  private long h1;
+  private long h2;
+  private long length;
+
+  /**
+   * Consumes the remaining bytes of the given buffer, whose position is moved to its limit.
+   */
+  void update(ByteBuffer chunk) {
+    ByteBuffer bytes = chunk.order(ByteOrder.LITTLE_ENDIAN);
+    length += bytes.remaining();
+    if (pending.position() > 0) {
+      while (pending.hasRemaining() && bytes.hasRemaining()) {
+        pending.put(bytes.get());
+      }
+      if (pending.hasRemaining()) {
+        return;
+      }
+      pending.flip();
+      mixBlock(pending.getLong(), pending.getLong());
+      pending.clear();
+    }
+    while (bytes.remaining() >= BLOCK_SIZE) {
+      mixBlock(bytes.getLong(), bytes.getLong());
+    }
+    pending.put(bytes);
+  }
+
+  void update(byte[] bytes) {
+    update(ByteBuffer.wrap(bytes));
+  }
+
+  byte[] digest() {
+    mixTail();
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+    h1 += h2;
+    h2 += h1;
+    return ByteBuffer.allocate(BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN).putLong(h1).putLong(h2).array();
+  }
+
+  private void mixBlock(long k1, long k2) {
+    h1 ^= mixK1(k1);
+    h1 = Long.rotateLeft(h1, 27);
+    h1 += h2;
+    h1 = h1 * 5 + 0x52dce729;
+
+    h2 ^= mixK2(k2);
+    h2 = Long.rotateLeft(h2, 31);
+    h2 += h1;
+    h2 = h2 * 5 + 0x38495ab5;
+  }
+
+  private void mixTail() {
+    int tailLength = pending.position();
+    long k1 = 0;
+    long k2 = 0;
+    for (int i = tailLength - 1; i >= 0; i--) {
+      long value = pending.get(i) & 0xffL;
+      if (i >= 8) {
+        k2 |= value << ((i - 8) * 8);
+      } else {
+        k1 |= value << (i * 8);
+      }
+    }
+    h1 ^= mixK1(k1);
+    h2 ^= mixK2(k2);
+  }
+
+  private static long mixK1(long k1) {
+    return Long.rotateLeft(k1 * C1, 31) * C2;
+  }
+
+  private static long mixK2(long k2) {
+    return Long.rotateLeft(k2 * C2, 33) * C1;
+  }
+
+  private static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+
+}
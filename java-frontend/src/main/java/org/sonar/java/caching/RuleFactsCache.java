@@ -0,0 +1,133 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.plugins.java.api.InputFileScannerContext;
+import org.sonar.plugins.java.api.caching.CacheContext;
+
+/**
+ * Facts collected by a rule on a file, kept in the analysis cache from one analysis to the next one, so that the rule still knows
+ * them when the file did not change and is not parsed again.
+ * A rule writes the facts of each file it visits, and reads them back from {@code scanWithoutParsing}, which also keeps them for
+ * the next analysis.
+ * <p>
+ * Facts are strings, serialized as their number followed by the length and the UTF-8 bytes of each of them.
+ */
+public class RuleFactsCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RuleFactsCache.class);
+
+  private final String keyPrefix;
+
+  /**
+   * @param keyPrefix prefix of the cache keys, followed by the key of the file, for instance "java:S4605:targeted:v2:". It has to change
+   * whenever the facts written by the rule change, so that the entries of a previous analysis are not misread.
+   */
+  public RuleFactsCache(String keyPrefix) {
+    this.keyPrefix = keyPrefix;
+  }
+
+  public void write(InputFileScannerContext context, Collection<String> facts) {
+    String cacheKey = cacheKey(context);
+    try {
+      context.getCacheContext().getWriteCache().write(cacheKey, serialize(facts));
+    } catch (IllegalArgumentException e) {
+      LOG.trace("Tried to write multiple times to cache key '{}'. Ignoring writes after the first.", cacheKey);
+    }
+  }
+
+  /**
+   * @return the facts written for the file by the previous analysis, if any, which are then kept for the next analysis
+   */
+  public Optional<List<String>> read(InputFileScannerContext context) {
+    String cacheKey = cacheKey(context);
+    CacheContext cacheContext = context.getCacheContext();
+    byte[] bytes = cacheContext.getReadCache().readBytes(cacheKey);
+    if (bytes == null) {
+      return Optional.empty();
+    }
+    List<String> facts;
+    try {
+      facts = deserialize(bytes);
+    } catch (IllegalArgumentException e) {
+      LOG.trace("Cached entry is unreadable for key '{}': {}", cacheKey, e.getMessage());
+      return Optional.empty();
+    }
+    cacheContext.getWriteCache().copyFromPrevious(cacheKey);
+    return Optional.of(facts);
+  }
+
+  private String cacheKey(InputFileScannerContext context) {
+    return keyPrefix + context.getInputFile().key();
+  }
+
+  static byte[] serialize(Collection<String> facts) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(facts.size());
+      for (String fact : facts) {
+        byte[] factBytes = fact.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(factBytes.length);
+        out.write(factBytes);
+      }
+    } catch (IOException e) {
+      // not expected when writing to memory
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * @throws IllegalArgumentException when the bytes are not exactly the serialization of facts
+   */
+  static List<String> deserialize(byte[] bytes) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+      int size = in.readInt();
+      if (size < 0 || size > bytes.length) {
+        throw new IllegalArgumentException("Invalid number of facts: " + size);
+      }
+      List<String> facts = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+          throw new IllegalArgumentException("Invalid length of fact: " + length);
+        }
+        facts.add(new String(in.readNBytes(length), StandardCharsets.UTF_8));
+      }
+      if (in.available() > 0) {
+        throw new IllegalArgumentException("Unexpected bytes after the facts");
+      }
+      return facts;
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Truncated facts", e);
+    }
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.Arrays;
+import java.util.Set;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.DataflowAnalysis;
+import org.sonar.plugins.java.api.cfg.DataflowResult;
+import org.sonar.plugins.java.api.cfg.GenKillAnalysis;
+
+/**
+ * Solves dataflow analyses over control flow graphs, with a worklist processing the blocks in reverse post-order of the graph in the
+ * direction of the analysis.
+ */
+public final class Dataflow {
+
+  private Dataflow() {
+  }
+
+  public static <E> DataflowResult<Set<E>> analyze(ControlFlowGraph cfg, GenKillAnalysis<E> analysis) {
+    return new GenKillDataflow<>(cfg, analysis);
+  }
+
+  public static <T> DataflowResult<T> analyze(ControlFlowGraph cfg, DataflowAnalysis<T> analysis) {
+    DataflowGraph graph = new DataflowGraph(cfg, analysis.direction());
+    Object[] starts = new Object[graph.size()];
+    Object[] ends = new Object[graph.size()];
+    Arrays.fill(ends, analysis.initial());
+    graph.solve(block -> {
+      T start = start(graph, block, analysis, ends);
+      starts[block] = start;
+      T end = analysis.transfer(graph.blocks.get(block), start);
+      if (end.equals(ends[block])) {
+        return false;
+      }
+      ends[block] = end;
+      return true;
+    });
+    return graph.direction == DataflowAnalysis.Direction.FORWARD
+      ? new Result<>(graph, starts, ends)
+      : new Result<>(graph, ends, starts);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T start(DataflowGraph graph, int block, DataflowAnalysis<T> analysis, Object[] ends) {
+    int[] sources = graph.sources[block];
+    T start;
+    int first;
+    if (block == graph.boundary || sources.length == 0) {
+      start = analysis.boundary();
+      first = 0;
+    } else {
+      start = (T) ends[sources[0]];
+      first = 1;
+    }
+    for (int i = first; i < sources.length; i++) {
+      start = analysis.join(start, (T) ends[sources[i]]);
+    }
+    return start;
+  }
+
+  private static final class Result<T> implements DataflowResult<T> {
+
+    private final DataflowGraph graph;
+    private final Object[] in;
+    private final Object[] out;
+
+    private Result(DataflowGraph graph, Object[] in, Object[] out) {
+      this.graph = graph;
+      this.in = in;
+      this.out = out;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T in(ControlFlowGraph.Block block) {
+      return (T) in[graph.indexOf(block)];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T out(ControlFlowGraph.Block block) {
+      return (T) out[graph.indexOf(block)];
+    }
+  }
+
+}
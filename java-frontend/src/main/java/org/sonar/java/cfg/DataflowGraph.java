@@ -0,0 +1,216 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.DataflowAnalysis.Direction;
+
+/**
+ * Blocks of a control flow graph numbered by their position in the reversed blocks, with the edges an analysis follows in its
+ * direction, and the order in which it processes the blocks.
+ */
+final class DataflowGraph {
+
+  final List<? extends ControlFlowGraph.Block> blocks;
+  final Direction direction;
+  private final Map<ControlFlowGraph.Block, Integer> blockIndexes = new HashMap<>();
+  /**
+   * Blocks whose values flow into each block, in the direction of the analysis.
+   */
+  final int[][] sources;
+  /**
+   * Blocks each block flows into, in the direction of the analysis.
+   */
+  final int[][] targets;
+  /**
+   * Entry block of a forward analysis, exit block of a backward one.
+   */
+  final int boundary;
+  private final int[] order;
+  private final int[] rank;
+
+  DataflowGraph(ControlFlowGraph cfg, Direction direction) {
+    this.blocks = cfg.reversedBlocks();
+    this.direction = direction;
+    int blockCount = blocks.size();
+    for (int i = 0; i < blockCount; i++) {
+      blockIndexes.put(blocks.get(i), i);
+    }
+    int[][] successors = new int[blockCount][];
+    int[] predecessorCounts = new int[blockCount];
+    for (int i = 0; i < blockCount; i++) {
+      successors[i] = successorIndexes(blocks.get(i));
+      for (int successor : successors[i]) {
+        predecessorCounts[successor]++;
+      }
+    }
+    // predecessors are derived from the successors, so that every edge the values flow through triggers a new pass
+    int[][] predecessors = new int[blockCount][];
+    for (int i = 0; i < blockCount; i++) {
+      predecessors[i] = new int[predecessorCounts[i]];
+    }
+    for (int i = 0; i < blockCount; i++) {
+      for (int successor : successors[i]) {
+        predecessors[successor][--predecessorCounts[successor]] = i;
+      }
+    }
+    int entry = indexOrMinusOne(cfg.entryBlock());
+    int[] postOrder = postOrder(entry, successors);
+    if (direction == Direction.FORWARD) {
+      sources = predecessors;
+      targets = successors;
+      boundary = entry;
+      order = reverse(postOrder);
+    } else {
+      sources = successors;
+      targets = predecessors;
+      boundary = indexOrMinusOne(cfg.exitBlock());
+      order = postOrder;
+    }
+    rank = new int[blockCount];
+    for (int i = 0; i < blockCount; i++) {
+      rank[order[i]] = i;
+    }
+  }
+
+  int size() {
+    return blocks.size();
+  }
+
+  boolean contains(ControlFlowGraph.Block block) {
+    return blockIndexes.containsKey(block);
+  }
+
+  int indexOf(ControlFlowGraph.Block block) {
+    Integer index = blockIndexes.get(block);
+    if (index == null) {
+      throw new IllegalArgumentException("B" + block.id() + " is not a block of the analyzed graph");
+    }
+    return index;
+  }
+
+  private int indexOrMinusOne(ControlFlowGraph.Block block) {
+    Integer index = blockIndexes.get(block);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Processes all the blocks in order, then the ones flowing from a block whose value changed, the first of them in order first,
+   * until no value changes.
+   *
+   * @param update updates the values of a block, returning true when the value at its end, in the direction of the analysis, changed
+   */
+  void solve(IntPredicate update) {
+    int blockCount = blocks.size();
+    boolean[] pending = new boolean[blockCount];
+    Arrays.fill(pending, true);
+    int next = 0;
+    while (next < blockCount) {
+      int block = order[next];
+      pending[block] = false;
+      next++;
+      if (update.test(block)) {
+        for (int target : targets[block]) {
+          if (!pending[target]) {
+            pending[target] = true;
+            next = Math.min(next, rank[target]);
+          }
+        }
+      }
+      while (next < blockCount && !pending[order[next]]) {
+        next++;
+      }
+    }
+  }
+
+  private int[] successorIndexes(ControlFlowGraph.Block block) {
+    int[] result = new int[block.successors().size() + block.exceptions().size()];
+    int count = 0;
+    for (ControlFlowGraph.Block successor : block.successors()) {
+      count = addIndex(result, count, successor);
+    }
+    for (ControlFlowGraph.Block successor : block.exceptions()) {
+      count = addIndex(result, count, successor);
+    }
+    return count == result.length ? result : Arrays.copyOf(result, count);
+  }
+
+  private int addIndex(int[] result, int count, ControlFlowGraph.Block block) {
+    int index = indexOrMinusOne(block);
+    // a block can be both a successor and an exceptional successor
+    for (int i = 0; i < count; i++) {
+      if (result[i] == index) {
+        return count;
+      }
+    }
+    if (index < 0) {
+      return count;
+    }
+    result[count] = index;
+    return count + 1;
+  }
+
+  /**
+   * Blocks reachable from the entry block in post-order, followed by the unreachable ones in the order of the reversed blocks.
+   */
+  private static int[] postOrder(int entry, int[][] successors) {
+    int blockCount = successors.length;
+    int[] order = new int[blockCount];
+    int count = 0;
+    boolean[] visited = new boolean[blockCount];
+    if (entry >= 0) {
+      int[] stack = new int[blockCount];
+      int[] nextSuccessor = new int[blockCount];
+      int depth = 0;
+      stack[depth++] = entry;
+      visited[entry] = true;
+      while (depth > 0) {
+        int block = stack[depth - 1];
+        if (nextSuccessor[block] < successors[block].length) {
+          int successor = successors[block][nextSuccessor[block]++];
+          if (!visited[successor]) {
+            visited[successor] = true;
+            stack[depth++] = successor;
+          }
+        } else {
+          depth--;
+          order[count++] = block;
+        }
+      }
+    }
+    for (int i = 0; i < blockCount; i++) {
+      if (!visited[i]) {
+        order[count++] = i;
+      }
+    }
+    return order;
+  }
+
+  private static int[] reverse(int[] order) {
+    int[] result = new int[order.length];
+    for (int i = 0; i < order.length; i++) {
+      result[i] = order[order.length - 1 - i];
+    }
+    return result;
+  }
+
+}
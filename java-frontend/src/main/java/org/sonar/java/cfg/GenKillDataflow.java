@@ -0,0 +1,253 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.DataflowAnalysis;
+import org.sonar.plugins.java.api.cfg.DataflowResult;
+import org.sonar.plugins.java.api.cfg.GenKillAnalysis;
+
+/**
+ * Solves a gen/kill analysis with the facts and the blocks numbered: the facts holding at the start and at the end of all the blocks
+ * are stored as bitsets in two arrays, updated in place, and only materialized as sets of facts when requested, through read-only views.
+ */
+final class GenKillDataflow<E> implements DataflowResult<Set<E>> {
+
+  private final DataflowGraph graph;
+  private final List<E> facts = new ArrayList<>();
+  private final Map<E, Integer> factIndexes = new HashMap<>();
+  private final int words;
+  private final long[] starts;
+  private final long[] ends;
+  private final List<FactSet> startViews;
+  private final List<FactSet> endViews;
+
+  GenKillDataflow(ControlFlowGraph cfg, GenKillAnalysis<E> analysis) {
+    this.graph = new DataflowGraph(cfg, analysis.direction());
+    int blockCount = graph.size();
+    // number the facts while collecting the effects of the blocks, in sets reused from one block to the other
+    int[][] kills = new int[blockCount][];
+    int[][] gens = new int[blockCount][];
+    Set<E> kill = new HashSet<>();
+    Set<E> gen = new HashSet<>();
+    for (int i = 0; i < blockCount; i++) {
+      analysis.collect(graph.blocks.get(i), kill, gen);
+      kills[i] = indexes(kill);
+      gens[i] = indexes(gen);
+      kill.clear();
+      gen.clear();
+    }
+    words = (facts.size() + 63) >>> 6;
+    starts = new long[blockCount * words];
+    ends = new long[blockCount * words];
+    startViews = new ArrayList<>(Collections.nCopies(blockCount, null));
+    endViews = new ArrayList<>(Collections.nCopies(blockCount, null));
+    solve(analysis.confluence() == GenKillAnalysis.Confluence.UNION, bits(kills), bits(gens));
+  }
+
+  private int[] indexes(Set<E> blockFacts) {
+    int[] result = new int[blockFacts.size()];
+    int i = 0;
+    for (E fact : blockFacts) {
+      result[i] = factIndexes.computeIfAbsent(fact, f -> {
+        facts.add(f);
+        return facts.size() - 1;
+      });
+      i++;
+    }
+    return result;
+  }
+
+  private long[] bits(int[][] blockFactIndexes) {
+    long[] bits = new long[blockFactIndexes.length * words];
+    for (int block = 0; block < blockFactIndexes.length; block++) {
+      for (int factIndex : blockFactIndexes[block]) {
+        bits[block * words + (factIndex >>> 6)] |= 1L << factIndex;
+      }
+    }
+    return bits;
+  }
+
+  private void solve(boolean union, long[] killBits, long[] genBits) {
+    if (!union) {
+      // every fact is assumed to hold at the end of the blocks not processed yet
+      long lastWord = (facts.size() & 63) == 0 ? -1L : ((1L << facts.size()) - 1);
+      for (int block = 0; block < graph.size(); block++) {
+        for (int w = 0; w < words; w++) {
+          ends[block * words + w] = w == words - 1 ? lastWord : -1L;
+        }
+      }
+    }
+    graph.solve(block -> update(block, union, killBits, genBits));
+  }
+
+  /**
+   * start = union or intersection of the ends of the sources, end = gen + (start - kill)
+   *
+   * @return true when the end of the block changed
+   */
+  private boolean update(int block, boolean union, long[] killBits, long[] genBits) {
+    int[] sources = graph.sources[block];
+    boolean boundary = block == graph.boundary || sources.length == 0;
+    int offset = block * words;
+    boolean changed = false;
+    for (int w = 0; w < words; w++) {
+      long start;
+      if (union) {
+        start = 0L;
+        for (int source : sources) {
+          start |= ends[source * words + w];
+        }
+      } else if (boundary) {
+        start = 0L;
+      } else {
+        start = -1L;
+        for (int source : sources) {
+          start &= ends[source * words + w];
+        }
+      }
+      starts[offset + w] = start;
+      long end = genBits[offset + w] | (start & ~killBits[offset + w]);
+      if (end != ends[offset + w]) {
+        ends[offset + w] = end;
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  boolean contains(ControlFlowGraph.Block block) {
+    return graph.contains(block);
+  }
+
+  @Override
+  public Set<E> in(ControlFlowGraph.Block block) {
+    return graph.direction == DataflowAnalysis.Direction.FORWARD ? start(block) : end(block);
+  }
+
+  @Override
+  public Set<E> out(ControlFlowGraph.Block block) {
+    return graph.direction == DataflowAnalysis.Direction.FORWARD ? end(block) : start(block);
+  }
+
+  private Set<E> start(ControlFlowGraph.Block block) {
+    return view(startViews, starts, graph.indexOf(block));
+  }
+
+  private Set<E> end(ControlFlowGraph.Block block) {
+    return view(endViews, ends, graph.indexOf(block));
+  }
+
+  private Set<E> view(List<FactSet> views, long[] bits, int block) {
+    FactSet view = views.get(block);
+    if (view == null) {
+      view = new FactSet(bits, block * words);
+      views.set(block, view);
+    }
+    return view;
+  }
+
+  /**
+   * Read-only view on the bitset of a block.
+   */
+  private class FactSet extends AbstractSet<E> {
+
+    private final long[] bits;
+    private final int offset;
+
+    private FactSet(long[] bits, int offset) {
+      this.bits = bits;
+      this.offset = offset;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      Integer index = factIndexes.get(o);
+      return index != null && (bits[offset + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    @Override
+    public int size() {
+      int size = 0;
+      for (int w = 0; w < words; w++) {
+        size += Long.bitCount(bits[offset + w]);
+      }
+      return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      for (int w = 0; w < words; w++) {
+        if (bits[offset + w] != 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+      return new Iterator<>() {
+        private int nextIndex = nextSetBit(0);
+
+        @Override
+        public boolean hasNext() {
+          return nextIndex >= 0;
+        }
+
+        @Override
+        public E next() {
+          if (nextIndex < 0) {
+            throw new NoSuchElementException();
+          }
+          E fact = facts.get(nextIndex);
+          nextIndex = nextSetBit(nextIndex + 1);
+          return fact;
+        }
+      };
+    }
+
+    private int nextSetBit(int from) {
+      int w = from >>> 6;
+      if (w >= words) {
+        return -1;
+      }
+      long word = bits[offset + w] & (-1L << from);
+      while (true) {
+        if (word != 0) {
+          return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+        w++;
+        if (w == words) {
+          return -1;
+        }
+        word = bits[offset + w];
+      }
+    }
+  }
+
+}
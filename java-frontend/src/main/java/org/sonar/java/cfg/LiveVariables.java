@@ -17,15 +17,11 @@
 package org.sonar.java.cfg;
 
 import java.util.Collections;
-import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
@@ -38,14 +34,12 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
 import org.sonar.plugins.java.api.tree.VariableTree;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
-import org.sonarsource.analyzer.commons.collections.SetUtils;
 
 public class LiveVariables {
 
   private final CFG cfg;
-  private final Map<CFG.Block, Set<Symbol>> out = new HashMap<>();
-  private final Map<CFG.Block, Set<Symbol>> in = new HashMap<>();
   private final boolean includeFields;
+  private LivenessAnalysis liveness;
 
   private LiveVariables(CFG cfg, boolean includeFields) {
     this.cfg = cfg;
@@ -53,11 +47,11 @@ public class LiveVariables {
   }
 
   public Set<Symbol> getOut(CFG.Block block) {
-    return out.get(block);
+    return liveness.getOut(block);
   }
 
   public Set<Symbol> getIn(CFG.Block block) {
-    return in.get(block);
+    return liveness.getIn(block);
   }
 
   /**
@@ -76,52 +70,11 @@ public class LiveVariables {
 
   private static LiveVariables analyze(CFG cfg, boolean includeFields) {
     LiveVariables liveVariables = new LiveVariables(cfg, includeFields);
-    // Generate kill/gen for each block in isolation
-    Map<CFG.Block, Set<Symbol>> kill = new HashMap<>();
-    Map<CFG.Block, Set<Symbol>> gen = new HashMap<>();
-    for (CFG.Block block : liveVariables.cfg.reversedBlocks()) {
-      Set<Symbol> blockKill = new HashSet<>();
-      Set<Symbol> blockGen = new HashSet<>();
-      liveVariables.processBlockElements(block, blockKill, blockGen);
-      kill.put(block, blockKill);
-      gen.put(block, blockGen);
-    }
-    liveVariables.analyzeCFG(liveVariables.in, kill, gen);
-    // out of exit block are empty by definition.
-    if (!liveVariables.out.get(liveVariables.cfg.reversedBlocks().get(0)).isEmpty()) {
-      throw new IllegalStateException("Out of exit block should be empty");
-    }
-
-    // Make things immutable.
-    for (Map.Entry<CFG.Block, Set<Symbol>> blockSetEntry : liveVariables.out.entrySet()) {
-      blockSetEntry.setValue(Collections.unmodifiableSet(blockSetEntry.getValue()));
-    }
-
+    liveVariables.liveness = LivenessAnalysis.analyze(cfg, liveVariables::processBlockElements);
     return liveVariables;
   }
 
-  private void analyzeCFG(Map<CFG.Block, Set<Symbol>> in, Map<CFG.Block, Set<Symbol>> kill, Map<CFG.Block, Set<Symbol>> gen) {
-    Deque<CFG.Block> workList = new LinkedList<>();
-    workList.addAll(cfg.reversedBlocks());
-    while (!workList.isEmpty()) {
-      CFG.Block block = workList.removeFirst();
-
-      Set<Symbol> blockOut = out.computeIfAbsent(block, k -> new HashSet<>());
-      block.successors().stream().map(in::get).filter(Objects::nonNull).forEach(blockOut::addAll);
-      block.exceptions().stream().map(in::get).filter(Objects::nonNull).forEach(blockOut::addAll);
-      // in = gen and (out - kill)
-      Set<Symbol> newIn = new HashSet<>(gen.get(block));
-      newIn.addAll(SetUtils.difference(blockOut, kill.get(block)));
-
-      if (newIn.equals(in.get(block))) {
-        continue;
-      }
-      in.put(block, newIn);
-      block.predecessors().forEach(workList::addLast);
-    }
-  }
-
-  private void processBlockElements(CFG.Block block, Set<Symbol> blockKill, Set<Symbol> blockGen) {
+  private void processBlockElements(ControlFlowGraph.Block block, Set<Symbol> blockKill, Set<Symbol> blockGen) {
     // process elements from bottom to top
     Set<Tree> assignmentLHS = new HashSet<>();
     for (Tree element : ListUtils.reverse(block.elements())) {
@@ -0,0 +1,80 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.Set;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.DataflowAnalysis;
+import org.sonar.plugins.java.api.cfg.GenKillAnalysis;
+import org.sonar.plugins.java.api.semantic.Symbol;
+
+/**
+ * Symbols live at the entry and at the exit of the blocks of a control flow graph, from the symbols each block reads (gen) and
+ * writes (kill): a backward {@link GenKillAnalysis} with a union of the successors, computed over bitsets.
+ */
+public final class LivenessAnalysis {
+
+  @FunctionalInterface
+  public interface BlockEffect {
+    /**
+     * Collects the symbols written by the given block, and the ones it reads before writing them.
+     */
+    void collect(ControlFlowGraph.Block block, Set<Symbol> kill, Set<Symbol> gen);
+  }
+
+  private final GenKillDataflow<Symbol> result;
+
+  private LivenessAnalysis(GenKillDataflow<Symbol> result) {
+    this.result = result;
+  }
+
+  public static LivenessAnalysis analyze(ControlFlowGraph cfg, BlockEffect blockEffect) {
+    LivenessAnalysis liveness = new LivenessAnalysis(new GenKillDataflow<>(cfg, new Liveness(blockEffect)));
+    // out of exit block are empty by definition.
+    if (!liveness.getOut(cfg.reversedBlocks().get(0)).isEmpty()) {
+      throw new IllegalStateException("Out of exit block should be empty");
+    }
+    return liveness;
+  }
+
+  public Set<Symbol> getIn(ControlFlowGraph.Block block) {
+    return result.contains(block) ? result.in(block) : null;
+  }
+
+  public Set<Symbol> getOut(ControlFlowGraph.Block block) {
+    return result.contains(block) ? result.out(block) : null;
+  }
+
+  private record Liveness(BlockEffect blockEffect) implements GenKillAnalysis<Symbol> {
+
+    @Override
+    public DataflowAnalysis.Direction direction() {
+      return DataflowAnalysis.Direction.BACKWARD;
+    }
+
+    @Override
+    public Confluence confluence() {
+      return Confluence.UNION;
+    }
+
+    @Override
+    public void collect(ControlFlowGraph.Block block, Set<Symbol> kill, Set<Symbol> gen) {
+      blockEffect.collect(block, kill, gen);
+    }
+  }
+
+}
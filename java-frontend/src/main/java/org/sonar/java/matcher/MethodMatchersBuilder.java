@@ -18,11 +18,14 @@ package org.sonar.java.matcher;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
+import org.sonar.java.model.JUtils;
 import org.sonarsource.analyzer.commons.collections.SetUtils;
 import org.sonar.plugins.java.api.semantic.MethodMatchers;
 import org.sonar.plugins.java.api.semantic.Symbol;
@@ -47,16 +50,33 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
   @Nullable
   private final Predicate<List<Type>> parametersPredicate;
 
+  /**
+   * Names accepted by the name predicate, or null when it accepts any name or is a custom predicate.
+   */
+  @Nullable
+  private final Set<String> names;
+
+  /**
+   * Whether all the predicates are built from names, so that the result for a method symbol and a call-site type never changes.
+   * Custom predicates are evaluated on every call.
+   */
+  private final boolean memoizable;
+
   public MethodMatchersBuilder() {
     this.typePredicate = null;
     this.namePredicate = null;
     this.parametersPredicate = null;
+    this.names = Collections.emptySet();
+    this.memoizable = true;
   }
 
-  private MethodMatchersBuilder(@Nullable Predicate<Type> typePredicate, @Nullable Predicate<String> namePredicate, @Nullable Predicate<List<Type>> parametersPredicate) {
+  private MethodMatchersBuilder(@Nullable Predicate<Type> typePredicate, @Nullable Predicate<String> namePredicate, @Nullable Predicate<List<Type>> parametersPredicate,
+    @Nullable Set<String> names, boolean memoizable) {
     this.typePredicate = typePredicate;
     this.namePredicate = namePredicate;
     this.parametersPredicate = parametersPredicate;
+    this.names = names;
+    this.memoizable = memoizable;
   }
 
   private static <T> Predicate<T> substituteAny(Predicate<T> predicate, String... elements) {
@@ -87,7 +107,7 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public NameBuilder ofSubTypes(String... fullyQualifiedTypeNames) {
-    return ofType(substituteAnyAndCreateEfficientPredicate(
+    return ofType(true, substituteAnyAndCreateEfficientPredicate(
       fullyQualifiedTypeNames,
       name -> (type -> type.isSubtypeOf(name)),
       names -> (type -> names.stream().anyMatch(type::isSubtypeOf))));
@@ -100,7 +120,7 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public NameBuilder ofTypes(String... fullyQualifiedTypeNames) {
-    return ofType(substituteAnyAndCreateEfficientPredicate(
+    return ofType(true, substituteAnyAndCreateEfficientPredicate(
       fullyQualifiedTypeNames,
       name -> (type -> type.is(name)),
       names -> (type -> names.stream().anyMatch(type::is))));
@@ -108,15 +128,25 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public NameBuilder ofType(Predicate<Type> typePredicate) {
-    return new MethodMatchersBuilder(or(this.typePredicate, typePredicate), namePredicate, parametersPredicate);
+    return ofType(false, typePredicate);
+  }
+
+  private NameBuilder ofType(boolean fromNames, Predicate<Type> typePredicate) {
+    return new MethodMatchersBuilder(or(this.typePredicate, typePredicate), namePredicate, parametersPredicate, names, memoizable && fromNames);
   }
 
   @Override
   public ParametersBuilder names(String... names) {
-    return name(substituteAnyAndCreateEfficientPredicate(
+    Predicate<String> predicate = substituteAnyAndCreateEfficientPredicate(
       names,
       name -> name::equals,
-      nameList -> nameList::contains));
+      nameList -> nameList::contains);
+    Set<String> acceptedNames = null;
+    if (this.names != null && !Arrays.asList(names).contains(ANY)) {
+      acceptedNames = new HashSet<>(this.names);
+      acceptedNames.addAll(Arrays.asList(names));
+    }
+    return new MethodMatchersBuilder(typePredicate, or(this.namePredicate, predicate), parametersPredicate, acceptedNames, memoizable);
   }
 
   @Override
@@ -131,7 +161,7 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public ParametersBuilder name(Predicate<String> namePredicate) {
-    return new MethodMatchersBuilder(typePredicate, or(this.namePredicate, namePredicate), parametersPredicate);
+    return new MethodMatchersBuilder(typePredicate, or(this.namePredicate, namePredicate), parametersPredicate, null, false);
   }
 
   @Override
@@ -142,7 +172,7 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
   }
 
   private ParametersBuilder addParametersMatcher(List<Predicate<Type>> parametersType) {
-    return addParametersMatcher((List<Type> actualTypes) -> exactMatchesParameters(parametersType, actualTypes));
+    return addParametersMatcher(true, (List<Type> actualTypes) -> exactMatchesParameters(parametersType, actualTypes));
   }
 
   @Override
@@ -155,12 +185,16 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
     if (parametersPredicate != null) {
       throw new IllegalStateException("Incompatible 'any parameters' constraint added to existing parameters constraint.");
     }
-    return addParametersMatcher((List<Type> actualParameters) -> true);
+    return addParametersMatcher(true, (List<Type> actualParameters) -> true);
   }
 
   @Override
   public ParametersBuilder addParametersMatcher(Predicate<List<Type>> parametersPredicate) {
-    return new MethodMatchersBuilder(typePredicate, namePredicate, or(this.parametersPredicate, parametersPredicate));
+    return addParametersMatcher(false, parametersPredicate);
+  }
+
+  private ParametersBuilder addParametersMatcher(boolean fromNames, Predicate<List<Type>> parametersPredicate) {
+    return new MethodMatchersBuilder(typePredicate, namePredicate, or(this.parametersPredicate, parametersPredicate), names, memoizable && fromNames);
   }
 
   private static boolean exactMatchesParameters(List<Predicate<Type>> expectedTypes, List<Type> actualTypes) {
@@ -245,13 +279,30 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
         type = owner.type();
       }
     }
-    return type != null &&
-      namePredicate.test(symbol.name()) &&
-      parametersPredicate.test(symbol.parameterTypes()) &&
-      typePredicate.test(type);
+    if (type == null || !namePredicate.test(symbol.name())) {
+      return false;
+    }
+    if (memoizable) {
+      // the type predicates, looking up types by name, are the expensive part of the match
+      Type finalType = type;
+      return JUtils.methodMatcherResult(this, symbol, type, () -> matchesSignature(symbol, finalType));
+    }
+    return matchesSignature(symbol, type);
+  }
+
+  private boolean matchesSignature(Symbol.MethodSymbol symbol, Type type) {
+    return parametersPredicate.test(symbol.parameterTypes()) && typePredicate.test(type);
+  }
+
+  /**
+   * @return the names of the methods this matcher can match, or null when they are not known
+   */
+  @CheckForNull
+  Set<String> names() {
+    return names;
   }
 
-  private static IdentifierTree getIdentifier(MethodInvocationTree mit) {
+  static IdentifierTree getIdentifier(MethodInvocationTree mit) {
     // methodSelect can only be Tree.Kind.IDENTIFIER or Tree.Kind.MEMBER_SELECT
     if (mit.methodSelect().is(Tree.Kind.IDENTIFIER)) {
       return (IdentifierTree) mit.methodSelect();
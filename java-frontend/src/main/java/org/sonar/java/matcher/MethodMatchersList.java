@@ -17,7 +17,12 @@
 package org.sonar.java.matcher;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 import org.sonar.plugins.java.api.semantic.MethodMatchers;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.MethodInvocationTree;
@@ -29,33 +34,72 @@ public class MethodMatchersList implements MethodMatchers {
 
   private List<? extends MethodMatchers> matchers;
 
+  /**
+   * Matchers of known method names, by name, so that only the ones which can match a given method are evaluated.
+   */
+  private final Map<String, List<MethodMatchers>> matchersByName = new HashMap<>();
+
+  /**
+   * Matchers whose method names are not known, evaluated for any method.
+   */
+  private final List<MethodMatchers> matchersOfAnyName = new ArrayList<>();
+
   public MethodMatchersList(List<? extends MethodMatchers> matchers) {
     this.matchers = new ArrayList<>(matchers);
+    this.matchers.forEach(this::index);
+  }
+
+  private void index(MethodMatchers matcher) {
+    if (matcher instanceof MethodMatchersList list) {
+      list.matchers.forEach(this::index);
+      return;
+    }
+    Set<String> names = matcher instanceof MethodMatchersBuilder builder ? builder.names() : null;
+    if (names == null) {
+      matchersOfAnyName.add(matcher);
+    } else {
+      names.forEach(name -> matchersByName.computeIfAbsent(name, k -> new ArrayList<>()).add(matcher));
+    }
+  }
+
+  private boolean anyMatch(Symbol symbol, Predicate<MethodMatchers> predicate) {
+    List<MethodMatchers> matchersOfName = matchersByName.getOrDefault(symbol.name(), Collections.emptyList());
+    for (MethodMatchers matcher : matchersOfName) {
+      if (predicate.test(matcher)) {
+        return true;
+      }
+    }
+    for (MethodMatchers matcher : matchersOfAnyName) {
+      if (predicate.test(matcher)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
   public boolean matches(NewClassTree newClassTree) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(newClassTree));
+    return anyMatch(newClassTree.methodSymbol(), matcher -> matcher.matches(newClassTree));
   }
 
   @Override
   public boolean matches(MethodInvocationTree mit) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(mit));
+    return anyMatch(MethodMatchersBuilder.getIdentifier(mit).symbol(), matcher -> matcher.matches(mit));
   }
 
   @Override
   public boolean matches(MethodTree methodTree) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(methodTree));
+    return anyMatch(methodTree.symbol(), matcher -> matcher.matches(methodTree));
   }
 
   @Override
   public boolean matches(MethodReferenceTree methodReferenceTree) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(methodReferenceTree));
+    return anyMatch(methodReferenceTree.method().symbol(), matcher -> matcher.matches(methodReferenceTree));
   }
 
   @Override
   public boolean matches(Symbol symbol) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(symbol));
+    return anyMatch(symbol, matcher -> matcher.matches(symbol));
   }
 
 }
@@ -0,0 +1,58 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import javax.annotation.Nullable;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+
+/**
+ * Base class of the trees made of other trees, as opposed to tokens and trivia.
+ * Such a tree caches its first and last tokens once it is complete, which tokens and trivia, the most numerous trees, do not need.
+ */
+public abstract class AbstractCompositeTree extends JavaTree {
+
+  /**
+   * First and last tokens of the tree, cached once the tree is complete, see {@link #cacheFirstAndLastTokens()}.
+   * When null, they are looked up in the children.
+   */
+  @Nullable
+  private SyntaxToken firstToken;
+  @Nullable
+  private SyntaxToken lastToken;
+
+  @Override
+  @Nullable
+  public SyntaxToken firstToken() {
+    return firstToken != null ? firstToken : super.firstToken();
+  }
+
+  @Override
+  @Nullable
+  public SyntaxToken lastToken() {
+    return lastToken != null ? lastToken : super.lastToken();
+  }
+
+  /**
+   * Caches the first and last tokens of this tree, so that they are no longer looked up in the children. Must be called once the tree
+   * will no longer change, after its children.
+   */
+  void cacheFirstAndLastTokens() {
+    firstToken = firstToken();
+    lastToken = lastToken();
+  }
+
+}
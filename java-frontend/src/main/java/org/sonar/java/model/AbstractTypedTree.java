@@ -24,7 +24,7 @@ import javax.annotation.Nullable;
 /**
  * This class is intended for internal use during semantic analysis and should not be used in checks.
  */
-public abstract class AbstractTypedTree extends JavaTree {
+public abstract class AbstractTypedTree extends AbstractCompositeTree {
 
   @Nullable
   public ITypeBinding typeBinding;
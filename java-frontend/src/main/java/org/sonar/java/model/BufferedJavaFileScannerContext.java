@@ -0,0 +1,79 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.reporting.AnalyzerMessage;
+import org.sonar.java.reporting.FluentReporting.JavaIssueBuilder;
+import org.sonar.java.reporting.InternalJavaIssueBuilder;
+import org.sonar.plugins.java.api.JavaCheck;
+import org.sonar.plugins.java.api.JavaVersion;
+import org.sonar.plugins.java.api.caching.CacheContext;
+import org.sonar.plugins.java.api.semantic.Sema;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+
+/**
+ * Context confined to the thread walking the tree for a group of visitors: issues, on the file as well as on the project,
+ * are not saved when reported, but kept until {@link #flush()} is called from the scanning thread.
+ */
+class BufferedJavaFileScannerContext extends DefaultJavaFileScannerContext {
+
+  private final List<Runnable> pendingIssues = new ArrayList<>();
+
+  BufferedJavaFileScannerContext(CompilationUnitTree tree, InputFile inputFile, @Nullable Sema semanticModel, @Nullable SonarComponents sonarComponents,
+    JavaVersion javaVersion, boolean fileParsed, boolean inAndroidContext, @Nullable CacheContext cacheContext) {
+    super(tree, inputFile, semanticModel, sonarComponents, javaVersion, fileParsed, inAndroidContext, cacheContext);
+  }
+
+  @Override
+  public void reportIssue(AnalyzerMessage message) {
+    pendingIssues.add(() -> super.reportIssue(message));
+  }
+
+  @Override
+  public void addIssue(int line, JavaCheck javaCheck, String message, @Nullable Integer cost) {
+    pendingIssues.add(() -> super.addIssue(line, javaCheck, message, cost));
+  }
+
+  @Override
+  public void addIssueOnProject(JavaCheck check, String message) {
+    pendingIssues.add(() -> super.addIssueOnProject(check, message));
+  }
+
+  @Override
+  public JavaIssueBuilder newIssue() {
+    return new InternalJavaIssueBuilder(inputFile, sonarComponents) {
+      @Override
+      public void report() {
+        pendingIssues.add(super::report);
+      }
+    };
+  }
+
+  /**
+   * Saves the issues reported so far, in the order they were reported.
+   */
+  void flush() {
+    pendingIssues.forEach(Runnable::run);
+    pendingIssues.clear();
+  }
+
+}
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputComponent;
@@ -27,6 +28,7 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.ast.visitors.ComplexityVisitor;
 import org.sonar.java.metrics.MetricsComputer;
+import org.sonar.java.model.declaration.MethodTreeImpl;
 import org.sonar.java.metrics.MetricsScannerContext;
 import org.sonar.java.regex.RegexCache;
 import org.sonar.java.regex.RegexCheck;
@@ -39,10 +41,14 @@ import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.JavaVersion;
 import org.sonar.plugins.java.api.SourceMap;
 import org.sonar.plugins.java.api.caching.CacheContext;
+import org.sonar.plugins.java.api.cfg.DataflowAnalysis;
+import org.sonar.plugins.java.api.cfg.DataflowResult;
+import org.sonar.plugins.java.api.cfg.GenKillAnalysis;
 import org.sonar.plugins.java.api.internal.EndOfAnalysis;
 import org.sonar.plugins.java.api.semantic.Sema;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.LiteralTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
@@ -231,6 +237,24 @@ public class DefaultJavaFileScannerContext extends DefaultInputFileScannerContex
     return Optional.empty();
   }
 
+  @Nullable
+  @Override
+  public <T> DataflowResult<T> dataflow(MethodTree methodTree, DataflowAnalysis<T> analysis) {
+    if (methodTree instanceof MethodTreeImpl methodTreeImpl) {
+      return methodTreeImpl.dataflow(analysis);
+    }
+    return JavaFileScannerContext.super.dataflow(methodTree, analysis);
+  }
+
+  @Nullable
+  @Override
+  public <E> DataflowResult<Set<E>> dataflow(MethodTree methodTree, GenKillAnalysis<E> analysis) {
+    if (methodTree instanceof MethodTreeImpl methodTreeImpl) {
+      return methodTreeImpl.dataflow(analysis);
+    }
+    return JavaFileScannerContext.super.dataflow(methodTree, analysis);
+  }
+
   @Override
   public JavaIssueBuilder newIssue() {
     return new InternalJavaIssueBuilder(inputFile, sonarComponents);
@@ -86,6 +86,13 @@ public class DefaultModuleScannerContext implements ModuleScannerContext {
     return sonarComponents.getModuleKey();
   }
 
+  /**
+   * @see SonarComponents#isUnchangedFile(String)
+   */
+  public boolean isUnchangedFile(String inputFileKey) {
+    return sonarComponents != null && sonarComponents.isUnchangedFile(inputFileKey);
+  }
+
   @CheckForNull
   @Override
   public SonarProduct sonarProduct() {
@@ -17,7 +17,7 @@
 package org.sonar.java.model;
 
 import java.util.List;
-import org.sonar.java.model.location.InternalPosition;
+import javax.annotation.Nullable;
 import org.sonar.plugins.java.api.location.Range;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
@@ -26,30 +26,51 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
 
+  /**
+   * Table from which the position of the token and its text are read: the table of the file, or a table of this token only.
+   */
+  private final TokenTable table;
+  private final int index;
   private final List<SyntaxTrivia> trivias;
-  private final Range range;
-  private final String value;
-  private final boolean isEOF;
+  /**
+   * Text of the token, materialized from the table on first use.
+   */
+  @Nullable
+  private String value;
 
   protected InternalSyntaxToken(InternalSyntaxToken internalSyntaxToken) {
+    this.table = internalSyntaxToken.table;
+    this.index = internalSyntaxToken.index;
     this.value = internalSyntaxToken.value;
-    this.range = internalSyntaxToken.range;
     this.trivias = internalSyntaxToken.trivias;
-    this.isEOF = internalSyntaxToken.isEOF;
   }
 
   public InternalSyntaxToken(int line, int columnOffset, String value, List<SyntaxTrivia> trivias, boolean isEOF) {
+    this.table = TokenTable.ofToken(line, columnOffset, value, isEOF);
+    this.index = 0;
     this.value = value;
     this.trivias = trivias;
-    this.isEOF = isEOF;
-    range = value.startsWith("\"\"\"")
-      ? Range.at(InternalPosition.atOffset(line, columnOffset), value)
-      : Range.at(InternalPosition.atOffset(line, columnOffset), value.length());
+  }
+
+  /**
+   * Token of the given index in the table of a file, with the comments preceding it in the table.
+   */
+  InternalSyntaxToken(TokenTable table, int index) {
+    this(table, index, table.trivias(index));
+  }
+
+  /**
+   * Token of the given index in a table, preceded by the given comments.
+   */
+  InternalSyntaxToken(TokenTable table, int index, List<SyntaxTrivia> trivias) {
+    this.table = table;
+    this.index = index;
+    this.trivias = trivias;
   }
 
   @Override
   public Range range() {
-    return range;
+    return table.range(index);
   }
 
   @Override
@@ -64,7 +85,12 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
 
   @Override
   public String text() {
-    return value;
+    String text = value;
+    if (text == null) {
+      text = table.text(index);
+      value = text;
+    }
+    return text;
   }
 
   @Override
@@ -79,17 +105,17 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
 
   @Override
   public int getLine() {
-    return range.start().line();
+    return line();
   }
 
   @Override
   public int line() {
-    return range.start().line();
+    return table.line(index);
   }
 
   @Override
   public int column() {
-    return range.start().columnOffset();
+    return table.column(index);
   }
 
   @Override
@@ -103,7 +129,7 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
   }
 
   public boolean isEOF() {
-    return isEOF;
+    return table.isEOF(index);
   }
 
   @Override
@@ -18,7 +18,7 @@ package org.sonar.java.model;
 
 import java.util.List;
 import javax.annotation.Nonnull;
-import org.sonar.java.model.location.InternalPosition;
+import javax.annotation.Nullable;
 import org.sonar.plugins.java.api.location.Range;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
@@ -26,22 +26,19 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 public class InternalSyntaxTrivia extends JavaTree implements SyntaxTrivia {
 
+  /**
+   * Table from which the position of the comment and its text are read: the table of the file, or a table of this comment only.
+   */
+  private final TokenTable table;
+  private final int index;
 
-  private final CommentKind commentKind;
-
-  private final String comment;
-
-  @Nonnull
-  private final Range range;
+  /**
+   * Text of the comment, materialized from the table on first use.
+   */
+  @Nullable
+  private String comment;
 
   public InternalSyntaxTrivia(CommentKind commentKind, String comment, int line, int columnOffset) {
-    this.commentKind = commentKind;
-    this.comment = comment;
-    boolean mayHaveLineBreaks = commentKind != CommentKind.LINE;
-    range = mayHaveLineBreaks
-      ? Range.at(InternalPosition.atOffset(line, columnOffset), comment)
-      : Range.at(InternalPosition.atOffset(line, columnOffset), comment.length());
-
     boolean validKind = switch (commentKind) {
       case LINE -> comment.startsWith("//");
       case BLOCK -> comment.startsWith("/*") && comment.endsWith("*/");
@@ -51,16 +48,33 @@ public class InternalSyntaxTrivia extends JavaTree implements SyntaxTrivia {
     if (!validKind) {
       throw new IllegalArgumentException("Invalid comment kind: " + commentKind + " for comment: " + comment);
     }
+    this.table = TokenTable.ofComment(commentKind, comment, line, columnOffset);
+    this.index = 0;
+    this.comment = comment;
+  }
+
+  /**
+   * Comment of the given index in the table of a file, whose kind was already checked by the lexer.
+   */
+  InternalSyntaxTrivia(TokenTable table, int index) {
+    this.table = table;
+    this.index = index;
   }
 
   @Override
   public String comment() {
-    return comment;
+    String text = comment;
+    if (text == null) {
+      text = table.text(index);
+      comment = text;
+    }
+    return text;
   }
 
   @Override
   public String commentContent() {
-    return switch (commentKind) {
+    String comment = comment();
+    return switch (commentKind()) {
       case LINE -> comment.substring(2);
       case BLOCK -> comment.substring(2, comment.length() - 2);
       case JAVADOC -> comment.substring(3, comment.length() - 2);
@@ -70,16 +84,17 @@ public class InternalSyntaxTrivia extends JavaTree implements SyntaxTrivia {
 
   @Override
   public CommentKind commentKind() {
-    return commentKind;
+    return table.commentKind(index);
   }
 
   @Override
   public boolean isComment(CommentKind kind) {
-    return commentKind == kind;
+    return commentKind() == kind;
   }
 
   @Override
   public boolean isComment(CommentKind... kinds) {
+    CommentKind commentKind = commentKind();
     for (CommentKind kind : kinds) {
       if (commentKind == kind) {
         return true;
@@ -90,7 +105,7 @@ public class InternalSyntaxTrivia extends JavaTree implements SyntaxTrivia {
 
   @Override
   public int startLine() {
-    return range.start().line();
+    return getLine();
   }
 
   @Override
@@ -115,18 +130,18 @@ public class InternalSyntaxTrivia extends JavaTree implements SyntaxTrivia {
 
   @Override
   public int getLine() {
-    return range.start().line();
+    return table.line(index);
   }
 
   @Override
   public int column() {
-    return range.start().columnOffset();
+    return table.column(index);
   }
 
   @Nonnull
   @Override
   public Range range() {
-    return range;
+    return table.range(index);
   }
 
 }
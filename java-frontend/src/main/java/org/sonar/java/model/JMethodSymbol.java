@@ -41,7 +41,10 @@ final class JMethodSymbol extends JSymbol implements Symbol.MethodSymbol {
    */
   private List<Type> parameterTypes;
 
-  private List<Symbol> parameters;
+  /**
+   * Cache for {@link #declarationParameters()}, volatile as symbols are shared by the threads exploring the methods of a file.
+   */
+  private volatile List<Symbol> parameters;
 
   /**
    * Cache for {@link #returnType()}.
@@ -85,20 +88,23 @@ final class JMethodSymbol extends JSymbol implements Symbol.MethodSymbol {
 
   @Override
   public List<Symbol> declarationParameters() {
-    if (parameters == null) {
+    List<Symbol> result = parameters;
+    if (result == null) {
       MethodTree declaration = declaration();
       if (declaration != null && !isCompactConstructor(declaration)) {
-        parameters = declaration.parameters().stream().map(VariableTree::symbol).toList();
+        result = declaration.parameters().stream().map(VariableTree::symbol).toList();
       } else {
-        parameters = new ArrayList<>();
+        result = new ArrayList<>();
         IMethodBinding methodBinding = methodBinding();
         ITypeBinding[] parameterTypeBindings = methodBinding.getParameterTypes();
         for (int i = 0; i < parameterTypeBindings.length; i++) {
-          parameters.add(new JVariableSymbol.ParameterPlaceholderSymbol(i, sema, methodBinding.getMethodDeclaration(), parameterTypeBindings[i]));
+          result.add(new JVariableSymbol.ParameterPlaceholderSymbol(i, sema, methodBinding.getMethodDeclaration(), parameterTypeBindings[i]));
         }
       }
+      // threads computing it at once each cache their own list, all of them describing the same parameters
+      parameters = result;
     }
-    return parameters;
+    return result;
   }
 
   private static boolean isCompactConstructor(MethodTree methodTree) {
@@ -157,6 +157,7 @@ import org.eclipse.jdt.internal.formatter.Token;
 import org.eclipse.jdt.internal.formatter.TokenManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.java.ExecutionTimeReport;
 import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.java.ast.parser.ArgumentListTreeImpl;
 import org.sonar.java.ast.parser.FormalParametersListTreeImpl;
@@ -281,8 +282,20 @@ public class JParser {
    * @throws RecognitionException in case of syntax errors
    */
   public static JavaTree.CompilationUnitTreeImpl parse(ASTParser astParser, String version, String unitName, String source) {
+    return parse(astParser, version, unitName, source, null);
+  }
+
+  /**
+   * Same as {@link #parse(ASTParser, String, String, String)}, recording the parsing and the conversion in the given profile.
+   */
+  public static JavaTree.CompilationUnitTreeImpl parse(ASTParser astParser, String version, String unitName, String source,
+    @Nullable ExecutionTimeReport.FileProfile profile) {
+    long startNanos = profile != null ? System.nanoTime() : 0L;
+    long startAllocatedBytes = profile != null ? ExecutionTimeReport.currentThreadAllocatedBytes() : 0L;
     astParser.setUnitName(unitName);
-    astParser.setSource(source.toCharArray());
+    // shared by ECJ and the conversion
+    char[] sourceChars = source.toCharArray();
+    astParser.setSource(sourceChars);
 
     CompilationUnit astNode;
     try {
@@ -291,17 +304,39 @@ public class JParser {
       LOG.error("ECJ: Unable to parse file", e);
       throw new RecognitionException(-1, "ECJ: Unable to parse file.", e);
     }
+    if (profile != null) {
+      profile.addParse(System.nanoTime() - startNanos, ExecutionTimeReport.currentThreadAllocatedBytes() - startAllocatedBytes);
+    }
 
-    return convert(version, unitName, source, astNode);
+    return convert(version, unitName, source, sourceChars, astNode, profile);
   }
 
+  /**
+   * Converts the tree of a file parsed by ECJ.
+   *
+   * @throws RecognitionException in case of syntax errors
+   */
   static JavaTree.CompilationUnitTreeImpl convert(String version, String unitName, String source, CompilationUnit astNode) {
+    return convert(version, unitName, source, astNode, null);
+  }
+
+  /**
+   * Same as {@link #convert(String, String, String, CompilationUnit)}, recording the conversion in the given profile.
+   */
+  static JavaTree.CompilationUnitTreeImpl convert(String version, String unitName, String source, CompilationUnit astNode,
+    @Nullable ExecutionTimeReport.FileProfile profile) {
+    return convert(version, unitName, source, source.toCharArray(), astNode, profile);
+  }
+
+  private static JavaTree.CompilationUnitTreeImpl convert(String version, String unitName, String source, char[] sourceChars, CompilationUnit astNode,
+    @Nullable ExecutionTimeReport.FileProfile profile) {
+    long startNanos = profile != null ? System.nanoTime() : 0L;
+    long startAllocatedBytes = profile != null ? ExecutionTimeReport.currentThreadAllocatedBytes() : 0L;
     List<IProblem> errors = Stream.of(astNode.getProblems()).filter(IProblem::isError).toList();
     Optional<IProblem> possibleSyntaxError = errors.stream().filter(IS_SYNTAX_ERROR).findFirst();
-    LineColumnConverter lineColumnConverter = new LineColumnConverter(source);
     if (possibleSyntaxError.isPresent()) {
       IProblem syntaxError = possibleSyntaxError.get();
-      LineColumnConverter.Pos pos = lineColumnConverter.toPos(syntaxError.getSourceStart());
+      LineColumnConverter.Pos pos = new LineColumnConverter(sourceChars).toPos(syntaxError.getSourceStart());
       String message = String.format("Parse error at line %d column %d: %s", pos.line(), pos.columnOffset() + 1, syntaxError.getMessage());
       // interrupt parsing
       throw new RecognitionException(pos.line(), message);
@@ -318,8 +353,13 @@ public class JParser {
     converter.sema = new JSema(astNode.getAST());
     converter.sema.undefinedTypes.addAll(undefinedTypes);
     converter.compilationUnit = astNode;
-    converter.tokenManager = createTokenManager(version, unitName, source);
-    converter.lineColumnConverter = lineColumnConverter;
+    // tokens, comments and line starts are all collected in a single pass over the source
+    converter.lineColumnConverter = new LineColumnConverter();
+    List<Token> tokens = lex(version, unitName, sourceChars, converter.lineColumnConverter);
+    converter.tokenManager = createTokenManager(tokens, source);
+    // the syntax tree keeps the tokens and comments as indexes in a table sharing the characters of the source
+    converter.tokenTable = new TokenTable(sourceChars, tokens, converter.lineColumnConverter);
+    converter.splitTokenTable = TokenTable.ofSplitTokens(sourceChars);
 
     JavaTree.CompilationUnitTreeImpl tree = converter.convertCompilationUnit(astNode);
     tree.sema = converter.sema;
@@ -328,21 +368,34 @@ public class JParser {
     ASTUtils.mayTolerateMissingType(astNode.getAST());
 
     setParents(tree);
+    if (profile != null) {
+      profile.addConvert(System.nanoTime() - startNanos, ExecutionTimeReport.currentThreadAllocatedBytes() - startAllocatedBytes);
+      profile.setTokens(tokens.size());
+    }
     return tree;
   }
 
   @VisibleForTesting
   static TokenManager createTokenManager(String version, String unitName, String source) {
-    return new TokenManager(lex(version, unitName, source.toCharArray()), source, new DefaultCodeFormatterOptions(new HashMap<>()));
+    return createTokenManager(lex(version, unitName, source.toCharArray(), new LineColumnConverter()), source);
+  }
+
+  private static TokenManager createTokenManager(List<Token> tokens, String source) {
+    return new TokenManager(tokens, source, new DefaultCodeFormatterOptions(new HashMap<>()));
   }
 
   private static void setParents(Tree node) {
     Iterator<Tree> childrenIterator = iteratorFor(node);
+    if (!childrenIterator.hasNext()) {
+      return;
+    }
     while (childrenIterator.hasNext()) {
       Tree child = childrenIterator.next();
       ((JavaTree) child).setParent(node);
       setParents(child);
     }
+    // the first and last tokens of the children are already cached, so these are found without going down the tree again
+    ((AbstractCompositeTree) node).cacheFirstAndLastTokens();
   }
 
   private static Iterator<Tree> iteratorFor(Tree node) {
@@ -353,8 +406,10 @@ public class JParser {
     return ((JavaTree) node).getChildren().iterator();
   }
 
-  @VisibleForTesting
-  static List<Token> lex(String version, String unitName, char[] sourceChars) {
+  /**
+   * @param lineColumnConverter completed with the line starts of the source, read along with the tokens
+   */
+  private static List<Token> lex(String version, String unitName, char[] sourceChars, LineColumnConverter lineColumnConverter) {
     List<Token> tokens = new ArrayList<>();
     Scanner scanner = new Scanner(
       true,
@@ -372,6 +427,7 @@ public class JParser {
         int tokenType = scanner.getNextToken();
         Token token = Token.fromCurrent(scanner, tokenType);
         tokens.add(token);
+        lineColumnConverter.readUpTo(sourceChars, scanner.currentPosition);
         if (tokenType == TerminalTokens.TokenNameEOF) {
           break;
         }
@@ -379,12 +435,15 @@ public class JParser {
         throw new IllegalStateException(e);
       }
     }
+    lineColumnConverter.complete(sourceChars);
     return tokens;
   }
 
   private CompilationUnit compilationUnit;
 
   private TokenManager tokenManager;
+  private TokenTable tokenTable;
+  private TokenTable splitTokenTable;
   private LineColumnConverter lineColumnConverter;
 
   private JSema sema;
@@ -486,45 +545,24 @@ public class JParser {
   }
 
   private InternalSyntaxToken createSyntaxToken(int tokenIndex) {
-    Token t = tokenManager.get(tokenIndex);
-    String value;
-    boolean isEOF;
-    if (t.tokenType == TerminalTokens.TokenNameEOF) {
-      isEOF = true;
-      value = "";
-    } else {
-      isEOF = false;
-      value = t.toString(tokenManager.getSource());
-    }
-    LineColumnConverter.Pos pos = lineColumnConverter.toPos(t.originalStart);
-    return new InternalSyntaxToken(pos.line(), pos.columnOffset(), value, collectComments(tokenIndex), isEOF);
+    return new InternalSyntaxToken(tokenTable, tokenIndex);
   }
 
   private InternalSyntaxToken createSpecialToken(int tokenIndex) {
     Token t = tokenManager.get(tokenIndex);
     List<SyntaxTrivia> comments = t.tokenType == TerminalTokens.TokenNameGREATER
-      ? collectComments(tokenIndex)
+      ? tokenTable.trivias(tokenIndex)
       : Collections.emptyList();
-    LineColumnConverter.Pos pos = lineColumnConverter.toPos(t.originalEnd);
-    return new InternalSyntaxToken(pos.line(), pos.columnOffset(), ">", comments, false);
-  }
-
-  private List<SyntaxTrivia> collectComments(int tokenIndex) {
-    int commentIndex = tokenIndex;
-    while (commentIndex > 0 && isComment(tokenManager.get(commentIndex - 1))) {
-      commentIndex--;
-    }
-    List<SyntaxTrivia> comments = new ArrayList<>();
-    for (int i = commentIndex; i < tokenIndex; i++) {
-      Token t = tokenManager.get(i);
-      LineColumnConverter.Pos pos = lineColumnConverter.toPos(t.originalStart);
-      comments.add(new InternalSyntaxTrivia(convertTokenTypeToCommentKind(t),
-        t.toString(tokenManager.getSource()),
-        pos.line(),
-        pos.columnOffset()
-      ));
-    }
-    return comments;
+    return createGreaterToken(t.originalEnd, comments);
+  }
+
+  /**
+   * "&gt;" closing type arguments or parameters, read at the given offset of the source, where it can be the last character of a
+   * "&gt;&gt;" or "&gt;&gt;&gt;" token of the lexer.
+   */
+  private InternalSyntaxToken createGreaterToken(int offset, List<SyntaxTrivia> comments) {
+    LineColumnConverter.Pos pos = lineColumnConverter.toPos(offset);
+    return new InternalSyntaxToken(splitTokenTable, splitTokenTable.addSplitToken(offset, pos.line(), pos.columnOffset()), comments);
   }
 
   @VisibleForTesting
@@ -2659,19 +2697,12 @@ public class JParser {
   }
 
   private JavaTree.ParameterizedTypeTreeImpl convertParameterizedType(ParameterizedType e) {
-    LineColumnConverter.Pos pos = lineColumnConverter.toPos(e.getStartPosition() + e.getLength() - 1);
     JavaTree.ParameterizedTypeTreeImpl t = new JavaTree.ParameterizedTypeTreeImpl(
       convertType(e.getType()),
       convertTypeArguments(
         firstTokenAfter(e.getType(), TerminalTokens.TokenNameLESS),
         e.typeArguments(),
-        new InternalSyntaxToken(
-          pos.line(),
-          pos.columnOffset(),
-          ">",
-          /* TODO */ Collections.emptyList(),
-          false
-        )
+        createGreaterToken(e.getStartPosition() + e.getLength() - 1, /* TODO */ Collections.emptyList())
       )
     );
     t.typeBinding = e.resolveBinding();
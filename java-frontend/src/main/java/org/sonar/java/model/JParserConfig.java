@@ -25,10 +25,14 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.stream.StreamSupport;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
@@ -59,6 +63,10 @@ public abstract class JParserConfig {
   final JavaVersion javaVersion;
   final List<File> classpath;
   final boolean shouldIgnoreUnnamedModuleForSplitPackage;
+  @Nullable
+  private ExecutionTimeReport sharedExecutionTimeReport;
+  @Nullable
+  private Semaphore liveTrees;
 
   private JParserConfig(JavaVersion javaVersion, List<File> classpath, boolean shouldIgnoreUnnamedModuleForSplitPackage) {
     this.javaVersion = javaVersion;
@@ -69,6 +77,50 @@ public abstract class JParserConfig {
   public abstract void parse(Iterable<? extends InputFile> inputFiles, BooleanSupplier isCanceled,
     AnalysisProgress analysisProgress, BiConsumer<InputFile, Result> action);
 
+  /**
+   * Merges the slowest files of each call to {@link #parse} into the given report, reported by its owner at the end of the analysis,
+   * instead of reporting them at the end of the call.
+   */
+  public JParserConfig withExecutionTimeReport(@Nullable ExecutionTimeReport executionTimeReport) {
+    this.sharedExecutionTimeReport = executionTimeReport;
+    return this;
+  }
+
+  /**
+   * Bounds the number of trees alive at the same time across the calls to {@link #parse} sharing the given permits: in batch mode,
+   * a permit is taken before converting a file and released once the action on its tree is done.
+   */
+  public JParserConfig withLiveTrees(@Nullable Semaphore liveTrees) {
+    this.liveTrees = liveTrees;
+    return this;
+  }
+
+  void acquireLiveTree() {
+    if (liveTrees == null) {
+      return;
+    }
+    try {
+      liveTrees.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OperationCanceledException();
+    }
+  }
+
+  void releaseLiveTree() {
+    if (liveTrees != null) {
+      liveTrees.release();
+    }
+  }
+
+  void report(ExecutionTimeReport executionTimeReport, Consumer<ExecutionTimeReport> reporter) {
+    if (sharedExecutionTimeReport != null) {
+      sharedExecutionTimeReport.merge(executionTimeReport);
+    } else {
+      reporter.accept(executionTimeReport);
+    }
+  }
+
   public enum Mode {
     BATCH(Batch::new),
     FILE_BY_FILE(FileByFile::new);
@@ -94,15 +146,19 @@ public abstract class JParserConfig {
   public static class Result {
     private final Exception e;
     private final JavaTree.CompilationUnitTreeImpl t;
+    @Nullable
+    private final ExecutionTimeReport.FileProfile profile;
 
-    private Result(Exception e) {
+    private Result(Exception e, @Nullable ExecutionTimeReport.FileProfile profile) {
       this.e = e;
       this.t = null;
+      this.profile = profile;
     }
 
-    private Result(JavaTree.CompilationUnitTreeImpl t) {
+    private Result(JavaTree.CompilationUnitTreeImpl t, @Nullable ExecutionTimeReport.FileProfile profile) {
       this.e = null;
       this.t = t;
+      this.profile = profile;
     }
 
     public JavaTree.CompilationUnitTreeImpl get() throws Exception {
@@ -111,6 +167,14 @@ public abstract class JParserConfig {
       }
       return t;
     }
+
+    /**
+     * @return the profile of the file, in which its analysis can record its phases
+     */
+    @CheckForNull
+    public ExecutionTimeReport.FileProfile profile() {
+      return profile;
+    }
   }
 
   public ASTParser astParser() {
@@ -171,16 +235,34 @@ public abstract class JParserConfig {
       PerformanceMeasure.Duration batchPerformance = PerformanceMeasure.start("ParseAsBatch");
       try {
         astParser().createASTs(sourceFilePaths.toArray(new String[0]), encodings.toArray(new String[0]), new String[0], new FileASTRequestor() {
+          // ECJ parses the files in between the calls, the first one also carries the set-up of the batch
+          private long parseStartNanos = System.nanoTime();
+          private long parseStartAllocatedBytes = ExecutionTimeReport.currentThreadAllocatedBytes();
+
           @Override
           public void acceptAST(String sourceFilePath, CompilationUnit ast) {
+            long acquireStartNanos = System.nanoTime();
+            acquireLiveTree();
+            // waiting for a permit is not part of the parsing time of the file
+            parseStartNanos += System.nanoTime() - acquireStartNanos;
+            try {
+              convertAndAnalyze(sourceFilePath, ast);
+            } finally {
+              releaseLiveTree();
+            }
+          }
+
+          private void convertAndAnalyze(String sourceFilePath, CompilationUnit ast) {
             PerformanceMeasure.Duration convertDuration = PerformanceMeasure.start("Convert");
             InputFile inputFile = inputs.get(new File(sourceFilePath));
-            executionTimeReport.start(inputFile);
+            executionTimeReport.start(inputFile, System.nanoTime() - parseStartNanos,
+              ExecutionTimeReport.currentThreadAllocatedBytes() - parseStartAllocatedBytes);
+            ExecutionTimeReport.FileProfile profile = executionTimeReport.currentProfile();
             Result result;
             try {
-              result = new Result(JParser.convert(javaVersion.effectiveJavaVersionAsString(), inputFile.filename(), inputFile.contents(), ast));
+              result = new Result(JParser.convert(javaVersion.effectiveJavaVersionAsString(), inputFile.filename(), inputFile.contents(), ast, profile), profile);
             } catch (Exception e) {
-              result = new Result(e);
+              result = new Result(e, profile);
             }
             convertDuration.stop();
             PerformanceMeasure.Duration analyzeDuration = PerformanceMeasure.start("Analyze");
@@ -189,6 +271,8 @@ public abstract class JParserConfig {
             notYetAnalyzedFiles.remove(inputFile);
             executionTimeReport.end();
             analyzeDuration.stop();
+            parseStartNanos = System.nanoTime();
+            parseStartAllocatedBytes = ExecutionTimeReport.currentThreadAllocatedBytes();
           }
         }, monitor);
         if (!notYetAnalyzedFiles.isEmpty()) {
@@ -204,8 +288,7 @@ public abstract class JParserConfig {
         }
       } finally {
         batchPerformance.stop();
-        // ExecutionTimeReport will not include the parsing time by file when using batch mode.
-        executionTimeReport.reportAsBatch();
+        report(executionTimeReport, ExecutionTimeReport::reportAsBatch);
         monitor.done();
       }
     }
@@ -216,7 +299,12 @@ public abstract class JParserConfig {
         if (isCanceled.getAsBoolean()) {
           break;
         }
-        FileByFile.parse(astParser(), inputFile, javaVersion, action);
+        acquireLiveTree();
+        try {
+          FileByFile.parse(astParser(), inputFile, javaVersion, action, null);
+        } finally {
+          releaseLiveTree();
+        }
       }
     }
 
@@ -247,7 +335,7 @@ public abstract class JParserConfig {
             break;
           }
           executionTimeReport.start(inputFile);
-          parse(astParser(), inputFile, javaVersion, action);
+          parse(astParser(), inputFile, javaVersion, action, executionTimeReport.currentProfile());
           executionTimeReport.end();
           progressReport.nextFile();
         }
@@ -258,17 +346,18 @@ public abstract class JParserConfig {
         } else {
           progressReport.cancel();
         }
-        executionTimeReport.report();
+        report(executionTimeReport, ExecutionTimeReport::report);
       }
     }
 
-    private static void parse(ASTParser astParser, InputFile inputFile, JavaVersion javaVersion, BiConsumer<InputFile, Result> action) {
+    private static void parse(ASTParser astParser, InputFile inputFile, JavaVersion javaVersion, BiConsumer<InputFile, Result> action,
+      @Nullable ExecutionTimeReport.FileProfile profile) {
       Result result;
       PerformanceMeasure.Duration parseDuration = PerformanceMeasure.start("JParser");
       try {
-        result = new Result(JParser.parse(astParser, javaVersion.effectiveJavaVersionAsString(), inputFile.filename(), inputFile.contents()));
+        result = new Result(JParser.parse(astParser, javaVersion.effectiveJavaVersionAsString(), inputFile.filename(), inputFile.contents(), profile), profile);
       } catch (Exception e) {
-        result = new Result(e);
+        result = new Result(e, profile);
       } finally {
         parseDuration.stop();
       }
@@ -23,6 +23,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
 import javax.annotation.Nullable;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTUtils;
@@ -44,12 +46,16 @@ public final class JSema implements Sema {
   final Set<JProblem> undefinedTypes = new HashSet<>();
   final Map<IBinding, Tree> declarations = new HashMap<>();
   final Map<IBinding, List<IdentifierTree>> usages = new HashMap<>();
-  private final Map<ITypeBinding, JType> types = new HashMap<>();
-  private final Map<IBinding, JSymbol> symbols = new HashMap<>();
-  private final Map<Symbol.TypeSymbol, JInitializerBlockSymbol> initializerBlockSymbols = new HashMap<>();
-  private final Map<Symbol.TypeSymbol, JInitializerBlockSymbol> staticInitializerBlockSymbols = new HashMap<>();
-  private final Map<IAnnotationBinding, JSymbolMetadata.JAnnotationInstance> annotations = new HashMap<>();
-  private final Map<String, Type> nameToTypeCache = new HashMap<>();
+  private final Map<ITypeBinding, JType> types = new ConcurrentHashMap<>();
+  private final Map<IBinding, JSymbol> symbols = new ConcurrentHashMap<>();
+  private final Map<Symbol.TypeSymbol, JInitializerBlockSymbol> initializerBlockSymbols = new ConcurrentHashMap<>();
+  private final Map<Symbol.TypeSymbol, JInitializerBlockSymbol> staticInitializerBlockSymbols = new ConcurrentHashMap<>();
+  private final Map<IAnnotationBinding, JSymbolMetadata.JAnnotationInstance> annotations = new ConcurrentHashMap<>();
+  private final Map<String, Type> nameToTypeCache = new ConcurrentHashMap<>();
+  /**
+   * Results of method matchers on the method symbols of this file, shared by all the rules.
+   */
+  private final Map<MethodMatcherResultKey, Boolean> methodMatcherResults = new ConcurrentHashMap<>();
 
   JSema(AST ast) {
     this.ast = ast;
@@ -133,18 +139,23 @@ public final class JSema implements Sema {
     }
     name = name.substring(0, end + 1);
 
-    ITypeBinding typeBinding = ast.resolveWellKnownType(name);
-    if (typeBinding == null) {
-      typeBinding = ASTUtils.resolveType(ast, name);
+    // the lookup environment of the compiler is not thread-safe, while the visitors of a file can walk its tree on different threads
+    synchronized (ast) {
+      ITypeBinding typeBinding = ast.resolveWellKnownType(name);
       if (typeBinding == null) {
-        return null;
+        typeBinding = ASTUtils.resolveType(ast, name);
+        if (typeBinding == null) {
+          return null;
+        }
       }
+      return dimensions == 0 ? typeBinding : typeBinding.createArrayType(dimensions);
     }
-    return dimensions == 0 ? typeBinding : typeBinding.createArrayType(dimensions);
   }
 
   IAnnotationBinding[] resolvePackageAnnotations(String packageName) {
-    return ASTUtils.resolvePackageAnnotations(ast, packageName);
+    synchronized (ast) {
+      return ASTUtils.resolvePackageAnnotations(ast, packageName);
+    }
   }
 
   public Runnable getEnvironmentCleaner() {
@@ -154,4 +165,34 @@ public final class JSema implements Sema {
   public Set<JProblem> undefinedTypes() {
     return Collections.unmodifiableSet(undefinedTypes);
   }
+
+  boolean methodMatcherResult(Object matcher, JMethodSymbol symbol, Type callSiteType, BooleanSupplier result) {
+    MethodMatcherResultKey key = new MethodMatcherResultKey(matcher, symbol, callSiteType);
+    Boolean cached = methodMatcherResults.get(key);
+    if (cached == null) {
+      // not computed in computeIfAbsent, as the matcher may itself use other matchers
+      cached = result.getAsBoolean();
+      methodMatcherResults.put(key, cached);
+    }
+    return cached;
+  }
+
+  /**
+   * Symbols and types are unique in a file, so they are compared by identity, which is faster than their equality.
+   */
+  private record MethodMatcherResultKey(Object matcher, Symbol.MethodSymbol symbol, Type callSiteType) {
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof MethodMatcherResultKey other
+        && matcher == other.matcher
+        && symbol == other.symbol
+        && callSiteType == other.callSiteType;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * System.identityHashCode(matcher) + System.identityHashCode(symbol)) + System.identityHashCode(callSiteType);
+    }
+  }
 }
@@ -55,9 +55,9 @@ final class JTypeSymbol extends JSymbol implements Symbol.TypeSymbol {
   private Collection<Symbol> memberSymbols;
 
   /**
-   * Cache for {@link #superTypes()}.
+   * Cache for {@link #superTypes()}, volatile as symbols are shared by the threads exploring the methods of a file.
    */
-  private Set<Type> superTypes;
+  private volatile Set<Type> superTypes;
 
   final SpecialField superSymbol = new SpecialField() {
     @Override
@@ -163,17 +163,20 @@ final class JTypeSymbol extends JSymbol implements Symbol.TypeSymbol {
 
   @Override
   public Set<Type> superTypes() {
-    if (superTypes == null) {
+    Set<Type> result = superTypes;
+    if (result == null) {
       if (isUnknown()) {
-        superTypes = Collections.emptySet();
+        result = Collections.emptySet();
       } else {
-        superTypes = new HashSet<>();
-        JUtils.collectSuperTypes(superTypes, sema, typeBinding());
+        result = new HashSet<>();
+        JUtils.collectSuperTypes(result, sema, typeBinding());
       }
+      superTypes = result;
     }
-    return superTypes;
+    return result;
   }
 
+
   @Override
   @Nullable
   public TypeSymbol outermostClass() {
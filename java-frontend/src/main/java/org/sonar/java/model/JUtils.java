@@ -21,6 +21,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 import javax.annotation.Nullable;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.sonar.plugins.java.api.semantic.Symbol;
@@ -78,6 +79,17 @@ public final class JUtils {
     }
   }
 
+  /**
+   * Result of a method matcher on a method symbol and the type of the call site, computed once per file for all the rules when the
+   * symbol comes from the semantic model of a file.
+   */
+  public static boolean methodMatcherResult(Object matcher, Symbol.MethodSymbol symbol, Type callSiteType, BooleanSupplier result) {
+    if (symbol instanceof JMethodSymbol methodSymbol) {
+      return methodSymbol.sema.methodMatcherResult(matcher, methodSymbol, callSiteType, result);
+    }
+    return result.getAsBoolean();
+  }
+
   public static Symbol getPackage(Symbol symbol) {
     while (!symbol.isPackageSymbol()) {
       symbol = symbol.owner();
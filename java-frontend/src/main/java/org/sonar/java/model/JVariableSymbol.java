@@ -31,9 +31,8 @@ import org.sonar.plugins.java.api.tree.VariableTree;
 
 final class JVariableSymbol extends JSymbol implements Symbol.VariableSymbol {
 
-  // cache for this.constantValue()
-  private boolean constantValueComputed = false;
-  private Optional<Object> constantValue;
+  // cache for this.constantValue(), null until computed, volatile as symbols are shared by the threads exploring the methods of a file
+  private volatile Optional<Object> constantValue;
 
   JVariableSymbol(JSema sema, IVariableBinding variableBinding) {
     super(sema, variableBinding);
@@ -52,23 +51,27 @@ final class JVariableSymbol extends JSymbol implements Symbol.VariableSymbol {
 
   @Override
   public Optional<Object> constantValue() {
-    if (!constantValueComputed) {
-      constantValueComputed = true;
-      if (!isFinal() || !isStatic()) {
-        constantValue = Optional.empty();
-      } else {
-        Object c = ((IVariableBinding) binding).getConstantValue();
-        if (c instanceof Short shortValue) {
-          c = Integer.valueOf(shortValue);
-        } else if (c instanceof Byte byteValue) {
-          c = Integer.valueOf(byteValue);
-        } else if (c instanceof Character characterValue) {
-          c = Integer.valueOf(characterValue);
-        }
-        constantValue = Optional.ofNullable(c);
-      }
-    }
-    return constantValue;
+    Optional<Object> result = constantValue;
+    if (result == null) {
+      result = computeConstantValue();
+      constantValue = result;
+    }
+    return result;
+  }
+
+  private Optional<Object> computeConstantValue() {
+    if (!isFinal() || !isStatic()) {
+      return Optional.empty();
+    }
+    Object c = ((IVariableBinding) binding).getConstantValue();
+    if (c instanceof Short shortValue) {
+      c = Integer.valueOf(shortValue);
+    } else if (c instanceof Byte byteValue) {
+      c = Integer.valueOf(byteValue);
+    } else if (c instanceof Character characterValue) {
+      c = Integer.valueOf(characterValue);
+    }
+    return Optional.ofNullable(c);
   }
 
   @Override
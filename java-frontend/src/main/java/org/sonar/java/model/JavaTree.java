@@ -156,7 +156,7 @@ public abstract class JavaTree implements Tree {
     return false;
   }
 
-  public static class CompilationUnitTreeImpl extends JavaTree implements CompilationUnitTree {
+  public static class CompilationUnitTreeImpl extends AbstractCompositeTree implements CompilationUnitTree {
     @Nullable
     private final PackageDeclarationTree packageDeclaration;
     private final List<ImportClauseTree> imports;
@@ -238,7 +238,7 @@ public abstract class JavaTree implements Tree {
 
   }
 
-  public static class PackageDeclarationTreeImpl extends JavaTree implements PackageDeclarationTree {
+  public static class PackageDeclarationTreeImpl extends AbstractCompositeTree implements PackageDeclarationTree {
 
     private final List<AnnotationTree> annotations;
     private final SyntaxToken packageKeyword;
@@ -315,7 +315,7 @@ public abstract class JavaTree implements Tree {
     }
   }
 
-  public static class ImportTreeImpl extends JavaTree implements ImportTree {
+  public static class ImportTreeImpl extends AbstractCompositeTree implements ImportTree {
     private final boolean isStatic;
     private final Tree qualifiedIdentifier;
     private final SyntaxToken semicolonToken;
@@ -17,8 +17,6 @@
 package org.sonar.java.model;
 
 import java.util.Arrays;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * There is a different convention in the JDT for line and column numbers.
@@ -30,17 +28,56 @@ import java.util.regex.Pattern;
  */
 public class LineColumnConverter {
 
-  private static final Pattern LINE_SEPARATOR_PATTERN = Pattern.compile("\r\n?|\n");
-
   private int[] lineStartIndexes = new int[64];
   private int lineStartIndexesLength = 0;
+  /**
+   * Position up to which the source has been read for line separators ("\r\n", "\r" or "\n").
+   */
+  private int readPosition = 0;
 
   public LineColumnConverter(String source) {
-    Matcher matcher = LINE_SEPARATOR_PATTERN.matcher(source);
+    this(source.toCharArray());
+  }
+
+  public LineColumnConverter(char[] source) {
+    this();
+    complete(source);
+  }
+
+  /**
+   * Converter whose line starts are read incrementally, while the source is read for other purposes, see {@link #readUpTo}.
+   */
+  LineColumnConverter() {
     addLineStartIndex(0);
-    while (matcher.find()) {
-      addLineStartIndex(matcher.end());
+  }
+
+  /**
+   * Records the lines starting in the source from the position reached by the previous call up to the given one.
+   */
+  void readUpTo(char[] source, int position) {
+    int end = Math.min(position, source.length);
+    int i = readPosition;
+    while (i < end) {
+      char c = source[i];
+      i++;
+      if (c == '\r') {
+        // "\r\n" is a single line separator, even when the position falls between both characters
+        if (i < source.length && source[i] == '\n') {
+          i++;
+        }
+        addLineStartIndex(i);
+      } else if (c == '\n') {
+        addLineStartIndex(i);
+      }
     }
+    readPosition = Math.max(readPosition, i);
+  }
+
+  /**
+   * Records the lines starting in the rest of the source, after which the converter can be used.
+   */
+  void complete(char[] source) {
+    readUpTo(source, source.length);
     addLineStartIndex(Integer.MAX_VALUE);
   }
 
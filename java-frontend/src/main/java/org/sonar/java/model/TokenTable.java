@@ -0,0 +1,235 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
+import org.eclipse.jdt.internal.formatter.Token;
+import org.sonar.java.model.location.InternalPosition;
+import org.sonar.plugins.java.api.location.Position;
+import org.sonar.plugins.java.api.location.Range;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia.CommentKind;
+
+/**
+ * Tokens and comments of a compilation unit, stored by columns and indexed like the tokens of the lexer: one entry per token or comment,
+ * with its offsets in the shared characters of the source, its position and its kind.
+ * {@link InternalSyntaxToken} and {@link InternalSyntaxTrivia} read their text and position from this table, instead of holding copies.
+ * <p>
+ * The tokens which are only parts of the tokens of the lexer, like a "&gt;" closing type arguments split from a "&gt;&gt;" token,
+ * are kept in another table of the file, over the same source, which is filled while the syntax tree is built.
+ */
+final class TokenTable {
+
+  private static final byte TOKEN = 0;
+  private static final byte TEXT_BLOCK = 1;
+  private static final byte EOF = 2;
+  /**
+   * Kinds of comments follow, in the order of {@link CommentKind}.
+   */
+  private static final byte FIRST_COMMENT = 3;
+  private static final CommentKind[] COMMENT_KINDS = CommentKind.values();
+
+  private final char[] source;
+  private int size;
+  private int[] starts;
+  private int[] ends;
+  private int[] lines;
+  private int[] columns;
+  private byte[] kinds;
+  /**
+   * Ranges of the entries, computed on first use.
+   */
+  @Nullable
+  private Range[] ranges;
+
+  TokenTable(char[] source, List<Token> tokens, LineColumnConverter lineColumnConverter) {
+    this.source = source;
+    size = tokens.size();
+    starts = new int[size];
+    ends = new int[size];
+    lines = new int[size];
+    columns = new int[size];
+    kinds = new byte[size];
+    for (int i = 0; i < size; i++) {
+      Token token = tokens.get(i);
+      kinds[i] = kind(token);
+      starts[i] = token.originalStart;
+      ends[i] = kinds[i] == EOF ? token.originalStart : (token.originalEnd + 1);
+      LineColumnConverter.Pos pos = lineColumnConverter.toPos(token.originalStart);
+      lines[i] = pos.line();
+      columns[i] = pos.columnOffset();
+    }
+  }
+
+  private TokenTable(char[] source, int capacity) {
+    this.source = source;
+    starts = new int[capacity];
+    ends = new int[capacity];
+    lines = new int[capacity];
+    columns = new int[capacity];
+    kinds = new byte[capacity];
+  }
+
+  private TokenTable(String text, int line, int columnOffset, byte kind) {
+    source = text.toCharArray();
+    size = 1;
+    starts = new int[] {0};
+    ends = new int[] {source.length};
+    lines = new int[] {line};
+    columns = new int[] {columnOffset};
+    kinds = new byte[] {kind};
+  }
+
+  /**
+   * Table of a single token, which is not read from the source, at index 0.
+   */
+  static TokenTable ofToken(int line, int columnOffset, String value, boolean isEOF) {
+    byte kind;
+    if (isEOF) {
+      kind = EOF;
+    } else {
+      kind = value.startsWith("\"\"\"") ? TEXT_BLOCK : TOKEN;
+    }
+    return new TokenTable(value, line, columnOffset, kind);
+  }
+
+  /**
+   * Table of a single comment, which is not read from the source, at index 0.
+   */
+  static TokenTable ofComment(CommentKind commentKind, String comment, int line, int columnOffset) {
+    return new TokenTable(comment, line, columnOffset, comment(commentKind));
+  }
+
+  /**
+   * Empty table of the tokens split from the tokens of the lexer, see {@link #addSplitToken(int, int, int)}.
+   */
+  static TokenTable ofSplitTokens(char[] source) {
+    return new TokenTable(source, 8);
+  }
+
+  /**
+   * Adds a token made of the single character at the given offset of the source.
+   *
+   * @return the index of the token in this table
+   */
+  int addSplitToken(int offset, int line, int columnOffset) {
+    if (size == starts.length) {
+      int capacity = size * 2;
+      starts = Arrays.copyOf(starts, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+      lines = Arrays.copyOf(lines, capacity);
+      columns = Arrays.copyOf(columns, capacity);
+      kinds = Arrays.copyOf(kinds, capacity);
+    }
+    starts[size] = offset;
+    ends[size] = offset + 1;
+    lines[size] = line;
+    columns[size] = columnOffset;
+    kinds[size] = TOKEN;
+    return size++;
+  }
+
+  private static byte kind(Token token) {
+    if (JParser.isComment(token)) {
+      return comment(JParser.convertTokenTypeToCommentKind(token));
+    }
+    return switch (token.tokenType) {
+      case TerminalTokens.TokenNameTextBlock -> TEXT_BLOCK;
+      case TerminalTokens.TokenNameEOF -> EOF;
+      default -> TOKEN;
+    };
+  }
+
+  private static byte comment(CommentKind commentKind) {
+    return (byte) (FIRST_COMMENT + commentKind.ordinal());
+  }
+
+  /**
+   * Materializes the text of the given token.
+   */
+  String text(int index) {
+    return new String(source, starts[index], ends[index] - starts[index]);
+  }
+
+  int line(int index) {
+    return lines[index];
+  }
+
+  int column(int index) {
+    return columns[index];
+  }
+
+  int length(int index) {
+    return ends[index] - starts[index];
+  }
+
+  boolean isEOF(int index) {
+    return kinds[index] == EOF;
+  }
+
+  /**
+   * Range of the given token or comment, computed once: only text blocks and comments other than line comments can span several lines.
+   */
+  Range range(int index) {
+    Range[] cachedRanges = ranges;
+    if (cachedRanges == null || cachedRanges.length < size) {
+      cachedRanges = cachedRanges == null ? new Range[size] : Arrays.copyOf(cachedRanges, size);
+      ranges = cachedRanges;
+    }
+    Range range = cachedRanges[index];
+    if (range == null) {
+      Position start = InternalPosition.atOffset(lines[index], columns[index]);
+      boolean multiline = kinds[index] == TEXT_BLOCK || (isComment(index) && commentKind(index) != CommentKind.LINE);
+      range = multiline ? Range.at(start, text(index)) : Range.at(start, length(index));
+      // ranges are immutable, a range computed concurrently by another thread is only computed again
+      cachedRanges[index] = range;
+    }
+    return range;
+  }
+
+  CommentKind commentKind(int index) {
+    return COMMENT_KINDS[kinds[index] - FIRST_COMMENT];
+  }
+
+  private boolean isComment(int index) {
+    return kinds[index] >= FIRST_COMMENT;
+  }
+
+  /**
+   * @return the comments directly preceding the given token
+   */
+  List<SyntaxTrivia> trivias(int index) {
+    int first = index;
+    while (first > 0 && isComment(first - 1)) {
+      first--;
+    }
+    if (first == index) {
+      return Collections.emptyList();
+    }
+    List<SyntaxTrivia> trivias = new ArrayList<>(index - first);
+    for (int i = first; i < index; i++) {
+      trivias.add(new InternalSyntaxTrivia(this, i));
+    }
+    return trivias;
+  }
+
+}
@@ -20,24 +20,40 @@ import com.sonar.sslr.api.RecognitionException;
 import java.io.File;
 import java.io.InterruptedIOException;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.EnumMap;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
-import java.util.function.Consumer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.function.Predicate;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.rule.RuleKey;
 import org.sonar.api.utils.AnnotationUtils;
 import org.sonar.check.Rule;
 import org.sonar.java.AnalysisException;
 import org.sonar.java.CheckFailureException;
 import org.sonar.java.ExceptionHandler;
+import org.sonar.java.ExecutionTimeReport;
 import org.sonar.java.IllegalRuleParameterException;
+import org.sonar.java.RuleCostReport;
+import org.sonar.java.RuleCostReport.RuleCost;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.java.ast.visitors.SonarSymbolTableVisitor;
@@ -57,9 +73,12 @@ import org.sonar.plugins.java.api.JavaVersionAwareVisitor;
 import org.sonar.plugins.java.api.ModuleScannerContext;
 import org.sonar.plugins.java.api.caching.CacheContext;
 import org.sonar.plugins.java.api.internal.EndOfAnalysis;
+import org.sonar.plugins.java.api.internal.SymbolicExecutionScanner;
+import org.sonar.plugins.java.api.internal.ThreadSafeVisitor;
 import org.sonar.plugins.java.api.semantic.Sema;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
 import org.sonarsource.performance.measure.PerformanceMeasure;
@@ -68,6 +87,34 @@ public class VisitorsBridge {
 
   private static final Logger LOG = LoggerFactory.getLogger(VisitorsBridge.class);
 
+  /**
+   * Kinds of the trees whose children are only tokens.
+   */
+  private static final Set<Tree.Kind> TOKEN_ONLY_KINDS = EnumSet.of(
+    Tree.Kind.INT_LITERAL,
+    Tree.Kind.LONG_LITERAL,
+    Tree.Kind.FLOAT_LITERAL,
+    Tree.Kind.DOUBLE_LITERAL,
+    Tree.Kind.BOOLEAN_LITERAL,
+    Tree.Kind.CHAR_LITERAL,
+    Tree.Kind.STRING_LITERAL,
+    Tree.Kind.TEXT_BLOCK,
+    Tree.Kind.NULL_LITERAL,
+    Tree.Kind.EMPTY_STATEMENT);
+  private static final SubscriptionVisitor[] NO_VISITORS = new SubscriptionVisitor[0];
+  private static final RuleCost[] NO_COSTS = new RuleCost[0];
+  private static final int MAX_LOGGED_SCANNERS_REQUIRING_PARSING = 5;
+
+  // non-capturing, so that dispatching a tree to its visitors does not allocate
+  private static final VisitorCallback VISIT_NODE = SubscriptionVisitor::visitNode;
+  private static final VisitorCallback LEAVE_NODE = SubscriptionVisitor::leaveNode;
+  private static final VisitorCallback VISIT_TOKEN = (visitor, tree) -> visitor.visitToken((SyntaxToken) tree);
+  private static final VisitorCallback VISIT_TRIVIAS = (visitor, tree) -> {
+    for (SyntaxTrivia trivia : ((SyntaxToken) tree).trivias()) {
+      visitor.visitTrivia(trivia);
+    }
+  };
+
   private final Iterable<? extends JavaCheck> visitors;
   private final List<JavaFileScanner> allScanners;
   private final List<JavaFileScanner> scannersThatCannotBeSkipped;
@@ -78,9 +125,20 @@ public class VisitorsBridge {
   protected boolean inAndroidContext = false;
   private int fullyScannedFileCount = 0;
   private int skippedFileCount = 0;
+  /**
+   * For every scanner, number of files that could be skipped but that it was not able to scan without parsing.
+   */
+  private final Map<String, Integer> parsingRequirementsByScanner = new HashMap<>();
   @VisibleForTesting
   CacheContext cacheContext;
   private final DependencyVersionInference dependencyService;
+  private final int concurrentVisitorGroups;
+  private final boolean measureVisitors;
+  @Nullable
+  private final RuleCostReport ruleCosts;
+  private final Map<JavaFileScanner, RuleCost> scannerCosts = new IdentityHashMap<>();
+  @Nullable
+  private ExecutorService concurrentVisitorsExecutor;
 
   @VisibleForTesting
   public VisitorsBridge(JavaFileScanner visitor) {
@@ -102,6 +160,9 @@ public class VisitorsBridge {
 
     this.javaVersion = javaVersion;
     dependencyService = new DependencyVersionInference();
+    this.concurrentVisitorGroups = sonarComponents != null ? sonarComponents.getConcurrentVisitorGroups() : 0;
+    this.measureVisitors = sonarComponents != null && sonarComponents.isPerformanceMeasureEnabled();
+    this.ruleCosts = sonarComponents != null ? sonarComponents.ruleCostReport() : null;
     updateScanners();
   }
 
@@ -205,6 +266,7 @@ public class VisitorsBridge {
           } else {
             scannersRequiringParsing.add(scanner);
             allScansSucceeded = false;
+            recordParsingRequirement(scanner);
           }
         } catch (AnalysisException e) {
           // In the case where the IssuableSubscriptionVisitorsRunner throws an exception, the problem has already been
@@ -213,6 +275,7 @@ public class VisitorsBridge {
         } catch (Exception e) {
           exceptionIsBlownUp = true;
           allScansSucceeded = false;
+          recordParsingRequirement(scanner);
           String failureMessage = String.format(
             "Scan without parsing of file %s failed for scanner %s.",
             inputFile,
@@ -239,7 +302,21 @@ public class VisitorsBridge {
     }
   }
 
+  private void recordParsingRequirement(Object scanner) {
+    if (!(scanner instanceof IssuableSubscriptionVisitorsRunner)) {
+      // the runner records the requirements of its visitors
+      parsingRequirementsByScanner.merge(scanner.getClass().getName(), 1, Integer::sum);
+    }
+  }
+
   public void visitFile(@Nullable Tree parsedTree, boolean fileCanBeSkipped) {
+    visitFile(parsedTree, fileCanBeSkipped, null);
+  }
+
+  /**
+   * @param profile of the file, in which the symbol table, the scanners and the symbolic execution are recorded
+   */
+  public void visitFile(@Nullable Tree parsedTree, boolean fileCanBeSkipped, @Nullable ExecutionTimeReport.FileProfile profile) {
     if (fileCanBeSkipped) {
       skippedFileCount++;
     } else {
@@ -251,12 +328,17 @@ public class VisitorsBridge {
     compilationUnitDuration.stop();
 
     PerformanceMeasure.Duration symbolTableDuration = PerformanceMeasure.start("SymbolTable");
+    long symbolTableStartNanos = profile != null ? System.nanoTime() : 0L;
+    long symbolTableStartAllocatedBytes = profile != null ? ExecutionTimeReport.currentThreadAllocatedBytes() : 0L;
     boolean fileParsed = parsedTree != null;
     if (fileParsed && parsedTree.is(Tree.Kind.COMPILATION_UNIT)) {
       tree = (JavaTree.CompilationUnitTreeImpl) parsedTree;
       createSonarSymbolTable(tree);
     }
     symbolTableDuration.stop();
+    if (profile != null) {
+      profile.addSymbolTable(System.nanoTime() - symbolTableStartNanos, ExecutionTimeReport.currentThreadAllocatedBytes() - symbolTableStartAllocatedBytes);
+    }
 
     JavaFileScannerContext javaFileScannerContext = createScannerContext(tree, tree.sema, sonarComponents, fileParsed);
     var scanners = getScanners(fileCanBeSkipped);
@@ -264,15 +346,45 @@ public class VisitorsBridge {
     PerformanceMeasure.Duration scannersDuration = PerformanceMeasure.start("Scanners");
     for (JavaFileScanner scanner : scanners) {
       PerformanceMeasure.Duration scannerDuration = PerformanceMeasure.start(scanner);
+      long startNanos = profile != null ? System.nanoTime() : 0L;
+      long startAllocatedBytes = profile != null ? ExecutionTimeReport.currentThreadAllocatedBytes() : 0L;
       try {
-        runScanner(javaFileScannerContext, scanner);
+        runScanner(() -> scanner.scanFile(javaFileScannerContext), scanner, scannerCost(scanner));
       } catch (CheckFailureException e) {
         interruptIfFailFast(e);
       } finally {
         scannerDuration.stop();
+        if (profile != null) {
+          recordScanner(profile, scanner, System.nanoTime() - startNanos, ExecutionTimeReport.currentThreadAllocatedBytes() - startAllocatedBytes);
+        }
       }
     }
     scannersDuration.stop();
+    if (ruleCosts != null) {
+      ruleCosts.endOfFile(String.valueOf(currentFile));
+    }
+  }
+
+  private static void recordScanner(ExecutionTimeReport.FileProfile profile, JavaFileScanner scanner, long durationNanos, long allocatedBytes) {
+    if (scanner instanceof SymbolicExecutionScanner) {
+      profile.addSymbolicExecution(durationNanos, allocatedBytes);
+    } else {
+      profile.addScanners(durationNanos, allocatedBytes);
+    }
+  }
+
+  @Nullable
+  private RuleCost scannerCost(JavaFileScanner scanner) {
+    if (ruleCosts == null || scanner instanceof IssuableSubscriptionVisitorsRunner) {
+      // the runner measures each of its visitors
+      return null;
+    }
+    return scannerCosts.computeIfAbsent(scanner, s -> ruleCosts.costOf(ruleName(s)));
+  }
+
+  private String ruleName(JavaCheck check) {
+    Optional<RuleKey> ruleKey = sonarComponents != null ? sonarComponents.getRuleKey(check) : Optional.empty();
+    return ruleKey.map(RuleKey::toString).orElseGet(() -> check.getClass().getName());
   }
 
   private void interruptIfFailFast(CheckFailureException e) {
@@ -281,34 +393,55 @@ public class VisitorsBridge {
     }
   }
 
-  private void runScanner(JavaFileScannerContext javaFileScannerContext, JavaFileScanner scanner) throws CheckFailureException {
-    runScanner(() -> scanner.scanFile(javaFileScannerContext), scanner);
+  /**
+   * @param cost of the scanner, when the costs of the rules are measured
+   */
+  private void runScanner(Runnable action, JavaFileScanner scanner, @Nullable RuleCost cost) throws CheckFailureException {
+    if (cost == null || ruleCosts == null) {
+      runScanner(action, scanner);
+      return;
+    }
+    long cpuTime = ruleCosts.cpuTime();
+    long allocatedBytes = ruleCosts.allocatedBytes();
+    try {
+      runScanner(action, scanner);
+    } finally {
+      cost.add(ruleCosts.cpuTime() - cpuTime, ruleCosts.allocatedBytes() - allocatedBytes);
+    }
   }
 
   private void runScanner(Runnable action, JavaFileScanner scanner) throws CheckFailureException {
     try {
       action.run();
-    } catch (IllegalRuleParameterException e) {
+    } catch (RuntimeException e) {
+      throw checkFailure(e, scanner);
+    }
+  }
+
+  /**
+   * @return the failure to report for the given exception thrown by a scanner, unless it has to interrupt the analysis
+   */
+  private CheckFailureException checkFailure(RuntimeException e, JavaFileScanner scanner) {
+    if (e instanceof IllegalRuleParameterException) {
       // bad configuration of a rule parameter, we want to fail analysis fast.
       throw new AnalysisException("Bad configuration of rule parameter", e);
-    } catch (Exception e) {
-      Throwable rootCause = ThrowableUtils.getRootCause(e);
-      if (rootCause instanceof InterruptedIOException
-        || rootCause instanceof InterruptedException
-        || rootCause instanceof CancellationException
-        || analysisCancelled()) {
-        throw e;
-      }
+    }
+    Throwable rootCause = ThrowableUtils.getRootCause(e);
+    if (rootCause instanceof InterruptedIOException
+      || rootCause instanceof InterruptedException
+      || rootCause instanceof CancellationException
+      || analysisCancelled()) {
+      throw e;
+    }
 
-      String message = String.format(
-        "Unable to run check %s - %s on file '%s', To help improve the SonarSource Java Analyzer, please report this problem to SonarSource: see https://community.sonarsource" +
-          ".com/",
-        scanner.getClass(), ruleKey(scanner), currentFile);
+    String message = String.format(
+      "Unable to run check %s - %s on file '%s', To help improve the SonarSource Java Analyzer, please report this problem to SonarSource: see https://community.sonarsource" +
+        ".com/",
+      scanner.getClass(), ruleKey(scanner), currentFile);
 
-      LOG.error(message, e);
+    LOG.error(message, e);
 
-      throw new CheckFailureException(message, e);
-    }
+    return new CheckFailureException(message, e);
   }
 
   private boolean analysisCancelled() {
@@ -387,6 +520,7 @@ public class VisitorsBridge {
     } else if (fullyScannedFileCount > 0) {
       LOG.info("Did not optimize analysis for any files, performed a full analysis for all {} files.", fullyScannedFileCount);
     }
+    logParsingRequirements();
 
     var moduleContext = createScannerContext(sonarComponents, javaVersion, inAndroidContext, cacheContext);
 
@@ -394,21 +528,69 @@ public class VisitorsBridge {
       .filter(EndOfAnalysis.class::isInstance)
       .map(EndOfAnalysis.class::cast)
       .forEach(check -> check.endOfAnalysis(moduleContext));
+
+    if (concurrentVisitorsExecutor != null) {
+      concurrentVisitorsExecutor.shutdown();
+      concurrentVisitorsExecutor = null;
+    }
   }
 
+  private void logParsingRequirements() {
+    if (parsingRequirementsByScanner.isEmpty()) {
+      return;
+    }
+    String scanners = parsingRequirementsByScanner.entrySet().stream()
+      .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+      .limit(MAX_LOGGED_SCANNERS_REQUIRING_PARSING)
+      .map(entry -> entry.getKey() + " (" + entry.getValue() + ")")
+      .collect(Collectors.joining(", "));
+    LOG.info("Scanners requiring unchanged files to be parsed, with their number of files: {}{}", scanners,
+      parsingRequirementsByScanner.size() > MAX_LOGGED_SCANNERS_REQUIRING_PARSING ? ", ..." : "");
+    parsingRequirementsByScanner.clear();
+  }
+
+  private ExecutorService concurrentVisitorsExecutor() {
+    if (concurrentVisitorsExecutor == null) {
+      LOG.debug("Running thread-safe visitors in {} concurrent groups.", concurrentVisitorGroups);
+      AtomicInteger threadCount = new AtomicInteger();
+      concurrentVisitorsExecutor = Executors.newFixedThreadPool(concurrentVisitorGroups, runnable -> {
+        Thread thread = new Thread(runnable, "sonar-java-visitors-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return concurrentVisitorsExecutor;
+  }
+
+  /**
+   * Runs all the subscription visitors in a single walk of the tree, on the scanning thread.
+   * When concurrent groups are configured, the visitors implementing {@link ThreadSafeVisitor} are instead distributed among groups,
+   * each group walking the tree on its own thread with its own context. The issues reported by a group are buffered,
+   * and saved from the scanning thread once all the walks of the file are over.
+   */
   private class IssuableSubscriptionVisitorsRunner implements JavaFileScanner, EndOfAnalysis {
-    private EnumMap<Tree.Kind, List<SubscriptionVisitor>> checks;
-    private List<SubscriptionVisitor> subscriptionVisitors;
+    private final List<SubscriptionVisitor> subscriptionVisitors;
+    private final SubscriptionVisitorsWalk serialWalk;
+    private final List<SubscriptionVisitorsWalk> concurrentWalks;
+    private int threadSafeVisitorCount = 0;
 
     IssuableSubscriptionVisitorsRunner() {
-      checks = new EnumMap<>(Tree.Kind.class);
       this.subscriptionVisitors = new ArrayList<>();
+      this.serialWalk = new SubscriptionVisitorsWalk();
+      this.concurrentWalks = new ArrayList<>();
+      for (int i = 0; i < concurrentVisitorGroups; i++) {
+        concurrentWalks.add(new SubscriptionVisitorsWalk());
+      }
     }
 
     private void add(SubscriptionVisitor subscriptionVisitor) {
       this.subscriptionVisitors.add(subscriptionVisitor);
-      subscriptionVisitor.nodesToVisit()
-        .forEach(k -> checks.computeIfAbsent(k, key -> new ArrayList<>()).add(subscriptionVisitor));
+      if (subscriptionVisitor instanceof ThreadSafeVisitor && !concurrentWalks.isEmpty()) {
+        concurrentWalks.get(threadSafeVisitorCount % concurrentWalks.size()).add(subscriptionVisitor);
+        threadSafeVisitorCount++;
+      } else {
+        serialWalk.add(subscriptionVisitor);
+      }
     }
 
     @Override
@@ -417,9 +599,13 @@ public class VisitorsBridge {
       for (SubscriptionVisitor visitor : subscriptionVisitors) {
         PerformanceMeasure.Duration duration = PerformanceMeasure.start(visitor);
         try {
-          allScansSucceeded &= visitor.scanWithoutParsing(fileScannerContext);
+          if (!visitor.scanWithoutParsing(fileScannerContext)) {
+            allScansSucceeded = false;
+            recordParsingRequirement(visitor);
+          }
         } catch (Exception e) {
           allScansSucceeded = false;
+          recordParsingRequirement(visitor);
           String failureMessage = String.format(
             "Scan without parsing of file %s failed for scanner %s.",
             fileScannerContext.getInputFile(),
@@ -437,15 +623,49 @@ public class VisitorsBridge {
     @Override
     public void scanFile(JavaFileScannerContext javaFileScannerContext) {
       PerformanceMeasure.Duration issuableSubscriptionVisitorsDuration = PerformanceMeasure.start("IssuableSubscriptionVisitors");
+      List<ConcurrentWalk> concurrentScans = startConcurrentWalks(javaFileScannerContext);
+      CheckFailureException failure = null;
       try {
-        forEach(subscriptionVisitors, s -> s.setContext(javaFileScannerContext));
-        visit(javaFileScannerContext.getTree());
-        forEach(subscriptionVisitors, s -> s.leaveFile(javaFileScannerContext));
+        serialWalk.scan(javaFileScannerContext);
       } catch (CheckFailureException e) {
-        interruptIfFailFast(e);
+        failure = e;
       } finally {
+        // the tree is only released once all the walks are over
+        for (ConcurrentWalk concurrentScan : concurrentScans) {
+          failure = concurrentScan.awaitAndFlush(failure);
+        }
         issuableSubscriptionVisitorsDuration.stop();
       }
+      if (failure != null) {
+        interruptIfFailFast(failure);
+      }
+    }
+
+    private List<ConcurrentWalk> startConcurrentWalks(JavaFileScannerContext javaFileScannerContext) {
+      List<ConcurrentWalk> concurrentScans = new ArrayList<>();
+      for (SubscriptionVisitorsWalk walk : concurrentWalks) {
+        if (!walk.visitors.isEmpty()) {
+          BufferedJavaFileScannerContext bufferedContext = new BufferedJavaFileScannerContext(
+            javaFileScannerContext.getTree(),
+            javaFileScannerContext.getInputFile(),
+            (Sema) javaFileScannerContext.getSemanticModel(),
+            sonarComponents,
+            javaVersion,
+            javaFileScannerContext.fileParsed(),
+            inAndroidContext,
+            cacheContext);
+          Future<CheckFailureException> future = concurrentVisitorsExecutor().submit(() -> {
+            try {
+              walk.scan(bufferedContext);
+              return null;
+            } catch (CheckFailureException e) {
+              return e;
+            }
+          });
+          concurrentScans.add(new ConcurrentWalk(future, bufferedContext));
+        }
+      }
+      return concurrentScans;
     }
 
     @Override
@@ -455,44 +675,191 @@ public class VisitorsBridge {
         .map(EndOfAnalysis.class::cast)
         .forEach(check -> check.endOfAnalysis(cachedContext));
     }
+  }
 
-    private void visitChildren(Tree tree) throws CheckFailureException {
-      JavaTree javaTree = (JavaTree) tree;
-      if (!javaTree.isLeaf()) {
-        for (Tree next : javaTree.getChildren()) {
-          if (next != null) {
-            visit(next);
-          }
+  private record ConcurrentWalk(Future<CheckFailureException> future, BufferedJavaFileScannerContext context) {
+
+    /**
+     * Waits for the end of the walk, then saves the issues it reported, even when one of its visitors failed.
+     * @return the first failure of a check, among the given one and the one of this walk
+     */
+    @Nullable
+    private CheckFailureException awaitAndFlush(@Nullable CheckFailureException previousFailure) {
+      CheckFailureException failure;
+      try {
+        failure = future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new AnalysisException("Analysis cancelled", e);
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Error error) {
+          throw error;
+        }
+        throw (RuntimeException) cause;
+      }
+      context.flush();
+      return previousFailure != null ? previousFailure : failure;
+    }
+  }
+
+  @FunctionalInterface
+  private interface VisitorCallback {
+    void accept(SubscriptionVisitor visitor, Tree tree);
+  }
+
+  /**
+   * Walk of the tree dispatching the nodes to the visitors that subscribed to their kind.
+   * A walk is performed by a single thread at a time, but not always the same one.
+   * <p>
+   * Visitors are looked up in a table indexed by {@link Tree.Kind#ordinal()}, and the subtrees that cannot contain any subscribed kind
+   * are not walked: tokens and trees made of tokens only, when no visitor subscribed to their kind nor to tokens and trivias.
+   */
+  private class SubscriptionVisitorsWalk {
+    private final List<SubscriptionVisitor> visitors = new ArrayList<>();
+    private final SubscriptionVisitor[][] visitorsByKind;
+    /**
+     * When the costs of the rules are measured, the costs of {@link #visitors} and of {@link #visitorsByKind}, at the same indexes.
+     */
+    private final List<RuleCost> costs = new ArrayList<>();
+    private final RuleCost[][] costsByKind;
+    private final BitSet prunedKinds = new BitSet();
+
+    SubscriptionVisitorsWalk() {
+      visitorsByKind = new SubscriptionVisitor[Tree.Kind.values().length][];
+      Arrays.fill(visitorsByKind, NO_VISITORS);
+      costsByKind = new RuleCost[Tree.Kind.values().length][];
+      Arrays.fill(costsByKind, NO_COSTS);
+      updatePrunedKinds();
+    }
+
+    private void add(SubscriptionVisitor subscriptionVisitor) {
+      visitors.add(subscriptionVisitor);
+      RuleCost cost = ruleCosts != null ? ruleCosts.costOf(ruleName(subscriptionVisitor)) : null;
+      if (cost != null) {
+        costs.add(cost);
+      }
+      for (Tree.Kind kind : subscriptionVisitor.nodesToVisit()) {
+        SubscriptionVisitor[] subscribed = visitorsByKind[kind.ordinal()];
+        SubscriptionVisitor[] updated = Arrays.copyOf(subscribed, subscribed.length + 1);
+        updated[subscribed.length] = subscriptionVisitor;
+        visitorsByKind[kind.ordinal()] = updated;
+        if (cost != null) {
+          RuleCost[] subscribedCosts = costsByKind[kind.ordinal()];
+          RuleCost[] updatedCosts = Arrays.copyOf(subscribedCosts, subscribedCosts.length + 1);
+          updatedCosts[subscribedCosts.length] = cost;
+          costsByKind[kind.ordinal()] = updatedCosts;
         }
       }
+      updatePrunedKinds();
+    }
+
+    private void updatePrunedKinds() {
+      prunedKinds.clear();
+      if (isSubscribed(Tree.Kind.TOKEN) || isSubscribed(Tree.Kind.TRIVIA)) {
+        return;
+      }
+      prunedKinds.set(Tree.Kind.TOKEN.ordinal());
+      TOKEN_ONLY_KINDS.stream()
+        .filter(kind -> !isSubscribed(kind))
+        .forEach(kind -> prunedKinds.set(kind.ordinal()));
+    }
+
+    private boolean isSubscribed(Tree.Kind kind) {
+      return visitorsByKind[kind.ordinal()].length > 0;
+    }
+
+    private void scan(JavaFileScannerContext javaFileScannerContext) throws CheckFailureException {
+      for (int i = 0; i < visitors.size(); i++) {
+        SubscriptionVisitor visitor = visitors.get(i);
+        runScanner(() -> visitor.setContext(javaFileScannerContext), visitor, costs.isEmpty() ? null : costs.get(i));
+      }
+      visit(javaFileScannerContext.getTree());
+      for (int i = 0; i < visitors.size(); i++) {
+        SubscriptionVisitor visitor = visitors.get(i);
+        runScanner(() -> visitor.leaveFile(javaFileScannerContext), visitor, costs.isEmpty() ? null : costs.get(i));
+      }
     }
 
     private void visit(Tree tree) throws CheckFailureException {
       Kind kind = tree.kind();
-      List<SubscriptionVisitor> subscribed = checks.getOrDefault(kind, Collections.emptyList());
-      Consumer<SubscriptionVisitor> callback;
-      boolean isToken = (kind == Tree.Kind.TOKEN);
-      if (isToken) {
-        callback = s -> s.visitToken((SyntaxToken) tree);
+      int kindIndex = kind.ordinal();
+      if (kind == Tree.Kind.TOKEN) {
+        forEach(kindIndex, VISIT_TOKEN, tree);
+        forEach(Tree.Kind.TRIVIA.ordinal(), VISIT_TRIVIAS, tree);
       } else {
-        callback = s -> s.visitNode(tree);
+        forEach(kindIndex, VISIT_NODE, tree);
+        visitChildren((JavaTree) tree);
+        forEach(kindIndex, LEAVE_NODE, tree);
       }
-      forEach(subscribed, callback);
-      if (isToken) {
-        forEach(checks.getOrDefault(Tree.Kind.TRIVIA, Collections.emptyList()), s -> ((SyntaxToken) tree).trivias().forEach(s::visitTrivia));
-      } else {
-        visitChildren(tree);
+    }
+
+    private void visitChildren(JavaTree tree) throws CheckFailureException {
+      if (tree.isLeaf()) {
+        return;
       }
-      if (!isToken) {
-        forEach(subscribed, s -> s.leaveNode(tree));
+      List<Tree> children = tree.getChildren();
+      // indexed loop, as iterating over the children would allocate an iterator for every node
+      for (int i = 0; i < children.size(); i++) {
+        Tree child = children.get(i);
+        if (!prunedKinds.get(child.kind().ordinal())) {
+          visit(child);
+        }
       }
     }
 
-    private final void forEach(Collection<SubscriptionVisitor> visitors, Consumer<SubscriptionVisitor> callback) throws CheckFailureException {
-      for (SubscriptionVisitor visitor : visitors) {
-        PerformanceMeasure.Duration visitorDuration = PerformanceMeasure.start(visitor);
-        runScanner(() -> callback.accept(visitor), visitor);
-        visitorDuration.stop();
+    private void forEach(int kindIndex, VisitorCallback callback, Tree tree) throws CheckFailureException {
+      SubscriptionVisitor[] subscribed = visitorsByKind[kindIndex];
+      if (ruleCosts != null) {
+        forEachMeasuringCosts(subscribed, costsByKind[kindIndex], callback, tree);
+        return;
+      }
+      for (SubscriptionVisitor visitor : subscribed) {
+        PerformanceMeasure.Duration visitorDuration = measureVisitors ? PerformanceMeasure.start(visitor) : null;
+        try {
+          callback.accept(visitor, tree);
+        } catch (RuntimeException e) {
+          throw checkFailure(e, visitor);
+        }
+        if (visitorDuration != null) {
+          visitorDuration.stop();
+        }
+      }
+    }
+
+    /**
+     * The counters read after a visitor are the ones read before the next visitor, so that measuring a call reads them only once.
+     * When the performance measure is enabled as well, the counters are read again once the duration of the visitor is started,
+     * so that the performance measure is not part of the cost of the rule.
+     */
+    private void forEachMeasuringCosts(SubscriptionVisitor[] subscribed, RuleCost[] subscribedCosts, VisitorCallback callback, Tree tree)
+      throws CheckFailureException {
+      if (subscribed.length == 0) {
+        return;
+      }
+      long cpuTime = ruleCosts.cpuTime();
+      long allocatedBytes = ruleCosts.allocatedBytes();
+      for (int i = 0; i < subscribed.length; i++) {
+        SubscriptionVisitor visitor = subscribed[i];
+        PerformanceMeasure.Duration visitorDuration = null;
+        if (measureVisitors) {
+          visitorDuration = PerformanceMeasure.start(visitor);
+          cpuTime = ruleCosts.cpuTime();
+          allocatedBytes = ruleCosts.allocatedBytes();
+        }
+        try {
+          callback.accept(visitor, tree);
+        } catch (RuntimeException e) {
+          throw checkFailure(e, visitor);
+        }
+        long cpuTimeAfter = ruleCosts.cpuTime();
+        long allocatedBytesAfter = ruleCosts.allocatedBytes();
+        subscribedCosts[i].add(cpuTimeAfter - cpuTime, allocatedBytesAfter - allocatedBytes);
+        if (visitorDuration != null) {
+          visitorDuration.stop();
+        }
+        cpuTime = cpuTimeAfter;
+        allocatedBytes = allocatedBytesAfter;
       }
     }
   }
@@ -20,8 +20,8 @@ import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.sonar.java.ast.parser.QualifiedIdentifierListTreeImpl;
 import org.sonar.java.ast.parser.TypeParameterListTreeImpl;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.Symbols;
 import org.sonar.java.model.expression.IdentifierTreeImpl;
 import org.sonar.plugins.java.api.location.Position;
@@ -41,7 +41,7 @@ import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.List;
 
-public class ClassTreeImpl extends JavaTree implements ClassTree {
+public class ClassTreeImpl extends AbstractCompositeTree implements ClassTree {
 
   private final Kind kind;
   private final SyntaxToken openBraceToken;
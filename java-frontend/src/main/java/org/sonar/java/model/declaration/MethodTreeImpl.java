@@ -18,8 +18,12 @@ package org.sonar.java.model.declaration;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import javax.annotation.Nullable;
 import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.sonar.java.Preconditions;
@@ -27,11 +31,15 @@ import org.sonar.java.ast.parser.FormalParametersListTreeImpl;
 import org.sonar.java.ast.parser.QualifiedIdentifierListTreeImpl;
 import org.sonar.java.ast.parser.TypeParameterListTreeImpl;
 import org.sonar.java.cfg.CFG;
+import org.sonar.java.cfg.Dataflow;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
 import org.sonar.java.model.JUtils;
-import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.ModifiersUtils;
 import org.sonar.java.model.Symbols;
+import org.sonar.plugins.java.api.cfg.DataflowAnalysis;
+import org.sonar.plugins.java.api.cfg.DataflowResult;
+import org.sonar.plugins.java.api.cfg.GenKillAnalysis;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
 import org.sonar.plugins.java.api.tree.BlockTree;
@@ -49,7 +57,7 @@ import org.sonar.plugins.java.api.tree.TypeParameters;
 import org.sonar.plugins.java.api.tree.TypeTree;
 import org.sonar.plugins.java.api.tree.VariableTree;
 
-public class MethodTreeImpl extends JavaTree implements MethodTree {
+public class MethodTreeImpl extends AbstractCompositeTree implements MethodTree {
 
   private ModifiersTree modifiers;
   private TypeParameters typeParameters;
@@ -71,8 +79,16 @@ public class MethodTreeImpl extends JavaTree implements MethodTree {
   private final SyntaxToken defaultToken;
   private final ExpressionTree defaultValue;
 
+  /**
+   * CFG of the method, guarded by the method tree: the visitors of a file can walk its tree on different threads.
+   */
   @Nullable
   private CFG cfg;
+  /**
+   * Results of the dataflow analyses of the method, by analysis, guarded by the method tree.
+   */
+  @Nullable
+  private Map<Object, DataflowResult<?>> dataflowResults;
 
   @Nullable
   public IMethodBinding methodBinding;
@@ -245,7 +261,7 @@ public class MethodTreeImpl extends JavaTree implements MethodTree {
 
   @Nullable
   @Override
-  public CFG cfg() {
+  public synchronized CFG cfg() {
     if (block == null) {
       return null;
     }
@@ -255,6 +271,45 @@ public class MethodTreeImpl extends JavaTree implements MethodTree {
     return cfg;
   }
 
+  /**
+   * Result of the given analysis over the CFG of the method, computed once like the CFG.
+   *
+   * @return null if the method has no body
+   */
+  @Nullable
+  public <T> DataflowResult<T> dataflow(DataflowAnalysis<T> analysis) {
+    return dataflow(analysis, methodCfg -> Dataflow.analyze(methodCfg, analysis));
+  }
+
+  /**
+   * Result of the given analysis over the CFG of the method, computed once like the CFG.
+   *
+   * @return null if the method has no body
+   */
+  @Nullable
+  public <E> DataflowResult<Set<E>> dataflow(GenKillAnalysis<E> analysis) {
+    return dataflow(analysis, methodCfg -> Dataflow.analyze(methodCfg, analysis));
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  private synchronized <T> DataflowResult<T> dataflow(Object analysis, Function<CFG, DataflowResult<T>> solver) {
+    CFG methodCfg = cfg();
+    if (methodCfg == null) {
+      return null;
+    }
+    if (dataflowResults == null) {
+      dataflowResults = new HashMap<>();
+    }
+    DataflowResult<?> result = dataflowResults.get(analysis);
+    if (result == null) {
+      // not computed in computeIfAbsent, as an analysis can rely on the results of other analyses of the same method
+      result = solver.apply(methodCfg);
+      dataflowResults.put(analysis, result);
+    }
+    return (DataflowResult<T>) result;
+  }
+
   @Override
   public List<Tree> children() {
     List<Tree> list = new ArrayList<>();
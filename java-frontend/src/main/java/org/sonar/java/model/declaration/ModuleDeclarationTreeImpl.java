@@ -18,8 +18,8 @@ package org.sonar.java.model.declaration;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
 import org.sonar.plugins.java.api.tree.ModuleDeclarationTree;
 import org.sonar.plugins.java.api.tree.ModuleDirectiveTree;
@@ -32,7 +32,7 @@ import javax.annotation.Nullable;
 
 import java.util.List;
 
-public class ModuleDeclarationTreeImpl extends JavaTree implements ModuleDeclarationTree {
+public class ModuleDeclarationTreeImpl extends AbstractCompositeTree implements ModuleDeclarationTree {
 
   private final List<AnnotationTree> annotations;
   private final InternalSyntaxToken openKeyword;
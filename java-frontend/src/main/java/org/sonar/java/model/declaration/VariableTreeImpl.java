@@ -20,8 +20,8 @@ import java.util.Arrays;
 import java.util.List;
 import org.eclipse.jdt.core.dom.IVariableBinding;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.Symbols;
 import org.sonar.java.model.expression.IdentifierTreeImpl;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
@@ -39,7 +39,7 @@ import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.Objects;
 
-public class VariableTreeImpl extends JavaTree implements VariableTree {
+public class VariableTreeImpl extends AbstractCompositeTree implements VariableTree {
   private ModifiersTree modifiers;
   private TypeTree type;
   private IdentifierTree simpleName;
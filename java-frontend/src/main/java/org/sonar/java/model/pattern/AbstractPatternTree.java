@@ -19,7 +19,7 @@ package org.sonar.java.model.pattern;
 import java.util.Optional;
 import javax.annotation.Nullable;
 import org.eclipse.jdt.core.dom.ITypeBinding;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.java.model.Symbols;
 import org.sonar.plugins.java.api.semantic.Type;
 import org.sonar.plugins.java.api.tree.PatternTree;
@@ -28,7 +28,7 @@ import org.sonar.plugins.java.api.tree.Tree;
 /**
  * JDK 17 Preview feature  (JEP-405, JEP-406), finalized in JDK 21 (JEP-440, JEP-441).
  */
-public abstract class AbstractPatternTree extends JavaTree implements PatternTree {
+public abstract class AbstractPatternTree extends AbstractCompositeTree implements PatternTree {
 
   private final Tree.Kind kind;
 
@@ -17,8 +17,8 @@
 package org.sonar.java.model.statement;
 
 import org.sonarsource.analyzer.commons.collections.ListUtils;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -29,7 +29,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
-public class BlockTreeImpl extends JavaTree implements BlockTree {
+public class BlockTreeImpl extends AbstractCompositeTree implements BlockTree {
 
   private final Kind kind;
   private final InternalSyntaxToken openBraceToken;
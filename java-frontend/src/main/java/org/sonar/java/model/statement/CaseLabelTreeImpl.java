@@ -20,15 +20,15 @@ import java.util.Collections;
 import java.util.List;
 import org.sonar.java.ast.api.JavaPunctuator;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.CaseLabelTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TreeVisitor;
 
-public class CaseLabelTreeImpl extends JavaTree implements CaseLabelTree {
+public class CaseLabelTreeImpl extends AbstractCompositeTree implements CaseLabelTree {
   private final InternalSyntaxToken caseOrDefaultKeyword;
   private final List<ExpressionTree> expressions;
   private final boolean isFallThrough;
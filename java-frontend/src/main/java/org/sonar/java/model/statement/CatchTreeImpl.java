@@ -18,8 +18,8 @@ package org.sonar.java.model.statement;
 
 import java.util.Arrays;
 import java.util.List;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.declaration.VariableTreeImpl;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.CatchTree;
@@ -30,7 +30,7 @@ import org.sonar.plugins.java.api.tree.VariableTree;
 
 import java.util.Objects;
 
-public class CatchTreeImpl extends JavaTree implements CatchTree {
+public class CatchTreeImpl extends AbstractCompositeTree implements CatchTree {
 
   private final InternalSyntaxToken catchToken;
   private final InternalSyntaxToken openParenToken;
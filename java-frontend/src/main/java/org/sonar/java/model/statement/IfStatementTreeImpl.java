@@ -21,8 +21,8 @@ import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.IfStatementTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
@@ -30,7 +30,7 @@ import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TreeVisitor;
 
-public class IfStatementTreeImpl extends JavaTree implements IfStatementTree {
+public class IfStatementTreeImpl extends AbstractCompositeTree implements IfStatementTree {
 
   private InternalSyntaxToken ifKeyword;
   private InternalSyntaxToken openParenToken;
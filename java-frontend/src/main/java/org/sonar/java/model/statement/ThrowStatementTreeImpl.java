@@ -18,8 +18,8 @@ package org.sonar.java.model.statement;
 
 import java.util.Arrays;
 import java.util.List;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.ThrowStatementTree;
@@ -28,7 +28,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 import java.util.Objects;
 
-public class ThrowStatementTreeImpl extends JavaTree implements ThrowStatementTree {
+public class ThrowStatementTreeImpl extends AbstractCompositeTree implements ThrowStatementTree {
   private final InternalSyntaxToken throwKeyword;
   private final ExpressionTree expression;
   private final InternalSyntaxToken semicolonToken;
@@ -18,8 +18,8 @@ package org.sonar.java.model.statement;
 
 import java.util.Arrays;
 import java.util.List;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -29,7 +29,7 @@ import org.sonar.plugins.java.api.tree.WhileStatementTree;
 
 import java.util.Objects;
 
-public class WhileStatementTreeImpl extends JavaTree implements WhileStatementTree {
+public class WhileStatementTreeImpl extends AbstractCompositeTree implements WhileStatementTree {
   private final ExpressionTree condition;
   private final StatementTree statement;
   private final InternalSyntaxToken whileKeyword;
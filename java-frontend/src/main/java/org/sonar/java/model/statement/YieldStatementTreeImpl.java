@@ -17,8 +17,8 @@
 package org.sonar.java.model.statement;
 
 import java.util.List;
+import org.sonar.java.model.AbstractCompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
@@ -28,7 +28,7 @@ import org.sonar.plugins.java.api.tree.YieldStatementTree;
 import javax.annotation.Nullable;
 import java.util.Arrays;
 
-public class YieldStatementTreeImpl extends JavaTree implements YieldStatementTree {
+public class YieldStatementTreeImpl extends AbstractCompositeTree implements YieldStatementTree {
 
   @Nullable
   private final InternalSyntaxToken yieldKeyword;
@@ -19,9 +19,16 @@ package org.sonar.plugins.java.api;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.java.annotations.Beta;
+import org.sonar.java.cfg.Dataflow;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.DataflowAnalysis;
+import org.sonar.plugins.java.api.cfg.DataflowResult;
+import org.sonar.plugins.java.api.cfg.GenKillAnalysis;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
 /**
@@ -161,4 +168,28 @@ public interface JavaFileScannerContext extends InputFileScannerContext {
   default Optional<SourceMap> sourceMap() {
     return Optional.empty();
   }
+
+  /**
+   * Result of the given dataflow analysis over the control flow graph of the given method. During the analysis of a project, it is
+   * computed once per method and analysis, analyses being compared with equals, and shared by all the checks.
+   *
+   * @return null if the method has no body
+   */
+  @Nullable
+  default <T> DataflowResult<T> dataflow(MethodTree methodTree, DataflowAnalysis<T> analysis) {
+    ControlFlowGraph cfg = methodTree.cfg();
+    return cfg == null ? null : Dataflow.analyze(cfg, analysis);
+  }
+
+  /**
+   * Result of the given gen/kill analysis over the control flow graph of the given method. During the analysis of a project, it is
+   * computed once per method and analysis, analyses being compared with equals, and shared by all the checks.
+   *
+   * @return null if the method has no body
+   */
+  @Nullable
+  default <E> DataflowResult<Set<E>> dataflow(MethodTree methodTree, GenKillAnalysis<E> analysis) {
+    ControlFlowGraph cfg = methodTree.cfg();
+    return cfg == null ? null : Dataflow.analyze(cfg, analysis);
+  }
 }
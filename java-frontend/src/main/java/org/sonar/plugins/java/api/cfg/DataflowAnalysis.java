@@ -0,0 +1,70 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.java.api.cfg;
+
+import org.sonar.java.annotations.Beta;
+
+/**
+ * Dataflow analysis over the blocks of a {@link ControlFlowGraph}, whose values form a lattice.
+ * <p>
+ * The value at the start of a block, in the direction of the analysis, is the join of the values at the end of the blocks flowing
+ * into it, through normal and exceptional edges. The value at the end of a block is computed by {@link #transfer}. Blocks are
+ * processed in reverse post-order of the graph in the direction of the analysis, until no value changes, as decided by
+ * {@link Object#equals}.
+ * <p>
+ * Values are never copied: {@link #join} and {@link #transfer} must return new values rather than update their arguments.
+ * Results are cached per method by analysis, so analyses are expected to be stateless, or to implement equals and hashCode.
+ *
+ * @param <T> type of the values
+ * @see GenKillAnalysis for analyses whose values are sets, computed as bitsets
+ */
+@Beta
+public interface DataflowAnalysis<T> {
+
+  enum Direction {
+    /**
+     * From the entry block to the exit block, values at the start of a block being the values before its first element.
+     */
+    FORWARD,
+    /**
+     * From the exit block to the entry block, values at the start of a block being the values after its last element.
+     */
+    BACKWARD
+  }
+
+  Direction direction();
+
+  /**
+   * Value flowing into the entry block of a forward analysis or into the exit block of a backward one, as well as into the blocks
+   * no other block flows into.
+   */
+  T boundary();
+
+  /**
+   * Value assumed at the end of the blocks not processed yet, i.e. the neutral element of {@link #join}.
+   */
+  T initial();
+
+  T join(T value1, T value2);
+
+  /**
+   * @param value value at the start of the block, in the direction of the analysis
+   * @return value at the end of the block, in the direction of the analysis
+   */
+  T transfer(ControlFlowGraph.Block block, T value);
+
+}
@@ -0,0 +1,42 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.java.api.cfg;
+
+import org.sonar.java.annotations.Beta;
+
+/**
+ * Values computed by a {@link DataflowAnalysis} or a {@link GenKillAnalysis} at the boundaries of the blocks of a graph.
+ * In and out are in the order of the elements of the blocks, whatever the direction of the analysis.
+ *
+ * @param <T> type of the values
+ */
+@Beta
+public interface DataflowResult<T> {
+
+  /**
+   * @return the value before the first element of the given block
+   * @throws IllegalArgumentException if the block is not a block of the analyzed graph
+   */
+  T in(ControlFlowGraph.Block block);
+
+  /**
+   * @return the value after the last element of the given block
+   * @throws IllegalArgumentException if the block is not a block of the analyzed graph
+   */
+  T out(ControlFlowGraph.Block block);
+
+}
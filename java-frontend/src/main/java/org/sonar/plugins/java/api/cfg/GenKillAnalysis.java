@@ -0,0 +1,59 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.java.api.cfg;
+
+import java.util.Set;
+import org.sonar.java.annotations.Beta;
+
+/**
+ * Dataflow analysis whose values are sets of facts (variables, definitions, expressions...), each block generating some of them and
+ * killing others: the facts holding at the end of a block, in the direction of the analysis, are the ones it generates
+ * and the ones holding at its start that it does not kill.
+ * <p>
+ * The facts collected for the blocks of a graph are numbered, so that values are bitsets updated in place, only materialized as
+ * read-only sets when queried. Liveness of variables is, for instance, a backward analysis with a {@link Confluence#UNION} of the
+ * successors, where blocks generate the variables they read and kill the ones they write.
+ *
+ * @param <E> type of the facts
+ * @see DataflowAnalysis for analyses over other lattices
+ */
+@Beta
+public interface GenKillAnalysis<E> {
+
+  enum Confluence {
+    /**
+     * A fact holds at the start of a block when it holds at the end of any block flowing into it ("may" analysis).
+     */
+    UNION,
+    /**
+     * A fact holds at the start of a block when it holds at the end of every block flowing into it ("must" analysis).
+     */
+    INTERSECTION
+  }
+
+  DataflowAnalysis.Direction direction();
+
+  Confluence confluence();
+
+  /**
+   * Collects the facts killed and generated by the given block, the facts holding at its end being the generated ones
+   * and the ones holding at its start that are not killed.
+   * Both sets are empty when this method is called, and only used during the call.
+   */
+  void collect(ControlFlowGraph.Block block, Set<E> kill, Set<E> gen);
+
+}
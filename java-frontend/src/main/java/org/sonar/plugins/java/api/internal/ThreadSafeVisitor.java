@@ -0,0 +1,30 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.java.api.internal;
+
+import org.sonar.java.annotations.Beta;
+
+/**
+ * Marker interface for subscription visitors that can walk the tree of a file on another thread than the scanning thread,
+ * concurrently with other visitors. Such a visitor only relies on the syntax tree: the semantic model is not thread-safe.
+ * It does not share mutable state with other visitors, and only keeps state confined to the file being visited.
+ * <p>
+ * Visitors not implementing this interface are always run on the scanning thread.
+ */
+@Beta
+public interface ThreadSafeVisitor {
+}
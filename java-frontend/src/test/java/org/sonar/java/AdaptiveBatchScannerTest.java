@@ -0,0 +1,147 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.event.Level;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.testing.ThreadLocalLogTester;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdaptiveBatchScannerTest {
+
+  @RegisterExtension
+  public ThreadLocalLogTester logTester = new ThreadLocalLogTester().setLevel(Level.DEBUG);
+
+  private final Supplier<AdaptiveBatchScanner.HeapObserver> defaultHeapObserverFactory = AdaptiveBatchScanner.heapObserverFactory;
+
+  @AfterEach
+  void restoreHeapObserver() {
+    AdaptiveBatchScanner.heapObserverFactory = defaultHeapObserverFactory;
+  }
+
+  @Test
+  void batch_size_is_halved_above_the_target() {
+    AdaptiveBatchScanner scanner = new AdaptiveBatchScanner(0.7);
+    assertThat(scanner.nextBatchSize(400_000L, 0.8)).isEqualTo(200_000L);
+    assertThat(scanner.nextBatchSize(15_000L, 0.8)).isEqualTo(AdaptiveBatchScanner.MIN_BATCH_SIZE_IN_BYTES);
+    assertThat(scanner.nextBatchSize(AdaptiveBatchScanner.MIN_BATCH_SIZE_IN_BYTES, 0.8)).isEqualTo(AdaptiveBatchScanner.MIN_BATCH_SIZE_IN_BYTES);
+    assertThat(logTester.logs(Level.INFO)).containsExactly(
+      "Heap usage of 80% after the last batch is above the target of 70%, reducing the batch size from 400 KB to 200 KB.",
+      "Heap usage of 80% after the last batch is above the target of 70%, reducing the batch size from 15 KB to 10 KB.");
+    assertThat(logTester.logs(Level.DEBUG)).containsExactly("Heap usage of 80% after the last batch, keeping the batch size of 10 KB.");
+  }
+
+  @Test
+  void batch_size_grows_well_below_the_target() {
+    AdaptiveBatchScanner scanner = new AdaptiveBatchScanner(0.7);
+    assertThat(scanner.nextBatchSize(400_000L, 0.3)).isEqualTo(500_000L);
+    assertThat(scanner.nextBatchSize(0L, 0.3)).isEqualTo(AdaptiveBatchScanner.MIN_BATCH_SIZE_IN_BYTES);
+    assertThat(scanner.nextBatchSize(4_500_000L, 0.3)).isEqualTo(AdaptiveBatchScanner.MAX_BATCH_SIZE_IN_BYTES);
+    // a larger configured size is not reduced
+    assertThat(scanner.nextBatchSize(8_000_000L, 0.3)).isEqualTo(8_000_000L);
+    assertThat(logTester.logs(Level.INFO)).containsExactly(
+      "Heap usage of 30% after the last batch is below the target of 70%, increasing the batch size from 400 KB to 500 KB.",
+      "Heap usage of 30% after the last batch is below the target of 70%, increasing the batch size from 0 KB to 10 KB.",
+      "Heap usage of 30% after the last batch is below the target of 70%, increasing the batch size from 4500 KB to 5000 KB.");
+  }
+
+  @Test
+  void batch_size_is_kept_close_to_the_target() {
+    AdaptiveBatchScanner scanner = new AdaptiveBatchScanner(0.7);
+    assertThat(scanner.nextBatchSize(400_000L, 0.6)).isEqualTo(400_000L);
+    assertThat(scanner.nextBatchSize(400_000L, 0.7)).isEqualTo(400_000L);
+    assertThat(logTester.logs(Level.INFO)).isEmpty();
+    assertThat(logTester.logs(Level.DEBUG)).containsExactly(
+      "Heap usage of 60% after the last batch, keeping the batch size of 400 KB.",
+      "Heap usage of 70% after the last batch, keeping the batch size of 400 KB.");
+  }
+
+  @Test
+  void size_of_the_next_batch_follows_the_heap_used_by_the_previous_one() {
+    ScriptedHeapObserver heapObserver = new ScriptedHeapObserver(0.9, 0.2, 0.6);
+    AdaptiveBatchScanner.heapObserverFactory = () -> heapObserver;
+    JavaFrontend.BatchGenerator generator = new JavaFrontend.BatchGenerator(files(4), 80_000L);
+    List<Long> batchSizes = new ArrayList<>();
+
+    new AdaptiveBatchScanner(0.7).scan(generator, batch -> batchSizes.add(generator.batchSizeInBytes()));
+
+    assertThat(batchSizes).containsExactly(80_000L, 40_000L, 50_000L, 50_000L);
+    assertThat(heapObserver.startedBatches).isEqualTo(4);
+    assertThat(heapObserver.closed).isTrue();
+  }
+
+  @Test
+  void heap_used_after_the_collections_is_observed() {
+    try (AdaptiveBatchScanner.HeapObserver heapObserver = AdaptiveBatchScanner.heapObserverFactory.get()) {
+      heapObserver.startBatch();
+      System.gc();
+      assertThat(heapObserver.endBatch()).isCloseTo(0.5, within(0.5));
+    }
+  }
+
+  /**
+   * @return files larger than the batches, each one in its own batch
+   */
+  private static Iterator<InputFile> files(int count) {
+    List<InputFile> files = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      File file = mock(File.class);
+      when(file.length()).thenReturn(100_000L);
+      InputFile inputFile = mock(InputFile.class);
+      when(inputFile.file()).thenReturn(file);
+      files.add(inputFile);
+    }
+    return files.iterator();
+  }
+
+  private static class ScriptedHeapObserver implements AdaptiveBatchScanner.HeapObserver {
+    private final double[] heapUsages;
+    private int startedBatches = 0;
+    private boolean closed = false;
+
+    ScriptedHeapObserver(double... heapUsages) {
+      this.heapUsages = heapUsages;
+    }
+
+    @Override
+    public void startBatch() {
+      startedBatches++;
+    }
+
+    @Override
+    public double endBatch() {
+      return startedBatches <= heapUsages.length ? heapUsages[startedBatches - 1] : 0.7;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
@@ -16,13 +16,20 @@
  */
 package org.sonar.java;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.event.Level;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
@@ -241,6 +248,104 @@ class ExecutionTimeReportTest {
       "    default_size (50000ms, -1B)");
   }
 
+  @Test
+  void parse_time_given_at_start_is_part_of_the_analysis_time() {
+    report.start(mockEmptyInputFile("f1"), 1_500_000_000L, 1024L);
+    clock.addMilliseconds(600);
+    report.end();
+    assertThat(report).hasToString("    f1 (2100ms, 52B)");
+  }
+
+  @Test
+  void time_spent_waiting_for_another_thread_is_not_part_of_the_analysis_time() {
+    report.start(mockEmptyInputFile("f1"));
+    clock.addMilliseconds(3000);
+    report.currentProfile().addWait(1_800_000_000L);
+    report.end();
+    assertThat(report).hasToString("    f1 (1200ms, 52B)");
+  }
+
+  @Test
+  void slowest_files_are_merged() {
+    simulateAnalysis("f1", 2000);
+    ExecutionTimeReport other = new ExecutionTimeReport(clock);
+    for (int i = 1; i <= 10; i++) {
+      other.start(mockEmptyInputFile("g" + i));
+      clock.addMilliseconds(1000L + i * 100L);
+      other.end();
+    }
+    other.start(mockEmptyInputFile("g11"));
+    clock.addMilliseconds(5000);
+
+    report.merge(other);
+
+    assertThat(report).hasToString("" +
+      "    g11 (5000ms, 52B)" + NL +
+      "    f1 (2000ms, 52B)" + NL +
+      "    g10 (2000ms, 52B)" + NL +
+      "    g9 (1900ms, 52B)" + NL +
+      "    g8 (1800ms, 52B)" + NL +
+      "    g7 (1700ms, 52B)" + NL +
+      "    g6 (1600ms, 52B)" + NL +
+      "    g5 (1500ms, 52B)" + NL +
+      "    g4 (1400ms, 52B)" + NL +
+      "    g3 (1300ms, 52B)");
+  }
+
+  @Test
+  void profiles_of_the_slowest_files_are_saved(@TempDir Path workDir) throws IOException {
+    Path destination = workDir.resolve("files.json");
+    report = new ExecutionTimeReport(clock, destination);
+    report.start(mockEmptyInputFile("f1"), 1_000_000_000L, 100L);
+    ExecutionTimeReport.FileProfile profile = report.currentProfile();
+    assertThat(profile).isNotNull();
+    profile.addConvert(200L, 10L);
+    profile.addSymbolTable(300L, 20L);
+    profile.addScanners(400L, 30L);
+    profile.addSymbolicExecution(500L, 40L);
+    profile.addScanners(600L, 50L);
+    profile.setTokens(42);
+    clock.addMilliseconds(500);
+    report.end();
+    assertThat(report.currentProfile()).isNull();
+    simulateAnalysis("f2", 200);
+
+    report.report();
+
+    assertThat(logTester.logs(Level.INFO)).contains("Profiles of the slowest files saved into: " + destination);
+    JsonArray files = new Gson().fromJson(Files.readString(destination, StandardCharsets.UTF_8), JsonObject.class).getAsJsonArray("slowestFiles");
+    assertThat(files).hasSize(1);
+    JsonObject file = files.get(0).getAsJsonObject();
+    assertThat(file.get("file").getAsString()).isEqualTo("f1");
+    assertThat(file.get("analysisTimeMs").getAsLong()).isEqualTo(1500L);
+    assertThat(file.get("lengthInBytes").getAsLong()).isEqualTo(52L);
+    assertThat(file.get("tokens").getAsInt()).isEqualTo(42);
+    assertThat(file.get("allocatedBytes").getAsLong()).isEqualTo(250L);
+    JsonObject phases = file.getAsJsonObject("phasesNanos");
+    assertThat(phases.get("parse").getAsLong()).isEqualTo(1_000_000_000L);
+    assertThat(phases.get("convert").getAsLong()).isEqualTo(200L);
+    assertThat(phases.get("symbolTable").getAsLong()).isEqualTo(300L);
+    assertThat(phases.get("scanners").getAsLong()).isEqualTo(1000L);
+    assertThat(phases.get("symbolicExecution").getAsLong()).isEqualTo(500L);
+  }
+
+  @Test
+  void failure_to_save_the_profiles_is_logged(@TempDir Path workDir) {
+    Path destination = workDir.resolve("missing").resolve("files.json");
+    report = new ExecutionTimeReport(clock, destination);
+    simulateAnalysis("f1", 2000);
+    report.report();
+    assertThat(logTester.logs(Level.ERROR)).contains("Can't save the profiles of the slowest files into: " + destination);
+  }
+
+  @Test
+  void allocated_bytes_of_the_current_thread_are_measured() {
+    long allocatedBytes = ExecutionTimeReport.currentThreadAllocatedBytes();
+    int[] allocated = new int[1_000];
+    assertThat(allocated).hasSize(1_000);
+    assertThat(ExecutionTimeReport.currentThreadAllocatedBytes()).isGreaterThanOrEqualTo(allocatedBytes);
+  }
+
   private static class UnitTestClock extends Clock {
 
     private Instant instant;
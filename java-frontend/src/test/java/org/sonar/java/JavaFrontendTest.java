@@ -24,6 +24,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.eclipse.core.runtime.OperationCanceledException;
@@ -66,7 +71,9 @@ import org.sonar.plugins.java.api.JavaResourceLocator;
 import org.sonar.plugins.java.api.JavaVersion;
 import org.sonar.plugins.java.api.ModuleScannerContext;
 import org.sonar.plugins.java.api.internal.EndOfAnalysis;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -683,6 +690,178 @@ class JavaFrontendTest {
       .contains("Using ECJ batch to parse 2 Main java source files with batch size 0 KB.");
   }
 
+  @Test
+  void test_scan_as_batch_with_parallelism_analyzes_every_file_once() throws IOException {
+    MapSettings settings = new MapSettings()
+      .setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0)
+      .setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_KEY, 2);
+    logTester.setLevel(Level.DEBUG);
+    IntSupplier oldValue = SonarComponents.availableProcessorsProvider;
+    SonarComponents.availableProcessorsProvider = () -> 4;
+    try {
+      scan(settings, SONARQUBE_RUNTIME, "class A {}", "class B {}", "class C {}", "class D {}");
+    } finally {
+      SonarComponents.availableProcessorsProvider = oldValue;
+    }
+    String allLogs = String.join("\n", logTester.logs());
+    assertThat(allLogs)
+      .contains("Using ECJ batch to parse 4 Main java source files with batch size 0 KB.")
+      .contains("Parsing up to 2 batches in parallel.");
+    assertThat(sensorContext.allAnalysisErrors()).isEmpty();
+    assertThat(mainCodeIssueScannerAndFilter.scanFileInvocationCount).isEqualTo(4);
+    assertThat(mainCodeIssueScannerAndFilter.endOfAnalysisInvocationCount).isEqualTo(1);
+  }
+
+  @Test
+  void test_scan_as_batch_with_parallelism_gives_the_same_results_as_sequential_parsing() throws IOException {
+    MapSettings sequentialSettings = new MapSettings()
+      .setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0);
+    String[] sources = {
+      "class A { B b; int f() { return b.g() + new C().h(); } }",
+      "class B { int g() { return java.util.List.of(1).size(); } }",
+      "class C extends B { int h() { return g() + toString().length(); } }",
+      "class D { java.util.Map<String, A> m; Object f(String k) { return m.get(k).b; } }",
+      "class E extends Unknown { void f() { unknown(); } }"};
+    List<InputFile> inputFiles = scan(sequentialSettings, SONARQUBE_RUNTIME, sources);
+    Map<String, List<String>> sequentialSymbols = new TreeMap<>(mainCodeIssueScannerAndFilter.resolvedSymbols);
+
+    mainCodeIssueScannerAndFilter.resolvedSymbols.clear();
+    MapSettings parallelSettings = new MapSettings()
+      .setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0)
+      .setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_KEY, 3);
+    // the symbol tables of the files can only be saved once per sensor context
+    sensorContext = SensorContextTester.create(temp.getRoot().getAbsoluteFile());
+    sensorContext.setSettings(parallelSettings);
+    inputFiles.forEach(sensorContext.fileSystem()::add);
+    IntSupplier oldValue = SonarComponents.availableProcessorsProvider;
+    SonarComponents.availableProcessorsProvider = () -> 4;
+    try {
+      scan(parallelSettings, SONARQUBE_RUNTIME, inputFiles);
+    } finally {
+      SonarComponents.availableProcessorsProvider = oldValue;
+    }
+
+    assertThat(logTester.logs(Level.INFO)).contains("Parsing up to 3 batches in parallel.");
+    assertThat(sequentialSymbols).hasSize(5);
+    assertThat(mainCodeIssueScannerAndFilter.resolvedSymbols).isEqualTo(sequentialSymbols);
+  }
+
+  @Test
+  void test_scan_as_batch_with_parallelism_and_a_live_trees_limit() throws IOException {
+    MapSettings settings = new MapSettings()
+      .setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0)
+      .setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_KEY, 3)
+      .setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_MAX_LIVE_TREES_KEY, 1);
+    IntSupplier oldValue = SonarComponents.availableProcessorsProvider;
+    SonarComponents.availableProcessorsProvider = () -> 4;
+    try {
+      scan(settings, SONARQUBE_RUNTIME, "class A {}", "class B {}", "class C {}", "class D {}");
+    } finally {
+      SonarComponents.availableProcessorsProvider = oldValue;
+    }
+    assertThat(logTester.logs(Level.INFO))
+      .contains("Parsing up to 3 batches in parallel.")
+      .contains("Keeping at most 1 parsed files in memory until they are analyzed.");
+    assertThat(sensorContext.allAnalysisErrors()).isEmpty();
+    assertThat(mainCodeIssueScannerAndFilter.scanFileInvocationCount).isEqualTo(4);
+  }
+
+  @Test
+  void test_scan_as_batch_with_parallelism_waits_for_heap_availability() throws IOException {
+    MapSettings settings = new MapSettings()
+      .setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0)
+      .setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_KEY, 3)
+      .setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_MAX_HEAP_USAGE_KEY, 50);
+    logTester.setLevel(Level.DEBUG);
+    IntSupplier oldAvailableProcessors = SonarComponents.availableProcessorsProvider;
+    DoubleSupplier oldHeapUsage = ParallelBatchScanner.heapUsageProvider;
+    SonarComponents.availableProcessorsProvider = () -> 4;
+    // heap always above the threshold: batches are parsed one after another
+    ParallelBatchScanner.heapUsageProvider = () -> 0.9;
+    try {
+      scan(settings, SONARQUBE_RUNTIME, "class A {}", "class B {}", "class C {}", "class D {}");
+    } finally {
+      SonarComponents.availableProcessorsProvider = oldAvailableProcessors;
+      ParallelBatchScanner.heapUsageProvider = oldHeapUsage;
+    }
+    assertThat(mainCodeIssueScannerAndFilter.scanFileInvocationCount).isEqualTo(4);
+    assertThat(mainCodeIssueScannerAndFilter.endOfAnalysisInvocationCount).isEqualTo(1);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Heap usage above 50%, waiting for other batches to complete.");
+  }
+
+  @Test
+  void test_scan_as_batch_adapts_the_batch_size_to_the_heap_usage() throws IOException {
+    MapSettings settings = new MapSettings()
+      .setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0)
+      .setProperty(SonarComponents.SONAR_ADAPTIVE_BATCH_SIZE_TARGET_HEAP_USAGE_KEY, 70);
+    logTester.setLevel(Level.DEBUG);
+    Supplier<AdaptiveBatchScanner.HeapObserver> oldHeapObserverFactory = AdaptiveBatchScanner.heapObserverFactory;
+    AdaptiveBatchScanner.heapObserverFactory = () -> new AdaptiveBatchScanner.HeapObserver() {
+      @Override
+      public void startBatch() {
+        // nothing to reset
+      }
+
+      @Override
+      public double endBatch() {
+        return 0.1;
+      }
+
+      @Override
+      public void close() {
+        // nothing to release
+      }
+    };
+    try {
+      scan(settings, SONARQUBE_RUNTIME, "class A {}", "class B {}", "class C {}");
+    } finally {
+      AdaptiveBatchScanner.heapObserverFactory = oldHeapObserverFactory;
+    }
+    assertThat(mainCodeIssueScannerAndFilter.scanFileInvocationCount).isEqualTo(3);
+    assertThat(mainCodeIssueScannerAndFilter.endOfAnalysisInvocationCount).isEqualTo(1);
+    assertThat(logTester.logs(Level.INFO)).contains(
+      "Using ECJ batch to parse 3 Main java source files with batch size 0 KB.",
+      "Adapting the batch size to keep the heap usage below 70%.",
+      "Heap usage of 10% after the last batch is below the target of 70%, increasing the batch size from 0 KB to 10 KB.");
+  }
+
+  @Test
+  void test_scan_as_batch_with_parallelism_does_not_adapt_the_batch_size() throws IOException {
+    MapSettings settings = new MapSettings()
+      .setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0)
+      .setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_KEY, 2)
+      .setProperty(SonarComponents.SONAR_ADAPTIVE_BATCH_SIZE_TARGET_HEAP_USAGE_KEY, 70);
+    IntSupplier oldValue = SonarComponents.availableProcessorsProvider;
+    SonarComponents.availableProcessorsProvider = () -> 4;
+    try {
+      scan(settings, SONARQUBE_RUNTIME, "class A {}", "class B {}");
+    } finally {
+      SonarComponents.availableProcessorsProvider = oldValue;
+    }
+    assertThat(mainCodeIssueScannerAndFilter.scanFileInvocationCount).isEqualTo(2);
+    assertThat(logTester.logs(Level.INFO)).contains("The batch size is not adapted to the heap usage when batches are parsed in parallel.");
+  }
+
+  @Test
+  void test_scan_as_batch_with_parallelism_handles_analysis_cancellation() {
+    MapSettings settings = new MapSettings()
+      .setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0)
+      .setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_KEY, 2);
+    mainCodeIssueScannerAndFilter.isCancelled = true;
+    IntSupplier oldValue = SonarComponents.availableProcessorsProvider;
+    SonarComponents.availableProcessorsProvider = () -> 4;
+    try {
+      assertThatThrownBy(() -> scan(settings, SONARQUBE_RUNTIME, "class A {}", "class B {}", "class C {}", "class D {}"))
+        .isInstanceOf(AnalysisException.class)
+        .hasMessage("Analysis cancelled");
+    } finally {
+      SonarComponents.availableProcessorsProvider = oldValue;
+    }
+    // the batch already parsed by the second thread can still be analyzed before cancellation is noticed
+    assertThat(mainCodeIssueScannerAndFilter.scanFileInvocationCount).isBetween(1, 2);
+    assertThat(mainCodeIssueScannerAndFilter.endOfAnalysisInvocationCount).isEqualTo(1);
+  }
+
   @Test
   void batch_generator_returns_an_empty_list_when_no_input_files() {
     List<InputFile> emptyList = Collections.emptyList();
@@ -866,11 +1045,24 @@ class JavaFrontendTest {
     boolean isCancelled = false;
     RuntimeException exceptionDuringScan = null;
 
+    /**
+     * Types of the identifiers of each scanned file, which depend on the environment the file was parsed with.
+     */
+    Map<String, List<String>> resolvedSymbols = new TreeMap<>();
+
     @Override
     public void scanFile(JavaFileScannerContext scannerContext) {
       this.scannerContext = scannerContext;
       scanFileInvocationCount++;
       lastScannedTree = scannerContext.getTree();
+      List<String> symbols = new ArrayList<>();
+      lastScannedTree.accept(new BaseTreeVisitor() {
+        @Override
+        public void visitIdentifier(IdentifierTree tree) {
+          symbols.add(tree.name() + ":" + tree.symbolType().fullyQualifiedName() + ":" + tree.symbol().isUnknown());
+        }
+      });
+      resolvedSymbols.put(scannerContext.getInputFile().filename(), symbols);
       if (isCancelled) {
         sensorContext.setCancelled(true);
       }
@@ -0,0 +1,72 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.JavaVersionImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelBatchScannerTest {
+
+  private static final List<String> FILES = List.of("Classes.java", "Comments.java", "Complexity.java", "Lines.java", "Methods.java",
+    "Statements.java");
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 3})
+  void converted_trees_waiting_for_analysis_never_exceed_the_limit(int maxLiveTrees) {
+    List<InputFile> inputFiles = FILES.stream()
+      .map(file -> TestUtils.inputFile("src/test/files/metrics/" + file))
+      .toList();
+    AtomicInteger liveTrees = new AtomicInteger();
+    AtomicInteger maxObservedLiveTrees = new AtomicInteger();
+    List<String> analyzedFiles = Collections.synchronizedList(new ArrayList<>());
+
+    new ParallelBatchScanner(3, maxLiveTrees, 1.0, () -> false).scan(new JavaFrontend.BatchGenerator(inputFiles.iterator(), 0L),
+      (batch, isCanceled, permits, analyzer) -> JParserConfig.Mode.BATCH.create(new JavaVersionImpl(17), Collections.emptyList())
+        .withLiveTrees(permits)
+        .parse(batch, isCanceled, new AnalysisProgress(batch.size()), (inputFile, result) -> {
+          // the tree of the file has just been converted, and is released once analyzed
+          maxObservedLiveTrees.accumulateAndGet(liveTrees.incrementAndGet(), Math::max);
+          analyzer.accept(() -> {
+            sleep();
+            analyzedFiles.add(inputFile.filename());
+          });
+          liveTrees.decrementAndGet();
+        }));
+
+    assertThat(analyzedFiles).containsExactlyInAnyOrderElementsOf(FILES);
+    assertThat(maxObservedLiveTrees.get()).isBetween(1, maxLiveTrees);
+  }
+
+  private static void sleep() {
+    try {
+      // leaves time to the other batches to convert their next tree, unless they are not allowed to
+      Thread.sleep(20);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
@@ -179,6 +179,25 @@ class ProgressMonitorTest {
     );
   }
 
+  @Test
+  void test_concurrent_batches_progress() {
+    AnalysisProgress analysisProgress = new AnalysisProgress(50);
+    analysisProgress.startBatch(10);
+    analysisProgress.startBatch(30);
+    assertThat(analysisProgress.isFirstBatch()).isTrue();
+    assertThat(analysisProgress.isLastBatch()).isFalse();
+
+    analysisProgress.endBatch(30);
+    assertThat(analysisProgress.isFirstBatch()).isFalse();
+    assertThat(analysisProgress.toGlobalPercentage(0.0)).isEqualTo(0.6);
+
+    analysisProgress.startBatch(10);
+    assertThat(analysisProgress.isLastBatch()).isTrue();
+    analysisProgress.endBatch(10);
+    analysisProgress.endBatch();
+    assertThat(analysisProgress.toGlobalPercentage(0.0)).isEqualTo(1.0);
+  }
+
   @Timeout(3)
   @Test
   void test_report_progress() throws Exception {
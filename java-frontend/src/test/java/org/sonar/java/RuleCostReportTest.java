@@ -0,0 +1,150 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+import org.sonar.java.RuleCostReport.FileCost;
+import org.sonar.java.RuleCostReport.RuleCost;
+import org.sonar.java.testing.ThreadLocalLogTester;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleCostReportTest {
+
+  private static final String NL = System.lineSeparator();
+
+  @RegisterExtension
+  public ThreadLocalLogTester logTester = new ThreadLocalLogTester().setLevel(Level.INFO);
+
+  @TempDir
+  Path workDir;
+
+  @Test
+  void costs_are_aggregated_by_rule_and_by_file() {
+    RuleCostReport report = new RuleCostReport(() -> 0L, () -> 0L, null);
+    RuleCost first = report.costOf("java:S1");
+    RuleCost second = report.costOf("java:S2");
+    assertThat(report.costOf("java:S1")).isSameAs(first);
+
+    first.add(3_000_000L, 100L);
+    first.add(2_000_000L, 50L);
+    second.add(1_000_000L, 10L);
+    report.endOfFile("A.java");
+    first.add(4_000_000L, 200L);
+    report.endOfFile("B.java");
+
+    assertThat(first.rule()).isEqualTo("java:S1");
+    assertThat(first.cpuNanos()).isEqualTo(9_000_000L);
+    assertThat(first.allocatedBytes()).isEqualTo(350L);
+    assertThat(first.calls()).isEqualTo(3L);
+    assertThat(first.files()).isEqualTo(2);
+    assertThat(second.cpuNanos()).isEqualTo(1_000_000L);
+    assertThat(second.files()).isEqualTo(1);
+    assertThat(report.mostExpensiveFileCosts()).containsExactly(
+      new FileCost("java:S1", "A.java", 5_000_000L, 150L),
+      new FileCost("java:S1", "B.java", 4_000_000L, 200L),
+      new FileCost("java:S2", "A.java", 1_000_000L, 10L));
+  }
+
+  @Test
+  void only_the_most_expensive_costs_on_a_file_are_kept() {
+    RuleCostReport report = new RuleCostReport(() -> 0L, () -> 0L, null);
+    RuleCost cost = report.costOf("java:S1");
+    for (int i = 1; i <= 15; i++) {
+      cost.add(i, 0L);
+      report.endOfFile("F" + (i % 4) + ".java");
+    }
+    assertThat(report.mostExpensiveFileCosts())
+      .extracting(FileCost::cpuNanos)
+      .containsExactly(15L, 14L, 13L, 12L, 11L, 10L, 9L, 8L, 7L, 6L);
+  }
+
+  @Test
+  void costs_are_logged_and_saved() throws IOException {
+    Path destination = workDir.resolve("rules.json");
+    RuleCostReport report = new RuleCostReport(() -> 0L, () -> 0L, destination);
+    report.costOf("java:S1").add(2_000_000L, 1024L);
+    report.costOf("java:S2").add(5_000_000L, 0L);
+    report.costOf("java:S3");
+    report.endOfFile("A.java");
+
+    report.report();
+
+    assertThat(logTester.logs(Level.INFO)).containsExactly(
+      "Most expensive rules:" + NL +
+        "    java:S2 (5ms, 0B, 1 calls, 1 files)" + NL +
+        "    java:S1 (2ms, 1024B, 1 calls, 1 files)",
+      "Most expensive rules on a single file:" + NL +
+        "    java:S2 on A.java (5ms, 0B)" + NL +
+        "    java:S1 on A.java (2ms, 1024B)",
+      "Rule costs saved into: " + destination);
+    JsonObject json = new Gson().fromJson(Files.readString(destination, StandardCharsets.UTF_8), JsonObject.class);
+    assertThat(json.getAsJsonArray("rules")).hasSize(2);
+    JsonObject mostExpensive = json.getAsJsonArray("rules").get(0).getAsJsonObject();
+    assertThat(mostExpensive.get("rule").getAsString()).isEqualTo("java:S2");
+    assertThat(mostExpensive.get("cpuNanos").getAsLong()).isEqualTo(5_000_000L);
+    assertThat(mostExpensive.get("calls").getAsLong()).isEqualTo(1L);
+    assertThat(mostExpensive.get("files").getAsInt()).isEqualTo(1);
+    assertThat(json.getAsJsonArray("mostExpensiveFiles").get(1).getAsJsonObject().get("allocatedBytes").getAsLong()).isEqualTo(1024L);
+  }
+
+  @Test
+  void failure_to_save_costs_is_logged() {
+    Path destination = workDir.resolve("missing").resolve("rules.json");
+    RuleCostReport report = new RuleCostReport(() -> 0L, () -> 0L, destination);
+    report.costOf("java:S1").add(1L, 1L);
+    report.endOfFile("A.java");
+
+    report.report();
+
+    assertThat(logTester.logs(Level.ERROR)).containsExactly("Can't save rule costs into: " + destination);
+  }
+
+  @Test
+  void nothing_is_reported_without_costs() {
+    Path destination = workDir.resolve("rules.json");
+    RuleCostReport report = new RuleCostReport(() -> 0L, () -> 0L, destination);
+    report.costOf("java:S1");
+    report.endOfFile("A.java");
+
+    report.report();
+
+    assertThat(logTester.logs()).isEmpty();
+    assertThat(destination).doesNotExist();
+  }
+
+  @Test
+  void costs_are_measured_with_the_counters_of_the_current_thread() {
+    RuleCostReport report = new RuleCostReport(null);
+    long allocatedBytes = report.allocatedBytes();
+    long cpuTime = report.cpuTime();
+    int[] allocated = new int[1_000];
+    assertThat(allocated).hasSize(1_000);
+    assertThat(report.allocatedBytes()).isGreaterThanOrEqualTo(allocatedBytes);
+    assertThat(report.cpuTime()).isGreaterThanOrEqualTo(cpuTime);
+  }
+
+}
@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.IntSupplier;
 import java.util.function.LongSupplier;
 import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
@@ -37,6 +38,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -71,6 +73,7 @@ import org.sonar.api.rule.RuleKey;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.api.utils.Version;
 import org.sonar.check.Rule;
+import org.sonar.java.caching.FileHashingUtils;
 import org.sonar.java.classpath.ClasspathForMain;
 import org.sonar.java.classpath.ClasspathForTest;
 import org.sonar.java.exceptions.ApiMismatchException;
@@ -168,6 +171,58 @@ class SonarComponentsTest {
     assertThat(sonarComponents.projectLevelWorkDir()).isEqualTo(workDir);
   }
 
+  @Test
+  void rule_cost_report_is_shared_and_saved_into_the_work_directory_when_activated() {
+    File workDir = new File("target");
+    SensorContextTester specificContext = SensorContextTester.create(new File(""));
+    specificContext.fileSystem().setWorkDir(workDir.toPath());
+    SonarComponents sonarComponents = new SonarComponents(
+      fileLinesContextFactory, specificContext.fileSystem(), null, mock(ClasspathForTest.class), checkFactory, specificContext.activeRules());
+    assertThat(sonarComponents.ruleCostReport()).isNull();
+
+    sonarComponents.setSensorContext(specificContext);
+    assertThat(sonarComponents.ruleCostReport()).isNull();
+
+    specificContext.setSettings(new MapSettings().setProperty(SonarComponents.RULE_COST_MEASURE_ACTIVATION_KEY, "true"));
+    RuleCostReport ruleCostReport = sonarComponents.ruleCostReport();
+    assertThat(ruleCostReport).isNotNull();
+    assertThat(sonarComponents.ruleCostReport()).isSameAs(ruleCostReport);
+  }
+
+  @Test
+  void execution_time_report_is_shared_and_saved_next_to_the_performance_measure_when_activated() {
+    File workDir = new File("target");
+    SensorContextTester specificContext = SensorContextTester.create(new File(""));
+    specificContext.fileSystem().setWorkDir(workDir.toPath());
+    SonarComponents sonarComponents = new SonarComponents(
+      fileLinesContextFactory, specificContext.fileSystem(), null, mock(ClasspathForTest.class), checkFactory, specificContext.activeRules());
+    assertThat(sonarComponents.executionTimeReport()).isNull();
+
+    sonarComponents.setSensorContext(specificContext);
+    assertThat(sonarComponents.executionTimeReport()).isNull();
+
+    specificContext.setSettings(new MapSettings().setProperty(SonarComponents.PERFORMANCE_MEASURE_ACTIVATION_KEY, "true"));
+    ExecutionTimeReport executionTimeReport = sonarComponents.executionTimeReport();
+    assertThat(executionTimeReport).isNotNull();
+    assertThat(sonarComponents.executionTimeReport()).isSameAs(executionTimeReport);
+
+  }
+
+  @Test
+  void execution_time_report_is_saved_next_to_the_performance_measure(@TempDir Path measureDir) {
+    SensorContextTester specificContext = SensorContextTester.create(new File(""));
+    specificContext.setSettings(new MapSettings()
+      .setProperty(SonarComponents.PERFORMANCE_MEASURE_ACTIVATION_KEY, "true")
+      .setProperty("sonar.java.performance.measure.path", measureDir.resolve("measure.json").toString()));
+    SonarComponents sonarComponents = new SonarComponents(
+      fileLinesContextFactory, specificContext.fileSystem(), null, mock(ClasspathForTest.class), checkFactory, specificContext.activeRules());
+    sonarComponents.setSensorContext(specificContext);
+
+    sonarComponents.executionTimeReport().report();
+
+    assertThat(measureDir.resolve("sonar.java.performance.files.json")).exists();
+  }
+
   @Test
   void set_work_directory_using_project_definition() {
     File baseDir = new File("");
@@ -767,6 +822,158 @@ class SonarComponentsTest {
     assertThat(batchModeSizeInKB).isEqualTo(expectedBatchSizeKB);
   }
 
+  @ParameterizedTest
+  @CsvSource({
+    ", 8, 1",
+    "4, 8, 4",
+    "16, 8, 8",
+    "0, 8, 1",
+    "-2, 8, 1",
+  })
+  void parallelism_is_bounded_by_available_processors(String configuredParallelism, int availableProcessors, int expectedParallelism) {
+    MapSettings settings = new MapSettings();
+    if (configuredParallelism != null) {
+      settings.setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_KEY, configuredParallelism);
+    }
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+
+    IntSupplier oldValue = SonarComponents.availableProcessorsProvider;
+    SonarComponents.availableProcessorsProvider = () -> availableProcessors;
+    int parallelism = sonarComponents.getParsingParallelism();
+    SonarComponents.availableProcessorsProvider = oldValue;
+    assertThat(parallelism).isEqualTo(expectedParallelism);
+  }
+
+  @Test
+  void parallelism_max_heap_usage() {
+    MapSettings settings = new MapSettings();
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+    assertThat(sonarComponents.getParsingParallelismMaxHeapUsage()).isEqualTo(0.7);
+
+    settings.setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_MAX_HEAP_USAGE_KEY, 50);
+    assertThat(sonarComponents.getParsingParallelismMaxHeapUsage()).isEqualTo(0.5);
+
+    settings.setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_MAX_HEAP_USAGE_KEY, 150);
+    assertThat(sonarComponents.getParsingParallelismMaxHeapUsage()).isEqualTo(1.0);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    ", 4",
+    "2, 2",
+    "16, 4",
+    "0, 1",
+  })
+  void parallelism_max_live_trees_is_bounded_by_the_parsing_parallelism(String configuredMaxLiveTrees, int expectedMaxLiveTrees) {
+    MapSettings settings = new MapSettings();
+    settings.setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_KEY, 4);
+    if (configuredMaxLiveTrees != null) {
+      settings.setProperty(SonarComponents.SONAR_PARSING_PARALLELISM_MAX_LIVE_TREES_KEY, configuredMaxLiveTrees);
+    }
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+
+    IntSupplier oldValue = SonarComponents.availableProcessorsProvider;
+    SonarComponents.availableProcessorsProvider = () -> 8;
+    int maxLiveTrees = sonarComponents.getParsingParallelismMaxLiveTrees();
+    SonarComponents.availableProcessorsProvider = oldValue;
+    assertThat(maxLiveTrees).isEqualTo(expectedMaxLiveTrees);
+  }
+
+  @Test
+  void adaptive_batch_size_target_heap_usage_is_read_from_configuration() {
+    MapSettings settings = new MapSettings();
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+    assertThat(sonarComponents.getAdaptiveBatchSizeTargetHeapUsage()).isZero();
+
+    settings.setProperty(SonarComponents.SONAR_ADAPTIVE_BATCH_SIZE_TARGET_HEAP_USAGE_KEY, 60);
+    assertThat(sonarComponents.getAdaptiveBatchSizeTargetHeapUsage()).isEqualTo(0.6);
+
+    settings.setProperty(SonarComponents.SONAR_ADAPTIVE_BATCH_SIZE_TARGET_HEAP_USAGE_KEY, 0);
+    assertThat(sonarComponents.getAdaptiveBatchSizeTargetHeapUsage()).isEqualTo(0.01);
+
+    settings.setProperty(SonarComponents.SONAR_ADAPTIVE_BATCH_SIZE_TARGET_HEAP_USAGE_KEY, 150);
+    assertThat(sonarComponents.getAdaptiveBatchSizeTargetHeapUsage()).isEqualTo(1.0);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    ", 8, 0",
+    "2, 8, 2",
+    "16, 8, 8",
+    "-1, 8, 0",
+  })
+  void concurrent_visitor_groups_are_bounded_by_available_processors(String configuredGroups, int availableProcessors, int expectedGroups) {
+    MapSettings settings = new MapSettings();
+    if (configuredGroups != null) {
+      settings.setProperty(SonarComponents.SONAR_CONCURRENT_VISITOR_GROUPS_KEY, configuredGroups);
+    }
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+
+    IntSupplier oldValue = SonarComponents.availableProcessorsProvider;
+    SonarComponents.availableProcessorsProvider = () -> availableProcessors;
+    int groups = sonarComponents.getConcurrentVisitorGroups();
+    SonarComponents.availableProcessorsProvider = oldValue;
+    assertThat(groups).isEqualTo(expectedGroups);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    ", 8, 1",
+    "16, 8, 16",
+    "64, 8, 32",
+    "0, 8, 1",
+  })
+  void file_hashing_parallelism_is_bounded_by_available_processors(String configuredParallelism, int availableProcessors, int expectedParallelism) {
+    MapSettings settings = new MapSettings();
+    if (configuredParallelism != null) {
+      settings.setProperty(SonarComponents.SONAR_FILE_HASHING_PARALLELISM_KEY, configuredParallelism);
+    }
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+
+    IntSupplier oldValue = SonarComponents.availableProcessorsProvider;
+    SonarComponents.availableProcessorsProvider = () -> availableProcessors;
+    int parallelism = sonarComponents.getFileHashingParallelism();
+    SonarComponents.availableProcessorsProvider = oldValue;
+    assertThat(parallelism).isEqualTo(expectedParallelism);
+  }
+
+  @Test
+  void prefetched_content_hashes_are_only_taken_once() throws IOException {
+    File file = new File("src/test/files/api/JavaFileScannerContext.java");
+    InputFile inputFile = TestUtils.inputFile(file.getAbsolutePath(), file);
+    MapSettings settings = new MapSettings();
+    settings.setProperty(SonarComponents.SONAR_FILE_HASHING_PARALLELISM_KEY, 2);
+    SensorContextTester context = SensorContextTester.create(new File("")).setSettings(settings);
+    context.setCacheEnabled(true);
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(context);
+
+    sonarComponents.prefetchContentHashes(List.of(inputFile, mock(GeneratedFile.class)));
+
+    assertThat(sonarComponents.takePrefetchedContentHash(inputFile)).isEqualTo(FileHashingUtils.streamingContentHash(inputFile));
+    assertThat(sonarComponents.takePrefetchedContentHash(inputFile)).isNull();
+  }
+
+  @Test
+  void content_hashes_are_not_prefetched_by_default() {
+    File file = new File("src/test/files/api/JavaFileScannerContext.java");
+    InputFile inputFile = TestUtils.inputFile(file.getAbsolutePath(), file);
+    SensorContextTester context = SensorContextTester.create(new File(""));
+    context.setCacheEnabled(true);
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(context);
+
+    sonarComponents.prefetchContentHashes(List.of(inputFile));
+
+    assertThat(sonarComponents.takePrefetchedContentHash(inputFile)).isNull();
+  }
+
   @Test
   void file_by_file_getters() {
     MapSettings settings = new MapSettings();
@@ -845,6 +1052,21 @@ class SonarComponentsTest {
     assertThat(error).hasCause(new NoSuchMethodError("API version mismatch :-("));
   }
 
+  @Test
+  void isUnchangedFile_resolves_the_file_by_its_key() {
+    SensorContextTester sensorContextTester = SensorContextTester.create(new File(""));
+    DefaultFileSystem fs = sensorContextTester.fileSystem();
+    fs.add(new TestInputFileBuilder("", "Same.java").setLanguage("java").setStatus(InputFile.Status.SAME).build());
+    fs.add(new TestInputFileBuilder("", "Changed.java").setLanguage("java").setStatus(InputFile.Status.CHANGED).build());
+    SonarComponents sonarComponents = new SonarComponents(fileLinesContextFactory, fs, mock(ClasspathForMain.class),
+      mock(ClasspathForTest.class), checkFactory, context.activeRules());
+    sonarComponents.setSensorContext(sensorContextTester);
+
+    assertThat(sonarComponents.isUnchangedFile(":Same.java")).isTrue();
+    assertThat(sonarComponents.isUnchangedFile(":Changed.java")).isFalse();
+    assertThat(sonarComponents.isUnchangedFile(":Removed.java")).isFalse();
+  }
+
   @Test
   void fileCanBeSkipped_returns_false_when_the_file_is_a_generated_file() {
     SensorContextTester sensorContextTester = SensorContextTester.create(new File(""));
@@ -36,9 +36,15 @@ import org.sonar.java.testing.ThreadLocalLogTester;
 import org.sonar.plugins.java.api.caching.SonarLintCache;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ContentHashCacheTest {
@@ -60,10 +66,69 @@ class ContentHashCacheTest {
         "Copying cache from previous for file " + inputFile.key());
   }
 
+  @Test
+  void hasSameHashCached_returns_true_when_the_same_file_is_checked_twice() throws IOException {
+    logTester.setLevel(Level.TRACE);
+    SensorContextTester sensorContext = SensorContextTester.create(file.getAbsoluteFile());
+    sensorContext.setCacheEnabled(true);
+    ReadCache readCache = mock(ReadCache.class);
+    String cacheKey = "java:contentHash:MURMUR3_128:" + inputFile.key();
+    when(readCache.contains(cacheKey)).thenReturn(true);
+    when(readCache.read(cacheKey)).then(invocation -> new ByteArrayInputStream(FileHashingUtils.streamingContentHash(inputFile)));
+    WriteCache writeCache = mock(WriteCache.class);
+    doNothing().doThrow(new IllegalArgumentException("Same key cannot be written to multiple times")).when(writeCache).copyFromPrevious(cacheKey);
+    sensorContext.setPreviousCache(readCache);
+    sensorContext.setNextCache(writeCache);
+    ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
+
+    Assertions.assertTrue(contentHashCache.hasSameHashCached(inputFile));
+    Assertions.assertTrue(contentHashCache.hasSameHashCached(inputFile));
+    assertThat(logTester.logs(Level.TRACE))
+      .contains("Tried to write multiple times to cache key " + cacheKey + ". Ignoring writes after the first.");
+  }
+
+  @Test
+  void hasSameHashCached_migrates_hash_cached_with_legacy_algorithm() throws IOException, NoSuchAlgorithmException {
+    logTester.setLevel(Level.TRACE);
+    SensorContextTester sensorContext = SensorContextTester.create(file.getAbsoluteFile());
+    sensorContext.setCacheEnabled(true);
+    ReadCache readCache = mock(ReadCache.class);
+    when(readCache.read("java:contentHash:MD5:" + inputFile.key())).thenReturn(new ByteArrayInputStream(FileHashingUtils.inputFileContentHash(inputFile)));
+    when(readCache.contains("java:contentHash:MD5:" + inputFile.key())).thenReturn(true);
+    WriteCache writeCache = mock(WriteCache.class);
+    sensorContext.setPreviousCache(readCache);
+    sensorContext.setNextCache(writeCache);
+    ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
+
+    Assertions.assertTrue(contentHashCache.contains(inputFile));
+    Assertions.assertTrue(contentHashCache.hasSameHashCached(inputFile));
+    verify(writeCache).write("java:contentHash:MURMUR3_128:" + inputFile.key(), FileHashingUtils.streamingContentHash(inputFile));
+    verify(writeCache, never()).copyFromPrevious(anyString());
+    assertThat(logTester.logs(Level.TRACE)).
+      contains("Migrating the cached hash of the file " + inputFile.key(),
+        "Writing to the cache for file " + inputFile.key());
+  }
+
+  @Test
+  void hasSameHashCached_returns_false_when_legacy_hash_differs() {
+    SensorContextTester sensorContext = SensorContextTester.create(file.getAbsoluteFile());
+    sensorContext.setCacheEnabled(true);
+    ReadCache readCache = mock(ReadCache.class);
+    when(readCache.read("java:contentHash:MD5:" + inputFile.key())).thenReturn(new ByteArrayInputStream("Dummy content hash".getBytes()));
+    when(readCache.contains("java:contentHash:MD5:" + inputFile.key())).thenReturn(true);
+    WriteCache writeCache = mock(WriteCache.class);
+    sensorContext.setPreviousCache(readCache);
+    sensorContext.setNextCache(writeCache);
+    ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
+
+    Assertions.assertFalse(contentHashCache.hasSameHashCached(inputFile));
+    verify(writeCache).write(eq("java:contentHash:MURMUR3_128:" + inputFile.key()), any(byte[].class));
+  }
+
   @Test
   void hasSameHashCached_returns_false_when_content_hash_file_is_not_in_read_cache_with_proper_logging() {
     String[] messages = new String[]{
-      "Could not find key java:contentHash:MD5:" + inputFile.key() + " in the cache",
+      "Could not find key java:contentHash:MURMUR3_128:" + inputFile.key() + " in the cache",
       "Reading cache for the file " + inputFile.key(),
       "Writing to the cache for file " + inputFile.key()
     };
@@ -120,8 +185,8 @@ class ContentHashCacheTest {
     SensorContextTester sensorContext = SensorContextTester.create(file.getAbsoluteFile());
     sensorContext.setCacheEnabled(true);
     ReadCache readCache = mock(ReadCache.class);
-    when(readCache.read("java:contentHash:MD5:" + inputFile.key())).thenReturn(new ByteArrayInputStream("Dummy content hash".getBytes()));
-    when(readCache.contains("java:contentHash:MD5:" + inputFile.key())).thenReturn(true);
+    when(readCache.read("java:contentHash:MURMUR3_128:" + inputFile.key())).thenReturn(new ByteArrayInputStream("Dummy content hash".getBytes()));
+    when(readCache.contains("java:contentHash:MURMUR3_128:" + inputFile.key())).thenReturn(true);
     WriteCache writeCache = mock(WriteCache.class);
     sensorContext.setPreviousCache(readCache);
     sensorContext.setNextCache(writeCache);
@@ -156,6 +221,39 @@ class ContentHashCacheTest {
       contains("Failed to compute content hash for file " + inputFile1.key());
   }
 
+  @Test
+  void isUnchanged_compares_content_hash_without_writing_to_cache() throws IOException {
+    SensorContextTester sensorContext = getSonarComponentsTester();
+    ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
+    Assertions.assertTrue(contentHashCache.isUnchanged(inputFile));
+    verify(sensorContext.nextCache(), never()).copyFromPrevious(anyString());
+    verify(sensorContext.nextCache(), never()).write(anyString(), any(byte[].class));
+
+    Assertions.assertFalse(new ContentHashCache(mockSonarComponents(getSensorContextTesterWithEmptyCache(true))).isUnchanged(inputFile));
+  }
+
+  @Test
+  void isUnchanged_returns_false_when_content_hash_differs() {
+    SensorContextTester sensorContext = SensorContextTester.create(file.getAbsoluteFile());
+    sensorContext.setCacheEnabled(true);
+    ReadCache readCache = mock(ReadCache.class);
+    when(readCache.read("java:contentHash:MURMUR3_128:" + inputFile.key())).thenReturn(new ByteArrayInputStream("Dummy content hash".getBytes()));
+    when(readCache.contains("java:contentHash:MURMUR3_128:" + inputFile.key())).thenReturn(true);
+    sensorContext.setPreviousCache(readCache);
+    sensorContext.setNextCache(mock(WriteCache.class));
+    ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
+    Assertions.assertFalse(contentHashCache.isUnchanged(inputFile));
+  }
+
+  @Test
+  void isUnchanged_relies_on_input_file_status_when_cache_is_disabled() {
+    InputFile inputFile1 = mock(InputFile.class);
+    when(inputFile1.status()).thenReturn(InputFile.Status.SAME, InputFile.Status.CHANGED);
+    ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(getSensorContextTesterWithEmptyCache(false)));
+    Assertions.assertTrue(contentHashCache.isUnchanged(inputFile1));
+    Assertions.assertFalse(contentHashCache.isUnchanged(inputFile1));
+  }
+
   @Test
   void contains_returns_true_when_file_is_in_cache() throws IOException, NoSuchAlgorithmException {
     ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(getSonarComponentsTester()));
@@ -177,7 +275,7 @@ class ContentHashCacheTest {
   @Test
   void writeToCache_returns_false_when_writing_to_cache_throws_exception_with_proper_logging() throws IOException,
     NoSuchAlgorithmException {
-    String message = "Tried to write multiple times to cache key java:contentHash:MD5:" + inputFile.key() + ". Ignoring writes after the " +
+    String message = "Tried to write multiple times to cache key java:contentHash:MURMUR3_128:" + inputFile.key() + ". Ignoring writes after the " +
       "first.";
     assertThat(writeToCache_returns_false_when_writing_to_cache_throws_exception(Level.TRACE)).contains(message);
     assertThat(writeToCache_returns_false_when_writing_to_cache_throws_exception(Level.WARN)).doesNotContain(message);
@@ -190,8 +288,8 @@ class ContentHashCacheTest {
     sensorContext.setCacheEnabled(true);
     WriteCache writeCache = mock(WriteCache.class);
     sensorContext.setNextCache(writeCache);
-    doThrow(new IllegalArgumentException()).when(writeCache).write("java:contentHash:MD5:" + inputFile.key(),
-      FileHashingUtils.inputFileContentHash(file.getPath()));
+    doThrow(new IllegalArgumentException()).when(writeCache).write("java:contentHash:MURMUR3_128:" + inputFile.key(),
+      FileHashingUtils.streamingContentHash(inputFile));
     ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
     Assertions.assertFalse(contentHashCache.writeToCache(inputFile));
     return logTester.logs(level);
@@ -239,7 +337,7 @@ class ContentHashCacheTest {
     SensorContextTester sensorContext = SensorContextTester.create(file.getAbsoluteFile());
     sensorContext.setCacheEnabled(isCacheEnabled);
     ReadCache readCache = mock(ReadCache.class);
-    when(readCache.read("java:contentHash:MD5:" + inputFile.key())).thenThrow(new IllegalArgumentException());
+    when(readCache.read("java:contentHash:MURMUR3_128:" + inputFile.key())).thenThrow(new IllegalArgumentException());
     WriteCache writeCache = mock(WriteCache.class);
     sensorContext.setPreviousCache(readCache);
     sensorContext.setNextCache(writeCache);
@@ -247,12 +345,12 @@ class ContentHashCacheTest {
     return sensorContext;
   }
 
-  private SensorContextTester getSonarComponentsTester() throws IOException, NoSuchAlgorithmException {
+  private SensorContextTester getSonarComponentsTester() throws IOException {
     SensorContextTester sensorContext = SensorContextTester.create(file.getAbsoluteFile());
     sensorContext.setCacheEnabled(true);
     ReadCache readCache = mock(ReadCache.class);
-    when(readCache.read("java:contentHash:MD5:" + inputFile.key())).thenReturn(new ByteArrayInputStream(FileHashingUtils.inputFileContentHash(inputFile)));
-    when(readCache.contains("java:contentHash:MD5:" + inputFile.key())).thenReturn(true);
+    when(readCache.read("java:contentHash:MURMUR3_128:" + inputFile.key())).thenReturn(new ByteArrayInputStream(FileHashingUtils.streamingContentHash(inputFile)));
+    when(readCache.contains("java:contentHash:MURMUR3_128:" + inputFile.key())).thenReturn(true);
     WriteCache writeCache = mock(WriteCache.class);
     sensorContext.setPreviousCache(readCache);
     sensorContext.setNextCache(writeCache);
@@ -0,0 +1,84 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.TestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileHashingUtilsTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void murmur3_hash_does_not_depend_on_chunks() {
+    byte[] bytes = new byte[200_000];
+    new Random(42).nextBytes(bytes);
+    for (int length : new int[] {0, 1, 7, 8, 15, 16, 17, 31, 33, 1000, bytes.length}) {
+      byte[] expected = Hashing.murmur3_128().hashBytes(bytes, 0, length).asBytes();
+
+      Murmur3Hash128 wholeHash = new Murmur3Hash128();
+      wholeHash.update(ByteBuffer.wrap(bytes, 0, length));
+      assertThat(wholeHash.digest()).isEqualTo(expected);
+
+      Murmur3Hash128 chunkedHash = new Murmur3Hash128();
+      for (int start = 0; start < length; start += 13) {
+        chunkedHash.update(ByteBuffer.wrap(bytes, start, Math.min(13, length - start)));
+      }
+      assertThat(chunkedHash.digest()).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void streaming_hash_reads_the_file_on_disk() throws IOException {
+    byte[] bytes = new byte[150_000];
+    new Random(7).nextBytes(bytes);
+    File file = tempDir.resolve("Big.java").toFile();
+    Files.write(file.toPath(), bytes);
+    InputFile inputFile = TestUtils.inputFile(file.getAbsolutePath(), file, InputFile.Type.MAIN);
+
+    assertThat(FileHashingUtils.streamingContentHash(inputFile))
+      .isEqualTo(Hashing.murmur3_128().hashBytes(bytes).asBytes())
+      .isEqualTo(FileHashingUtils.streamingContentHash(inputFile))
+      .isEqualTo(FileHashingUtils.streamingContentHash(file.toPath()));
+  }
+
+  @Test
+  void streaming_hash_falls_back_on_contents_when_file_is_not_on_disk() throws IOException {
+    InputFile inputFile = mock(InputFile.class);
+    when(inputFile.path()).thenReturn(tempDir.resolve("Missing.java"));
+    when(inputFile.contents()).thenReturn("class A {}");
+
+    assertThat(FileHashingUtils.streamingContentHash(inputFile))
+      .isEqualTo(Hashing.murmur3_128().hashString("class A {}", StandardCharsets.UTF_8).asBytes());
+  }
+
+}
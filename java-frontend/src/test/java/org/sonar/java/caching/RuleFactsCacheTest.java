@@ -0,0 +1,149 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.event.Level;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.testing.ThreadLocalLogTester;
+import org.sonar.plugins.java.api.InputFileScannerContext;
+import org.sonar.plugins.java.api.caching.CacheContext;
+import org.sonar.plugins.java.api.caching.JavaReadCache;
+import org.sonar.plugins.java.api.caching.JavaWriteCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class RuleFactsCacheTest {
+
+  private static final String KEY = "java:S42:facts:file.java";
+
+  @RegisterExtension
+  public ThreadLocalLogTester logTester = new ThreadLocalLogTester().setLevel(Level.TRACE);
+
+  private final Map<String, byte[]> previousCache = new HashMap<>();
+  private final Map<String, byte[]> nextCache = new HashMap<>();
+  private final RuleFactsCache cache = new RuleFactsCache("java:S42:facts:");
+  private InputFileScannerContext context;
+  private JavaWriteCache writeCache;
+
+  @BeforeEach
+  void setUp() {
+    JavaReadCache readCache = mock(JavaReadCache.class);
+    doAnswer(invocation -> previousCache.get(invocation.<String>getArgument(0))).when(readCache).readBytes(anyString());
+    writeCache = mock(JavaWriteCache.class);
+    doAnswer(invocation -> {
+      String key = invocation.getArgument(0);
+      if (nextCache.putIfAbsent(key, invocation.getArgument(1)) != null) {
+        throw new IllegalArgumentException("Same key cannot be written to multiple times (" + key + ")");
+      }
+      return null;
+    }).when(writeCache).write(anyString(), any(byte[].class));
+    doAnswer(invocation -> nextCache.put(invocation.getArgument(0), previousCache.get(invocation.<String>getArgument(0))))
+      .when(writeCache).copyFromPrevious(anyString());
+    CacheContext cacheContext = mock(CacheContext.class);
+    doReturn(readCache).when(cacheContext).getReadCache();
+    doReturn(writeCache).when(cacheContext).getWriteCache();
+    InputFile inputFile = mock(InputFile.class);
+    doReturn("file.java").when(inputFile).key();
+    context = mock(InputFileScannerContext.class);
+    doReturn(inputFile).when(context).getInputFile();
+    doReturn(cacheContext).when(context).getCacheContext();
+  }
+
+  @Test
+  void facts_written_by_an_analysis_are_read_by_the_next_one_and_kept_for_the_following_one() {
+    cache.write(context, List.of("org.foo", "", "org.bar;org.qix", "été"));
+    previousCache.putAll(nextCache);
+    nextCache.clear();
+
+    assertThat(cache.read(context)).contains(List.of("org.foo", "", "org.bar;org.qix", "été"));
+    assertThat(nextCache).containsOnlyKeys(KEY);
+    assertThat(nextCache.get(KEY)).isEqualTo(previousCache.get(KEY));
+  }
+
+  @Test
+  void no_facts_are_read_without_a_previous_entry() {
+    assertThat(cache.read(context)).isEmpty();
+    verify(writeCache, never()).copyFromPrevious(anyString());
+  }
+
+  @Test
+  void empty_facts_are_not_missing_facts() {
+    cache.write(context, List.of());
+    previousCache.putAll(nextCache);
+
+    assertThat(cache.read(context)).contains(List.of());
+  }
+
+  @Test
+  void unreadable_facts_are_ignored_and_not_kept() {
+    previousCache.put(KEY, "org.foo;org.bar".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(cache.read(context)).isEmpty();
+    verify(writeCache, never()).copyFromPrevious(anyString());
+    assertThat(logTester.logs(Level.TRACE)).anyMatch(log -> log.startsWith("Cached entry is unreadable for key '" + KEY + "'"));
+  }
+
+  @Test
+  void only_the_first_write_of_a_file_is_kept() {
+    cache.write(context, List.of("first"));
+    cache.write(context, List.of("second"));
+
+    assertThat(RuleFactsCache.deserialize(nextCache.get(KEY))).containsExactly("first");
+    assertThat(logTester.logs(Level.TRACE))
+      .containsExactly("Tried to write multiple times to cache key '" + KEY + "'. Ignoring writes after the first.");
+  }
+
+  @Test
+  void deserialization_rejects_bytes_which_are_not_exactly_serialized_facts() {
+    byte[] bytes = RuleFactsCache.serialize(List.of("a", "bc"));
+    assertThat(RuleFactsCache.deserialize(bytes)).containsExactly("a", "bc");
+
+    byte[] truncated = new byte[bytes.length - 1];
+    System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+    assertThatThrownBy(() -> RuleFactsCache.deserialize(truncated)).isInstanceOf(IllegalArgumentException.class);
+
+    byte[] extended = new byte[bytes.length + 1];
+    System.arraycopy(bytes, 0, extended, 0, bytes.length);
+    assertThatThrownBy(() -> RuleFactsCache.deserialize(extended))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Unexpected bytes after the facts");
+
+    assertThatThrownBy(() -> RuleFactsCache.deserialize(new byte[] {-1, -1, -1, -1}))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Invalid number of facts: -1");
+    assertThatThrownBy(() -> RuleFactsCache.deserialize(new byte[] {0, 0, 0, 1, 0, 0, 0, 9, 'a'}))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Invalid length of fact: 9");
+    assertThatThrownBy(() -> RuleFactsCache.deserialize(new byte[0])).isInstanceOf(IllegalArgumentException.class).hasMessage("Truncated facts");
+  }
+
+}
@@ -0,0 +1,240 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.java.model.declaration.MethodTreeImpl;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.DataflowAnalysis;
+import org.sonar.plugins.java.api.cfg.DataflowResult;
+import org.sonar.plugins.java.api.cfg.GenKillAnalysis;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.VariableTree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+
+class DataflowTest {
+
+  private static MethodTreeImpl method(String methodCode) {
+    CompilationUnitTree cut = JParserTestUtils.parse("abstract class A { abstract void abstractMethod(); void use(int i) {} " + methodCode + " }");
+    return (MethodTreeImpl) ((ClassTree) cut.types().get(0)).members().get(2);
+  }
+
+  /**
+   * Block invoking the given method.
+   */
+  private static ControlFlowGraph.Block blockInvoking(ControlFlowGraph cfg, String methodName) {
+    return cfg.blocks().stream()
+      .filter(block -> block.elements().stream().anyMatch(element -> element instanceof MethodInvocationTree invocation
+        && invocation.methodSymbol().name().equals(methodName)))
+      .findFirst()
+      .orElseThrow();
+  }
+
+  /**
+   * Variables assigned on every path, or on some path, depending on the confluence.
+   */
+  private record AssignedVariables(Confluence confluence) implements GenKillAnalysis<String> {
+
+    @Override
+    public DataflowAnalysis.Direction direction() {
+      return DataflowAnalysis.Direction.FORWARD;
+    }
+
+    @Override
+    public void collect(ControlFlowGraph.Block block, Set<String> kill, Set<String> gen) {
+      for (Tree element : block.elements()) {
+        if (element instanceof VariableTree variable && variable.initializer() != null) {
+          gen.add(variable.simpleName().name());
+        } else if (element instanceof AssignmentExpressionTree assignment && assignment.variable() instanceof IdentifierTree identifier) {
+          gen.add(identifier.name());
+        }
+      }
+    }
+  }
+
+  @Test
+  void forward_union_and_intersection() {
+    MethodTreeImpl method = method("""
+      void foo(boolean b) {
+        int x;
+        int y;
+        if (b) {
+          x = 1;
+          y = 1;
+        } else {
+          x = 2;
+        }
+        use(x);
+      }
+      """);
+    ControlFlowGraph cfg = method.cfg();
+    ControlFlowGraph.Block use = blockInvoking(cfg, "use");
+
+    DataflowResult<Set<String>> may = Dataflow.analyze(cfg, new AssignedVariables(GenKillAnalysis.Confluence.UNION));
+    assertThat(may.in(use)).containsExactlyInAnyOrder("x", "y");
+    assertThat(may.in(cfg.entryBlock())).isEmpty();
+
+    DataflowResult<Set<String>> must = Dataflow.analyze(cfg, new AssignedVariables(GenKillAnalysis.Confluence.INTERSECTION));
+    assertThat(must.in(use)).containsExactly("x");
+    assertThat(must.out(use)).containsExactly("x");
+    assertThat(must.in(cfg.entryBlock())).isEmpty();
+  }
+
+  @Test
+  void intersection_in_loops() {
+    MethodTreeImpl method = method("""
+      void foo(boolean b) {
+        int x = 0;
+        int y;
+        while (b) {
+          use(x);
+          y = 1;
+        }
+      }
+      """);
+    ControlFlowGraph cfg = method.cfg();
+    DataflowResult<Set<String>> must = Dataflow.analyze(cfg, new AssignedVariables(GenKillAnalysis.Confluence.INTERSECTION));
+    assertThat(must.in(blockInvoking(cfg, "use"))).containsExactly("x");
+    assertThat(must.in(cfg.exitBlock())).containsExactly("x");
+  }
+
+  /**
+   * Liveness of local variables over immutable sets, as a {@link DataflowAnalysis}.
+   */
+  private enum ReadVariables implements DataflowAnalysis<Set<Symbol>> {
+    INSTANCE;
+
+    @Override
+    public Direction direction() {
+      return Direction.BACKWARD;
+    }
+
+    @Override
+    public Set<Symbol> boundary() {
+      return Set.of();
+    }
+
+    @Override
+    public Set<Symbol> initial() {
+      return Set.of();
+    }
+
+    @Override
+    public Set<Symbol> join(Set<Symbol> value1, Set<Symbol> value2) {
+      Set<Symbol> result = new HashSet<>(value1);
+      result.addAll(value2);
+      return result;
+    }
+
+    @Override
+    public Set<Symbol> transfer(ControlFlowGraph.Block block, Set<Symbol> value) {
+      Set<Symbol> result = new HashSet<>(value);
+      List<Tree> elements = block.elements();
+      for (int i = elements.size() - 1; i >= 0; i--) {
+        Tree element = elements.get(i);
+        if (element instanceof VariableTree variable) {
+          result.remove(variable.symbol());
+        } else if (element instanceof AssignmentExpressionTree assignment && assignment.variable() instanceof IdentifierTree identifier) {
+          result.remove(identifier.symbol());
+        } else if (element instanceof IdentifierTree identifier && identifier.symbol().isLocalVariable() && !isAssigned(identifier)) {
+          result.add(identifier.symbol());
+        }
+      }
+      return result;
+    }
+
+    private static boolean isAssigned(IdentifierTree identifier) {
+      return identifier.parent() instanceof AssignmentExpressionTree assignment && assignment.variable() == identifier;
+    }
+  }
+
+  @Test
+  void generic_analysis_computes_the_same_liveness() {
+    MethodTreeImpl method = method("""
+      void foo(boolean b, int a) {
+        int i = 0;
+        int j = a;
+        while (b) {
+          if (i > 10) {
+            j = i;
+          }
+          i = j + 1;
+        }
+        use(i);
+      }
+      """);
+    CFG cfg = method.cfg();
+    DataflowResult<Set<Symbol>> result = Dataflow.analyze(cfg, ReadVariables.INSTANCE);
+    LiveVariables liveVariables = LiveVariables.analyze(cfg);
+    for (CFG.Block block : cfg.blocks()) {
+      assertThat(result.in(block)).as("in of B" + block.id()).containsExactlyInAnyOrderElementsOf(liveVariables.getIn(block));
+      assertThat(result.out(block)).as("out of B" + block.id()).containsExactlyInAnyOrderElementsOf(liveVariables.getOut(block));
+    }
+    assertThat(result.in(cfg.entryBlock()).stream().map(Symbol::name).collect(Collectors.toSet())).containsExactlyInAnyOrder("a", "b");
+  }
+
+  @Test
+  void blocks_of_other_graphs_are_rejected() {
+    ControlFlowGraph cfg = method("void foo() { use(0); }").cfg();
+    ControlFlowGraph.Block otherBlock = method("void bar() { use(1); }").cfg().entryBlock();
+    DataflowResult<Set<String>> genKill = Dataflow.analyze(cfg, new AssignedVariables(GenKillAnalysis.Confluence.UNION));
+    DataflowResult<Set<Symbol>> generic = Dataflow.analyze(cfg, ReadVariables.INSTANCE);
+    assertThatThrownBy(() -> genKill.in(otherBlock))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("B" + otherBlock.id() + " is not a block of the analyzed graph");
+    assertThatThrownBy(() -> generic.out(otherBlock)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void results_are_cached_by_method() {
+    MethodTreeImpl method = method("void foo(int a) { int b = a; use(b); }");
+    JavaFileScannerContext context = mock(JavaFileScannerContext.class, CALLS_REAL_METHODS);
+
+    DataflowResult<Set<String>> assigned = method.dataflow(new AssignedVariables(GenKillAnalysis.Confluence.UNION));
+    assertThat(method.dataflow(new AssignedVariables(GenKillAnalysis.Confluence.UNION))).isSameAs(assigned);
+    assertThat(method.dataflow(new AssignedVariables(GenKillAnalysis.Confluence.INTERSECTION))).isNotSameAs(assigned);
+    DataflowResult<Set<Symbol>> read = method.dataflow(ReadVariables.INSTANCE);
+    assertThat(method.dataflow(ReadVariables.INSTANCE)).isSameAs(read);
+    // without the cache of the analysis contexts, results are computed on each call
+    assertThat(context.dataflow(method, ReadVariables.INSTANCE)).isNotSameAs(read);
+    assertThat(context.dataflow(method, new AssignedVariables(GenKillAnalysis.Confluence.UNION)).in(method.cfg().exitBlock()))
+      .containsExactly("b");
+
+    MethodTree abstractMethod = method.parent() instanceof ClassTree classTree ? (MethodTree) classTree.members().get(0) : null;
+    assertThat(((MethodTreeImpl) abstractMethod).dataflow(ReadVariables.INSTANCE)).isNull();
+    assertThat(context.dataflow(abstractMethod, ReadVariables.INSTANCE)).isNull();
+    assertThat(context.dataflow(abstractMethod, new AssignedVariables(GenKillAnalysis.Confluence.UNION))).isNull();
+  }
+
+}
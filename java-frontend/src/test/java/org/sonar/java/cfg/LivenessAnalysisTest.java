@@ -0,0 +1,103 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LivenessAnalysisTest {
+
+  private static CFG buildCFG(String methodCode) {
+    CompilationUnitTree cut = JParserTestUtils.parse("class A { " + methodCode + " }");
+    MethodTree tree = ((MethodTree) ((ClassTree) cut.types().get(0)).members().get(0));
+    return (CFG) tree.cfg();
+  }
+
+  @Test
+  void symbols_beyond_a_single_word() {
+    String declarations = IntStream.range(0, 130).mapToObj(i -> "int v" + i + " = 0;").collect(Collectors.joining(" "));
+    String reads = IntStream.range(0, 130).filter(i -> i % 2 == 0).mapToObj(i -> "v" + i).collect(Collectors.joining(" + "));
+    CFG cfg = buildCFG("int foo(boolean b) { " + declarations + " if (b) { v1 = 1; } return " + reads + "; }");
+    LiveVariables liveness = LiveVariables.analyze(cfg);
+
+    Set<Symbol> live = liveness.getOut(cfg.entryBlock());
+    assertThat(live).hasSize(65);
+    assertThat(live.stream().map(Symbol::name))
+      .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 130).filter(i -> i % 2 == 0).mapToObj(i -> "v" + i).toList());
+    Symbol v128 = live.stream().filter(s -> "v128".equals(s.name())).findFirst().orElseThrow();
+    assertThat(live).contains(v128);
+    assertThat(liveness.getIn(cfg.exitBlock())).isEmpty();
+    assertThat(liveness.getOut(cfg.entryBlock())).isSameAs(live);
+  }
+
+  @Test
+  void views_are_read_only() {
+    CFG cfg = buildCFG("int foo(int a) { return a; }");
+    LiveVariables liveness = LiveVariables.analyze(cfg);
+    Set<Symbol> live = liveness.getIn(cfg.entryBlock());
+    assertThat(live).hasSize(1);
+    assertThat(live).doesNotContain((Symbol) null);
+    assertThatThrownBy(() -> live.add(live.iterator().next())).isInstanceOf(UnsupportedOperationException.class);
+    Iterator<Symbol> iterator = live.iterator();
+    iterator.next();
+    assertThat(iterator.hasNext()).isFalse();
+    assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @Test
+  void blocks_of_other_graphs_are_unknown() {
+    CFG cfg = buildCFG("void foo(int a) { foo(a); }");
+    CFG other = buildCFG("void bar(int a) { bar(a); }");
+    LiveVariables liveness = LiveVariables.analyze(cfg);
+    assertThat(liveness.getIn(other.entryBlock())).isNull();
+    assertThat(liveness.getOut(other.entryBlock())).isNull();
+  }
+
+  @Test
+  void loops_reach_a_fixpoint() {
+    CFG cfg = buildCFG("""
+      void foo(int a) {
+        int i = 0;
+        int j = 0;
+        while (i < a) {
+          i = j;
+          j = j + 1;
+        }
+      }
+      """);
+    LiveVariables liveness = LiveVariables.analyze(cfg);
+    Set<String> liveInLoop = cfg.blocks().stream()
+      .filter(block -> block.terminator() != null)
+      .flatMap(block -> liveness.getIn(block).stream())
+      .map(Symbol::name)
+      .collect(Collectors.toSet());
+    assertThat(liveInLoop).containsExactlyInAnyOrder("a", "i", "j");
+  }
+
+}
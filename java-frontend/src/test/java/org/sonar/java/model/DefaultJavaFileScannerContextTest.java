@@ -19,6 +19,7 @@ package org.sonar.java.model;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.java.regex.RegexCheck;
@@ -29,7 +30,12 @@ import org.sonar.java.reporting.FluentReporting;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.JavaFileScannerContext.Location;
 import org.sonar.plugins.java.api.SourceMap;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.DataflowAnalysis;
+import org.sonar.plugins.java.api.cfg.DataflowResult;
+import org.sonar.plugins.java.api.cfg.GenKillAnalysis;
 import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.VariableTree;
 import org.sonarsource.analyzer.commons.regex.ast.CurlyBraceQuantifier;
@@ -40,6 +46,7 @@ import org.sonarsource.analyzer.commons.regex.ast.RepetitionTree;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -313,6 +320,48 @@ class DefaultJavaFileScannerContextTest extends DefaultInputFileScannerContextTe
     assertThat(cc.getWriteCache()).isNotNull();
   }
 
+  @Test
+  void dataflow_results_are_computed_once_per_method() {
+    ClassTree classTree = (ClassTree) JParserTestUtils.parse("class A { void foo() { int a = 0; } }").types().get(0);
+    MethodTree method = (MethodTree) classTree.members().get(0);
+
+    DataflowResult<Set<String>> declared = context.dataflow(method, DeclaredVariables.INSTANCE);
+    assertThat(declared.out(method.cfg().entryBlock())).containsExactly("a");
+    assertThat(context.dataflow(method, DeclaredVariables.INSTANCE)).isSameAs(declared);
+
+    MethodTree otherImplementation = mock(MethodTree.class);
+    when(otherImplementation.cfg()).thenReturn(method.cfg());
+    assertThat(context.dataflow(otherImplementation, DeclaredVariables.INSTANCE)).isNotSameAs(declared);
+    DataflowAnalysis<Integer> countedBlocks = mock(DataflowAnalysis.class);
+    when(countedBlocks.direction()).thenReturn(DataflowAnalysis.Direction.FORWARD);
+    when(countedBlocks.initial()).thenReturn(0);
+    when(countedBlocks.boundary()).thenReturn(0);
+    when(countedBlocks.transfer(any(), any())).thenAnswer(invocation -> (Integer) invocation.getArgument(1) + 1);
+    assertThat(context.dataflow(otherImplementation, countedBlocks).out(method.cfg().exitBlock())).isEqualTo(2);
+    assertThat(context.dataflow(method, countedBlocks)).isSameAs(context.dataflow(method, countedBlocks));
+  }
+
+  private enum DeclaredVariables implements GenKillAnalysis<String> {
+    INSTANCE;
+
+    @Override
+    public DataflowAnalysis.Direction direction() {
+      return DataflowAnalysis.Direction.FORWARD;
+    }
+
+    @Override
+    public Confluence confluence() {
+      return Confluence.UNION;
+    }
+
+    @Override
+    public void collect(ControlFlowGraph.Block block, Set<String> kill, Set<String> gen) {
+      block.elements().stream()
+        .filter(VariableTree.class::isInstance)
+        .forEach(element -> gen.add(((VariableTree) element).simpleName().name()));
+    }
+  }
+
   private static void assertMessagePosition(AnalyzerMessage message, int startLine, int startColumn, int endLine, int endColumn) {
     TextSpan location = message.primaryLocation();
     assertThat(location.startLine).isEqualTo(startLine);
@@ -17,9 +17,13 @@
 package org.sonar.java.model;
 
 import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.sonar.plugins.java.api.location.Range;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia.CommentKind;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -56,6 +60,51 @@ class InternalSyntaxTokenTest {
       .isEqualTo(Range.at(10,8,13, 4));
   }
 
+  @Test
+  void tokens_of_a_parsed_file() {
+    CompilationUnitTree cut = JParserTestUtils.parse("class A {\r\n  // c1\r\n  /* c2\r\n */ String s = \"\"\"\n    x\n    \"\"\";\n}\n");
+    List<SyntaxToken> tokens = ((JavaTree) cut).allTokens();
+    assertThat(tokens).extracting(SyntaxToken::text)
+      .containsExactly("class", "A", "{", "String", "s", "=", "\"\"\"\n    x\n    \"\"\"", ";", "}", "");
+
+    SyntaxToken type = tokens.get(3);
+    assertThat(type.range()).isEqualTo(Range.at(4, 5, 4, 11));
+    assertThat(type.trivias()).extracting(SyntaxTrivia::comment).containsExactly("// c1", "/* c2\r\n */");
+    assertThat(type.trivias()).extracting(SyntaxTrivia::commentKind).containsExactly(CommentKind.LINE, CommentKind.BLOCK);
+    assertThat(type.trivias()).extracting(SyntaxTrivia::range).containsExactly(Range.at(2, 3, 2, 8), Range.at(3, 3, 4, 4));
+
+    SyntaxToken textBlock = tokens.get(6);
+    assertThat(textBlock.range()).isEqualTo(Range.at(4, 16, 6, 8));
+    assertThat(textBlock.trivias()).isEmpty();
+
+    InternalSyntaxToken eof = (InternalSyntaxToken) tokens.get(9);
+    assertThat(eof.isEOF()).isTrue();
+    assertThat(eof.range()).isEqualTo(Range.at(8, 1, 8, 1));
+    assertThat(((InternalSyntaxToken) tokens.get(8)).isEOF()).isFalse();
+  }
+
+  @Test
+  void range_is_computed_once() {
+    SyntaxToken token = token(42, 22, "foo");
+    assertThat(token.range()).isSameAs(token.range());
+
+    CompilationUnitTree cut = JParserTestUtils.parse("class A {\n  // c\n  int i;\n}\n");
+    SyntaxToken type = ((JavaTree) cut).allTokens().get(3);
+    assertThat(type.range()).isSameAs(type.range());
+    SyntaxTrivia comment = type.trivias().get(0);
+    assertThat(comment.range()).isSameAs(comment.range());
+  }
+
+  @Test
+  void closing_angle_brackets_split_from_tokens_of_the_lexer() {
+    CompilationUnitTree cut = JParserTestUtils.parse("class A {\n  java.util.List<java.util.List<String>> l;\n  <T> java.util.Map<T, String> m() { return null; }\n}\n");
+    List<SyntaxToken> closingTokens = ((JavaTree) cut).allTokens().stream()
+      .filter(token -> token.text().equals(">"))
+      .toList();
+    assertThat(closingTokens).extracting(SyntaxToken::range)
+      .containsExactly(Range.at(2, 39, 2, 40), Range.at(2, 40, 2, 41), Range.at(3, 5, 3, 6), Range.at(3, 30, 3, 31));
+  }
+
   private static InternalSyntaxToken token(int line, int column, String value) {
     int columnOffset = column - 1;
     return new InternalSyntaxToken(line, columnOffset, value, Collections.emptyList(), false);
@@ -16,10 +16,19 @@
  */
 package org.sonar.java.model;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.slf4j.event.Level;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.AnalysisProgress;
+import org.sonar.java.ExecutionTimeReport;
+import org.sonar.java.TestUtils;
 import org.sonar.java.testing.ThreadLocalLogTester;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -46,6 +55,47 @@ class JParserConfigTest {
     assertThat(shouldEnablePreviewFlag(JavaVersionImpl.fromString("1.8", "True"))).isTrue();
   }
 
+  @ParameterizedTest
+  @EnumSource(JParserConfig.Mode.class)
+  void phases_of_the_files_are_recorded_in_their_profile(JParserConfig.Mode mode) throws Exception {
+    List<InputFile> inputFiles = List.of(
+      TestUtils.inputFile("src/test/files/metrics/Classes.java"),
+      TestUtils.inputFile("src/test/files/metrics/Methods.java"));
+    List<JParserConfig.Result> results = new ArrayList<>();
+    ExecutionTimeReport executionTimeReport = new ExecutionTimeReport();
+
+    mode.create(new JavaVersionImpl(17), Collections.emptyList())
+      .withExecutionTimeReport(executionTimeReport)
+      .parse(inputFiles, () -> false, new AnalysisProgress(inputFiles.size()), (inputFile, result) -> results.add(result));
+
+    assertThat(results).hasSize(2);
+    for (JParserConfig.Result result : results) {
+      ExecutionTimeReport.FileProfile profile = result.profile();
+      assertThat(profile).isNotNull();
+      assertThat(profile.parseNanos()).isPositive();
+      assertThat(profile.convertNanos()).isPositive();
+      assertThat(profile.tokens()).isPositive();
+      assertThat(result.get()).isNotNull();
+      assertThat(profile.symbolTableNanos()).isZero();
+    }
+  }
+
+  @Test
+  void batch_mode_holds_a_live_tree_permit_until_the_file_is_analyzed() {
+    List<InputFile> inputFiles = List.of(
+      TestUtils.inputFile("src/test/files/metrics/Classes.java"),
+      TestUtils.inputFile("src/test/files/metrics/Methods.java"));
+    Semaphore liveTrees = new Semaphore(1);
+    List<Integer> availablePermits = new ArrayList<>();
+
+    JParserConfig.Mode.BATCH.create(new JavaVersionImpl(17), Collections.emptyList())
+      .withLiveTrees(liveTrees)
+      .parse(inputFiles, () -> false, new AnalysisProgress(inputFiles.size()), (inputFile, result) -> availablePermits.add(liveTrees.availablePermits()));
+
+    assertThat(availablePermits).containsExactly(0, 0);
+    assertThat(liveTrees.availablePermits()).isEqualTo(1);
+  }
+
   @Test
   void a_debug_message_is_logged_when_shouldIgnoreUnnamedModuleForSplitPackage_is_set() {
     JParserConfig.Mode.BATCH.create(new JavaVersionImpl(17), Collections.emptyList());
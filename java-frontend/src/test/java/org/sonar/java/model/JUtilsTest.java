@@ -18,6 +18,8 @@ package org.sonar.java.model;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.sonar.java.model.declaration.ClassTreeImpl;
@@ -255,6 +257,31 @@ class JUtilsTest {
     assertThat(((Symbol.VariableSymbol) symbol).isEffectivelyFinal()).isFalse();
   }
 
+  @Test
+  void method_matcher_results_are_computed_once_per_file() {
+    JavaTree.CompilationUnitTreeImpl cu = test("class A { void foo() { } void bar() { } }");
+    ClassTreeImpl a = firstClass(cu);
+    Symbol.MethodSymbol foo = firstMethod(a).symbol();
+    Symbol.MethodSymbol bar = nthMethod(a, 1).symbol();
+    Type type = a.symbol().type();
+    Object matcher = new Object();
+    AtomicInteger evaluations = new AtomicInteger();
+    BooleanSupplier isFoo = () -> evaluations.incrementAndGet() == 1;
+
+    assertThat(JUtils.methodMatcherResult(matcher, foo, type, isFoo)).isTrue();
+    assertThat(JUtils.methodMatcherResult(matcher, foo, type, isFoo)).isTrue();
+    assertThat(evaluations).hasValue(1);
+    assertThat(JUtils.methodMatcherResult(matcher, bar, type, isFoo)).isFalse();
+    assertThat(JUtils.methodMatcherResult(matcher, foo, OBJECT_TYPE, isFoo)).isFalse();
+    assertThat(JUtils.methodMatcherResult(new Object(), foo, type, isFoo)).isFalse();
+    assertThat(evaluations).hasValue(4);
+
+    // symbols which are not part of the semantic model of a file are evaluated on each call
+    Symbol.MethodSymbol unknown = Symbols.unknownMethodSymbol;
+    assertThat(JUtils.methodMatcherResult(matcher, unknown, type, () -> true)).isTrue();
+    assertThat(JUtils.methodMatcherResult(matcher, unknown, type, () -> false)).isFalse();
+  }
+
   @Nested
   class IsLocalVariable {
     private final JavaTree.CompilationUnitTreeImpl cu = test("""
@@ -83,4 +83,22 @@ class LineColumnConverterTest {
       "400:(201,0)");
   }
 
+  @Test
+  void test_to_pos_when_read_incrementally() {
+    char[] source = "a\r\nb\rc\n\nd".toCharArray();
+    var converter = new LineColumnConverter();
+    // the first read stops between '\r' and '\n', which are a single line separator
+    converter.readUpTo(source, 2);
+    converter.readUpTo(source, 3);
+    converter.readUpTo(source, 1);
+    converter.readUpTo(source, 7);
+    converter.complete(source);
+    var reference = new LineColumnConverter(source);
+    for (int i = 0; i <= source.length; i++) {
+      assertThat(converter.toPos(i)).as("position " + i).isEqualTo(reference.toPos(i));
+    }
+    assertThat(converter.toPos(3)).isEqualTo(new LineColumnConverter.Pos(2, 0));
+    assertThat(converter.toPos(8)).isEqualTo(new LineColumnConverter.Pos(5, 0));
+  }
+
 }
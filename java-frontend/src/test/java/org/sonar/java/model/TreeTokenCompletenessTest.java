@@ -16,11 +16,16 @@
  */
 package org.sonar.java.model;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Test;
@@ -48,6 +53,36 @@ class TreeTokenCompletenessTest {
       .isEqualTo(thisFileContent);
   }
 
+  @Test
+  void first_and_last_tokens_are_the_outermost_tokens_of_trees() {
+    JavaTree cut = (JavaTree) JParserTestUtils.parse(new File("src/main/java/org/sonar/java/model/JParser.java"));
+    Deque<JavaTree> trees = new ArrayDeque<>(List.of(cut));
+    int checkedTrees = 0;
+    while (!trees.isEmpty()) {
+      JavaTree tree = trees.pop();
+      if (tree.isLeaf() || tree.is(Tree.Kind.INFERED_TYPE)) {
+        continue;
+      }
+      List<SyntaxToken> tokens = new ArrayList<>();
+      collectTokens(tree, tokens);
+      if (!tokens.isEmpty()) {
+        assertThat(tree.firstToken()).isSameAs(tokens.stream().min(Comparator.comparing(Position::startOf)).orElseThrow());
+        assertThat(tree.lastToken()).isSameAs(tokens.stream().max(Comparator.comparing(Position::startOf)).orElseThrow());
+        checkedTrees++;
+      }
+      tree.getChildren().forEach(child -> trees.push((JavaTree) child));
+    }
+    assertThat(checkedTrees).isGreaterThan(10_000);
+  }
+
+  private static void collectTokens(JavaTree tree, List<SyntaxToken> tokens) {
+    if (tree instanceof SyntaxToken token) {
+      tokens.add(token);
+    } else if (!tree.is(Tree.Kind.INFERED_TYPE)) {
+      tree.getChildren().forEach(child -> collectTokens((JavaTree) child, tokens));
+    }
+  }
+
   private static String readFileFromSyntaxTree(InputFile inputFile) {
     TokenPrinter tokenPrinter = new TokenPrinter();
     JavaAstScanner.scanSingleFileForTests(inputFile, new VisitorsBridge(Collections.singletonList(tokenPrinter), Collections.emptyList(), null));
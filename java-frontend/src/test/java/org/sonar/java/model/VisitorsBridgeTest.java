@@ -17,6 +17,8 @@
 package org.sonar.java.model;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,13 +31,18 @@ import org.assertj.core.api.Fail;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.event.Level;
+import org.sonar.api.batch.fs.InputComponent;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.config.internal.MapSettings;
+import org.sonar.api.rule.RuleKey;
 import org.sonar.java.AnalysisException;
 import org.sonar.java.CheckFailureException;
+import org.sonar.java.ExecutionTimeReport;
+import org.sonar.java.RuleCostReport;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.TestUtils;
 import org.sonar.java.ast.visitors.SubscriptionVisitor;
@@ -43,10 +50,12 @@ import org.sonar.java.checks.EndOfAnalysisVisitor;
 import org.sonar.java.checks.VisitorThatCanBeSkipped;
 import org.sonar.java.exceptions.ApiMismatchException;
 import org.sonar.java.notchecks.VisitorNotInChecksPackage;
+import org.sonar.java.reporting.AnalyzerMessage;
 import org.sonar.java.testing.ThreadLocalLogTester;
 import org.sonar.plugins.java.api.DependencyVersionAware;
 import org.sonar.plugins.java.api.InputFileScannerContext;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
+import org.sonar.plugins.java.api.JavaCheck;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.JavaVersion;
@@ -55,15 +64,21 @@ import org.sonar.plugins.java.api.ModuleScannerContext;
 import org.sonar.plugins.java.api.Version;
 import org.sonar.plugins.java.api.caching.CacheContext;
 import org.sonar.plugins.java.api.internal.EndOfAnalysis;
+import org.sonar.plugins.java.api.internal.SymbolicExecutionScanner;
+import org.sonar.plugins.java.api.internal.ThreadSafeVisitor;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
+import org.sonarsource.performance.measure.PerformanceMeasure;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -452,6 +467,228 @@ class VisitorsBridgeTest {
       .containsExactly("Optimized analysis for 1 of 1 files.");
   }
 
+  @Test
+  void subscription_visitors_are_dispatched_the_trees_of_their_subscribed_kinds() {
+    CompilationUnitTree tree = JParserTestUtils.parse("class A { void f() { String s = \"a\"; ; } } // trivia");
+    KindsCollector nodes = new KindsCollector(Kind.METHOD, Kind.STRING_LITERAL, Kind.EMPTY_STATEMENT);
+    KindsCollector tokens = new KindsCollector(Kind.TOKEN);
+    KindsCollector trivias = new KindsCollector(Kind.TRIVIA);
+
+    new VisitorsBridge(List.of(nodes, tokens, trivias), new ArrayList<>(), null).visitFile(tree, false);
+
+    assertThat(nodes.visited).containsExactly(
+      "visit METHOD", "visit STRING_LITERAL", "leave STRING_LITERAL", "visit EMPTY_STATEMENT", "leave EMPTY_STATEMENT", "leave METHOD");
+    assertThat(tokens.visited).containsExactly(
+      "token class", "token A", "token {", "token void", "token f", "token (", "token )", "token {", "token String", "token s", "token =", "token \"a\"",
+      "token ;", "token ;", "token }", "token }", "token ");
+    assertThat(trivias.visited).containsExactly("trivia // trivia");
+  }
+
+  @Test
+  void trees_made_of_tokens_only_are_dispatched_when_no_visitor_subscribed_to_tokens() {
+    CompilationUnitTree tree = JParserTestUtils.parse("class A { void f() { String s = \"a\"; ; } }");
+    KindsCollector nodes = new KindsCollector(Kind.STRING_LITERAL, Kind.EMPTY_STATEMENT);
+
+    new VisitorsBridge(List.of(nodes), new ArrayList<>(), null).visitFile(tree, false);
+
+    assertThat(nodes.visited).containsExactly("visit STRING_LITERAL", "leave STRING_LITERAL", "visit EMPTY_STATEMENT", "leave EMPTY_STATEMENT");
+  }
+
+  @Test
+  void subscription_visitors_are_measured_when_performance_measure_is_enabled() {
+    SonarComponents specificSonarComponents = mock(SonarComponents.class);
+    doReturn(true).when(specificSonarComponents).isSonarLintContext();
+    doReturn(true).when(specificSonarComponents).isPerformanceMeasureEnabled();
+    KindsCollector nodes = new KindsCollector(Kind.CLASS);
+    VisitorsBridge visitorsBridge = new VisitorsBridge(List.of(nodes), new ArrayList<>(), specificSonarComponents);
+    visitorsBridge.setCurrentFile(INPUT_FILE);
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+
+    verify(specificSonarComponents).isPerformanceMeasureEnabled();
+    assertThat(nodes.visited).containsExactly("visit CLASS", "leave CLASS");
+  }
+
+  @Test
+  void rule_costs_are_measured_by_rule_and_by_file_when_activated() {
+    class FileScanner implements JavaFileScanner {
+      int scannedFiles = 0;
+
+      @Override
+      public void scanFile(JavaFileScannerContext context) {
+        scannedFiles++;
+      }
+    }
+    SonarComponents specificSonarComponents = mock(SonarComponents.class);
+    doReturn(true).when(specificSonarComponents).isSonarLintContext();
+    RuleCostReport ruleCostReport = new RuleCostReport(null);
+    doReturn(ruleCostReport).when(specificSonarComponents).ruleCostReport();
+    KindsCollector nodes = new KindsCollector(Kind.CLASS, Kind.METHOD);
+    FileScanner scanner = new FileScanner();
+    doReturn(Optional.of(RuleKey.of("java", "S42"))).when(specificSonarComponents).getRuleKey(nodes);
+    VisitorsBridge visitorsBridge = new VisitorsBridge(List.of(nodes, scanner), new ArrayList<>(), specificSonarComponents);
+    visitorsBridge.setCurrentFile(INPUT_FILE);
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+
+    assertThat(nodes.visited).containsExactly(
+      "visit CLASS", "visit METHOD", "leave METHOD", "leave CLASS",
+      "visit CLASS", "visit METHOD", "leave METHOD", "leave CLASS");
+    assertThat(scanner.scannedFiles).isEqualTo(2);
+    // setContext, visit and leave of the class and of the method, leaveFile
+    RuleCostReport.RuleCost nodesCost = ruleCostReport.costOf("java:S42");
+    assertThat(nodesCost.calls()).isEqualTo(12L);
+    assertThat(nodesCost.files()).isEqualTo(2);
+    RuleCostReport.RuleCost scannerCost = ruleCostReport.costOf(FileScanner.class.getName());
+    assertThat(scannerCost.calls()).isEqualTo(2L);
+    assertThat(scannerCost.files()).isEqualTo(2);
+    assertThat(scannerCost.cpuNanos()).isNotNegative();
+    assertThat(scannerCost.allocatedBytes()).isNotNegative();
+  }
+
+  @Test
+  void subscription_visitors_are_measured_when_both_performance_measure_and_rule_costs_are_enabled(@TempDir Path measureDir) throws IOException {
+    SonarComponents specificSonarComponents = mock(SonarComponents.class);
+    doReturn(true).when(specificSonarComponents).isSonarLintContext();
+    doReturn(true).when(specificSonarComponents).isPerformanceMeasureEnabled();
+    RuleCostReport ruleCostReport = new RuleCostReport(null);
+    doReturn(ruleCostReport).when(specificSonarComponents).ruleCostReport();
+    KindsCollector nodes = new KindsCollector(Kind.CLASS);
+    doReturn(Optional.of(RuleKey.of("java", "S42"))).when(specificSonarComponents).getRuleKey(nodes);
+    VisitorsBridge visitorsBridge = new VisitorsBridge(List.of(nodes), new ArrayList<>(), specificSonarComponents);
+    visitorsBridge.setCurrentFile(INPUT_FILE);
+    Path measureFile = measureDir.resolve("measure.json");
+    PerformanceMeasure.Duration analysisDuration = PerformanceMeasure.reportBuilder()
+      .activate(true)
+      .toFile(measureFile.toString())
+      .start("Analysis");
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+    analysisDuration.stop();
+
+    assertThat(nodes.visited).containsExactly("visit CLASS", "leave CLASS");
+    // setContext, visit and leave of the class, leaveFile
+    assertThat(ruleCostReport.costOf("java:S42").calls()).isEqualTo(4L);
+    assertThat(Files.readString(measureFile)).contains("\"KindsCollector\"");
+  }
+
+  @Test
+  void phases_of_the_analysis_are_recorded_in_the_profile_of_the_file() {
+    FakeSymbolicExecution symbolicExecution = new FakeSymbolicExecution();
+    KindsCollector nodes = new KindsCollector(Kind.CLASS, Kind.METHOD);
+    VisitorsBridge visitorsBridge = new VisitorsBridge(List.of(nodes, symbolicExecution), new ArrayList<>(), null);
+    ExecutionTimeReport executionTimeReport = new ExecutionTimeReport();
+    executionTimeReport.start(INPUT_FILE);
+    ExecutionTimeReport.FileProfile profile = executionTimeReport.currentProfile();
+    visitorsBridge.setCurrentFile(INPUT_FILE);
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false, profile);
+    executionTimeReport.end();
+
+    assertThat(nodes.visited).containsExactly("visit CLASS", "visit METHOD", "leave METHOD", "leave CLASS");
+    assertThat(symbolicExecution.scannedFiles).isEqualTo(1);
+    assertThat(profile.symbolTableNanos()).isPositive();
+    assertThat(profile.scannersNanos()).isPositive();
+    assertThat(profile.symbolicExecutionNanos()).isPositive();
+    assertThat(profile.parseNanos()).isZero();
+    assertThat(profile.allocatedBytes()).isNotNegative();
+  }
+
+  @Test
+  void thread_safe_visitors_walk_the_tree_in_concurrent_groups() {
+    SonarComponents specificSonarComponents = sonarComponentsWithConcurrentVisitorGroups(2, false);
+    List<Thread> reportingThreads = new ArrayList<>();
+    List<String> reportedMessages = new ArrayList<>();
+    doAnswer(invocation -> {
+      reportingThreads.add(Thread.currentThread());
+      reportedMessages.add(invocation.<AnalyzerMessage>getArgument(0).getMessage());
+      return null;
+    }).when(specificSonarComponents).reportIssue(any(AnalyzerMessage.class));
+
+    ReportingClassVisitor serial = new ReportingClassVisitor("serial");
+    ThreadSafeReportingClassVisitor first = new ThreadSafeReportingClassVisitor("first");
+    ThreadSafeReportingClassVisitor second = new ThreadSafeReportingClassVisitor("second");
+    ThreadSafeReportingClassVisitor third = new ThreadSafeReportingClassVisitor("third");
+    VisitorsBridge visitorsBridge = new VisitorsBridge(List.of(serial, first, second, third), new ArrayList<>(), specificSonarComponents);
+    visitorsBridge.setCurrentFile(INPUT_FILE);
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+    visitorsBridge.endOfAnalysis();
+
+    Thread scanningThread = Thread.currentThread();
+    assertThat(serial.visitingThreads).containsOnly(scanningThread);
+    assertThat(first.visitingThreads).isNotEmpty().doesNotContain(scanningThread);
+    assertThat(second.visitingThreads).isNotEmpty().doesNotContain(scanningThread);
+    assertThat(third.visitingThreads).isNotEmpty().doesNotContain(scanningThread);
+    assertThat(first.visitingThreads).isEqualTo(third.visitingThreads);
+    // issues are saved from the scanning thread: first the ones of the serial walk, then the ones of each group in order
+    assertThat(reportingThreads).containsOnly(scanningThread);
+    assertThat(reportedMessages).containsExactly("serial", "first", "third", "second");
+  }
+
+  @Test
+  void issues_on_the_project_reported_by_concurrent_groups_are_saved_from_the_scanning_thread() {
+    SonarComponents specificSonarComponents = sonarComponentsWithConcurrentVisitorGroups(2, false);
+    InputComponent project = mock(InputComponent.class);
+    doReturn(project).when(specificSonarComponents).project();
+    List<Thread> reportingThreads = new ArrayList<>();
+    doAnswer(invocation -> {
+      reportingThreads.add(Thread.currentThread());
+      return null;
+    }).when(specificSonarComponents).addIssue(any(InputComponent.class), any(JavaCheck.class), anyInt(), anyString(), any());
+
+    ThreadSafeProjectIssueVisitor visitor = new ThreadSafeProjectIssueVisitor();
+    VisitorsBridge visitorsBridge = new VisitorsBridge(List.of(visitor), new ArrayList<>(), specificSonarComponents);
+    visitorsBridge.setCurrentFile(INPUT_FILE);
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+
+    verify(specificSonarComponents, times(1)).addIssue(project, visitor, -1, "project", 0);
+    assertThat(reportingThreads).containsOnly(Thread.currentThread());
+  }
+
+  @Test
+  void thread_safe_visitors_are_run_on_the_scanning_thread_without_concurrent_groups() {
+    SonarComponents specificSonarComponents = sonarComponentsWithConcurrentVisitorGroups(0, false);
+    ThreadSafeReportingClassVisitor visitor = new ThreadSafeReportingClassVisitor("message");
+    VisitorsBridge visitorsBridge = new VisitorsBridge(List.of(visitor), new ArrayList<>(), specificSonarComponents);
+    visitorsBridge.setCurrentFile(INPUT_FILE);
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+
+    assertThat(visitor.visitingThreads).containsOnly(Thread.currentThread());
+    verify(specificSonarComponents, times(1)).reportIssue(any(AnalyzerMessage.class));
+  }
+
+  @Test
+  void failure_of_a_concurrent_group_is_rethrown_when_failing_fast() {
+    SonarComponents specificSonarComponents = sonarComponentsWithConcurrentVisitorGroups(2, true);
+    ReportingClassVisitor serial = new ReportingClassVisitor("serial");
+    VisitorsBridge visitorsBridge = new VisitorsBridge(List.of(serial, new ThreadSafeThrowingNPEVisitingClass()), new ArrayList<>(), specificSonarComponents);
+    visitorsBridge.setCurrentFile(INPUT_FILE);
+
+    assertThatThrownBy(() -> visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false))
+      .isInstanceOf(AnalysisException.class)
+      .hasMessage("Failing check")
+      .rootCause()
+      .isSameAs(NPE);
+    // the serial walk is not interrupted by the failure of a concurrent group
+    verify(specificSonarComponents, times(1)).reportIssue(any(AnalyzerMessage.class));
+  }
+
+  @Test
+  void failure_of_a_concurrent_group_does_not_prevent_other_issues_from_being_saved() {
+    SonarComponents specificSonarComponents = sonarComponentsWithConcurrentVisitorGroups(2, false);
+    ThreadSafeReportingClassVisitor visitor = new ThreadSafeReportingClassVisitor("message");
+    VisitorsBridge visitorsBridge = new VisitorsBridge(List.of(new ThreadSafeThrowingNPEVisitingClass(), visitor), new ArrayList<>(), specificSonarComponents);
+    visitorsBridge.setCurrentFile(INPUT_FILE);
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+
+    verify(specificSonarComponents, times(1)).reportIssue(any(AnalyzerMessage.class));
+  }
+
+  private static SonarComponents sonarComponentsWithConcurrentVisitorGroups(int concurrentVisitorGroups, boolean failOnException) {
+    SonarComponents specificSonarComponents = mock(SonarComponents.class);
+    doReturn(true).when(specificSonarComponents).isSonarLintContext();
+    doReturn(concurrentVisitorGroups).when(specificSonarComponents).getConcurrentVisitorGroups();
+    doReturn(failOnException).when(specificSonarComponents).shouldFailAnalysisOnException();
+    return specificSonarComponents;
+  }
+
   @Nested
   class ScanWithoutParsing {
 
@@ -586,6 +823,26 @@ class VisitorsBridgeTest {
       assertThat(logTester.logs(Level.WARN)).containsExactly(expectedLogMessage);
     }
 
+    @Test
+    void endOfAnalysis_logs_the_scanners_requiring_unchanged_files_to_be_parsed() throws ApiMismatchException {
+      SonarComponents specificSonarComponents = mock(SonarComponents.class);
+      doReturn(true).when(specificSonarComponents).fileCanBeSkipped(any(InputFile.class));
+      doReturn(true).when(specificSonarComponents).canSkipUnchangedFiles();
+      VisitorsBridge visitorsBridge = new VisitorsBridge(
+        List.of(new ScannerThatCannotScanWithoutParsing(), new IsvThatCannotScanWithoutParsing(), new DefaultEndOfAnalysisCheck()),
+        Collections.emptyList(),
+        specificSonarComponents
+      );
+
+      visitorsBridge.scanWithoutParsing(mock(InputFile.class));
+      visitorsBridge.scanWithoutParsing(mock(InputFile.class));
+      visitorsBridge.endOfAnalysis();
+
+      assertThat(logTester.logs(Level.INFO)).containsExactly(
+        "Scanners requiring unchanged files to be parsed, with their number of files: " +
+          "org.sonar.java.model.VisitorsBridgeTest$IsvThatCannotScanWithoutParsing (2), org.sonar.java.model.VisitorsBridgeTest$ScannerThatCannotScanWithoutParsing (2)");
+    }
+
     private boolean scan_without_parsing(JavaFileScanner scanner) throws ApiMismatchException {
       SonarComponents specificSonarComponents = mock(SonarComponents.class);
       doReturn(true).when(specificSonarComponents).fileCanBeSkipped(any(InputFile.class));
@@ -727,6 +984,103 @@ class VisitorsBridgeTest {
     }
   }
 
+  private static class KindsCollector extends IssuableSubscriptionVisitor {
+    final List<String> visited = new ArrayList<>();
+    private final List<Tree.Kind> kinds;
+
+    KindsCollector(Tree.Kind... kinds) {
+      this.kinds = List.of(kinds);
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return kinds;
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      visited.add("visit " + tree.kind());
+    }
+
+    @Override
+    public void leaveNode(Tree tree) {
+      visited.add("leave " + tree.kind());
+    }
+
+    @Override
+    public void visitToken(SyntaxToken syntaxToken) {
+      visited.add("token " + syntaxToken.text());
+    }
+
+    @Override
+    public void visitTrivia(SyntaxTrivia syntaxTrivia) {
+      visited.add("trivia " + syntaxTrivia.comment());
+    }
+  }
+
+  private static class FakeSymbolicExecution implements JavaFileScanner, SymbolicExecutionScanner {
+    int scannedFiles = 0;
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      scannedFiles++;
+    }
+  }
+
+  @org.sonar.check.Rule(key = "RV")
+  private static class ReportingClassVisitor extends IssuableSubscriptionVisitor {
+    // only accessed by a single thread at a time, the end of the walks is awaited before asserting
+    final List<Thread> visitingThreads = new ArrayList<>();
+    private final String message;
+
+    ReportingClassVisitor(String message) {
+      this.message = message;
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return Collections.singletonList(Tree.Kind.CLASS);
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      visitingThreads.add(Thread.currentThread());
+      reportIssue(tree, message);
+    }
+  }
+
+  private static class ThreadSafeReportingClassVisitor extends ReportingClassVisitor implements ThreadSafeVisitor {
+    ThreadSafeReportingClassVisitor(String message) {
+      super(message);
+    }
+  }
+
+  @org.sonar.check.Rule(key = "TS2")
+  private static class ThreadSafeProjectIssueVisitor extends IssuableSubscriptionVisitor implements ThreadSafeVisitor {
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return Collections.singletonList(Tree.Kind.CLASS);
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      context.addIssueOnProject(this, "project");
+    }
+  }
+
+  @org.sonar.check.Rule(key = "TS1")
+  private static class ThreadSafeThrowingNPEVisitingClass extends IssuableSubscriptionVisitor implements ThreadSafeVisitor {
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return Collections.singletonList(Tree.Kind.CLASS);
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      throw NPE;
+    }
+  }
+
   private static class VisitorWithIncompatibleVersion extends IssuableSubscriptionVisitor implements EndOfAnalysis, JavaVersionAwareVisitor {
     @Override
     public List<Kind> nodesToVisit() {
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import org.junit.jupiter.api.Test;
 import org.sonar.api.batch.fs.InputFile;
@@ -244,6 +245,54 @@ class MethodMatchersTest {
     assertThat(findMatchesOnSymbol(source, MethodMatchers.none())).isEmpty();
   }
 
+  @Test
+  void test_or_of_named_and_unnamed_matchers() {
+    String source = "" +
+      /* 01 */ "package pkg;\n" +
+      /* 02 */ "class A { \n" +
+      /* 03 */ "  void f(int x) { }\n" +
+      /* 04 */ "  void g(int x) { }\n" +
+      /* 05 */ "  void h(int x) { }\n" +
+      /* 06 */ "  void main() {\n" +
+      /* 07 */ "    f(1);\n" +
+      /* 08 */ "    g(1);\n" +
+      /* 09 */ "    h(1);\n" +
+      /* 10 */ "    new A();\n" +
+      /* 11 */ "  }\n" +
+      /* 12 */ "} \n";
+
+    MethodMatchers matcher = MethodMatchers.or(
+      MethodMatchers.create().ofTypes("pkg.A").names("f").addParametersMatcher("int").build(),
+      MethodMatchers.or(
+        MethodMatchers.create().ofTypes("pkg.A").name(name -> name.startsWith("h")).withAnyParameters().build(),
+        MethodMatchers.create().ofTypes("pkg.A").constructor().withAnyParameters().build()),
+      MethodMatchers.create().ofTypes("pkg.A").anyName().addParametersMatcher().build());
+    assertThat(findMatchesOnTree(source, matcher)).containsExactly(3, 5, 6, 7, 9, 10);
+    assertThat(findMatchesOnSymbol(source, matcher)).containsExactly(3, 5, 6, 7, 9, 10);
+  }
+
+  @Test
+  void custom_predicates_are_evaluated_on_each_match() {
+    String source = "" +
+      /* 01 */ "package pkg;\n" +
+      /* 02 */ "class A { \n" +
+      /* 03 */ "  void f() {\n" +
+      /* 04 */ "    f();\n" +
+      /* 05 */ "    f();\n" +
+      /* 06 */ "  }\n" +
+      /* 07 */ "} \n";
+
+    AtomicInteger evaluations = new AtomicInteger();
+    MethodMatchers matcher = MethodMatchers.create()
+      .ofType(type -> evaluations.incrementAndGet() > 0 && type.is("pkg.A"))
+      .names("f")
+      .addWithoutParametersMatcher()
+      .build();
+    assertThat(findMatchesOnTree(source, matcher)).containsExactly(3, 4, 5);
+    assertThat(evaluations).hasValue(3);
+
+  }
+
   @Test
   void test_inheritance() {
     String source = "" +
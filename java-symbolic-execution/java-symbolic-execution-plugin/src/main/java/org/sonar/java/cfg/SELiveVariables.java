@@ -17,12 +17,7 @@
 package org.sonar.java.cfg;
 
 import java.util.Collections;
-import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
@@ -37,70 +32,27 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
 import org.sonar.plugins.java.api.tree.VariableTree;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
-import org.sonarsource.analyzer.commons.collections.SetUtils;
 
 public class SELiveVariables {
 
   private final ControlFlowGraph cfg;
-  private final Map<ControlFlowGraph.Block, Set<Symbol>> out = new HashMap<>();
-  private final Map<ControlFlowGraph.Block, Set<Symbol>> in = new HashMap<>();
+  private LivenessAnalysis liveness;
 
   private SELiveVariables(ControlFlowGraph cfg) {
     this.cfg = cfg;
   }
 
-  private void analyzeControlFlowGraph(Map<ControlFlowGraph.Block, Set<Symbol>> in, Map<ControlFlowGraph.Block, Set<Symbol>> kill, Map<ControlFlowGraph.Block, Set<Symbol>> gen) {
-    Deque<ControlFlowGraph.Block> workList = new LinkedList<>();
-    workList.addAll(cfg.reversedBlocks());
-    while (!workList.isEmpty()) {
-      ControlFlowGraph.Block block = workList.removeFirst();
-
-      Set<Symbol> blockOut = out.computeIfAbsent(block, k -> new HashSet<>());
-      block.successors().stream().map(in::get).filter(Objects::nonNull).forEach(blockOut::addAll);
-      block.exceptions().stream().map(in::get).filter(Objects::nonNull).forEach(blockOut::addAll);
-      // in = gen and (out - kill)
-      Set<Symbol> newIn = new HashSet<>(gen.get(block));
-      newIn.addAll(SetUtils.difference(blockOut, kill.get(block)));
-
-      if (newIn.equals(in.get(block))) {
-        continue;
-      }
-      in.put(block, newIn);
-      block.predecessors().forEach(workList::addLast);
-    }
-  }
-
   /**
    * Returns SELiveVariables object with information concerning local variables and parameters
    */
   public static SELiveVariables analyze(ControlFlowGraph cfg) {
     SELiveVariables liveVariables = new SELiveVariables(cfg);
-    // Generate kill/gen for each block in isolation
-    Map<ControlFlowGraph.Block, Set<Symbol>> kill = new HashMap<>();
-    Map<ControlFlowGraph.Block, Set<Symbol>> gen = new HashMap<>();
-    for (ControlFlowGraph.Block block : liveVariables.cfg.reversedBlocks()) {
-      Set<Symbol> blockKill = new HashSet<>();
-      Set<Symbol> blockGen = new HashSet<>();
-      liveVariables.processBlockElements(block, blockKill, blockGen);
-      kill.put(block, blockKill);
-      gen.put(block, blockGen);
-    }
-    liveVariables.analyzeControlFlowGraph(liveVariables.in, kill, gen);
-    // out of exit block are empty by definition.
-    if (!liveVariables.out.get(liveVariables.cfg.reversedBlocks().get(0)).isEmpty()) {
-      throw new IllegalStateException("Out of exit block should be empty");
-    }
-
-    // Make things immutable.
-    for (Map.Entry<ControlFlowGraph.Block, Set<Symbol>> blockSetEntry : liveVariables.out.entrySet()) {
-      blockSetEntry.setValue(Collections.unmodifiableSet(blockSetEntry.getValue()));
-    }
-
+    liveVariables.liveness = LivenessAnalysis.analyze(cfg, liveVariables::processBlockElements);
     return liveVariables;
   }
 
   public Set<Symbol> getOut(ControlFlowGraph.Block block) {
-    return out.get(block);
+    return liveness.getOut(block);
   }
 
   private static void processAssignment(AssignmentExpressionTree element, Set<Symbol> blockKill, Set<Symbol> blockGen, Set<Tree> assignmentLHS) {
@@ -115,6 +115,9 @@ public class ExplodedGraph {
 
     @Override
     public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
       if (obj instanceof Node other) {
         return this.programPoint.equals(other.programPoint)
           && Objects.equals(this.programState, other.programState);
@@ -20,15 +20,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
@@ -99,10 +100,6 @@ import static org.sonar.plugins.java.api.semantic.SymbolMetadata.NullabilityLeve
 
 public class ExplodedGraphWalker {
 
-  /**
-   * Arbitrary number to limit symbolic execution.
-   */
-  private static final int MAX_STEPS = 16_000;
   public static final int MAX_NESTED_BOOLEAN_STATES = 10_000;
   // would correspond to 10 parameters annotated with @Nullable
   private static final int MAX_STARTING_STATES = 1_024;
@@ -134,7 +131,7 @@ public class ExplodedGraphWalker {
   private ExplodedGraph explodedGraph;
 
   @VisibleForTesting
-  Deque<ExplodedGraph.Node> workList;
+  Queue<ExplodedGraph.Node> workList;
   ExplodedGraph.Node node;
   ProgramPoint programPosition;
   ProgramState programState;
@@ -147,6 +144,10 @@ public class ExplodedGraphWalker {
   private final BehaviorCache behaviorCache;
   @VisibleForTesting
   int steps;
+  private ExplorationSettings settings = ExplorationSettings.DEFAULT;
+  @VisibleForTesting
+  LongSupplier nanoTimeProvider = System::nanoTime;
+  private long deadline;
 
   ConstraintManager constraintManager;
   private boolean cleanup = true;
@@ -205,6 +206,11 @@ public class ExplodedGraphWalker {
     this.semanticModel = (Sema) context.getSemanticModel();
   }
 
+  ExplodedGraphWalker withSettings(ExplorationSettings settings) {
+    this.settings = settings;
+    return this;
+  }
+
   public MethodBehavior visitMethod(MethodTree tree) {
     return visitMethod(tree, null);
   }
@@ -237,17 +243,18 @@ public class ExplodedGraphWalker {
     explodedGraph = new ExplodedGraph();
     methodTree = tree;
     constraintManager = new ConstraintManager();
-    workList = new LinkedList<>();
+    workList = WorkList.create(settings.strategy());
     // Linked hashSet is required to guarantee order of yields to be generated
     endOfExecutionPath = new LinkedHashSet<>();
     programState = ProgramState.EMPTY_STATE;
     steps = 0;
+    deadline = settings.hasTimeBudget() ? nanoTimeProvider.getAsLong() + TimeUnit.MILLISECONDS.toNanos(settings.timeBudgetMillis()) : 0L;
     enqueueStartingStates(tree, cfg);
     while (!workList.isEmpty()) {
       steps++;
       throwExceptionIfMaxStepsHasBeenReached(tree);
-      // LIFO:
-      setNode(workList.removeFirst());
+      throwExceptionIfTimeBudgetHasBeenExceeded(tree);
+      setNode(workList.remove());
       Block block = programPosition.block;
       if (block.successors().isEmpty()) {
         endOfExecutionPath.add(node);
@@ -330,6 +337,16 @@ public class ExplodedGraphWalker {
     }
   }
 
+  private void throwExceptionIfTimeBudgetHasBeenExceeded(MethodTree tree) {
+    if (settings.hasTimeBudget() && nanoTimeProvider.getAsLong() - deadline > 0) {
+      String message = String.format("exceeded time budget of %d ms after %d steps for method %s#%d in class %s",
+        settings.timeBudgetMillis(), steps, tree.simpleName().name(), SELineUtils.startLine(tree.simpleName()), tree.symbol().owner().name());
+      MaximumStepsReachedException cause = new MaximumStepsReachedException(message);
+      interrupted(cause);
+      throw cause;
+    }
+  }
+
   private void interrupted(Exception cause) {
     handleEndOfExecutionPath(true);
     checkerDispatcher.interruptedExecution(cause);
@@ -1277,7 +1294,7 @@ public class ExplodedGraphWalker {
     }
     cachedNode.exitPath = exitPath;
     cachedNode.addParent(node, methodYield);
-    workList.addFirst(cachedNode);
+    workList.add(cachedNode);
   }
 
   private static boolean isRestartingForEachLoop(ProgramPoint programPoint) {
@@ -1295,7 +1312,7 @@ public class ExplodedGraphWalker {
 
   @VisibleForTesting
   protected int maxSteps() {
-    return MAX_STEPS;
+    return settings.maxSteps();
   }
 
   AlwaysTrueOrFalseExpressionCollector alwaysTrueOrFalseExpressionCollector() {
@@ -1311,8 +1328,14 @@ public class ExplodedGraphWalker {
 
     @VisibleForTesting
     final List<SECheck> seChecks = new ArrayList<>();
+    private final ExplorationSettings settings;
 
     public ExplodedGraphWalkerFactory(List<SECheck> activeSEChecks) {
+      this(activeSEChecks, ExplorationSettings.DEFAULT);
+    }
+
+    public ExplodedGraphWalkerFactory(List<SECheck> activeSEChecks, ExplorationSettings settings) {
+      this.settings = settings;
       List<SECheck> checks = new ArrayList<>(activeSEChecks);
 
       // This order of the mandatory SE checks is required by the ExplodedGraphWalker
@@ -1330,7 +1353,24 @@ public class ExplodedGraphWalker {
     }
 
     public ExplodedGraphWalker createWalker(BehaviorCache behaviorCache, JavaFileScannerContext context) {
-      return new ExplodedGraphWalker(seChecks, behaviorCache, context);
+      return new ExplodedGraphWalker(seChecks, behaviorCache, context).withSettings(settings);
+    }
+
+    /**
+     * Hands the issues raised by the checks of this factory over to the corresponding checks of the given factory,
+     * both factories having been created from instances of the same checks, in the same order.
+     */
+    void transferIssuesTo(ExplodedGraphWalkerFactory factory) {
+      for (int i = 0; i < seChecks.size(); i++) {
+        seChecks.get(i).transferIssuesTo(factory.seChecks.get(i));
+      }
+    }
+
+    /**
+     * Ends the scan of the file by the checks of this factory, which are expected to have no issue left to report.
+     */
+    void endOfFile(JavaFileScannerContext context) {
+      seChecks.forEach(check -> check.scanFile(context));
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,89 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.Objects;
+import org.sonar.java.Preconditions;
+
+/**
+ * Bounds the symbolic execution of a method: the exploration of the method is interrupted as soon as it takes more than
+ * {@link #maxSteps()} steps or, when a time budget is set, more than {@link #timeBudgetMillis()} milliseconds.
+ * <p>
+ * The methods of a file are explored one after the other, unless a {@link #parallelism()} greater than 1 is set.
+ */
+public final class ExplorationSettings {
+
+  /**
+   * Arbitrary number to limit symbolic execution.
+   */
+  public static final int DEFAULT_MAX_STEPS = 16_000;
+  public static final ExplorationSettings DEFAULT = new ExplorationSettings(DEFAULT_MAX_STEPS, 0L, WorkListStrategy.DEPTH_FIRST);
+
+  private final int maxSteps;
+  private final long timeBudgetMillis;
+  private final WorkListStrategy strategy;
+  private final int parallelism;
+
+  /**
+   * @param timeBudgetMillis maximum wall-clock time spent on a method, no limit when zero or negative
+   */
+  public ExplorationSettings(int maxSteps, long timeBudgetMillis, WorkListStrategy strategy) {
+    this(maxSteps, timeBudgetMillis, strategy, 1);
+  }
+
+  /**
+   * @param parallelism number of methods of a file explored concurrently
+   */
+  public ExplorationSettings(int maxSteps, long timeBudgetMillis, WorkListStrategy strategy, int parallelism) {
+    Preconditions.checkArgument(maxSteps > 0, "The maximum number of steps should be strictly positive, got " + maxSteps);
+    Preconditions.checkArgument(parallelism > 0, "The parallelism should be strictly positive, got " + parallelism);
+    this.maxSteps = maxSteps;
+    this.timeBudgetMillis = Math.max(0L, timeBudgetMillis);
+    this.strategy = Objects.requireNonNull(strategy);
+    this.parallelism = parallelism;
+  }
+
+  public int maxSteps() {
+    return maxSteps;
+  }
+
+  public long timeBudgetMillis() {
+    return timeBudgetMillis;
+  }
+
+  public boolean hasTimeBudget() {
+    return timeBudgetMillis > 0L;
+  }
+
+  public WorkListStrategy strategy() {
+    return strategy;
+  }
+
+  public int parallelism() {
+    return parallelism;
+  }
+
+  public boolean isParallel() {
+    return parallelism > 1;
+  }
+
+  @Override
+  public String toString() {
+    return "maxSteps=" + maxSteps + ", timeBudgetMillis=" + timeBudgetMillis + ", strategy=" + strategy + ", parallelism=" + parallelism;
+  }
+
+}
@@ -24,7 +24,6 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.java.Preconditions;
@@ -39,6 +38,7 @@ import org.sonar.java.se.constraint.ConstraintManager;
 import org.sonar.java.se.constraint.ConstraintsByDomain;
 import org.sonar.java.se.constraint.ObjectConstraint;
 import org.sonar.java.se.symbolicvalues.BinarySymbolicValue;
+import org.sonar.java.se.symbolicvalues.RelationIndex;
 import org.sonar.java.se.symbolicvalues.RelationalSymbolicValue;
 import org.sonar.java.se.symbolicvalues.SymbolicValue;
 import org.sonar.plugins.java.api.semantic.Symbol;
@@ -52,7 +52,8 @@ public class ProgramState {
 
   private static final Set<Class<? extends Constraint>> NON_DISPOSABLE_CONSTRAINTS = SetUtils.immutableSetOf(UnclosedResourcesCheck.ResourceConstraint.class,
     CustomUnclosedResourcesCheck.CustomResourceConstraint.class, LocksNotUnlockedCheck.LockConstraint.class, StreamConsumedCheck.StreamPipelineConstraint.class);
-  private Set<RelationalSymbolicValue> knownRelations;
+  @Nullable
+  private RelationIndex relationIndex;
 
   public static class Pop {
 
@@ -180,6 +181,7 @@ public class ProgramState {
     exitSymbolicValue = ps.exitSymbolicValue;
     stack = newStack;
     entryException = ps.entryException;
+    relationIndex = ps.relationIndex;
   }
 
   private ProgramState(ProgramState ps, PMap<SymbolicValue, ConstraintsByDomain> newConstraints) {
@@ -195,7 +197,9 @@ public class ProgramState {
   }
 
   public ProgramState withEntryException(@Nullable SymbolicValue.ExceptionalSymbolicValue exception) {
-    return new ProgramState(values, valuesByIndex, references, constraints, visitedPoints, stack, exitSymbolicValue, exception);
+    ProgramState ps = new ProgramState(values, valuesByIndex, references, constraints, visitedPoints, stack, exitSymbolicValue, exception);
+    ps.relationIndex = relationIndex;
+    return ps;
   }
 
   @CheckForNull
@@ -271,7 +275,9 @@ public class ProgramState {
       return false;
     }
     ProgramState that = (ProgramState) o;
-    return Objects.equals(values, that.values) &&
+    // the hash codes are cached: comparing them first avoids walking the maps of states which are not equal
+    return hashCode() == that.hashCode() &&
+      Objects.equals(values, that.values) &&
       Objects.equals(constraints, that.constraints) &&
       Objects.equals(exitSymbolicValue, that.exitSymbolicValue) &&
       Objects.equals(stack, that.stack);
@@ -291,10 +297,12 @@ public class ProgramState {
   }
 
   public ProgramState addConstraintTransitively(SymbolicValue symbolicValue, Constraint constraint) {
-    List<SymbolicValue> transitiveSymbolicValues = knownRelations().stream()
-      .filter(rsv -> rsv.isEquality() && (rsv.getLeftOp() == symbolicValue || rsv.getRightOp() == symbolicValue))
-      .map(rsv -> rsv.getLeftOp() == symbolicValue ? rsv.getRightOp() : rsv.getLeftOp())
-      .toList();
+    List<SymbolicValue> transitiveSymbolicValues = new ArrayList<>();
+    for (RelationalSymbolicValue rsv : relationIndex().relationsInvolving(symbolicValue)) {
+      if (rsv.isEquality() && (rsv.getLeftOp() == symbolicValue || rsv.getRightOp() == symbolicValue)) {
+        transitiveSymbolicValues.add(rsv.getLeftOp() == symbolicValue ? rsv.getRightOp() : rsv.getLeftOp());
+      }
+    }
     ProgramState ps = addConstraint(symbolicValue, constraint);
     for (SymbolicValue sv : transitiveSymbolicValues) {
       ps = ps.addConstraint(sv, constraint);
@@ -302,15 +310,34 @@ public class ProgramState {
     return ps;
   }
 
-  public Set<RelationalSymbolicValue> knownRelations() {
-    if(knownRelations == null) {
-      knownRelations = Collections.unmodifiableSet(getValuesWithConstraints(BooleanConstraint.TRUE)
-        .stream()
-        .filter(RelationalSymbolicValue.class::isInstance)
-        .map(RelationalSymbolicValue.class::cast)
-        .collect(Collectors.toSet()));
+  /**
+   * Relations known to be true in this program state, indexed by operand.
+   * The index is built on first access, then maintained incrementally by the states derived from this one.
+   */
+  public RelationIndex relationIndex() {
+    if (relationIndex == null) {
+      RelationIndex index = RelationIndex.empty();
+      for (SymbolicValue sv : getValuesWithConstraints(BooleanConstraint.TRUE)) {
+        if (sv instanceof RelationalSymbolicValue relation) {
+          index = index.add(relation);
+        }
+      }
+      relationIndex = index;
+    }
+    return relationIndex;
+  }
+
+  @CheckForNull
+  private RelationIndex updatedRelationIndex(SymbolicValue symbolicValue, @Nullable ConstraintsByDomain newConstraintsForSV) {
+    if (relationIndex == null || !(symbolicValue instanceof RelationalSymbolicValue relation)) {
+      return relationIndex;
+    }
+    boolean wasKnown = getConstraint(symbolicValue, BooleanConstraint.class) == BooleanConstraint.TRUE;
+    boolean isKnown = newConstraintsForSV != null && newConstraintsForSV.get(BooleanConstraint.class) == BooleanConstraint.TRUE;
+    if (wasKnown == isKnown) {
+      return relationIndex;
     }
-    return knownRelations;
+    return isKnown ? relationIndex.add(relation) : relationIndex.remove(relation);
   }
 
   public ProgramState addConstraint(SymbolicValue symbolicValue, Constraint constraint) {
@@ -326,7 +353,9 @@ public class ProgramState {
   public ProgramState addConstraints(SymbolicValue symbolicValue, ConstraintsByDomain constraintsForSV) {
     PMap<SymbolicValue, ConstraintsByDomain> newConstraints = constraints.put(symbolicValue, constraintsForSV);
     if (newConstraints != constraints) {
-      return new ProgramState(this, newConstraints);
+      ProgramState ps = new ProgramState(this, newConstraints);
+      ps.relationIndex = updatedRelationIndex(symbolicValue, constraintsForSV);
+      return ps;
     }
     return this;
   }
@@ -338,7 +367,9 @@ public class ProgramState {
     }
     ConstraintsByDomain newConstraintForSv = svConstraint.remove(domain);
     if(newConstraintForSv.isEmpty()) {
-      return new ProgramState(this, constraints.remove(sv));
+      ProgramState ps = new ProgramState(this, constraints.remove(sv));
+      ps.relationIndex = updatedRelationIndex(sv, null);
+      return ps;
     }
     return addConstraints(sv, newConstraintForSv);
   }
@@ -360,7 +391,9 @@ public class ProgramState {
       }
       newReferences = increaseReference(newReferences, value);
       PMap<Symbol, SymbolicValue> newValues = values.put(symbol, value);
-      return new ProgramState(newValues, newReferences, constraints, visitedPoints, stack, exitSymbolicValue, entryException);
+      ProgramState ps = new ProgramState(newValues, newReferences, constraints, visitedPoints, stack, exitSymbolicValue, entryException);
+      ps.relationIndex = relationIndex;
+      return ps;
     }
     return this;
   }
@@ -486,7 +519,9 @@ public class ProgramState {
   }
 
   public ProgramState visitedPoint(ProgramPoint programPoint, int nbOfVisit) {
-    return new ProgramState(values, valuesByIndex, references, constraints, visitedPoints.put(programPoint, nbOfVisit), stack, exitSymbolicValue, entryException);
+    ProgramState ps = new ProgramState(values, valuesByIndex, references, constraints, visitedPoints.put(programPoint, nbOfVisit), stack, exitSymbolicValue, entryException);
+    ps.relationIndex = relationIndex;
+    return ps;
   }
 
   @Nullable
@@ -18,20 +18,43 @@ package org.sonar.java.se;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.java.AnalysisException;
 import org.sonar.java.annotations.VisibleForTesting;
+import org.sonar.java.model.DefaultModuleScannerContext;
 import org.sonar.java.se.checks.SECheck;
 import org.sonar.java.se.xproc.BehaviorCache;
 import org.sonar.java.se.xproc.MethodBehavior;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.ModuleScannerContext;
+import org.sonar.plugins.java.api.internal.EndOfAnalysis;
+import org.sonar.plugins.java.api.internal.SymbolicExecutionScanner;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
 
-public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFileScanner {
+/**
+ * Explores the methods of a file, one after the other in the order of the file, or concurrently when the exploration settings
+ * have a parallelism greater than 1 and as many instances of the checks are provided.
+ * <p>
+ * In the latter case, the methods are explored on a fork/join pool created once for the analysis, each of them by walkers sharing a set of check instances
+ * with no other method explored at the same time. The behaviors of the invoked methods are coordinated by the {@link BehaviorCache}.
+ * Once all the methods are explored, the issues raised by the other instances of the checks are handed over to the main ones.
+ */
+public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFileScanner, EndOfAnalysis, SymbolicExecutionScanner {
 
   private static final Logger LOG = LoggerFactory.getLogger(SymbolicExecutionVisitor.class);
   protected JavaFileScannerContext context;
@@ -39,18 +62,52 @@ public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFil
   @VisibleForTesting
   public final BehaviorCache behaviorCache;
   private final ExplodedGraphWalker.ExplodedGraphWalkerFactory egwFactory;
+  /**
+   * Factories of the walkers of the methods explored concurrently, starting with the one of the main checks.
+   */
+  private final List<ExplodedGraphWalker.ExplodedGraphWalkerFactory> concurrentEgwFactories = new ArrayList<>();
+  private final ThreadLocal<ExplodedGraphWalker.ExplodedGraphWalkerFactory> currentEgwFactory = new ThreadLocal<>();
+  /**
+   * Pool exploring the methods concurrently, created for the first file and shut down at the end of the analysis.
+   */
+  @Nullable
+  private ForkJoinPool pool;
 
   public SymbolicExecutionVisitor(List<SECheck> seChecks) {
-    egwFactory = new ExplodedGraphWalker.ExplodedGraphWalkerFactory(seChecks);
+    this(seChecks, ExplorationSettings.DEFAULT);
+  }
+
+  public SymbolicExecutionVisitor(List<SECheck> seChecks, ExplorationSettings settings) {
+    this(seChecks, settings, List.of());
+  }
+
+  /**
+   * @param concurrentSEChecks other instances of the given checks, in the same order, for the methods explored concurrently.
+   *                           At most {@link ExplorationSettings#parallelism()} minus one of them are used.
+   */
+  public SymbolicExecutionVisitor(List<SECheck> seChecks, ExplorationSettings settings, List<List<SECheck>> concurrentSEChecks) {
+    egwFactory = new ExplodedGraphWalker.ExplodedGraphWalkerFactory(seChecks, settings);
     this.behaviorCache = new BehaviorCache();
+    int parallelism = Math.min(settings.parallelism(), concurrentSEChecks.size() + 1);
+    if (parallelism > 1) {
+      concurrentEgwFactories.add(egwFactory);
+      concurrentSEChecks.subList(0, parallelism - 1)
+        .forEach(checks -> concurrentEgwFactories.add(new ExplodedGraphWalker.ExplodedGraphWalkerFactory(checks, settings)));
+    }
   }
 
   @Override
   public void scanFile(JavaFileScannerContext context) {
     behaviorCache.cleanup();
     behaviorCache.setFileContext(this);
+    behaviorCache.setCacheContext(context.getCacheContext(), unchangedFiles(context));
     this.context = context;
-    scan(context.getTree());
+    if (concurrentEgwFactories.isEmpty()) {
+      scan(context.getTree());
+    } else {
+      executeConcurrently(context.getTree());
+    }
+    behaviorCache.storeFileBehaviors(context.getInputFile());
   }
 
   @Override
@@ -59,18 +116,108 @@ public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFil
     super.visitMethod(tree);
   }
 
+  private void executeConcurrently(@Nullable CompilationUnitTree tree) {
+    List<MethodTree> methods = new ArrayList<>();
+    if (tree != null) {
+      tree.accept(new MethodCollector(methods));
+    }
+    BlockingQueue<ExplodedGraphWalker.ExplodedGraphWalkerFactory> idleEgwFactories =
+      new ArrayBlockingQueue<>(concurrentEgwFactories.size(), false, concurrentEgwFactories);
+    if (pool == null) {
+      pool = new ForkJoinPool(concurrentEgwFactories.size());
+    }
+    List<Future<?>> executions = new ArrayList<>();
+    for (MethodTree method : methods) {
+      // unlike fork/join tasks, completable futures report the very exception thrown by the execution
+      executions.add(CompletableFuture.runAsync(() -> executeWithIdleChecks(method, idleEgwFactories), pool));
+    }
+    // all the executions are awaited, even after a failure, before handing over the issues of their checks
+    RuntimeException failure = null;
+    for (Future<?> execution : executions) {
+      RuntimeException executionFailure = await(execution);
+      failure = failure == null ? executionFailure : failure;
+    }
+    for (ExplodedGraphWalker.ExplodedGraphWalkerFactory factory : concurrentEgwFactories.subList(1, concurrentEgwFactories.size())) {
+      factory.transferIssuesTo(egwFactory);
+      factory.endOfFile(context);
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private static Predicate<String> unchangedFiles(JavaFileScannerContext context) {
+    if (context instanceof DefaultModuleScannerContext moduleContext) {
+      return moduleContext::isUnchangedFile;
+    }
+    return fileKey -> false;
+  }
+
+  @Override
+  public void endOfAnalysis(ModuleScannerContext moduleContext) {
+    if (pool != null) {
+      pool.shutdownNow();
+      pool = null;
+    }
+  }
+
+  private void executeWithIdleChecks(MethodTree methodTree, BlockingQueue<ExplodedGraphWalker.ExplodedGraphWalkerFactory> idleEgwFactories) {
+    ExplodedGraphWalker.ExplodedGraphWalkerFactory factory;
+    try {
+      factory = idleEgwFactories.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AnalysisException("Symbolic execution cancelled", e);
+    }
+    currentEgwFactory.set(factory);
+    try {
+      execute(methodTree);
+    } finally {
+      currentEgwFactory.remove();
+      idleEgwFactories.add(factory);
+    }
+  }
+
+  @Nullable
+  private static RuntimeException await(Future<?> execution) {
+    try {
+      execution.get();
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return new AnalysisException("Symbolic execution cancelled", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        return runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      return new AnalysisException("Unable to execute method", cause);
+    }
+  }
+
   public void execute(MethodTree methodTree) {
+    Symbol.MethodSymbol methodSymbol = methodTree.symbol();
+    if (!methodCanNotBeOverridden(methodSymbol)) {
+      explore(methodTree, null);
+      return;
+    }
+    MethodBehavior methodBehavior = behaviorCache.startExecution(methodSymbol);
+    if (methodBehavior != null) {
+      try {
+        explore(methodTree, methodBehavior);
+      } finally {
+        behaviorCache.endExecution(methodBehavior.signature());
+      }
+    }
+  }
+
+  private void explore(MethodTree methodTree, @Nullable MethodBehavior methodBehavior) {
     ExplodedGraphWalker walker = getWalker();
     try {
-      Symbol.MethodSymbol methodSymbol = methodTree.symbol();
-      if (methodCanNotBeOverridden(methodSymbol)) {
-        MethodBehavior methodBehavior = behaviorCache.methodBehaviorForSymbol(methodSymbol);
-        if (!methodBehavior.isVisited()) {
-          walker.visitMethod(methodTree, methodBehavior);
-        }
-      } else {
-        walker.visitMethod(methodTree);
-      }
+      walker.visitMethod(methodTree, methodBehavior);
     } catch (ExplodedGraphWalker.MaximumStepsReachedException
       | ExplodedGraphWalker.ExplodedGraphTooBigException
       | ExplodedGraphWalker.MaximumStartingStatesException exception) {
@@ -88,7 +235,8 @@ public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFil
 
   @VisibleForTesting
   protected ExplodedGraphWalker getWalker() {
-    return egwFactory.createWalker(behaviorCache, context);
+    ExplodedGraphWalker.ExplodedGraphWalkerFactory factory = currentEgwFactory.get();
+    return (factory != null ? factory : egwFactory).createWalker(behaviorCache, context);
   }
 
   public static boolean methodCanNotBeOverridden(Symbol.MethodSymbol methodSymbol) {
@@ -99,4 +247,18 @@ public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFil
       (methodSymbol.isPrivate() || methodSymbol.isFinal() || methodSymbol.isStatic() || methodSymbol.owner().isFinal());
   }
 
+  private static class MethodCollector extends BaseTreeVisitor {
+    private final List<MethodTree> methods;
+
+    private MethodCollector(List<MethodTree> methods) {
+      this.methods = methods;
+    }
+
+    @Override
+    public void visitMethod(MethodTree tree) {
+      methods.add(tree);
+      super.visitMethod(tree);
+    }
+  }
+
 }
@@ -0,0 +1,131 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import javax.annotation.CheckForNull;
+
+/**
+ * Nodes of the exploded graph waiting to be explored, polled in the order defined by a {@link WorkListStrategy}.
+ */
+abstract class WorkList extends AbstractQueue<ExplodedGraph.Node> {
+
+  static WorkList create(WorkListStrategy strategy) {
+    return switch (strategy) {
+      case DEPTH_FIRST -> new DepthFirst();
+      case BREADTH_FIRST -> new BreadthFirst();
+      case COVERAGE_GUIDED -> new CoverageGuided();
+    };
+  }
+
+  private static class DepthFirst extends WorkList {
+    private final Deque<ExplodedGraph.Node> nodes = new ArrayDeque<>();
+
+    @Override
+    public boolean offer(ExplodedGraph.Node node) {
+      nodes.addFirst(node);
+      return true;
+    }
+
+    @CheckForNull
+    @Override
+    public ExplodedGraph.Node poll() {
+      return nodes.pollFirst();
+    }
+
+    @CheckForNull
+    @Override
+    public ExplodedGraph.Node peek() {
+      return nodes.peekFirst();
+    }
+
+    @Override
+    public Iterator<ExplodedGraph.Node> iterator() {
+      return nodes.iterator();
+    }
+
+    @Override
+    public int size() {
+      return nodes.size();
+    }
+  }
+
+  private static class BreadthFirst extends DepthFirst {
+    @Override
+    public boolean offer(ExplodedGraph.Node node) {
+      super.nodes.addLast(node);
+      return true;
+    }
+  }
+
+  /**
+   * Keeps the nodes of blocks not explored yet in a separate stack, polled first.
+   * A block is considered as explored once one of its nodes has been polled: the nodes of this block still waiting
+   * in the first stack keep their priority, which does not matter as they only delay the other nodes by a few steps.
+   */
+  private static class CoverageGuided extends WorkList {
+    private final Deque<ExplodedGraph.Node> unexploredBlocks = new ArrayDeque<>();
+    private final Deque<ExplodedGraph.Node> exploredBlocks = new ArrayDeque<>();
+    private final BitSet explored = new BitSet();
+
+    @Override
+    public boolean offer(ExplodedGraph.Node node) {
+      if (explored.get(blockId(node))) {
+        exploredBlocks.addFirst(node);
+      } else {
+        unexploredBlocks.addFirst(node);
+      }
+      return true;
+    }
+
+    @CheckForNull
+    @Override
+    public ExplodedGraph.Node poll() {
+      ExplodedGraph.Node node = unexploredBlocks.isEmpty() ? exploredBlocks.pollFirst() : unexploredBlocks.pollFirst();
+      if (node != null) {
+        explored.set(blockId(node));
+      }
+      return node;
+    }
+
+    @CheckForNull
+    @Override
+    public ExplodedGraph.Node peek() {
+      return unexploredBlocks.isEmpty() ? exploredBlocks.peekFirst() : unexploredBlocks.peekFirst();
+    }
+
+    @Override
+    public Iterator<ExplodedGraph.Node> iterator() {
+      return Stream.concat(unexploredBlocks.stream(), exploredBlocks.stream()).iterator();
+    }
+
+    @Override
+    public int size() {
+      return unexploredBlocks.size() + exploredBlocks.size();
+    }
+
+    private static int blockId(ExplodedGraph.Node node) {
+      return node.programPoint.block.id();
+    }
+  }
+
+}
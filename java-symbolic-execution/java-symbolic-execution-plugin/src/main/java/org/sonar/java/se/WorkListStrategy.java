@@ -0,0 +1,36 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+/**
+ * Order in which the {@link ExplodedGraphWalker} explores the nodes of the exploded graph.
+ */
+public enum WorkListStrategy {
+  /**
+   * Last enqueued node first: follows one execution path to its end before exploring the next one.
+   */
+  DEPTH_FIRST,
+  /**
+   * First enqueued node first: explores all the execution paths in parallel.
+   */
+  BREADTH_FIRST,
+  /**
+   * Depth first, but nodes located in a block that has not been explored yet are preferred,
+   * so that a method interrupted because of its budget had most of its blocks covered.
+   */
+  COVERAGE_GUIDED
+}
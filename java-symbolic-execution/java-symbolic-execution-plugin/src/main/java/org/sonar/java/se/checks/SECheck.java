@@ -21,6 +21,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.sonar.java.Preconditions;
 import org.sonar.java.se.CheckerContext;
 import org.sonar.java.se.Flow;
 import org.sonar.java.se.ProgramState;
@@ -82,6 +83,15 @@ public abstract class SECheck implements JavaFileScanner {
     // By default do nothing
   }
 
+  /**
+   * Hands the issues raised so far over to another instance of the same check, which reports them when scanning the file.
+   */
+  public void transferIssuesTo(SECheck check) {
+    Preconditions.checkArgument(check.getClass() == getClass(), "Cannot transfer issues of " + getClass().getName() + " to " + check.getClass().getName());
+    issues.forEach(seIssue -> check.reportIssue(seIssue.tree, seIssue.message, seIssue.flows));
+    issues.clear();
+  }
+
   protected static class SEIssue {
     private final Tree tree;
     private final String message;
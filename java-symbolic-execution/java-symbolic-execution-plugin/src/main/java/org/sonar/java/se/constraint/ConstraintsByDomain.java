@@ -16,21 +16,33 @@
  */
 package org.sonar.java.se.constraint;
 
+import java.util.Arrays;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
-import org.sonarsource.analyzer.commons.collections.PCollections;
-import org.sonarsource.analyzer.commons.collections.PMap;
 
+/**
+ * Constraints of a symbolic value, at most one per domain, the domain of a constraint being its class.
+ * <p>
+ * As a symbolic value rarely has more than a few constraints, they are kept in a plain array, and the hash code is computed once.
+ */
 public class ConstraintsByDomain {
 
-  private final PMap<Class<? extends Constraint>, Constraint> constraintPMap;
+  private static final Constraint[] NO_CONSTRAINTS = new Constraint[0];
+  private static final ConstraintsByDomain EMPTY = new ConstraintsByDomain(NO_CONSTRAINTS);
 
-  private static final ConstraintsByDomain EMPTY = new ConstraintsByDomain(PCollections.emptyMap());
+  private final Constraint[] constraints;
+  private final int hashCode;
 
-  private ConstraintsByDomain(PMap<Class<? extends Constraint>, Constraint> constraintPMap) {
-    this.constraintPMap = constraintPMap;
+  private ConstraintsByDomain(Constraint[] constraints) {
+    this.constraints = constraints;
+    int hash = 0;
+    for (Constraint constraint : constraints) {
+      // independent of the order of the constraints, as for maps
+      hash += constraint.getClass().hashCode() ^ constraint.hashCode();
+    }
+    this.hashCode = hash;
   }
 
   public static ConstraintsByDomain empty() {
@@ -38,45 +50,69 @@ public class ConstraintsByDomain {
   }
 
   public ConstraintsByDomain remove(Class<? extends Constraint> domain) {
-    PMap<Class<? extends Constraint>, Constraint> remove = constraintPMap.remove(domain);
-    if (remove == constraintPMap) {
+    int index = indexOf(domain);
+    if (index < 0) {
       return this;
     }
-    return remove.isEmpty() ? EMPTY : new ConstraintsByDomain(remove);
+    if (constraints.length == 1) {
+      return EMPTY;
+    }
+    Constraint[] newConstraints = new Constraint[constraints.length - 1];
+    System.arraycopy(constraints, 0, newConstraints, 0, index);
+    System.arraycopy(constraints, index + 1, newConstraints, index, newConstraints.length - index);
+    return new ConstraintsByDomain(newConstraints);
   }
 
   @Nullable
   public Constraint get(Class<? extends Constraint> domain) {
-    return constraintPMap.get(domain);
+    int index = indexOf(domain);
+    return index < 0 ? null : constraints[index];
+  }
+
+  private int indexOf(Class<?> domain) {
+    for (int i = 0; i < constraints.length; i++) {
+      if (constraints[i].getClass() == domain) {
+        return i;
+      }
+    }
+    return -1;
   }
 
   public boolean hasConstraint(Constraint constraint) {
-    return constraint.equals(constraintPMap.get(constraint.getClass()));
+    return constraint.equals(get(constraint.getClass()));
   }
 
   public void forEach(BiConsumer<Class<? extends Constraint>, Constraint> action) {
-    constraintPMap.forEach(action);
+    for (Constraint constraint : constraints) {
+      action.accept(constraint.getClass(), constraint);
+    }
   }
 
   public boolean isEmpty() {
-    return constraintPMap.isEmpty();
+    return constraints.length == 0;
   }
 
   public ConstraintsByDomain put(Constraint constraint) {
-    PMap<Class<? extends Constraint>, Constraint> newConstraints = constraintPMap.put(constraint.getClass(), constraint);
-    return newConstraints == constraintPMap ? this : new ConstraintsByDomain(newConstraints);
+    int index = indexOf(constraint.getClass());
+    Constraint[] newConstraints;
+    if (index < 0) {
+      newConstraints = Arrays.copyOf(constraints, constraints.length + 1);
+      newConstraints[constraints.length] = constraint;
+    } else if (constraints[index].equals(constraint)) {
+      return this;
+    } else {
+      newConstraints = constraints.clone();
+      newConstraints[index] = constraint;
+    }
+    return new ConstraintsByDomain(newConstraints);
   }
 
   public Stream<Constraint> stream() {
-    Stream.Builder<Constraint> builder = Stream.builder();
-    constraintPMap.forEach((d, constraint) -> builder.add(constraint));
-    return builder.build();
+    return Arrays.stream(constraints);
   }
 
   public Stream<Class<? extends Constraint>> domains() {
-    Stream.Builder<Class<? extends Constraint>> builder = Stream.builder();
-    constraintPMap.forEach((domain, constraint) -> builder.add(domain));
-    return builder.build();
+    return Arrays.stream(constraints).map(Constraint::getClass);
   }
 
   @Override
@@ -88,7 +124,15 @@ public class ConstraintsByDomain {
       return false;
     }
     ConstraintsByDomain that = (ConstraintsByDomain) o;
-    return constraintPMap.equals(that.constraintPMap);
+    if (hashCode != that.hashCode || constraints.length != that.constraints.length) {
+      return false;
+    }
+    for (Constraint constraint : constraints) {
+      if (!constraint.equals(that.get(constraint.getClass()))) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
@@ -98,6 +142,6 @@ public class ConstraintsByDomain {
 
   @Override
   public int hashCode() {
-    return constraintPMap.hashCode();
+    return hashCode;
   }
 }
@@ -17,15 +17,28 @@
 package org.sonar.java.se.plugin;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sonar.api.SonarRuntime;
 import org.sonar.api.batch.rule.CheckFactory;
 import org.sonar.api.batch.rule.Checks;
 import org.sonar.api.ce.ComputeEngineSide;
+import org.sonar.api.config.Configuration;
+import org.sonar.api.rule.RuleKey;
 import org.sonar.api.scanner.ScannerSide;
 import org.sonar.api.server.ServerSide;
 import org.sonar.api.server.rule.RulesDefinition;
+import org.sonar.java.se.ExplorationSettings;
 import org.sonar.java.se.SymbolicExecutionVisitor;
+import org.sonar.java.se.WorkListStrategy;
 import org.sonar.java.se.checks.SECheck;
 import org.sonar.plugins.java.api.CheckRegistrar;
 import org.sonar.plugins.java.api.JavaCheck;
@@ -36,15 +49,32 @@ import org.sonarsource.analyzer.commons.RuleMetadataLoader;
 @ComputeEngineSide
 public class JavaSECheckRegistrar implements CheckRegistrar {
 
+  private static final Logger LOG = LoggerFactory.getLogger(JavaSECheckRegistrar.class);
+
+  public static final String MAX_STEPS_KEY = "sonar.java.symbolicExecution.maxSteps";
+  public static final String TIME_BUDGET_KEY = "sonar.java.symbolicExecution.timeBudgetMs";
+  public static final String WORKLIST_STRATEGY_KEY = "sonar.java.symbolicExecution.worklist";
+  /**
+   * Number of methods of a file explored concurrently, bounded by the number of available processors. By default, methods are explored one by one.
+   */
+  public static final String PARALLELISM_KEY = "sonar.java.symbolicExecution.parallelism";
+
   private static final String RESOURCE_BASE_PATH = "org/sonar/l10n/java/rules/javase";
   static final String SONAR_WAY_PATH = RESOURCE_BASE_PATH + "/Sonar_way_profile.json";
   public static final String REPOSITORY_KEY = "java";
 
   private static final Set<String> RULE_TEMPLATES_KEY = Set.of("S3546");
   private final SonarRuntime runtime;
+  @Nullable
+  private final Configuration configuration;
 
   public JavaSECheckRegistrar(SonarRuntime runtime) {
+    this(runtime, null);
+  }
+
+  public JavaSECheckRegistrar(SonarRuntime runtime, @Nullable Configuration configuration) {
     this.runtime = runtime;
+    this.configuration = configuration;
   }
 
   @Override
@@ -54,17 +84,62 @@ public class JavaSECheckRegistrar implements CheckRegistrar {
 
   @Override
   public void register(RegistrarContext registrarContext, CheckFactory checkFactory) {
-    Checks<JavaCheck> checks = checkFactory.<JavaCheck>create(REPOSITORY_KEY).addAnnotatedChecks(JavaSECheckList.getChecks());
+    Checks<JavaCheck> checks = createChecks(checkFactory);
+    var seChecks = seChecks(checks);
+
+    var ruleKeys = seChecks.stream().map(checks::ruleKey).toList();
+
+    ExplorationSettings settings = explorationSettings(configuration);
+    // the checks keep state about the methods they explore, so each method explored concurrently needs its own instances
+    List<List<SECheck>> concurrentSEChecks = IntStream.range(1, settings.parallelism())
+      .mapToObj(i -> seChecksInOrder(createChecks(checkFactory), ruleKeys))
+      .toList();
 
-    var seChecks = checks.all().stream()
+    registrarContext.registerMainSharedCheck(new SymbolicExecutionVisitor(seChecks, settings, concurrentSEChecks), ruleKeys);
+    registrarContext.registerMainChecks(checks, seChecks);
+  }
+
+  private static Checks<JavaCheck> createChecks(CheckFactory checkFactory) {
+    return checkFactory.<JavaCheck>create(REPOSITORY_KEY).addAnnotatedChecks(JavaSECheckList.getChecks());
+  }
+
+  private static List<SECheck> seChecks(Checks<JavaCheck> checks) {
+    return checks.all().stream()
       .filter(SECheck.class::isInstance)
       .map(c -> (SECheck) c)
       .toList();
+  }
 
-    var ruleKeys = seChecks.stream().map(checks::ruleKey).toList();
+  private static List<SECheck> seChecksInOrder(Checks<JavaCheck> checks, List<RuleKey> ruleKeys) {
+    Map<RuleKey, SECheck> checksByRuleKey = seChecks(checks).stream().collect(Collectors.toMap(checks::ruleKey, Function.identity()));
+    return ruleKeys.stream().map(checksByRuleKey::get).toList();
+  }
 
-    registrarContext.registerMainSharedCheck(new SymbolicExecutionVisitor(seChecks), ruleKeys);
-    registrarContext.registerMainChecks(checks, seChecks);
+  static ExplorationSettings explorationSettings(@Nullable Configuration configuration) {
+    if (configuration == null) {
+      return ExplorationSettings.DEFAULT;
+    }
+    ExplorationSettings defaults = ExplorationSettings.DEFAULT;
+    int maxSteps = configuration.getInt(MAX_STEPS_KEY).filter(steps -> steps > 0).orElse(defaults.maxSteps());
+    long timeBudget = configuration.getLong(TIME_BUDGET_KEY).orElse(defaults.timeBudgetMillis());
+    WorkListStrategy strategy = configuration.get(WORKLIST_STRATEGY_KEY)
+      .map(JavaSECheckRegistrar::workListStrategy)
+      .orElse(defaults.strategy());
+    int parallelism = configuration.getInt(PARALLELISM_KEY)
+      .map(value -> Math.max(1, Math.min(value, Runtime.getRuntime().availableProcessors())))
+      .orElse(defaults.parallelism());
+    ExplorationSettings settings = new ExplorationSettings(maxSteps, timeBudget, strategy, parallelism);
+    LOG.debug("Symbolic execution exploration settings: {}", settings);
+    return settings;
+  }
+
+  private static WorkListStrategy workListStrategy(String value) {
+    try {
+      return WorkListStrategy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      LOG.warn("Invalid value '{}' for \"{}\", using {} instead.", value, WORKLIST_STRATEGY_KEY, ExplorationSettings.DEFAULT.strategy());
+      return ExplorationSettings.DEFAULT.strategy();
+    }
   }
 
   @Override
@@ -0,0 +1,47 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.symbolicvalues;
+
+/**
+ * Relations known while a constraint is propagated from a relation to its operands: the relations learned during the
+ * propagation are added to the index of the initial program state, which is left untouched.
+ */
+final class KnownRelations {
+
+  private RelationIndex index;
+
+  KnownRelations(RelationIndex index) {
+    this.index = index;
+  }
+
+  void add(RelationalSymbolicValue relation) {
+    index = index.add(relation);
+  }
+
+  boolean contains(RelationalSymbolicValue relation) {
+    return index.contains(relation);
+  }
+
+  Iterable<RelationalSymbolicValue> relationsInvolving(SymbolicValue operand) {
+    return index.relationsInvolving(operand);
+  }
+
+  int size() {
+    return index.size();
+  }
+
+}
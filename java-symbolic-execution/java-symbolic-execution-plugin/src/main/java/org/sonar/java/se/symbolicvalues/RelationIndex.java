@@ -0,0 +1,127 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.symbolicvalues;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.sonarsource.analyzer.commons.collections.PCollections;
+import org.sonarsource.analyzer.commons.collections.PMap;
+import org.sonarsource.analyzer.commons.collections.PSet;
+
+/**
+ * Persistent set of relations, indexed by operand: the relations involving a given symbolic value are found without
+ * going through all the relations, which is what transitive deductions and relation resolutions need.
+ */
+public final class RelationIndex {
+
+  private static final RelationIndex EMPTY = new RelationIndex(PCollections.emptySet(), PCollections.emptyMap(), 0);
+
+  private final PSet<RelationalSymbolicValue> relations;
+  private final PMap<SymbolicValue, PSet<RelationalSymbolicValue>> relationsByOperand;
+  private final int size;
+
+  private RelationIndex(PSet<RelationalSymbolicValue> relations, PMap<SymbolicValue, PSet<RelationalSymbolicValue>> relationsByOperand, int size) {
+    this.relations = relations;
+    this.relationsByOperand = relationsByOperand;
+    this.size = size;
+  }
+
+  public static RelationIndex empty() {
+    return EMPTY;
+  }
+
+  public static RelationIndex of(Collection<RelationalSymbolicValue> relations) {
+    RelationIndex index = EMPTY;
+    for (RelationalSymbolicValue relation : relations) {
+      index = index.add(relation);
+    }
+    return index;
+  }
+
+  public RelationIndex add(RelationalSymbolicValue relation) {
+    if (relations.contains(relation)) {
+      return this;
+    }
+    PMap<SymbolicValue, PSet<RelationalSymbolicValue>> byOperand = addToOperand(relationsByOperand, relation.leftOp, relation);
+    byOperand = addToOperand(byOperand, relation.rightOp, relation);
+    return new RelationIndex(relations.add(relation), byOperand, size + 1);
+  }
+
+  public RelationIndex remove(RelationalSymbolicValue relation) {
+    if (!relations.contains(relation)) {
+      return this;
+    }
+    // the relation may be stored with swapped operands when it is commutative: remove it from both operands
+    PMap<SymbolicValue, PSet<RelationalSymbolicValue>> byOperand = removeFromOperand(relationsByOperand, relation.leftOp, relation);
+    byOperand = removeFromOperand(byOperand, relation.rightOp, relation);
+    return new RelationIndex(relations.remove(relation), byOperand, size - 1);
+  }
+
+  private static PMap<SymbolicValue, PSet<RelationalSymbolicValue>> addToOperand(PMap<SymbolicValue, PSet<RelationalSymbolicValue>> byOperand,
+    SymbolicValue operand, RelationalSymbolicValue relation) {
+    PSet<RelationalSymbolicValue> operandRelations = byOperand.get(operand);
+    return byOperand.put(operand, (operandRelations == null ? PCollections.<RelationalSymbolicValue>emptySet() : operandRelations).add(relation));
+  }
+
+  private static PMap<SymbolicValue, PSet<RelationalSymbolicValue>> removeFromOperand(PMap<SymbolicValue, PSet<RelationalSymbolicValue>> byOperand,
+    SymbolicValue operand, RelationalSymbolicValue relation) {
+    PSet<RelationalSymbolicValue> operandRelations = byOperand.get(operand);
+    if (operandRelations == null) {
+      return byOperand;
+    }
+    PSet<RelationalSymbolicValue> remaining = operandRelations.remove(relation);
+    return remaining.isEmpty() ? byOperand.remove(operand) : byOperand.put(operand, remaining);
+  }
+
+  public boolean contains(RelationalSymbolicValue relation) {
+    return relations.contains(relation);
+  }
+
+  /**
+   * Relations having the given symbolic value as left or right operand.
+   */
+  public Iterable<RelationalSymbolicValue> relationsInvolving(SymbolicValue operand) {
+    PSet<RelationalSymbolicValue> operandRelations = relationsByOperand.get(operand);
+    return operandRelations == null ? Collections.emptyList() : operandRelations;
+  }
+
+  public Iterable<RelationalSymbolicValue> relations() {
+    return relations;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public Set<RelationalSymbolicValue> toSet() {
+    Set<RelationalSymbolicValue> result = new HashSet<>();
+    relations.forEach(result::add);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return relations.toString();
+  }
+
+}
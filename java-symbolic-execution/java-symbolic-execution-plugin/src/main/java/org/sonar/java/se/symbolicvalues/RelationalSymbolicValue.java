@@ -96,11 +96,11 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
 
   @Override
   public List<ProgramState> setConstraint(ProgramState initialProgramState, BooleanConstraint booleanConstraint) {
-    return setConstraint(initialProgramState, booleanConstraint, new HashSet<>(initialProgramState.knownRelations()));
+    return setConstraint(initialProgramState, booleanConstraint, new KnownRelations(initialProgramState.relationIndex()));
   }
 
   @Override
-  protected List<ProgramState> setConstraint(ProgramState initialProgramState, Constraint constraint, Set<RelationalSymbolicValue> knownRelations) {
+  protected List<ProgramState> setConstraint(ProgramState initialProgramState, Constraint constraint, KnownRelations knownRelations) {
     if (constraint == BooleanConstraint.FALSE) {
       return inverse().setConstraint(initialProgramState, BooleanConstraint.TRUE, knownRelations);
     }
@@ -127,7 +127,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
   }
 
   private static List<ProgramState> getNewProgramStates(ProgramState initialProgramState, Set<RelationalSymbolicValue> newRelations,
-                                                        Set<RelationalSymbolicValue> knownRelations) {
+                                                        KnownRelations knownRelations) {
     List<ProgramState> programStates = new ArrayList<>();
     programStates.add(initialProgramState);
     for (RelationalSymbolicValue relationalSymbolicValue : newRelations) {
@@ -144,7 +144,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     return new RelationalSymbolicValue(kind.inverse(), leftOp, rightOp);
   }
 
-  private List<ProgramState> copyAllConstraints(ProgramState initialState, Set<RelationalSymbolicValue> knownRelations) {
+  private List<ProgramState> copyAllConstraints(ProgramState initialState, KnownRelations knownRelations) {
     ProgramState programState = initialState;
     if (programState.canReach(leftOp) || programState.canReach(rightOp)) {
       programState = programState.addConstraint(this, BooleanConstraint.TRUE);
@@ -199,7 +199,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     return Stream.of(copiedConstraints, nullConstraints).flatMap(List::stream).toList();
   }
 
-  private List<ProgramState> copyConstraintFromTo(SymbolicValue from, SymbolicValue to, ProgramState programState, Set<RelationalSymbolicValue> knownRelations) {
+  private List<ProgramState> copyConstraintFromTo(SymbolicValue from, SymbolicValue to, ProgramState programState, KnownRelations knownRelations) {
     List<ProgramState> states = new ArrayList<>();
     states.add(programState);
     ConstraintsByDomain leftConstraints = programState.getConstraints(from);
@@ -214,7 +214,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     return states;
   }
 
-  private void applyConstraints(SymbolicValue symbolicValue, Set<RelationalSymbolicValue> knownRelations, List<ProgramState> states, ConstraintsByDomain constraints) {
+  private void applyConstraints(SymbolicValue symbolicValue, KnownRelations knownRelations, List<ProgramState> states, ConstraintsByDomain constraints) {
     constraints.forEach((d, c) -> {
       Constraint constraint = c.copyOver(kind);
       if (constraint != null) {
@@ -225,7 +225,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     });
   }
 
-  private static List<ProgramState> applyConstraint(Constraint constraint, SymbolicValue to, List<ProgramState> states, Set<RelationalSymbolicValue> knownRelations) {
+  private static List<ProgramState> applyConstraint(Constraint constraint, SymbolicValue to, List<ProgramState> states, KnownRelations knownRelations) {
     List<ProgramState> newStates = new ArrayList<>();
     states.forEach(state -> newStates.addAll(to.setConstraint(state, constraint, knownRelations)));
     return newStates;
@@ -233,14 +233,21 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
 
   @VisibleForTesting
   RelationState resolveRelationState(Set<RelationalSymbolicValue> knownRelations) {
+    return resolveRelationState(new KnownRelations(RelationIndex.of(knownRelations)));
+  }
+
+  private RelationState resolveRelationState(KnownRelations knownRelations) {
     if (hasSameOperand()) {
       return relationStateForSameOperand();
     }
-
-    return knownRelations.stream()
-      .map(r -> r.implies(this))
-      .filter(RelationState::isDetermined)
-      .findAny().orElse(RelationState.UNDETERMINED);
+    // only a relation on the same operands can determine this relation
+    for (RelationalSymbolicValue knownRelation : knownRelations.relationsInvolving(leftOp)) {
+      RelationState relationState = knownRelation.implies(this);
+      if (relationState.isDetermined()) {
+        return relationState;
+      }
+    }
+    return RelationState.UNDETERMINED;
   }
 
   private RelationState relationStateForSameOperand() {
@@ -273,6 +280,10 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
 
   @VisibleForTesting
   Set<RelationalSymbolicValue> transitiveRelations(Set<RelationalSymbolicValue> knownRelations) {
+    return transitiveRelations(new KnownRelations(RelationIndex.of(knownRelations)));
+  }
+
+  private Set<RelationalSymbolicValue> transitiveRelations(KnownRelations knownRelations) {
     Set<RelationalSymbolicValue> newRelations = new HashSet<>();
     Deque<RelationalSymbolicValue> workList = new ArrayDeque<>();
     int iterations = 0;
@@ -285,16 +296,25 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
       }
       iterations++;
       RelationalSymbolicValue relation = workList.pop();
-      for (RelationalSymbolicValue knownRelation : knownRelations) {
-        RelationalSymbolicValue r = relation.deduceTransitiveOrSimplified(knownRelation);
-        if (r != null && !knownRelations.contains(r) && newRelations.add(r)) {
-          workList.add(r);
-        }
+      // a relation can only be simplified or combined with relations sharing one of its operands
+      deduceFrom(relation, knownRelations.relationsInvolving(relation.leftOp), knownRelations, newRelations, workList);
+      if (!relation.hasSameOperand()) {
+        deduceFrom(relation, knownRelations.relationsInvolving(relation.rightOp), knownRelations, newRelations, workList);
       }
     }
     return newRelations;
   }
 
+  private static void deduceFrom(RelationalSymbolicValue relation, Iterable<RelationalSymbolicValue> candidates, KnownRelations knownRelations,
+    Set<RelationalSymbolicValue> newRelations, Deque<RelationalSymbolicValue> workList) {
+    for (RelationalSymbolicValue knownRelation : candidates) {
+      RelationalSymbolicValue r = relation.deduceTransitiveOrSimplified(knownRelation);
+      if (r != null && !knownRelations.contains(r) && newRelations.add(r)) {
+        workList.add(r);
+      }
+    }
+  }
+
   @VisibleForTesting
   RelationalSymbolicValue deduceTransitiveOrSimplified(RelationalSymbolicValue other) {
     RelationalSymbolicValue result = simplify(other);
@@ -20,7 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.java.Preconditions;
@@ -37,6 +37,9 @@ import org.sonar.plugins.java.api.semantic.Type;
 
 public class SymbolicValue {
 
+  // declared first, as the constants below are symbolic values
+  private static final AtomicInteger idGenerator = new AtomicInteger();
+
   public static final SymbolicValue NULL_LITERAL = new SymbolicValue() {
 
     @Override
@@ -78,12 +81,10 @@ public class SymbolicValue {
     FALSE_LITERAL
   );
 
-  private static int idGenerator;
   private final int id;
 
   public SymbolicValue() {
-    id = idGenerator;
-    idGenerator++;
+    id = idGenerator.getAndIncrement();
   }
 
   @Override
@@ -177,7 +178,7 @@ public class SymbolicValue {
     return states.get(0);
   }
 
-  protected List<ProgramState> setConstraint(ProgramState state, Constraint constraint, Set<RelationalSymbolicValue> knownRelations) {
+  protected List<ProgramState> setConstraint(ProgramState state, Constraint constraint, KnownRelations knownRelations) {
     return setConstraint(state, constraint);
   }
 
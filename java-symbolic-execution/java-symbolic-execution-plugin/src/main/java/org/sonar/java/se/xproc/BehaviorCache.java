@@ -18,46 +18,124 @@ package org.sonar.java.se.xproc;
 
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.AnalysisException;
 import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.java.se.SymbolicExecutionVisitor;
+import org.sonar.plugins.java.api.caching.CacheContext;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.MethodTree;
 
+/**
+ * Behaviors of the methods of the current file, computed on demand when their methods are invoked.
+ * <p>
+ * The methods of a file can be explored concurrently: the behavior of a method is then computed by a single thread, and the other
+ * threads needing it wait for the end of its computation. A thread does not wait when the computation it needs is itself waiting,
+ * directly or not, for the current thread: as for a recursive invocation in sequential mode, the behavior is then considered unknown.
+ * <p>
+ * The behaviors of the methods which can be invoked from other files are stored for the next analysis, unless they were computed
+ * from the stored behaviors of other files, which could change without the current file changing.
+ */
 public class BehaviorCache {
 
   private static final Logger LOG = LoggerFactory.getLogger(BehaviorCache.class);
 
   private SymbolicExecutionVisitor sev;
+  private final MethodBehaviorStore projectBehaviors;
 
   @VisibleForTesting
-  public final Map<String, MethodBehavior> behaviors = new LinkedHashMap<>();
+  public final Map<String, MethodBehavior> behaviors = Collections.synchronizedMap(new LinkedHashMap<>());
   private Map<String, MethodBehavior> hardcodedBehaviors = null;
 
+  /**
+   * Thread computing the behavior of each signature, guarded by this cache.
+   */
+  private final Map<String, Thread> executingThreads = new HashMap<>();
+  /**
+   * Signature whose computation each waiting thread is waiting for, guarded by this cache.
+   */
+  private final Map<Thread, String> awaitedSignatures = new HashMap<>();
+  /**
+   * Signatures of the methods which cannot be invoked from other files, guarded by this cache.
+   */
+  private final Set<String> fileLocalSignatures = new HashSet<>();
+  /**
+   * Signatures whose behavior was computed from the stored behaviors of other files, directly or not, guarded by this cache.
+   */
+  private final Set<String> dependentSignatures = new HashSet<>();
+  /**
+   * Signatures whose behavior is computed by the current thread, the innermost first.
+   */
+  private final ThreadLocal<Deque<String>> executedSignatures = ThreadLocal.withInitial(ArrayDeque::new);
+
+  public BehaviorCache() {
+    this(new MethodBehaviorStore());
+  }
+
+  @VisibleForTesting
+  BehaviorCache(MethodBehaviorStore projectBehaviors) {
+    this.projectBehaviors = projectBehaviors;
+  }
+
   public void setFileContext(@Nullable SymbolicExecutionVisitor sev) {
     this.sev = sev;
   }
 
+  /**
+   * @param unchangedFiles tells whether the file with the given key did not change since the previous analysis
+   */
+  public void setCacheContext(@Nullable CacheContext cacheContext, Predicate<String> unchangedFiles) {
+    projectBehaviors.setCacheContext(cacheContext, unchangedFiles);
+  }
+
+  /**
+   * Stores the behaviors computed for the given file, so that they are known when their methods are invoked from other files
+   * during the next analysis.
+   */
+  public void storeFileBehaviors(InputFile inputFile) {
+    List<MethodBehavior> fileBehaviors;
+    synchronized (this) {
+      synchronized (behaviors) {
+        fileBehaviors = behaviors.values().stream()
+          .filter(behavior -> !fileLocalSignatures.contains(behavior.signature()) && !dependentSignatures.contains(behavior.signature()))
+          .toList();
+      }
+    }
+    projectBehaviors.addAll(inputFile, fileBehaviors);
+  }
+
   public void cleanup() {
     behaviors.clear();
+    synchronized (this) {
+      fileLocalSignatures.clear();
+      dependentSignatures.clear();
+    }
   }
 
   @VisibleForTesting
-  Map<String, MethodBehavior> hardcodedBehaviors() {
+  synchronized Map<String, MethodBehavior> hardcodedBehaviors() {
     if (hardcodedBehaviors == null) {
       hardcodedBehaviors = HardcodedMethodBehaviors.load();
       LOG.debug("[SE] Loaded {} hardcoded method behaviors.", hardcodedBehaviors.size());
@@ -83,19 +161,119 @@ public class BehaviorCache {
 
   @CheckForNull
   private MethodBehavior get(String signature, @Nullable Symbol.MethodSymbol symbol) {
+    if (!awaitExecution(signature)) {
+      return null;
+    }
     MethodBehavior mb = behaviors.get(signature);
     if(mb != null) {
-      return mb;
+      return fileBehavior(signature, mb);
     }
     if (symbol != null) {
       MethodTree declaration = symbol.declaration();
       if (SymbolicExecutionVisitor.methodCanNotBeOverridden(symbol) && declaration != null) {
         sev.execute(declaration);
-        return behaviors.get(signature);
+        // another thread may have started the computation in the meantime
+        return awaitExecution(signature) ? fileBehavior(signature, behaviors.get(signature)) : null;
+      }
+    }
+
+    return hardcodedOrProjectBehavior(signature);
+  }
+
+  /**
+   * Creates the behavior of the given method if needed, and registers the current thread as the one computing it.
+   *
+   * @return the behavior to compute, or null when it is already computed, or being computed by any thread
+   */
+  @CheckForNull
+  public MethodBehavior startExecution(Symbol.MethodSymbol symbol) {
+    MethodBehavior mb = startExecution(symbol.signature(), symbol.isVarArgsMethod());
+    if (mb != null && !canBeInvokedFromOtherFiles(symbol)) {
+      synchronized (this) {
+        fileLocalSignatures.add(mb.signature());
+      }
+    }
+    return mb;
+  }
+
+  private static boolean canBeInvokedFromOtherFiles(Symbol.MethodSymbol symbol) {
+    if (symbol.isPrivate()) {
+      return false;
+    }
+    Symbol owner = symbol.owner();
+    while (owner != null && owner.isTypeSymbol()) {
+      // anonymous classes have no name
+      if (owner.isPrivate() || owner.name().isEmpty()) {
+        return false;
       }
+      owner = owner.owner();
     }
+    // local classes are owned by methods
+    return owner == null || !owner.isMethodSymbol();
+  }
+
+  @CheckForNull
+  @VisibleForTesting
+  synchronized MethodBehavior startExecution(String signature, boolean varArgs) {
+    // created and claimed at once, so that other threads never see a behavior nobody is computing yet
+    MethodBehavior mb = behaviors.computeIfAbsent(signature, k -> new MethodBehavior(signature, varArgs));
+    if (mb.isVisited() || executingThreads.containsKey(signature)) {
+      return null;
+    }
+    executingThreads.put(signature, Thread.currentThread());
+    executedSignatures.get().push(signature);
+    return mb;
+  }
+
+  /**
+   * Ends the computation started by {@link #startExecution(Symbol.MethodSymbol)}, and wakes up the threads waiting for it.
+   */
+  public synchronized void endExecution(String signature) {
+    executingThreads.remove(signature);
+    executedSignatures.get().removeFirstOccurrence(signature);
+    notifyAll();
+  }
+
+  /**
+   * Waits until the behavior of the given signature is not computed by another thread.
+   *
+   * @return false when waiting would never end, because the computing thread is waiting for the current one
+   */
+  private synchronized boolean awaitExecution(String signature) {
+    Thread current = Thread.currentThread();
+    Thread owner = executingThreads.get(signature);
+    while (owner != null && owner != current) {
+      if (isWaitingFor(owner, current)) {
+        return false;
+      }
+      awaitedSignatures.put(current, signature);
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new AnalysisException("Symbolic execution cancelled", e);
+      } finally {
+        awaitedSignatures.remove(current);
+      }
+      owner = executingThreads.get(signature);
+    }
+    return true;
+  }
 
-    return hardcodedBehaviors().get(signature);
+  private boolean isWaitingFor(Thread waiting, Thread awaited) {
+    Thread thread = waiting;
+    // a thread waits for a single computation at a time, and cycles are never entered, so the chain is at most as long as the waits
+    for (int i = 0; i <= awaitedSignatures.size(); i++) {
+      String signature = awaitedSignatures.get(thread);
+      thread = signature == null ? null : executingThreads.get(signature);
+      if (thread == null) {
+        return false;
+      }
+      if (thread == awaited) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
@@ -108,11 +286,53 @@ public class BehaviorCache {
   public MethodBehavior peek(String signature) {
     // directly query the cache, to not trigger computation of new method behaviors
     MethodBehavior mb = behaviors.get(signature);
+    if (mb != null && !isExecutedByAnotherThread(signature)) {
+      return fileBehavior(signature, mb);
+    }
+    // check for hardcoded signatures, then for the ones computed from other files
+    return hardcodedOrProjectBehavior(signature);
+  }
+
+  private synchronized boolean isExecutedByAnotherThread(String signature) {
+    Thread owner = executingThreads.get(signature);
+    return owner != null && owner != Thread.currentThread();
+  }
+
+  @CheckForNull
+  private MethodBehavior hardcodedOrProjectBehavior(String signature) {
+    MethodBehavior mb = hardcodedBehaviors().get(signature);
     if (mb != null) {
       return mb;
     }
-    // check for hardcoded signatures
-    return hardcodedBehaviors().get(signature);
+    mb = projectBehaviors.get(signature);
+    if (mb != null) {
+      usedByCurrentExecution(signature);
+    }
+    return mb;
+  }
+
+  /**
+   * The behavior of a method of the file, whose dependency on the behaviors of other files is passed on to the current execution.
+   */
+  @CheckForNull
+  private MethodBehavior fileBehavior(String signature, @Nullable MethodBehavior mb) {
+    boolean fromOtherFiles;
+    synchronized (this) {
+      fromOtherFiles = dependentSignatures.contains(signature);
+    }
+    if (fromOtherFiles) {
+      usedByCurrentExecution(signature);
+    }
+    return mb;
+  }
+
+  private void usedByCurrentExecution(String signature) {
+    String current = executedSignatures.get().peek();
+    if (current != null && !current.equals(signature)) {
+      synchronized (this) {
+        dependentSignatures.add(current);
+      }
+    }
   }
 
   static class HardcodedMethodBehaviors {
@@ -154,6 +374,18 @@ public class BehaviorCache {
     }
 
     private static Map<String, MethodBehavior> loadHardcodedBehaviors() {
+      try (InputStream precompiled = BehaviorCache.class.getResourceAsStream(PrecompiledMethodBehaviors.RESOURCE)) {
+        if (precompiled != null) {
+          return PrecompiledMethodBehaviors.read(precompiled.readAllBytes());
+        }
+        LOG.debug("[SE] Precompiled method behaviors not found, loading them from JSON resources.");
+      } catch (IOException e) {
+        LOG.debug("[SE] Unable to load precompiled method behaviors, loading them from JSON resources.", e);
+      }
+      return loadJsonBehaviors();
+    }
+
+    static Map<String, MethodBehavior> loadJsonBehaviors() {
       return loadHardcodedBehaviors(
         () -> Arrays.stream(BEHAVIORS_RESOURCES)
           .map(BehaviorCache.class::getResourceAsStream)
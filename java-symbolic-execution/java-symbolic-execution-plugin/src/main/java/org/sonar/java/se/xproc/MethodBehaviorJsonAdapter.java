@@ -86,7 +86,9 @@ public class MethodBehaviorJsonAdapter implements JsonSerializer<MethodBehavior>
     MethodYield result;
     if (methodYield.has(JSON_THROWN_EXCEPTION)) {
       ExceptionalYield exceptionalYield = new ExceptionalYield(behavior);
-      exceptionalYield.setExceptionType(methodYield.get(JSON_THROWN_EXCEPTION).getAsString());
+      JsonElement exceptionType = methodYield.get(JSON_THROWN_EXCEPTION);
+      // the type of the thrown exception is unknown for runtime exceptions
+      exceptionalYield.setExceptionType(exceptionType.isJsonNull() ? null : exceptionType.getAsString());
       result = exceptionalYield;
     } else {
       HappyPathYield happyPathYield = new HappyPathYield(behavior);
@@ -0,0 +1,197 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.xproc;
+
+import com.google.gson.Gson;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.annotations.VisibleForTesting;
+import org.sonar.plugins.java.api.caching.CacheContext;
+
+/**
+ * Behaviors of the methods which cannot be overridden, kept from one analysis of a project to the next one in the analysis cache,
+ * so that they are known when their methods are invoked from other files.
+ * <p>
+ * A behavior is written with the key of the file declaring its method, and it is only read back by the next analysis when this file
+ * is still part of the analysis and did not change, according to the content hash of the file kept in the cache by the analyzer.
+ * Behaviors computed during the current analysis are never read back by this analysis: the issues of a file then do not depend on
+ * the order in which the files are analyzed, sequentially or not.
+ * <p>
+ * A stored behavior is detached from the exploded graph it was computed from: like hardcoded behaviors, it only describes the yields
+ * of the method, so that it neither retains the graph of a previous file nor leads to flows in another file.
+ * The least recently used behaviors read from the cache are evicted once the maximum number of behaviors is reached, and at most
+ * the same number of behaviors is written by an analysis.
+ * <p>
+ * The store is shared by the threads exploring the methods of a file concurrently: every access to the kept behaviors is guarded
+ * by the store, reading the access-ordered map being a modification of it.
+ */
+public class MethodBehaviorStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MethodBehaviorStore.class);
+  private static final String CACHE_KEY_PREFIX = "java:se:behavior:";
+  static final int DEFAULT_MAX_SIZE = 10_000;
+
+  private final Gson gson = MethodBehaviorJsonAdapter.gson();
+  private final int maxSize;
+  /**
+   * Behaviors read from the cache, or empty when there is no up-to-date behavior in the cache. Guarded by this store.
+   */
+  @VisibleForTesting
+  final Map<String, Optional<MethodBehavior>> behaviors;
+  /**
+   * Number of behaviors written to the cache, guarded by this store.
+   */
+  private int writtenBehaviors = 0;
+  @Nullable
+  private CacheContext cacheContext;
+  private Predicate<String> unchangedFiles = fileKey -> false;
+
+  public MethodBehaviorStore() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  @VisibleForTesting
+  MethodBehaviorStore(int maxSize) {
+    this.maxSize = maxSize;
+    this.behaviors = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Optional<MethodBehavior>> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * @param unchangedFiles tells whether the file with the given key did not change since the previous analysis
+   */
+  public void setCacheContext(@Nullable CacheContext cacheContext, Predicate<String> unchangedFiles) {
+    this.cacheContext = cacheContext;
+    this.unchangedFiles = unchangedFiles;
+  }
+
+  /**
+   * Writes the behaviors of the given file to the cache, provided that they are complete and that they do not depend on the issues
+   * raised by the checks.
+   */
+  public void addAll(InputFile inputFile, Iterable<MethodBehavior> fileBehaviors) {
+    if (!isCacheEnabled()) {
+      return;
+    }
+    for (MethodBehavior behavior : fileBehaviors) {
+      if (behavior.isComplete() && behavior.exceptionalPathYields().noneMatch(ExceptionalCheckBasedYield.class::isInstance)) {
+        write(new CachedBehavior(inputFile.key(), behavior));
+      }
+    }
+  }
+
+  private synchronized void write(CachedBehavior cachedBehavior) {
+    if (writtenBehaviors >= maxSize) {
+      if (writtenBehaviors == maxSize) {
+        LOG.debug("[SE] Maximum number of {} cached method behaviors reached, the next ones are not cached.", maxSize);
+        writtenBehaviors++;
+      }
+      return;
+    }
+    String signature = cachedBehavior.behavior.signature();
+    byte[] bytes;
+    try {
+      bytes = gson.toJson(cachedBehavior).getBytes(StandardCharsets.UTF_8);
+    } catch (RuntimeException e) {
+      // some yields can not be described without their exploded graph, for instance when the type of the thrown exception is unknown
+      LOG.debug("[SE] Unable to store the behavior of method {}: {}", signature, e.getMessage());
+      return;
+    }
+    String cacheKey = cacheKey(signature);
+    try {
+      cacheContext.getWriteCache().write(cacheKey, bytes);
+      writtenBehaviors++;
+    } catch (IllegalArgumentException e) {
+      LOG.trace("Could not store data to cache key '{}': {}", cacheKey, e.getMessage());
+    }
+  }
+
+  /**
+   * @return the behavior written by the previous analysis, when the file declaring its method did not change since then
+   */
+  @CheckForNull
+  public MethodBehavior get(String signature) {
+    if (!isCacheEnabled()) {
+      return null;
+    }
+    Optional<MethodBehavior> behavior;
+    synchronized (this) {
+      behavior = behaviors.get(signature);
+    }
+    if (behavior == null) {
+      behavior = Optional.ofNullable(readFromCache(signature));
+      synchronized (this) {
+        // another thread may have read it in the meantime, the behavior already kept is shared
+        Optional<MethodBehavior> kept = behaviors.putIfAbsent(signature, behavior);
+        behavior = kept != null ? kept : behavior;
+      }
+    }
+    return behavior.orElse(null);
+  }
+
+  @CheckForNull
+  private MethodBehavior readFromCache(String signature) {
+    byte[] bytes = cacheContext.getReadCache().readBytes(cacheKey(signature));
+    if (bytes == null) {
+      return null;
+    }
+    CachedBehavior cachedBehavior;
+    try {
+      cachedBehavior = gson.fromJson(new String(bytes, StandardCharsets.UTF_8), CachedBehavior.class);
+    } catch (RuntimeException e) {
+      LOG.debug("[SE] Unable to read the cached behavior of method {}: {}", signature, e.getMessage());
+      return null;
+    }
+    if (cachedBehavior == null || cachedBehavior.file == null || cachedBehavior.behavior == null || !unchangedFiles.test(cachedBehavior.file)) {
+      return null;
+    }
+    return cachedBehavior.behavior;
+  }
+
+  private boolean isCacheEnabled() {
+    return cacheContext != null && cacheContext.isCacheEnabled();
+  }
+
+  private static String cacheKey(String signature) {
+    return CACHE_KEY_PREFIX + signature;
+  }
+
+  private static class CachedBehavior {
+    /**
+     * Key of the file declaring the method, which does not depend on the directory the project is analyzed from.
+     */
+    private final String file;
+    private final MethodBehavior behavior;
+
+    private CachedBehavior(String file, MethodBehavior behavior) {
+      this.file = file;
+      this.behavior = behavior;
+    }
+  }
+}
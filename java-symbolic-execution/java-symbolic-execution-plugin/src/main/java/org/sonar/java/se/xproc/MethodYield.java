@@ -174,7 +174,10 @@ public abstract class MethodYield {
     return result.build();
   }
 
-  public Set<Flow> flow(List<Integer> parameterIndices, List<Class<? extends Constraint>> domains, int maxReturnedFlows) {
+  /**
+   * Synchronized, as the yields of a method are shared by all the methods invoking it, which can be explored concurrently.
+   */
+  public synchronized Set<Flow> flow(List<Integer> parameterIndices, List<Class<? extends Constraint>> domains, int maxReturnedFlows) {
     Preconditions.checkArgument(!parameterIndices.isEmpty(), "computing flow on empty symbolic value list should never happen");
     if(node == null || behavior == null) {
       return Collections.emptySet();
@@ -0,0 +1,274 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.xproc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.java.se.checks.DivisionByZeroCheck.ZeroConstraint;
+import org.sonar.java.se.constraint.BooleanConstraint;
+import org.sonar.java.se.constraint.Constraint;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.constraint.ObjectConstraint;
+
+/**
+ * Hardcoded method behaviors, compiled at build time from the JSON resources into a compact binary resource.
+ * <p>
+ * The resource starts with an index of the signatures, followed by the encoded behaviors. Only the index is read when loading
+ * the resource: a behavior is decoded the first time its signature is looked up.
+ * <p>
+ * As for the JSON resources, only the constraints on nullness, booleans and zero are supported.
+ */
+public final class PrecompiledMethodBehaviors extends AbstractMap<String, MethodBehavior> {
+
+  static final String RESOURCE = "hardcoded-behaviors.bin";
+
+  private static final int MAGIC = 0x53454D42;
+  private static final int VERSION = 1;
+  private static final int NULL_CONSTRAINTS = -1;
+  private static final Constraint[] SUPPORTED_CONSTRAINTS = {
+    ObjectConstraint.NULL,
+    ObjectConstraint.NOT_NULL,
+    BooleanConstraint.TRUE,
+    BooleanConstraint.FALSE,
+    ZeroConstraint.ZERO,
+    ZeroConstraint.NON_ZERO
+  };
+  private static final byte HAPPY_PATH_YIELD = 0;
+  private static final byte EXCEPTIONAL_YIELD = 1;
+
+  private final byte[] bytes;
+  private final Map<String, Integer> offsets;
+  private final Map<String, MethodBehavior> decoded = new ConcurrentHashMap<>();
+
+  private PrecompiledMethodBehaviors(byte[] bytes, Map<String, Integer> offsets) {
+    this.bytes = bytes;
+    this.offsets = offsets;
+  }
+
+  /**
+   * Writes the binary resource compiled from the JSON resources, to the path given as single argument. Run at build time.
+   */
+  public static void main(String[] args) throws IOException {
+    Path output = Path.of(args[0]);
+    Map<String, MethodBehavior> behaviors = BehaviorCache.HardcodedMethodBehaviors.loadJsonBehaviors();
+    if (behaviors.isEmpty()) {
+      throw new IllegalStateException("No hardcoded method behaviors to compile.");
+    }
+    Files.createDirectories(output.getParent());
+    Files.write(output, write(behaviors));
+  }
+
+  static byte[] write(Map<String, MethodBehavior> behaviors) throws IOException {
+    Map<String, MethodBehavior> sortedBehaviors = new TreeMap<>(behaviors);
+    ByteArrayOutputStream records = new ByteArrayOutputStream();
+    DataOutputStream recordsOutput = new DataOutputStream(records);
+    Map<String, Integer> offsets = new HashMap<>();
+    for (MethodBehavior behavior : sortedBehaviors.values()) {
+      offsets.put(behavior.signature(), recordsOutput.size());
+      writeBehavior(recordsOutput, behavior);
+    }
+
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    DataOutputStream output = new DataOutputStream(result);
+    output.writeInt(MAGIC);
+    output.writeInt(VERSION);
+    output.writeInt(sortedBehaviors.size());
+    for (String signature : sortedBehaviors.keySet()) {
+      output.writeUTF(signature);
+      output.writeInt(offsets.get(signature));
+    }
+    recordsOutput.flush();
+    records.writeTo(output);
+    output.flush();
+    return result.toByteArray();
+  }
+
+  /**
+   * Only reads the index of the resource, behaviors being decoded on demand.
+   */
+  static PrecompiledMethodBehaviors read(byte[] bytes) throws IOException {
+    ByteArrayInputStream input = new ByteArrayInputStream(bytes);
+    DataInputStream dataInput = new DataInputStream(input);
+    if (dataInput.readInt() != MAGIC || dataInput.readInt() != VERSION) {
+      throw new IOException("Unsupported format of precompiled method behaviors.");
+    }
+    int count = dataInput.readInt();
+    Map<String, Integer> relativeOffsets = new HashMap<>(count * 2);
+    for (int i = 0; i < count; i++) {
+      relativeOffsets.put(dataInput.readUTF(), dataInput.readInt());
+    }
+    int recordsStart = bytes.length - input.available();
+    Map<String, Integer> offsets = relativeOffsets.entrySet().stream()
+      .collect(Collectors.toMap(Map.Entry::getKey, entry -> recordsStart + entry.getValue()));
+    return new PrecompiledMethodBehaviors(bytes, offsets);
+  }
+
+  @CheckForNull
+  @Override
+  public MethodBehavior get(Object signature) {
+    Integer offset = offsets.get(signature);
+    if (offset == null) {
+      return null;
+    }
+    return decoded.computeIfAbsent((String) signature, key -> decode(key, offset));
+  }
+
+  @Override
+  public boolean containsKey(Object signature) {
+    return offsets.containsKey(signature);
+  }
+
+  @Override
+  public int size() {
+    return offsets.size();
+  }
+
+  @Override
+  public Set<Entry<String, MethodBehavior>> entrySet() {
+    return offsets.keySet().stream()
+      .map(signature -> new SimpleImmutableEntry<>(signature, get(signature)))
+      .collect(Collectors.toUnmodifiableSet());
+  }
+
+  private MethodBehavior decode(String signature, int offset) {
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes, offset, bytes.length - offset));
+    try {
+      return readBehavior(input, signature);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeBehavior(DataOutputStream output, MethodBehavior behavior) throws IOException {
+    output.writeBoolean(behavior.isMethodVarArgs());
+    List<String> declaredExceptions = behavior.getDeclaredExceptions();
+    output.writeShort(declaredExceptions.size());
+    for (String declaredException : declaredExceptions) {
+      output.writeUTF(declaredException);
+    }
+    List<MethodYield> yields = behavior.yields();
+    output.writeShort(yields.size());
+    for (MethodYield methodYield : yields) {
+      writeYield(output, methodYield);
+    }
+  }
+
+  private static void writeYield(DataOutputStream output, MethodYield methodYield) throws IOException {
+    if (methodYield instanceof HappyPathYield) {
+      output.writeByte(HAPPY_PATH_YIELD);
+    } else if (methodYield instanceof ExceptionalYield) {
+      output.writeByte(EXCEPTIONAL_YIELD);
+    } else {
+      throw new IllegalStateException("Hardcoded yields should only be HappyPathYield or ExceptionalYield.");
+    }
+    output.writeShort(methodYield.parametersConstraints.size());
+    for (ConstraintsByDomain constraints : methodYield.parametersConstraints) {
+      output.writeByte(constraintsMask(constraints));
+    }
+    if (methodYield instanceof HappyPathYield happyPathYield) {
+      output.writeInt(happyPathYield.resultIndex());
+      output.writeByte(constraintsMask(happyPathYield.resultConstraint()));
+    } else {
+      String exceptionType = ((ExceptionalYield) methodYield).getExceptionType();
+      output.writeBoolean(exceptionType != null);
+      if (exceptionType != null) {
+        output.writeUTF(exceptionType);
+      }
+    }
+  }
+
+  private static MethodBehavior readBehavior(DataInputStream input, String signature) throws IOException {
+    MethodBehavior behavior = new MethodBehavior(signature, input.readBoolean());
+    int declaredExceptionsCount = input.readShort();
+    List<String> declaredExceptions = new ArrayList<>(declaredExceptionsCount);
+    for (int i = 0; i < declaredExceptionsCount; i++) {
+      declaredExceptions.add(input.readUTF());
+    }
+    behavior.setDeclaredExceptions(declaredExceptions);
+    int yieldsCount = input.readShort();
+    for (int i = 0; i < yieldsCount; i++) {
+      behavior.addYield(readYield(input, behavior));
+    }
+    behavior.completed();
+    return behavior;
+  }
+
+  private static MethodYield readYield(DataInputStream input, MethodBehavior behavior) throws IOException {
+    byte kind = input.readByte();
+    int parametersCount = input.readShort();
+    List<ConstraintsByDomain> parametersConstraints = new ArrayList<>(parametersCount);
+    for (int i = 0; i < parametersCount; i++) {
+      parametersConstraints.add(constraintsFromMask(input.readByte()));
+    }
+    MethodYield result;
+    if (kind == HAPPY_PATH_YIELD) {
+      HappyPathYield happyPathYield = new HappyPathYield(behavior);
+      happyPathYield.setResult(input.readInt(), constraintsFromMask(input.readByte()));
+      result = happyPathYield;
+    } else {
+      ExceptionalYield exceptionalYield = new ExceptionalYield(behavior);
+      exceptionalYield.setExceptionType(input.readBoolean() ? input.readUTF() : null);
+      result = exceptionalYield;
+    }
+    result.parametersConstraints.addAll(parametersConstraints);
+    return result;
+  }
+
+  private static int constraintsMask(@Nullable ConstraintsByDomain constraints) {
+    if (constraints == null) {
+      return NULL_CONSTRAINTS;
+    }
+    int mask = 0;
+    for (int i = 0; i < SUPPORTED_CONSTRAINTS.length; i++) {
+      if (constraints.hasConstraint(SUPPORTED_CONSTRAINTS[i])) {
+        mask |= 1 << i;
+      }
+    }
+    return mask;
+  }
+
+  @CheckForNull
+  private static ConstraintsByDomain constraintsFromMask(int mask) {
+    if (mask == NULL_CONSTRAINTS) {
+      return null;
+    }
+    ConstraintsByDomain constraints = ConstraintsByDomain.empty();
+    for (int i = 0; i < SUPPORTED_CONSTRAINTS.length; i++) {
+      if ((mask & (1 << i)) != 0) {
+        constraints = constraints.put(SUPPORTED_CONSTRAINTS[i]);
+      }
+    }
+    return constraints;
+  }
+}
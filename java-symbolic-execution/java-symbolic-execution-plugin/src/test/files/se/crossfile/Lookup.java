@@ -0,0 +1,20 @@
+package crossfile;
+
+class Lookup {
+
+  static Object find(boolean present) {
+    return present ? new Object() : null;
+  }
+
+  static int length(String s) {
+    return Normalizer.trim(s).length();
+  }
+
+  void check() {
+    Validator.requireNonNull(null);
+  }
+
+  private static String name(Object o) {
+    return String.valueOf(o);
+  }
+}
@@ -0,0 +1,16 @@
+package crossfile;
+
+class Normalizer {
+
+  static String trim(String s) {
+    return s == null ? null : s.trim();
+  }
+
+  static String describe() {
+    return Lookup.find(false).toString();
+  }
+
+  static int size(String s) {
+    return trim(s).length();
+  }
+}
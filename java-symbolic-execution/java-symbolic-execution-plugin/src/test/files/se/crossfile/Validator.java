@@ -0,0 +1,19 @@
+package crossfile;
+
+class Validator {
+
+  static void requireNonNull(Object o) {
+    if (o == null) {
+      throw new IllegalArgumentException();
+    }
+  }
+
+  static int validate(String s) {
+    requireNonNull(s);
+    return Lookup.length(s) + Normalizer.trim(s).length();
+  }
+
+  static String describe(boolean present) {
+    return Lookup.find(present).toString();
+  }
+}
@@ -205,10 +205,10 @@ class ExplodedGraphWalkerTest {
 
               if (getNode) {
                 if (firstExceptionalNode == null) {
-                  firstExceptionalNode = workList.peekFirst();
+                  firstExceptionalNode = workList.peek();
                 }
                 assertThat(workList).as("Should have created a new node in the graph for each of the exceptions").hasSize(workListSize + 1);
-                assertThat(workList.peekFirst().programState.peekValue()).as("Exceptional Symbolic Value should stay on the stack").isEqualTo(exceptionSV);
+                assertThat(workList.peek().programState.peekValue()).as("Exceptional Symbolic Value should stay on the stack").isEqualTo(exceptionSV);
                 tested[0]++;
               }
             }
@@ -263,7 +263,7 @@ class ExplodedGraphWalkerTest {
               assertThat(workList).hasSize(workListSize + 1);
               if (shouldEnqueueFalseBranch) {
                 assertThat(programPoints[1]).isNull();
-                programPoints[1] = workList.peekFirst().programPoint;
+                programPoints[1] = workList.peek().programPoint;
               }
             }
           };
@@ -369,6 +369,49 @@ class ExplodedGraphWalkerTest {
       .verifyNoIssues();
   }
 
+  @Test
+  void test_configured_maximum_steps_reached() {
+    ExplorationSettings settings = new ExplorationSettings(100, 0L, WorkListStrategy.BREADTH_FIRST);
+    SECheckVerifier.newVerifier()
+      .onFile("src/test/files/se/MaxSteps.java")
+      .withCheck(new SymbolicExecutionVisitor(Collections.emptyList()) {
+        @Override
+        public void visitMethod(MethodTree methodTree) {
+          ExplodedGraphWalker explodedGraphWalker = new ExplodedGraphWalker(this.behaviorCache, context).withSettings(settings);
+          MethodBehavior methodBehavior = methodBehaviorForSymbol(methodTree.symbol());
+          assertThatThrownBy(() -> explodedGraphWalker.visitMethod(methodTree, methodBehavior))
+            .isInstanceOf(ExplodedGraphWalker.MaximumStepsReachedException.class)
+            .hasMessageStartingWith("reached limit of 100 steps for method");
+          assertThat(explodedGraphWalker.steps).isEqualTo(101);
+        }
+      })
+      .withClassPath(SETestUtils.CLASS_PATH)
+      .verifyNoIssues();
+  }
+
+  @Test
+  void test_time_budget_exceeded() {
+    ExplorationSettings settings = new ExplorationSettings(ExplorationSettings.DEFAULT_MAX_STEPS, 10L, WorkListStrategy.COVERAGE_GUIDED);
+    SECheckVerifier.newVerifier()
+      .onFile("src/test/files/se/MaxSteps.java")
+      .withCheck(new SymbolicExecutionVisitor(Collections.emptyList()) {
+        @Override
+        public void visitMethod(MethodTree methodTree) {
+          ExplodedGraphWalker explodedGraphWalker = new ExplodedGraphWalker(this.behaviorCache, context).withSettings(settings);
+          // every step takes one millisecond
+          long[] time = {0L};
+          explodedGraphWalker.nanoTimeProvider = () -> time[0] += 1_000_000L;
+          MethodBehavior methodBehavior = methodBehaviorForSymbol(methodTree.symbol());
+          assertThatThrownBy(() -> explodedGraphWalker.visitMethod(methodTree, methodBehavior))
+            .isInstanceOf(ExplodedGraphWalker.MaximumStepsReachedException.class)
+            .hasMessageStartingWith("exceeded time budget of 10 ms after 11 steps for method");
+          assertThat(methodBehavior.isComplete()).isFalse();
+        }
+      })
+      .withClassPath(SETestUtils.CLASS_PATH)
+      .verifyNoIssues();
+  }
+
   @Test
   void test_maximum_steps_reached_with_issue() {
     SECheckVerifier.newVerifier()
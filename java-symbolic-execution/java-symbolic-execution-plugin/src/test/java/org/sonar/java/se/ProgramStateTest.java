@@ -238,4 +238,24 @@ class ProgramStateTest {
     assertThat(ps.getConstraint(sv2, constraint.getClass())).isEqualTo(constraint);
   }
 
+  @Test
+  void relation_index_is_maintained_by_derived_states() {
+    SymbolicValue sv1 = new SymbolicValue();
+    SymbolicValue sv2 = new SymbolicValue();
+    RelationalSymbolicValue relation = new RelationalSymbolicValue(RelationalSymbolicValue.Kind.LESS_THAN);
+    SymbolicValueTestUtil.computedFrom(relation, sv1, sv2);
+    ProgramState ps = ProgramState.EMPTY_STATE.stackValue(sv1);
+    assertThat(ps.relationIndex().isEmpty()).isTrue();
+
+    ProgramState withRelation = ps.addConstraint(relation, BooleanConstraint.TRUE);
+    assertThat(withRelation.relationIndex().relationsInvolving(sv1)).containsExactly(relation);
+    assertThat(withRelation.relationIndex().relationsInvolving(sv2)).containsExactly(relation);
+    assertThat(withRelation.addConstraint(relation, ObjectConstraint.NOT_NULL).relationIndex()).isSameAs(withRelation.relationIndex());
+    assertThat(withRelation.unstackValue(1).state.relationIndex()).isSameAs(withRelation.relationIndex());
+
+    ProgramState withoutRelation = withRelation.removeConstraintsOnDomain(relation, BooleanConstraint.class);
+    assertThat(withoutRelation.relationIndex().isEmpty()).isTrue();
+    assertThat(withRelation.relationIndex().contains(relation)).isTrue();
+  }
+
 }
@@ -0,0 +1,98 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkListTest {
+
+  private final ExplodedGraph explodedGraph = new ExplodedGraph();
+
+  @Test
+  void depth_first() {
+    WorkList workList = WorkList.create(WorkListStrategy.DEPTH_FIRST);
+    ExplodedGraph.Node n1 = node(1);
+    ExplodedGraph.Node n2 = node(2);
+    ExplodedGraph.Node n3 = node(3);
+    workList.add(n1);
+    workList.add(n2);
+    workList.add(n3);
+
+    assertThat(workList).hasSize(3);
+    assertThat(workList.peek()).isSameAs(n3);
+    assertThat(workList.remove()).isSameAs(n3);
+    assertThat(workList.remove()).isSameAs(n2);
+    assertThat(workList.remove()).isSameAs(n1);
+    assertThat(workList.poll()).isNull();
+    assertThat(workList).isEmpty();
+  }
+
+  @Test
+  void breadth_first() {
+    WorkList workList = WorkList.create(WorkListStrategy.BREADTH_FIRST);
+    ExplodedGraph.Node n1 = node(1);
+    ExplodedGraph.Node n2 = node(2);
+    ExplodedGraph.Node n3 = node(3);
+    workList.add(n1);
+    workList.add(n2);
+    workList.add(n3);
+
+    assertThat(workList).containsExactly(n1, n2, n3);
+    assertThat(workList.peek()).isSameAs(n1);
+    assertThat(workList.remove()).isSameAs(n1);
+    assertThat(workList.remove()).isSameAs(n2);
+    assertThat(workList.remove()).isSameAs(n3);
+    assertThat(workList).isEmpty();
+  }
+
+  @Test
+  void coverage_guided_prefers_unexplored_blocks() {
+    WorkList workList = WorkList.create(WorkListStrategy.COVERAGE_GUIDED);
+    ExplodedGraph.Node block1 = node(1);
+    workList.add(block1);
+    assertThat(workList.remove()).isSameAs(block1);
+
+    ExplodedGraph.Node block1Again = node(1);
+    ExplodedGraph.Node block2 = node(2);
+    ExplodedGraph.Node block1Twice = node(1);
+    workList.add(block1Again);
+    workList.add(block2);
+    workList.add(block1Twice);
+
+    assertThat(workList).hasSize(3).containsExactly(block2, block1Twice, block1Again);
+    assertThat(workList.peek()).isSameAs(block2);
+    assertThat(workList.remove()).isSameAs(block2);
+    // explored blocks are explored depth first
+    assertThat(workList.peek()).isSameAs(block1Twice);
+    assertThat(workList.remove()).isSameAs(block1Twice);
+    assertThat(workList.remove()).isSameAs(block1Again);
+    assertThat(workList.poll()).isNull();
+    assertThat(workList.peek()).isNull();
+  }
+
+  private ExplodedGraph.Node node(int blockId) {
+    ControlFlowGraph.Block block = mock(ControlFlowGraph.Block.class);
+    when(block.id()).thenReturn(blockId);
+    return explodedGraph.node(new ProgramPoint(block), mock(ProgramState.class));
+  }
+
+}
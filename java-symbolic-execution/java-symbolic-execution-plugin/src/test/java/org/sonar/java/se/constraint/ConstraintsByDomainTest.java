@@ -126,4 +126,14 @@ class ConstraintsByDomainTest {
     assertThat(c.hasConstraint(ObjectConstraint.NULL)).isTrue();
     assertThat(c.hasConstraint(ObjectConstraint.NOT_NULL)).isFalse();
   }
+
+  @Test
+  void equality_does_not_depend_on_the_order_of_the_constraints() {
+    ConstraintsByDomain nullAndTrue = ConstraintsByDomain.empty().put(ObjectConstraint.NULL).put(BooleanConstraint.TRUE);
+    ConstraintsByDomain trueAndNull = ConstraintsByDomain.empty().put(BooleanConstraint.TRUE).put(ObjectConstraint.NULL);
+    assertThat(trueAndNull).isEqualTo(nullAndTrue).hasSameHashCodeAs(nullAndTrue);
+    assertThat(nullAndTrue.remove(BooleanConstraint.class)).isEqualTo(ConstraintsByDomain.empty().put(ObjectConstraint.NULL));
+    assertThat(nullAndTrue.put(ObjectConstraint.NOT_NULL)).isEqualTo(trueAndNull.remove(ObjectConstraint.class).put(ObjectConstraint.NOT_NULL));
+    assertThat(nullAndTrue).isNotEqualTo(nullAndTrue.put(BooleanConstraint.FALSE));
+  }
 }
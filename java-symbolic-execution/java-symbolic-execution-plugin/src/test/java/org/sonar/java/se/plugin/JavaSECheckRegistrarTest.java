@@ -28,12 +28,15 @@ import org.sonar.api.batch.rule.ActiveRules;
 import org.sonar.api.batch.rule.CheckFactory;
 import org.sonar.api.batch.rule.internal.ActiveRulesBuilder;
 import org.sonar.api.batch.rule.internal.NewActiveRule;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.internal.SonarRuntimeImpl;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.server.rule.RulesDefinition;
 import org.sonar.api.utils.Version;
 import org.sonar.check.Rule;
 import org.sonar.java.checks.verifier.TestCheckRegistrarContext;
+import org.sonar.java.se.ExplorationSettings;
+import org.sonar.java.se.WorkListStrategy;
 import org.sonar.java.se.checks.SECheck;
 import org.sonar.plugins.java.api.CheckRegistrar;
 
@@ -66,6 +69,36 @@ class JavaSECheckRegistrarTest {
     assertThat(context.testRuleKeys).isEmpty();
   }
 
+  @Test
+  void exploration_settings() {
+    assertThat(JavaSECheckRegistrar.explorationSettings(null)).isSameAs(ExplorationSettings.DEFAULT);
+
+    MapSettings settings = new MapSettings();
+    ExplorationSettings explorationSettings = JavaSECheckRegistrar.explorationSettings(settings.asConfig());
+    assertThat(explorationSettings.maxSteps()).isEqualTo(ExplorationSettings.DEFAULT_MAX_STEPS);
+    assertThat(explorationSettings.hasTimeBudget()).isFalse();
+    assertThat(explorationSettings.strategy()).isEqualTo(WorkListStrategy.DEPTH_FIRST);
+    assertThat(explorationSettings.isParallel()).isFalse();
+
+    settings.setProperty(JavaSECheckRegistrar.MAX_STEPS_KEY, "2000");
+    settings.setProperty(JavaSECheckRegistrar.TIME_BUDGET_KEY, "500");
+    settings.setProperty(JavaSECheckRegistrar.WORKLIST_STRATEGY_KEY, "coverage_guided");
+    settings.setProperty(JavaSECheckRegistrar.PARALLELISM_KEY, "1000");
+    explorationSettings = JavaSECheckRegistrar.explorationSettings(settings.asConfig());
+    assertThat(explorationSettings.parallelism()).isEqualTo(Runtime.getRuntime().availableProcessors());
+    assertThat(explorationSettings.maxSteps()).isEqualTo(2000);
+    assertThat(explorationSettings.timeBudgetMillis()).isEqualTo(500L);
+    assertThat(explorationSettings.strategy()).isEqualTo(WorkListStrategy.COVERAGE_GUIDED);
+
+    settings.setProperty(JavaSECheckRegistrar.MAX_STEPS_KEY, "-1");
+    settings.setProperty(JavaSECheckRegistrar.WORKLIST_STRATEGY_KEY, "random");
+    settings.setProperty(JavaSECheckRegistrar.PARALLELISM_KEY, "-2");
+    explorationSettings = JavaSECheckRegistrar.explorationSettings(settings.asConfig());
+    assertThat(explorationSettings.parallelism()).isEqualTo(1);
+    assertThat(explorationSettings.maxSteps()).isEqualTo(ExplorationSettings.DEFAULT_MAX_STEPS);
+    assertThat(explorationSettings.strategy()).isEqualTo(WorkListStrategy.DEPTH_FIRST);
+  }
+
   @Test
   void rules_definition() {
     SonarRuntime sonarRuntime = SonarRuntimeImpl.forSonarQube(Version.create(10, 2), SonarQubeSide.SERVER, SonarEdition.ENTERPRISE);
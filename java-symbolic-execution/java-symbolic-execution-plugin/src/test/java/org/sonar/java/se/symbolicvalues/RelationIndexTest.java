@@ -0,0 +1,75 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.symbolicvalues;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.java.se.symbolicvalues.RelationalSymbolicValue.Kind.EQUAL;
+import static org.sonar.java.se.symbolicvalues.RelationalSymbolicValue.Kind.LESS_THAN;
+
+class RelationIndexTest {
+
+  private final SymbolicValue a = new SymbolicValue();
+  private final SymbolicValue b = new SymbolicValue();
+  private final SymbolicValue c = new SymbolicValue();
+
+  @Test
+  void relations_are_indexed_by_operand() {
+    RelationalSymbolicValue ab = new RelationalSymbolicValue(EQUAL, a, b);
+    RelationalSymbolicValue bc = new RelationalSymbolicValue(LESS_THAN, b, c);
+    RelationIndex index = RelationIndex.of(Arrays.asList(ab, bc));
+
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.contains(ab)).isTrue();
+    assertThat(index.relationsInvolving(a)).containsExactly(ab);
+    assertThat(index.relationsInvolving(b)).containsExactlyInAnyOrder(ab, bc);
+    assertThat(index.relationsInvolving(c)).containsExactly(bc);
+    assertThat(index.relationsInvolving(new SymbolicValue())).isEmpty();
+    assertThat(index.toSet()).containsExactlyInAnyOrder(ab, bc);
+  }
+
+  @Test
+  void index_is_persistent() {
+    RelationalSymbolicValue ab = new RelationalSymbolicValue(EQUAL, a, b);
+    RelationIndex empty = RelationIndex.empty();
+    RelationIndex index = empty.add(ab);
+
+    assertThat(empty.isEmpty()).isTrue();
+    assertThat(empty.relationsInvolving(a)).isEmpty();
+    assertThat(index.add(ab)).isSameAs(index);
+    assertThat(index.remove(new RelationalSymbolicValue(LESS_THAN, a, b))).isSameAs(index);
+
+    RelationIndex removed = index.remove(ab);
+    assertThat(removed.isEmpty()).isTrue();
+    assertThat(removed.relationsInvolving(a)).isEmpty();
+    assertThat(removed.relationsInvolving(b)).isEmpty();
+    assertThat(index.contains(ab)).isTrue();
+  }
+
+  @Test
+  void commutative_relation_is_removed_whatever_the_order_of_its_operands() {
+    RelationIndex index = RelationIndex.empty().add(new RelationalSymbolicValue(EQUAL, a, b));
+
+    RelationIndex removed = index.remove(new RelationalSymbolicValue(EQUAL, b, a));
+    assertThat(removed.size()).isZero();
+    assertThat(removed.relationsInvolving(a)).isEmpty();
+    assertThat(removed.relationsInvolving(b)).isEmpty();
+  }
+
+}
@@ -56,12 +56,16 @@ public class SETestUtils {
   }
 
   public static Pair<SymbolicExecutionVisitor, Sema> createSymbolicExecutionVisitorAndSemantic(String fileName, SECheck... checks) {
+    SymbolicExecutionVisitor sev = new SymbolicExecutionVisitor(Arrays.asList(checks));
+    return new Pair<>(sev, scanFile(fileName, sev));
+  }
+
+  public static Sema scanFile(String fileName, SymbolicExecutionVisitor sev) {
     InputFile inputFile = InternalInputFile.inputFile("", new File(fileName));
     JavaTree.CompilationUnitTreeImpl cut = (JavaTree.CompilationUnitTreeImpl) JParserTestUtils.parse(inputFile.file(), CLASS_PATH);
     Sema semanticModel = cut.sema;
-    SymbolicExecutionVisitor sev = new SymbolicExecutionVisitor(Arrays.asList(checks));
     sev.scanFile(new DefaultJavaFileScannerContext(cut, inputFile, semanticModel, null, new JavaVersionImpl(8), true, false));
-    return new Pair<>(sev, semanticModel);
+    return semanticModel;
   }
 
   public static Sema getSemanticModel(String filename) {
@@ -18,30 +18,46 @@ package org.sonar.java.se.xproc;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledForJreRange;
 import org.junit.jupiter.api.condition.JRE;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
 import org.slf4j.event.Level;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.java.AnalysisProgress;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.caching.JavaReadCacheImpl;
+import org.sonar.java.caching.JavaWriteCacheImpl;
 import org.sonar.java.checks.verifier.TestUtils;
+import org.sonar.java.checks.verifier.internal.InternalCacheContext;
 import org.sonar.java.checks.verifier.internal.InternalInputFile;
+import org.sonar.java.checks.verifier.internal.InternalReadCache;
+import org.sonar.java.checks.verifier.internal.InternalWriteCache;
 import org.sonar.java.model.DefaultJavaFileScannerContext;
+import org.sonar.java.model.JParserConfig;
 import org.sonar.java.model.JavaTree.CompilationUnitTreeImpl;
 import org.sonar.java.model.JavaVersionImpl;
 import org.sonar.java.se.CheckerContext;
 import org.sonar.java.se.CheckerDispatcher;
+import org.sonar.java.se.ExplorationSettings;
 import org.sonar.java.se.Pair;
 import org.sonar.java.se.ProgramState;
 import org.sonar.java.se.SECheckVerifier;
 import org.sonar.java.se.SymbolicExecutionVisitor;
+import org.sonar.java.se.WorkListStrategy;
 import org.sonar.java.se.checks.BooleanGratuitousExpressionsCheck;
 import org.sonar.java.se.checks.ConditionalUnreachableCodeCheck;
 import org.sonar.java.se.checks.DivisionByZeroCheck;
@@ -50,20 +66,25 @@ import org.sonar.java.se.checks.SECheck;
 import org.sonar.java.se.utils.JParserTestUtils;
 import org.sonar.java.se.utils.SETestUtils;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.ModuleScannerContext;
+import org.sonar.plugins.java.api.caching.CacheContext;
 import org.sonar.plugins.java.api.semantic.Sema;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.MethodInvocationTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.sonar.java.checks.verifier.TestUtils.mainCodeSourcesPath;
 import static org.sonar.java.se.utils.SETestUtils.createSymbolicExecutionVisitor;
 import static org.sonar.java.se.utils.SETestUtils.createSymbolicExecutionVisitorAndSemantic;
@@ -336,6 +357,155 @@ class BehaviorCacheTest {
     assertThat(testedPost).containsOnly("foo", "bar", "isBlank");
   }
 
+  @Test
+  void concurrent_callers_wait_for_the_behavior_being_computed() throws Exception {
+    BehaviorCache behaviorCache = new BehaviorCache();
+    String signature = "org.foo.A#foo()Z";
+    MethodBehavior methodBehavior = behaviorCache.startExecution(signature, false);
+    assertThat(methodBehavior).isNotNull();
+    assertThat(behaviorCache.startExecution(signature, false)).isNull();
+    assertThat(behaviorCache.peek(signature)).isSameAs(methodBehavior);
+
+    CompletableFuture<MethodBehavior> peeked = CompletableFuture.supplyAsync(() -> behaviorCache.peek(signature));
+    assertThat(peeked.get(5, TimeUnit.SECONDS)).isNull();
+    CompletableFuture<MethodBehavior> awaited = CompletableFuture.supplyAsync(() -> behaviorCache.get(signature));
+    Thread.sleep(100);
+    assertThat(awaited).isNotDone();
+
+    methodBehavior.completed();
+    behaviorCache.endExecution(signature);
+    assertThat(awaited.get(5, TimeUnit.SECONDS)).isSameAs(methodBehavior);
+    assertThat(behaviorCache.startExecution(signature, false)).isNull();
+  }
+
+  @Test
+  void callers_waiting_for_each_other_do_not_wait() throws Exception {
+    BehaviorCache behaviorCache = new BehaviorCache();
+    String first = "org.foo.A#first()V";
+    String second = "org.foo.A#second()V";
+    assertThat(behaviorCache.startExecution(first, false)).isNotNull();
+    CompletableFuture<Boolean> secondStarted = new CompletableFuture<>();
+    Thread thread = new Thread(() -> {
+      secondStarted.complete(behaviorCache.startExecution(second, false) != null);
+      behaviorCache.get(first);
+      behaviorCache.endExecution(second);
+    });
+    thread.start();
+    assertThat(secondStarted.get(5, TimeUnit.SECONDS)).isTrue();
+    while (thread.getState() != Thread.State.WAITING) {
+      Thread.sleep(10);
+    }
+
+    // the execution of "second" waits for the one of "first": waiting for it in turn would never end
+    assertThat(behaviorCache.get(second)).isNull();
+
+    behaviorCache.endExecution(first);
+    thread.join(5_000);
+    assertThat(thread.isAlive()).isFalse();
+  }
+
+  @Test
+  void concurrent_exploration_computes_the_same_behaviors_and_issues() {
+    String fileName = "src/test/files/se/MethodInvocationLeadingToNPE.java";
+    NullDereferenceCheck sequentialCheck = new NullDereferenceCheck();
+    SymbolicExecutionVisitor sequential = new SymbolicExecutionVisitor(List.of(sequentialCheck));
+    SETestUtils.scanFile(fileName, sequential);
+
+    NullDereferenceCheck mainCheck = new NullDereferenceCheck();
+    ExplorationSettings settings = new ExplorationSettings(ExplorationSettings.DEFAULT_MAX_STEPS, 0L, WorkListStrategy.DEPTH_FIRST, 3);
+    SymbolicExecutionVisitor concurrent = new SymbolicExecutionVisitor(List.of(mainCheck), settings,
+      List.of(List.of(new NullDereferenceCheck()), List.of(new NullDereferenceCheck())));
+    SETestUtils.scanFile(fileName, concurrent);
+
+    assertThat(concurrent.behaviorCache.behaviors.keySet()).containsExactlyInAnyOrderElementsOf(sequential.behaviorCache.behaviors.keySet());
+    sequential.behaviorCache.behaviors.forEach((signature, methodBehavior) -> {
+      MethodBehavior concurrentBehavior = concurrent.behaviorCache.behaviors.get(signature);
+      assertThat(concurrentBehavior.isComplete()).isEqualTo(methodBehavior.isComplete());
+      assertThat(concurrentBehavior.yields()).hasSameSizeAs(methodBehavior.yields());
+    });
+    List<Integer> sequentialLines = reportedLines(sequentialCheck);
+    assertThat(reportedLines(mainCheck)).isNotEmpty().containsExactlyInAnyOrderElementsOf(sequentialLines);
+
+    // the pool is shared by the files of an analysis, and created again for the next one
+    SETestUtils.scanFile(fileName, concurrent);
+    assertThat(reportedLines(mainCheck)).containsExactlyInAnyOrderElementsOf(sequentialLines);
+    concurrent.endOfAnalysis(mock(ModuleScannerContext.class));
+    SETestUtils.scanFile(fileName, concurrent);
+    assertThat(reportedLines(mainCheck)).containsExactlyInAnyOrderElementsOf(sequentialLines);
+  }
+
+  @Test
+  void behaviors_of_other_files_are_known_from_the_previous_analysis_whatever_the_order_of_the_files() {
+    List<InputFile> inputFiles = Stream.of("Lookup", "Normalizer", "Validator")
+      .map(name -> InternalInputFile.inputFile("", new File("src/test/files/se/crossfile/" + name + ".java")))
+      .toList();
+    InternalWriteCache firstWriteCache = new InternalWriteCache();
+    NullDereferenceCheck firstCheck = new NullDereferenceCheck();
+    Map<String, List<Integer>> firstIssues = analyze(inputFiles, firstCheck, new SymbolicExecutionVisitor(List.of(firstCheck)),
+      new InternalReadCache(), firstWriteCache);
+
+    // the dereferences of the result of "Lookup.find" are only known to be unsafe once its behavior is cached
+    assertThat(firstIssues).containsOnly(entry("Lookup.java", List.of()), entry("Normalizer.java", List.of(14)), entry("Validator.java", List.of()));
+    assertThat(writtenMethods(firstWriteCache)).contains("Lookup#find", "Lookup#length", "Normalizer#trim", "Validator#requireNonNull")
+      // not invoked from other files
+      .doesNotContain("Lookup#name");
+
+    InternalReadCache readCache = new InternalReadCache().putAll(firstWriteCache);
+    NullDereferenceCheck sequentialCheck = new NullDereferenceCheck();
+    InternalWriteCache sequentialWriteCache = new InternalWriteCache();
+    Map<String, List<Integer>> sequentialIssues = analyze(inputFiles, sequentialCheck, new SymbolicExecutionVisitor(List.of(sequentialCheck)),
+      readCache, sequentialWriteCache);
+    NullDereferenceCheck mainCheck = new NullDereferenceCheck();
+    ExplorationSettings settings = new ExplorationSettings(ExplorationSettings.DEFAULT_MAX_STEPS, 0L, WorkListStrategy.DEPTH_FIRST, 3);
+    SymbolicExecutionVisitor concurrent = new SymbolicExecutionVisitor(List.of(mainCheck), settings,
+      List.of(List.of(new NullDereferenceCheck()), List.of(new NullDereferenceCheck())));
+    List<InputFile> reversedFiles = new ArrayList<>(inputFiles);
+    Collections.reverse(reversedFiles);
+    Map<String, List<Integer>> concurrentIssues = analyze(reversedFiles, mainCheck, concurrent, readCache, new InternalWriteCache());
+
+    assertThat(sequentialIssues).containsOnly(entry("Lookup.java", List.of(10)), entry("Normalizer.java", List.of(10, 14)), entry("Validator.java", List.of(17)));
+    assertThat(concurrentIssues).containsExactlyInAnyOrderEntriesOf(sequentialIssues);
+    // computed from behaviors of other files, which could change without their own file changing
+    assertThat(writtenMethods(sequentialWriteCache)).contains("Lookup#find", "Normalizer#trim")
+      .doesNotContain("Normalizer#describe", "Validator#describe", "Validator#validate");
+  }
+
+  private static Map<String, List<Integer>> analyze(List<InputFile> inputFiles, SECheck check, SymbolicExecutionVisitor sev,
+    InternalReadCache readCache, InternalWriteCache writeCache) {
+    CacheContext cacheContext = new InternalCacheContext(true, new JavaReadCacheImpl(readCache), new JavaWriteCacheImpl(writeCache));
+    // none of the files changes between the analyses
+    SonarComponents sonarComponents = mock(SonarComponents.class);
+    when(sonarComponents.isUnchangedFile(anyString())).thenReturn(true);
+    Map<String, List<Integer>> issues = new LinkedHashMap<>();
+    // parsed as a batch, so that the invocations of the methods of the other files are resolved
+    JParserConfig.Mode.BATCH.create(JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION, SETestUtils.CLASS_PATH)
+      .parse(inputFiles, () -> false, new AnalysisProgress(inputFiles.size()), (inputFile, result) -> {
+        CompilationUnitTreeImpl cut;
+        try {
+          cut = result.get();
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+        sev.scanFile(new DefaultJavaFileScannerContext(cut, inputFile, cut.sema, sonarComponents, new JavaVersionImpl(8), true, false, cacheContext));
+        issues.put(inputFile.filename(), reportedLines(check).stream().sorted().toList());
+      });
+    return issues;
+  }
+
+  private static List<String> writtenMethods(InternalWriteCache writeCache) {
+    return writeCache.getData().keySet().stream()
+      .map(key -> key.substring("java:se:behavior:crossfile.".length(), key.indexOf('(')))
+      .toList();
+  }
+
+  private static List<Integer> reportedLines(SECheck check) {
+    JavaFileScannerContext context = mock(JavaFileScannerContext.class);
+    check.scanFile(context);
+    ArgumentCaptor<Tree> trees = ArgumentCaptor.forClass(Tree.class);
+    verify(context, atLeast(0)).reportIssueWithFlow(eq(check), trees.capture(), anyString(), anySet(), nullable(Integer.class));
+    return trees.getAllValues().stream().map(tree -> tree.firstToken().range().start().line()).toList();
+  }
+
   @Test
   void log_when_unable_to_load_resources_with_method_behavior() {
     Map<String, MethodBehavior> result = BehaviorCache.HardcodedMethodBehaviors
@@ -199,6 +199,21 @@ class MethodBehaviorJsonAdapterTest {
     assertThat(deserialized).isEqualTo(customBehavior);
   }
 
+  @Test
+  void deserialization_serialization_of_unknown_exception_type() {
+    MethodBehavior customBehavior = newMethodBehavior("org.bar.A#foo(Ljava/lang/Object;)Z");
+    ExceptionalYield ey = new ExceptionalYield(customBehavior);
+    ey.parametersConstraints.add(ConstraintsByDomain.empty());
+    customBehavior.addYield(ey);
+    customBehavior.completed();
+
+    String serialized = gson.toJson(customBehavior);
+    assertThat(serialized).contains("\"exception\": null");
+    MethodBehavior deserialized = gson.fromJson(serialized, MethodBehavior.class);
+    assertThat(deserialized).isEqualTo(customBehavior);
+    assertThat(((ExceptionalYield) deserialized.yields().get(0)).getExceptionType()).isNull();
+  }
+
   @Test
   void deserialization() {
     MethodBehavior isInstancePrecomputed = cache.get(IS_INSTANCE_SIGNATURE);
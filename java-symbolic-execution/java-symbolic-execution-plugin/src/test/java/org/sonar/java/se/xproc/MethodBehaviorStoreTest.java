@@ -0,0 +1,179 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.xproc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.java.caching.JavaReadCacheImpl;
+import org.sonar.java.caching.JavaWriteCacheImpl;
+import org.sonar.java.checks.verifier.internal.InternalCacheContext;
+import org.sonar.java.checks.verifier.internal.InternalReadCache;
+import org.sonar.java.checks.verifier.internal.InternalWriteCache;
+import org.sonar.java.se.checks.NullDereferenceCheck;
+import org.sonar.java.se.constraint.BooleanConstraint;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.constraint.ObjectConstraint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MethodBehaviorStoreTest {
+
+  private static final String SIGNATURE = "org.foo.A#isValid(Ljava/lang/Object;)Z";
+
+  @Test
+  void behaviors_are_read_back_by_the_next_analysis_while_their_file_does_not_change() {
+    InputFile inputFile = inputFile();
+    InternalWriteCache writeCache = new InternalWriteCache();
+    MethodBehaviorStore store = store(new InternalReadCache(), writeCache, Set.of(inputFile.key()));
+    MethodBehavior behavior = completeBehavior(SIGNATURE);
+    store.addAll(inputFile, List.of(behavior));
+    // behaviors computed again from another file are only written once
+    store.addAll(inputFile, List.of(behavior));
+
+    assertThat(writeCache.getData()).containsOnlyKeys("java:se:behavior:" + SIGNATURE);
+    assertThat(new String(writeCache.getData().get("java:se:behavior:" + SIGNATURE), StandardCharsets.UTF_8))
+      .contains("\"file\": \"module:src/main/java/org/foo/A.java\"");
+    // never read back by the analysis computing them, whose issues would depend on the order of the files
+    assertThat(store.get(SIGNATURE)).isNull();
+
+    InternalReadCache readCache = new InternalReadCache().putAll(writeCache);
+    MethodBehaviorStore nextStore = store(readCache, new InternalWriteCache(), Set.of(inputFile.key()));
+    MethodBehavior read = nextStore.get(SIGNATURE);
+    assertThat(read)
+      .isNotSameAs(behavior)
+      .isEqualTo(behavior)
+      .isSameAs(nextStore.get(SIGNATURE));
+    assertThat(read.yields()).allSatisfy(yield -> assertThat(yield.node).isNull());
+
+    // the file changed, or is not part of the analysis anymore
+    assertThat(store(readCache, new InternalWriteCache(), Set.of()).get(SIGNATURE)).isNull();
+  }
+
+  @Test
+  void does_not_store_incomplete_or_check_based_behaviors() {
+    InternalWriteCache writeCache = new InternalWriteCache();
+    MethodBehaviorStore store = store(new InternalReadCache(), writeCache, Set.of());
+
+    MethodBehavior checkBased = new MethodBehavior("org.foo.A#check(Ljava/lang/Object;)V", false);
+    ExceptionalCheckBasedYield yield = new ExceptionalCheckBasedYield(null, "java.lang.NullPointerException", NullDereferenceCheck.class, null, checkBased);
+    yield.parametersConstraints.add(ConstraintsByDomain.empty().put(ObjectConstraint.NULL));
+    checkBased.addYield(yield);
+    checkBased.completed();
+    store.addAll(inputFile(), List.of(new MethodBehavior(SIGNATURE, false), checkBased));
+
+    assertThat(writeCache.getData()).isEmpty();
+  }
+
+  @Test
+  void does_nothing_without_cache() {
+    MethodBehaviorStore store = new MethodBehaviorStore();
+    store.addAll(inputFile(), List.of(completeBehavior(SIGNATURE)));
+    assertThat(store.get(SIGNATURE)).isNull();
+
+    store.setCacheContext(new InternalCacheContext(false, null, null), fileKey -> true);
+    store.addAll(inputFile(), List.of(completeBehavior(SIGNATURE)));
+    assertThat(store.get(SIGNATURE)).isNull();
+    assertThat(store.behaviors).isEmpty();
+  }
+
+  @Test
+  void the_number_of_written_and_kept_behaviors_is_bounded() {
+    InputFile inputFile = inputFile();
+    InternalWriteCache writeCache = new InternalWriteCache();
+    MethodBehaviorStore store = new MethodBehaviorStore(2);
+    store.setCacheContext(new InternalCacheContext(true, new JavaReadCacheImpl(new InternalReadCache()), new JavaWriteCacheImpl(writeCache)), fileKey -> true);
+    store.addAll(inputFile, List.of(
+      completeBehavior("org.foo.A#a(Ljava/lang/Object;)Z"),
+      completeBehavior("org.foo.A#b(Ljava/lang/Object;)Z"),
+      completeBehavior("org.foo.A#c(Ljava/lang/Object;)Z")));
+
+    assertThat(writeCache.getData()).containsOnlyKeys("java:se:behavior:org.foo.A#a(Ljava/lang/Object;)Z", "java:se:behavior:org.foo.A#b(Ljava/lang/Object;)Z");
+
+    InternalReadCache readCache = new InternalReadCache().putAll(writeCache);
+    MethodBehaviorStore nextStore = new MethodBehaviorStore(2);
+    nextStore.setCacheContext(new InternalCacheContext(true, new JavaReadCacheImpl(readCache), new JavaWriteCacheImpl(new InternalWriteCache())), fileKey -> true);
+    nextStore.get("org.foo.A#a(Ljava/lang/Object;)Z");
+    nextStore.get("org.foo.A#b(Ljava/lang/Object;)Z");
+    nextStore.get("org.foo.A#a(Ljava/lang/Object;)Z");
+    nextStore.get("org.foo.A#c(Ljava/lang/Object;)Z");
+
+    assertThat(nextStore.behaviors).containsOnlyKeys("org.foo.A#a(Ljava/lang/Object;)Z", "org.foo.A#c(Ljava/lang/Object;)Z");
+  }
+
+  @Test
+  void corrupted_or_unknown_cache_entries_are_ignored() {
+    InternalReadCache readCache = new InternalReadCache();
+    readCache.put("java:se:behavior:org.foo.A#corrupted()Z", "{".getBytes(StandardCharsets.UTF_8));
+    readCache.put("java:se:behavior:org.foo.A#noFile()Z", "{}".getBytes(StandardCharsets.UTF_8));
+    MethodBehaviorStore store = store(readCache, new InternalWriteCache(), Set.of());
+
+    assertThat(store.get("org.foo.A#corrupted()Z")).isNull();
+    assertThat(store.get("org.foo.A#noFile()Z")).isNull();
+    assertThat(store.get("org.foo.A#unknown()Z")).isNull();
+  }
+
+  @Test
+  void behavior_cache_falls_back_on_behaviors_of_other_files_from_the_previous_analysis() {
+    InternalWriteCache writeCache = new InternalWriteCache();
+    BehaviorCache behaviorCache = new BehaviorCache(new MethodBehaviorStore());
+    behaviorCache.setFileContext(null);
+    behaviorCache.setCacheContext(new InternalCacheContext(true, new JavaReadCacheImpl(new InternalReadCache()), new JavaWriteCacheImpl(writeCache)), fileKey -> true);
+    MethodBehavior behavior = completeBehavior(SIGNATURE);
+    behaviorCache.behaviors.put(SIGNATURE, behavior);
+    behaviorCache.storeFileBehaviors(inputFile());
+    behaviorCache.cleanup();
+    assertThat(behaviorCache.behaviors).isEmpty();
+
+    BehaviorCache nextBehaviorCache = new BehaviorCache(new MethodBehaviorStore());
+    nextBehaviorCache.setFileContext(null);
+    nextBehaviorCache.setCacheContext(new InternalCacheContext(true, new JavaReadCacheImpl(new InternalReadCache().putAll(writeCache)),
+      new JavaWriteCacheImpl(new InternalWriteCache())), fileKey -> true);
+    assertThat(nextBehaviorCache.get(SIGNATURE)).isEqualTo(behavior);
+    assertThat(nextBehaviorCache.peek(SIGNATURE)).isEqualTo(behavior);
+    // hardcoded behaviors are still known
+    assertThat(nextBehaviorCache.peek("java.lang.Class#isInstance(Ljava/lang/Object;)Z")).isNotNull();
+  }
+
+  private static InputFile inputFile() {
+    return new TestInputFileBuilder("module", "src/main/java/org/foo/A.java").build();
+  }
+
+  private static MethodBehaviorStore store(InternalReadCache readCache, InternalWriteCache writeCache, Set<String> unchangedFiles) {
+    MethodBehaviorStore store = new MethodBehaviorStore();
+    store.setCacheContext(new InternalCacheContext(true, new JavaReadCacheImpl(readCache), new JavaWriteCacheImpl(writeCache)), unchangedFiles::contains);
+    return store;
+  }
+
+  private static MethodBehavior completeBehavior(String signature) {
+    MethodBehavior behavior = new MethodBehavior(signature, false);
+    HappyPathYield notNull = new HappyPathYield(behavior);
+    notNull.parametersConstraints.add(ConstraintsByDomain.empty().put(ObjectConstraint.NOT_NULL));
+    notNull.setResult(-1, ConstraintsByDomain.empty().put(BooleanConstraint.TRUE));
+    behavior.addYield(notNull);
+    HappyPathYield anyValue = new HappyPathYield(behavior);
+    anyValue.parametersConstraints.add(ConstraintsByDomain.empty());
+    anyValue.setResult(-1, ConstraintsByDomain.empty().put(BooleanConstraint.FALSE));
+    behavior.addYield(anyValue);
+    behavior.completed();
+    return behavior;
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.xproc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.java.se.ProgramState;
+import org.sonar.java.se.checks.DivisionByZeroCheck.ZeroConstraint;
+import org.sonar.java.se.constraint.BooleanConstraint;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.constraint.ObjectConstraint;
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
+import org.sonar.plugins.java.api.semantic.Type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PrecompiledMethodBehaviorsTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void precompiled_behaviors_are_the_json_ones() throws IOException {
+    Map<String, MethodBehavior> jsonBehaviors = BehaviorCache.HardcodedMethodBehaviors.loadJsonBehaviors();
+    Path output = tempDir.resolve("org/sonar/java/se/xproc/" + PrecompiledMethodBehaviors.RESOURCE);
+
+    PrecompiledMethodBehaviors.main(new String[] {output.toString()});
+    PrecompiledMethodBehaviors precompiled = PrecompiledMethodBehaviors.read(Files.readAllBytes(output));
+
+    assertThat(precompiled)
+      .hasSize(jsonBehaviors.size())
+      .containsOnlyKeys(jsonBehaviors.keySet());
+    jsonBehaviors.forEach((signature, behavior) -> assertThat(precompiled.get(signature)).isEqualTo(behavior));
+    assertThat(precompiled).isEqualTo(jsonBehaviors);
+    assertThat(Files.size(output)).isLessThan(jsonBehaviors.size() * 1000L);
+  }
+
+  @Test
+  void behaviors_are_decoded_once_on_demand() throws IOException {
+    MethodBehavior behavior = new MethodBehavior("org.foo.A#divide(ILjava/lang/Object;)I", false);
+    behavior.setDeclaredExceptions(List.of("java.io.IOException"));
+    HappyPathYield happyPathYield = new HappyPathYield(behavior);
+    happyPathYield.parametersConstraints.add(ConstraintsByDomain.empty().put(ZeroConstraint.NON_ZERO));
+    happyPathYield.parametersConstraints.add(null);
+    happyPathYield.setResult(-1, ConstraintsByDomain.empty().put(ObjectConstraint.NOT_NULL).put(BooleanConstraint.FALSE));
+    behavior.addYield(happyPathYield);
+    ExceptionalYield exceptionalYield = new ExceptionalYield(behavior);
+    exceptionalYield.parametersConstraints.add(ConstraintsByDomain.empty().put(ZeroConstraint.ZERO));
+    exceptionalYield.parametersConstraints.add(ConstraintsByDomain.empty());
+    exceptionalYield.setExceptionType("java.lang.ArithmeticException");
+    behavior.addYield(exceptionalYield);
+    ExceptionalYield unknownExceptionYield = new ExceptionalYield(behavior);
+    unknownExceptionYield.parametersConstraints.add(ConstraintsByDomain.empty());
+    unknownExceptionYield.parametersConstraints.add(ConstraintsByDomain.empty().put(ObjectConstraint.NULL));
+    behavior.addYield(unknownExceptionYield);
+    behavior.completed();
+
+    PrecompiledMethodBehaviors precompiled = PrecompiledMethodBehaviors.read(PrecompiledMethodBehaviors.write(Map.of(behavior.signature(), behavior)));
+
+    assertThat(precompiled.containsKey(behavior.signature())).isTrue();
+    assertThat(precompiled.get("org.foo.A#unknown()V")).isNull();
+    MethodBehavior decoded = precompiled.get(behavior.signature());
+    assertThat(decoded).isEqualTo(behavior);
+    assertThat(precompiled.get(behavior.signature())).isSameAs(decoded);
+  }
+
+  @Test
+  void unsupported_yields_are_not_compiled() {
+    MethodBehavior behavior = new MethodBehavior("org.foo.A#foo()V", false);
+    behavior.addYield(new CustomMethodYield(behavior));
+    behavior.completed();
+    Map<String, MethodBehavior> behaviors = Map.of(behavior.signature(), behavior);
+
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> PrecompiledMethodBehaviors.write(behaviors));
+    assertThat(e).hasMessage("Hardcoded yields should only be HappyPathYield or ExceptionalYield.");
+  }
+
+  private static class CustomMethodYield extends MethodYield {
+    CustomMethodYield(MethodBehavior behavior) {
+      super(behavior);
+    }
+
+    @Override
+    public String toString() {
+      return "CustomMethodYield";
+    }
+
+    @Override
+    public Stream<ProgramState> statesAfterInvocation(List<SymbolicValue> invocationArguments, List<Type> invocationTypes, ProgramState programState,
+      Supplier<SymbolicValue> svSupplier) {
+      return Stream.of(programState);
+    }
+  }
+
+  @Test
+  void invalid_resource_is_rejected() {
+    assertThrows(IOException.class, () -> PrecompiledMethodBehaviors.read(new byte[] {0, 0, 0, 0, 0, 0, 0, 1}));
+  }
+
+}
@@ -58,8 +58,6 @@ public class JavaSensor implements Sensor {
 
   private static final Logger LOG = LoggerFactory.getLogger(JavaSensor.class);
 
-  private static final String PERFORMANCE_MEASURE_ACTIVATION_PROPERTY = "sonar.java.performance.measure";
-  private static final String PERFORMANCE_MEASURE_FILE_PATH_PROPERTY = "sonar.java.performance.measure.path";
   private static final String PERFORMANCE_MEASURE_DESTINATION_FILE = "sonar.java.performance.measure.json";
 
   private final SonarComponents sonarComponents;
@@ -134,8 +132,8 @@ public class JavaSensor implements Sensor {
 
   private static PerformanceMeasure.Duration createPerformanceMeasureReport(SensorContext context) {
     return PerformanceMeasure.reportBuilder()
-      .activate(context.config().get(PERFORMANCE_MEASURE_ACTIVATION_PROPERTY).filter("true"::equals).isPresent())
-      .toFile(context.config().get(PERFORMANCE_MEASURE_FILE_PATH_PROPERTY)
+      .activate(context.config().get(SonarComponents.PERFORMANCE_MEASURE_ACTIVATION_KEY).filter("true"::equals).isPresent())
+      .toFile(context.config().get(SonarComponents.PERFORMANCE_MEASURE_FILE_PATH_PROPERTY)
         .filter(path -> !path.isEmpty())
         .orElseGet(() -> Optional.ofNullable(context.fileSystem().workDir())
           .filter(File::exists)